@@ -64,7 +64,9 @@ export const timelineEventSubdoc = {
   target: { type: String },
   amount: { type: Number },
   team: { type: String },
+  resource: { type: String },
   timestamp: { type: Number, required: true },
+  end_timestamp: { type: Number },
 };
 
 export const gameBaseFields = {
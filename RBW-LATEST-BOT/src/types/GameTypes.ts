@@ -55,7 +55,9 @@ export interface GameResult {
     target?: string;
     amount?: number;
     team?: string;
+    resource?: string;
     timestamp: number;
+    end_timestamp?: number;
   }>;
   reason?: string;
 }
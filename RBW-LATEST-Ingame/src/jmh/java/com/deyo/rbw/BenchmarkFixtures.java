@@ -0,0 +1,96 @@
+package com.deyo.rbw;
+
+import com.deyo.rbw.models.Game;
+import com.deyo.rbw.models.GameInstance;
+import de.marcely.bedwars.api.arena.Arena;
+import de.marcely.bedwars.api.arena.Team;
+import org.bukkit.entity.Player;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared game fixtures for the JMH benchmarks. Arenas and players are Mockito
+ * mocks, the same way the unit tests build them.
+ */
+public final class BenchmarkFixtures {
+
+    public static final String[] RED = {"RedOne", "RedTwo", "RedThree", "RedFour"};
+    public static final String[] BLUE = {"BlueOne", "BlueTwo", "BlueThree", "BlueFour"};
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Player player(String name) {
+        Player player = Mockito.mock(Player.class);
+        Mockito.when(player.getName()).thenReturn(name);
+        return player;
+    }
+
+    public static Team team(String name) {
+        Team team = Mockito.mock(Team.class);
+        Mockito.when(team.getDisplayName()).thenReturn(name);
+        return team;
+    }
+
+    /**
+     * A 4v4 arena with RED on team "Red" and BLUE on team "Blue".
+     */
+    public static Arena fourVsFourArena(Team red, Team blue) {
+        Arena arena = Mockito.mock(Arena.class);
+        Mockito.when(arena.getName()).thenReturn("rbwbench");
+        Mockito.when(arena.getDisplayName()).thenReturn("Bench");
+        List<Player> players = new ArrayList<>();
+        for (String name : RED) {
+            Player player = player(name);
+            Mockito.when(arena.getPlayerTeam(player)).thenReturn(red);
+            players.add(player);
+        }
+        for (String name : BLUE) {
+            Player player = player(name);
+            Mockito.when(arena.getPlayerTeam(player)).thenReturn(blue);
+            players.add(player);
+        }
+        Mockito.when(arena.getPlayers()).thenReturn(players);
+        return arena;
+    }
+
+    /**
+     * Plays a 4v4 game until its timeline holds the given number of events and
+     * ends it with Red winning. The event mix is weighted like a real game:
+     * mostly block placements and resource pickups, some kills and deaths.
+     */
+    public static Game finishedGame(int timelineEvents) {
+        Team red = team("Red");
+        Team blue = team("Blue");
+        // No coalescing, so the timeline really holds timelineEvents events
+        GameInstance instance = new GameInstance("4242", fourVsFourArena(red, blue), true, 0);
+        int i = 0;
+        while (instance.getGame().getTimeline().size() < timelineEvents - 1) {
+            String player = (i % 2 == 0 ? RED : BLUE)[i % 4];
+            String other = (i % 2 == 0 ? BLUE : RED)[(i + 1) % 4];
+            switch (i % 10) {
+                case 0:
+                    instance.recordKill(player, other, false);
+                    break;
+                case 1:
+                    instance.recordDeath(player);
+                    break;
+                case 2:
+                case 3:
+                    instance.recordResourceCollection(player, GameInstance.ResourceType.IRON, 16);
+                    break;
+                case 4:
+                    instance.recordResourceCollection(player, GameInstance.ResourceType.GOLD, 4);
+                    break;
+                default:
+                    instance.recordBlocksPlaced(player, 1);
+                    break;
+            }
+            i++;
+        }
+        instance.recordGameEnd(red);
+        return instance.toGame();
+    }
+}
@@ -0,0 +1,77 @@
+package com.deyo.rbw.managers;
+
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing cost of the bot messages handleIncomingMessage sees most often.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IncomingMessageBenchmark {
+
+    @Param({"warp_players", "queuestatus", "ping", "scoringsuccess", "botban"})
+    public String type;
+
+    private String message;
+
+    @Setup
+    public void setup() {
+        switch (type) {
+            case "warp_players":
+                message = "{\"type\":\"warp_players\",\"game_id\":\"4242\",\"map\":\"rbwLighthouse\",\"is_ranked\":true,"
+                        + "\"team1\":{\"players\":[\"RedOne\",\"RedTwo\",\"RedThree\",\"RedFour\"]},"
+                        + "\"team2\":{\"players\":[\"BlueOne\",\"BlueTwo\",\"BlueThree\",\"BlueFour\"]}}";
+                break;
+            case "queuestatus":
+                StringBuilder queues = new StringBuilder("{\"type\":\"queuestatus\",\"queues\":{");
+                for (int q = 0; q < 4; q++) {
+                    if (q > 0) {
+                        queues.append(',');
+                    }
+                    queues.append('"').append("queue").append(q).append("\":{\"players\":[");
+                    for (int p = 0; p < 6; p++) {
+                        if (p > 0) {
+                            queues.append(',');
+                        }
+                        queues.append("\"Player").append(q).append('_').append(p).append('"');
+                    }
+                    queues.append("],\"minElo\":").append(q * 200).append(",\"maxElo\":").append(q * 200 + 199)
+                            .append(",\"currentPlayers\":6,\"maxPlayers\":8,\"isRanked\":true,\"isPicking\":false}");
+                }
+                message = queues.append("}}").toString();
+                break;
+            case "ping":
+                message = "{\"type\":\"ping\",\"timestamp\":1760000000000}";
+                break;
+            case "scoringsuccess":
+                message = "{\"type\":\"scoringsuccess\",\"gameid\":4242,\"players\":[\"RedOne\",\"RedTwo\",\"RedThree\","
+                        + "\"RedFour\",\"BlueOne\",\"BlueTwo\",\"BlueThree\",\"BlueFour\"]}";
+                break;
+            default:
+                message = "{\"type\":\"botban\",\"ign\":\"BlueFour\",\"reason\":\"Cheating\",\"duration\":7,\"id\":\"ban-77\"}";
+                break;
+        }
+    }
+
+    @Benchmark
+    public JsonObject parse() {
+        return WebSocketManager.parseIncomingMessage(message);
+    }
+}
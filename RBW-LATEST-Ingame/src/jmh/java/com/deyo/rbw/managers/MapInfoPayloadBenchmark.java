@@ -0,0 +1,74 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.RankedBedwars;
+import com.google.gson.JsonObject;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Cost of building the maps_info payload for 100 arena groups, each with a
+ * ranked and a practice variant, with a mix of free, locked and disabled groups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapInfoPayloadBenchmark {
+
+    private MapManager mapManager;
+
+    @Setup
+    public void setup() {
+        // The payload reads player counts from Bukkit; lock/disable push maps_info
+        // through the scheduler, which the mock swallows
+        Server server = Mockito.mock(Server.class);
+        Mockito.when(server.getScheduler()).thenReturn(Mockito.mock(BukkitScheduler.class));
+        Mockito.when(server.getLogger()).thenReturn(Logger.getLogger("MapInfoPayloadBenchmark"));
+        Mockito.when(server.getMaxPlayers()).thenReturn(200);
+        if (Bukkit.getServer() == null) {
+            Bukkit.setServer(server);
+        }
+        RankedBedwars plugin = Mockito.mock(RankedBedwars.class);
+        Mockito.when(plugin.getConfig()).thenReturn(Mockito.mock(FileConfiguration.class));
+        mapManager = new MapManager(plugin);
+        for (int i = 0; i < 100; i++) {
+            String groupId = "Map" + i;
+            mapManager.addMap("rbw" + groupId, groupId, 8, Arrays.asList("Red", "Blue"));
+            mapManager.addMap("prbw" + groupId, groupId, 8, Arrays.asList("Red", "Blue"));
+            if (i % 10 == 0) {
+                mapManager.disableArenaGroup(groupId);
+            } else if (i % 3 == 0) {
+                mapManager.acquireLease("rbw" + groupId, "bench" + i);
+            }
+        }
+    }
+
+    @Benchmark
+    public JsonObject buildPayload() {
+        return mapManager.buildMapInfoPayload();
+    }
+
+    @Benchmark
+    public String buildAndSerializePayload() {
+        return mapManager.buildMapInfoPayload().toString();
+    }
+}
@@ -0,0 +1,72 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.BenchmarkFixtures;
+import com.deyo.rbw.models.Game;
+import com.deyo.rbw.utils.CborWriter;
+import com.deyo.rbw.utils.DeflateExtension;
+import com.deyo.rbw.utils.PooledUtf8Writer;
+import org.java_websocket.framing.TextFrame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU against bytes on the wire for the scoring payload of a 4v4 game with
+ * 5,000 timeline events: JSON or CBOR, uncompressed (level 0) or deflated.
+ * The size on the wire for each combination is printed once during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadEncodingBenchmark {
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"0", "1", "6", "9"})
+    public int level;
+
+    private Game game;
+    private DeflateExtension deflate;
+
+    @Setup
+    public void setup() throws IOException {
+        game = BenchmarkFixtures.finishedGame(5_000);
+        deflate = level > 0 ? new DeflateExtension(0, level) : null;
+        System.out.println("wire size (" + format + ", level " + level + "): " + encodeScoring() + " bytes");
+    }
+
+    @Benchmark
+    public int encodeScoring() throws IOException {
+        try (PooledUtf8Writer payload = PooledUtf8Writer.acquire()) {
+            if ("cbor".equals(format)) {
+                ScoringEncoder.write(game, new CborWriter(payload.asOutputStream()));
+            } else {
+                ScoringEncoder.write(game, payload);
+            }
+            int size = payload.size();
+            if (deflate != null) {
+                TextFrame frame = new TextFrame();
+                frame.setPayload(payload.toByteBuffer());
+                frame.setFin(true);
+                deflate.encodeFrame(frame);
+                size = frame.getPayloadData().remaining();
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.BenchmarkFixtures;
+import com.deyo.rbw.models.Game;
+import com.deyo.rbw.utils.PooledUtf8Writer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building and serializing the scoring message for a 4v4 game
+ * with 5,000 timeline events: the JsonObject tree against the streaming
+ * encoder sendGameScoring uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoringPayloadBenchmark {
+
+    private Game game;
+
+    @Setup
+    public void setup() {
+        game = BenchmarkFixtures.finishedGame(5_000);
+    }
+
+    @Benchmark
+    public String buildScoringPayload() {
+        return WebSocketManager.buildScoringJson(game).toString();
+    }
+
+    @Benchmark
+    public int streamScoringPayload() throws IOException {
+        try (PooledUtf8Writer writer = PooledUtf8Writer.acquire()) {
+            ScoringEncoder.write(game, writer);
+            return writer.size();
+        }
+    }
+}
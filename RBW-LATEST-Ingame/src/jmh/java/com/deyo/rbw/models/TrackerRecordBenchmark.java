@@ -0,0 +1,83 @@
+package com.deyo.rbw.models;
+
+import com.deyo.rbw.BenchmarkFixtures;
+import de.marcely.bedwars.api.arena.Arena;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the GameInstance record* methods the listeners hit on every
+ * block place, pickup and kill. Each invocation records a batch into a fresh
+ * tracker so the timeline does not grow without bound across iterations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrackerRecordBenchmark {
+
+    private static final int BATCH = 1_000;
+
+    private Arena arena;
+    private GameInstance tracker;
+
+    @Setup(Level.Trial)
+    public void setupArena() {
+        arena = BenchmarkFixtures.fourVsFourArena(BenchmarkFixtures.team("Red"), BenchmarkFixtures.team("Blue"));
+    }
+
+    @Setup(Level.Invocation)
+    public void freshTracker() {
+        tracker = new GameInstance("4242", arena, true);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public GameInstance recordBlocksPlaced() {
+        for (int i = 0; i < BATCH; i++) {
+            tracker.recordBlocksPlaced(BenchmarkFixtures.RED[i & 3], 1);
+        }
+        return tracker;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public GameInstance recordResourceCollection() {
+        for (int i = 0; i < BATCH; i++) {
+            tracker.recordResourceCollection(BenchmarkFixtures.BLUE[i & 3], GameInstance.ResourceType.IRON, 16);
+        }
+        return tracker;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public GameInstance recordKill() {
+        for (int i = 0; i < BATCH; i++) {
+            tracker.recordKill(BenchmarkFixtures.RED[i & 3], BenchmarkFixtures.BLUE[i & 3], false);
+        }
+        return tracker;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public GameInstance recordDeath() {
+        for (int i = 0; i < BATCH; i++) {
+            tracker.recordDeath(BenchmarkFixtures.BLUE[i & 3]);
+        }
+        return tracker;
+    }
+}
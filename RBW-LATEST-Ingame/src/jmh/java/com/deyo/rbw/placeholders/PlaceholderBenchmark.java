@@ -0,0 +1,86 @@
+package com.deyo.rbw.placeholders;
+
+import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.models.LeaderboardEntry;
+import com.deyo.rbw.models.UserData;
+import com.deyo.rbw.utils.APIClient;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Placeholder resolution through RankedBedwarsExpansion.onRequest. A warm cache
+ * answers from memory; a cold cache takes the miss path and schedules a fetch
+ * (the API client is stubbed to return nothing, so the cache stays cold).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaceholderBenchmark {
+
+    @Param({"warm", "cold"})
+    public String cache;
+
+    @Param({"elo", "kdr", "top_elo_3", "top_kdr_3_value"})
+    public String placeholder;
+
+    private RankedBedwarsExpansion expansion;
+    private OfflinePlayer player;
+
+    @Setup
+    public void setup() {
+        RankedBedwars plugin = Mockito.mock(RankedBedwars.class);
+        Server server = Mockito.mock(Server.class);
+        Mockito.when(server.getScheduler()).thenReturn(Mockito.mock(BukkitScheduler.class));
+        Mockito.when(plugin.getServer()).thenReturn(server);
+        Mockito.when(plugin.getLogger()).thenReturn(Logger.getLogger("RankedBedwarsBenchmark"));
+
+        APIClient apiClient = Mockito.mock(APIClient.class);
+        boolean warm = "warm".equals(cache);
+        UserData userData = new UserData();
+        userData.setElo(1450);
+        userData.setKdr(1.37);
+        Map<Integer, LeaderboardEntry> leaderboard = new HashMap<>();
+        for (int position = 1; position <= 10; position++) {
+            leaderboard.put(position, new LeaderboardEntry("Player" + position, 2000 - position * 10.5));
+        }
+        Mockito.when(apiClient.getUserData(ArgumentMatchers.anyString()))
+                .thenReturn(CompletableFuture.completedFuture(warm ? userData : null));
+        Mockito.when(apiClient.getLeaderboard(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt()))
+                .thenReturn(CompletableFuture.completedFuture(warm ? leaderboard : null));
+
+        expansion = new RankedBedwarsExpansion(plugin, apiClient);
+        player = Mockito.mock(OfflinePlayer.class);
+        Mockito.when(player.getName()).thenReturn("RedOne");
+
+        // first request populates the cache when the client returns data
+        expansion.onRequest(player, placeholder);
+    }
+
+    @Benchmark
+    public String onRequest() {
+        return expansion.onRequest(player, placeholder);
+    }
+}
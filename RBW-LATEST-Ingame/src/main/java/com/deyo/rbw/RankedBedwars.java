@@ -6,25 +6,37 @@ import com.deyo.rbw.commands.QueueCmd;
 import com.deyo.rbw.listeners.PlayerListener;
 import com.deyo.rbw.managers.GameDataManager;
 import com.deyo.rbw.managers.MapManager;
+import com.deyo.rbw.managers.PlayerDirectory;
 import com.deyo.rbw.managers.WebSocketManager;
 import com.deyo.rbw.placeholders.RankedBedwarsExpansion;
+import com.deyo.rbw.utils.ConfigWatcher;
+import com.deyo.rbw.utils.IoExecutor;
+import com.deyo.rbw.utils.OnlinePlayerIndex;
+import com.deyo.rbw.utils.PluginExecutors;
+import com.deyo.rbw.utils.ShutdownCoordinator;
+import com.deyo.rbw.utils.StartupOrchestrator;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.util.logging.Level;
 
 
 public class RankedBedwars extends JavaPlugin {
-    private WebSocketManager webSocketManager;
-    private GameDataManager gameDataManager;
-    private MapManager mapManager;
+    private volatile WebSocketManager webSocketManager;
+    private volatile GameDataManager gameDataManager;
+    private volatile MapManager mapManager;
+    private StartupOrchestrator startup;
+    private ConfigWatcher configWatcher;
+    private IoExecutor ioExecutor;
+    private PluginExecutors executors;
     private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
     private AdminCommand adminCommand;
     private CallCmd callCommand;
     private QueueCmd queueCommand;
     private RankedBedwarsExpansion placeholderExpansion;
     private com.deyo.rbw.utils.APIClient apiClient;
+    private final OnlinePlayerIndex playerIndex = new OnlinePlayerIndex();
+    private final PlayerDirectory playerDirectory = new PlayerDirectory();
 
     public AdminCommand getAdminCommand() {
         return adminCommand;
@@ -47,6 +59,11 @@ public class RankedBedwars extends JavaPlugin {
         
         saveDefaultConfig();
         
+        ioExecutor = new IoExecutor(getLogger(), IoExecutor.parseMode(getConfig().getString("io.mode", "auto")),
+                getConfig().getInt("io.platform-threads", 4), getConfig().getInt("io.queue-capacity", 1024));
+        getLogger().info("Blocking I/O runs on " + ioExecutor.getMode() + " threads");
+        executors = new PluginExecutors(getLogger(), getConfig(), ioExecutor);
+        
         
         savePermissionsFile();
         
@@ -66,7 +83,7 @@ public class RankedBedwars extends JavaPlugin {
         getCommand("ss").setExecutor(ssCmd);
 
         
-        apiClient = new com.deyo.rbw.utils.APIClient(getGson(), getLogger(), getConfig());
+        apiClient = new com.deyo.rbw.utils.APIClient(getGson(), getLogger(), getConfig(), ioExecutor);
         com.deyo.rbw.commands.StatsCmd statsCmd = new com.deyo.rbw.commands.StatsCmd(this, apiClient);
         getCommand("stats").setExecutor(statsCmd);
         
@@ -77,7 +94,23 @@ public class RankedBedwars extends JavaPlugin {
         }
         
         getServer().getPluginManager().registerEvents(new PlayerListener(this), this);
+        // Players already online after a reload never fire a join
+        playerIndex.reset(getServer().getOnlinePlayers());
+        playerIndex.snapshot().values().forEach(player -> playerDirectory.addLocal(player.getName()));
+        long adminRefresh = Math.max(1L, getConfig().getLong("player-index.admin-refresh-seconds", 30L)) * 20L;
+        getServer().getScheduler().runTaskTimer(this, playerIndex::refreshAdmins, adminRefresh, adminRefresh);
+        
         
+        if (getConfig().getBoolean("config-watch.enabled", true)) {
+            configWatcher = new ConfigWatcher(this, getConfig().getLong("config-watch.debounce-ms", 500L))
+                    .watch("config.yml", this::reload)
+                    .watch("permission.yml", () -> {
+                        if (webSocketManager != null && webSocketManager.isConnected()) {
+                            webSocketManager.resendPermissionsData();
+                        }
+                    });
+            configWatcher.start();
+        }
         
         if (getServer().getPluginManager().getPlugin("PlaceholderAPI") != null) {
             placeholderExpansion = new RankedBedwarsExpansion(this);
@@ -90,42 +123,57 @@ public class RankedBedwars extends JavaPlugin {
 
     @Override
     public void onDisable() {
-        
-        if (placeholderExpansion != null) {
-            placeholderExpansion.unregister();
-        }
-        
-        if (webSocketManager != null) {
-            webSocketManager.shutdown();
-        }
-        if (apiClient != null) {
-            apiClient.shutdown();
-        }
+        // Every step gets only the time left until shutdown.deadline-ms, so the
+        // main thread is never held longer than that
+        new ShutdownCoordinator(getLogger(), getConfig().getLong("shutdown.deadline-ms", 3000L))
+                .step("intake", () -> {
+                    if (configWatcher != null) {
+                        configWatcher.stop();
+                    }
+                    if (placeholderExpansion != null) {
+                        placeholderExpansion.unregister();
+                    }
+                    if (executors != null) {
+                        executors.stopTimers();
+                    }
+                    if (mapManager != null) {
+                        mapManager.getWarpPipeline().shutdown();
+                        mapManager.getLiveFeed().shutdown();
+                    }
+                    if (webSocketManager != null) {
+                        webSocketManager.beginShutdown();
+                    }
+                })
+                .step("checkpoints", remaining -> mapManager == null || mapManager.getCheckpoints().shutdown(remaining))
+                .step("outbound", remaining -> executors == null || executors.shutdown(PluginExecutors.Lane.SERIALIZATION, remaining))
+                .step("websocket", remaining -> webSocketManager == null || webSocketManager.drainAndClose(remaining))
+                .step("game-data", remaining -> gameDataManager == null || gameDataManager.awaitWrites(remaining))
+                .step("executors", remaining -> executors == null || executors.shutdown(remaining))
+                .run();
         getLogger().info("rankedbedwars has been disabled!");
     }
 
     private void initializeManagers() {
-        getServer().getScheduler().runTaskAsynchronously(this, () -> {
-            try {
-                webSocketManager = new WebSocketManager(this);
-                webSocketManager.initialize();
-
-                gameDataManager = new GameDataManager(this);
-                getLogger().info("Game data storage " + (gameDataManager.isEnabled() ? "enabled" : "disabled") + " in configuration");
-                mapManager = new MapManager(this);
-                mapManager.startMapAutoRefresh();
-                
-                
-				getServer().getScheduler().runTaskLater(RankedBedwars.this, () -> {
-					if (com.deyo.rbw.bedwars.BedwarsAPIManager.initialize(RankedBedwars.this)) {
-						getLogger().info("Using " + com.deyo.rbw.bedwars.BedwarsAPIManager.getImplementation().getName() + " implementation!");
-						com.deyo.rbw.bedwars.BedwarsAPIManager.getImplementation().initializeMaps();
-					} else {
-						getLogger().severe("No supported BedWars plugin found! The plugin may not function correctly.");
-					}
-				}, 40L * 20L);
-            } catch (Exception e) {
-                getLogger().log(Level.SEVERE, "Failed to initialize managers", e);
+        long arenaRetry = Math.max(1L, getConfig().getLong("startup.arena-retry-seconds", 5L)) * 20L;
+        startup = new StartupOrchestrator(this)
+                .stage("websocket", false, () -> {
+                    webSocketManager = new WebSocketManager(this);
+                    webSocketManager.initialize();
+                })
+                .stage("game-data", false, () -> {
+                    gameDataManager = new GameDataManager(this);
+                    getLogger().info("Game data storage " + (gameDataManager.isEnabled() ? "enabled" : "disabled") + " in configuration");
+                })
+                .stage("map-manager", false, () -> {
+                    mapManager = new MapManager(this);
+                    mapManager.startMapAutoRefresh();
+                })
+                // Main thread so it runs after onEnable has hooked the BedWars plugin
+                .awaitStage("arenas", true, () -> mapManager.loadArenas(arenaRetry), "map-manager");
+        // Also on failure, so warps held during startup are answered
+        startup.start().whenComplete((ignored, failed) -> {
+            if (webSocketManager != null) {
+                webSocketManager.onStartupFinished(failed == null);
             }
         });
     }
@@ -136,34 +184,56 @@ public class RankedBedwars extends JavaPlugin {
         }
     }
 
+    /**
+     * Applies config.yml again to the running managers. The WebSocket only
+     * reconnects when where or as whom it connects changed; queues, caches,
+     * the resume buffer and running games are kept.
+     */
     public void reload() {
         reloadConfig();
         
         savePermissionsFile();
         
-        
-        if (placeholderExpansion != null) {
-            placeholderExpansion.clearCache();
+        if (webSocketManager != null) {
+            webSocketManager.applyConfig();
         }
-
-        
-        getServer().getScheduler().runTaskAsynchronously(this, () -> {
-            if (webSocketManager != null) {
-                webSocketManager.shutdown();
-            }
-            webSocketManager = new WebSocketManager(this);
-            webSocketManager.initialize();
-            
-            gameDataManager = new GameDataManager(this);
+        if (gameDataManager != null) {
+            gameDataManager.applyConfig();
             getLogger().info("Game data storage " + (gameDataManager.isEnabled() ? "enabled" : "disabled") + " after reload");
-            getLogger().info("rankedbedwars has been reloaded!");
-        });
+        }
+        if (mapManager != null) {
+            mapManager.getWarpPipeline().applyConfig();
+        }
+        getLogger().info("rankedbedwars has been reloaded!");
     }
 
     public WebSocketManager getWebSocketManager() {
         return webSocketManager;
     }
 
+    public OnlinePlayerIndex getPlayerIndex() {
+        return playerIndex;
+    }
+
+    /** Runs blocking HTTP, file and socket work; virtual threads on Java 21+. */
+    public IoExecutor getIoExecutor() {
+        return ioExecutor;
+    }
+
+    /** The plugin's own background threads; use these instead of the Bukkit async scheduler. */
+    public PluginExecutors getExecutors() {
+        return executors;
+    }
+
+    /** Stages of onEnable; complete once the managers are up and the arenas are registered. */
+    public StartupOrchestrator getStartup() {
+        return startup;
+    }
+
+    public PlayerDirectory getPlayerDirectory() {
+        return playerDirectory;
+    }
+
     public GameDataManager getGameDataManager() {
         return gameDataManager;
     }
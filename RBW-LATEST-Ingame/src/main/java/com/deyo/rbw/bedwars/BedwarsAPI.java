@@ -1,8 +1,12 @@
 package com.deyo.rbw.bedwars;
 
 import com.deyo.rbw.RankedBedwars;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
+import java.util.Collections;
+import java.util.List;
+
 public interface BedwarsAPI {
 
     void initialize(RankedBedwars plugin);
@@ -24,4 +28,19 @@ public interface BedwarsAPI {
     void initializeMaps();
     
     boolean isAvailable();
+    
+    /**
+     * Waiting and team spawn points of an arena, used to load its chunks ahead
+     * of players. Empty if unknown.
+     */
+    default List<Location> getSpawnLocations(String arenaName) {
+        return Collections.emptyList();
+    }
+    
+    /**
+     * Whether the arena is waiting for players and nobody is in it, i.e. a warp could use it right now.
+     */
+    default boolean isArenaIdle(String arenaName) {
+        return arenaExists(arenaName);
+    }
 }
@@ -7,6 +7,7 @@ import com.andrei1058.bedwars.api.arena.team.ITeam;
 import com.deyo.rbw.RankedBedwars;
 import com.deyo.rbw.bedwars.BedwarsAPI;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
 import com.deyo.rbw.listeners.BedWars1058Listener;
@@ -76,6 +77,26 @@ public class BedWars1058Implementation implements BedwarsAPI {
         return bedwars1058API.getArenaUtil().getArenaByPlayer(player);
     }
     
+    @Override
+    public List<Location> getSpawnLocations(String arenaName) {
+        List<Location> spawns = new ArrayList<>();
+        if (bedwars1058API == null) return spawns;
+        IArena arena = bedwars1058API.getArenaUtil().getArenaByName(arenaName);
+        if (arena == null) return spawns;
+        spawns.add(arena.getWaitingLocation());
+        for (ITeam team : arena.getTeams()) {
+            spawns.add(team.getSpawn());
+        }
+        return spawns;
+    }
+    
+    @Override
+    public boolean isArenaIdle(String arenaName) {
+        if (bedwars1058API == null) return false;
+        IArena arena = bedwars1058API.getArenaUtil().getArenaByName(arenaName);
+        return arena != null && arena.getStatus() == GameState.waiting && arena.getPlayers().isEmpty();
+    }
+    
     @Override
     public void warpPlayersToGame(String gameId, String mapName, Object team1Obj, Object team2Obj, boolean isRanked) {
         if (bedwars1058API == null) {
@@ -88,9 +109,6 @@ public class BedWars1058Implementation implements BedwarsAPI {
         
         plugin.debug("Warping players for game #" + gameId + " on map " + mapName + " (ranked: " + isRanked + ")");
         
-        
-        plugin.getMapManager().lockMap(mapName);
-        
         Bukkit.getScheduler().runTask(plugin, () -> {
             try {
                 
@@ -120,7 +138,7 @@ public class BedWars1058Implementation implements BedwarsAPI {
                 allPlayers.addAll(team2Players);
                 
                 for (String playerName : allPlayers) {
-                    Player player = Bukkit.getPlayerExact(playerName);
+                    Player player = plugin.getPlayerIndex().get(playerName);
                     if (player == null) {
                         offlinePlayers.add(playerName);
                     }
@@ -167,41 +185,37 @@ public class BedWars1058Implementation implements BedwarsAPI {
                 registerCustomTeamAssigner(arena, team1Players, team2Players);
                 
                 
-                for (String playerName : team1Players) {
-                    Player player = Bukkit.getPlayerExact(playerName);
-                    if (player != null) {
-                        warpPlayerToArena(player, arena, greenTeam);
-                    }
-                }
-                
-                for (String playerName : team2Players) {
-                    Player player = Bukkit.getPlayerExact(playerName);
-                    if (player != null) {
-                        warpPlayerToArena(player, arena, redTeam);
-                    }
-                }
-                
-                
-                storeTeamInfo(arena, team1Players, team2Players);
+                // Chunk loading and arena joins are spread over ticks by the warp pipeline
+                List<Location> spawns = new ArrayList<>();
+                spawns.add(arena.getWaitingLocation());
+                spawns.add(greenTeam.getSpawn());
+                spawns.add(redTeam.getSpawn());
                 
+                List<Runnable> teleports = new ArrayList<>();
+                addTeleports(teleports, team1Players, arena, greenTeam);
+                addTeleports(teleports, team2Players, arena, redTeam);
                 
-                Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                    if (arena.getStatus() == GameState.waiting || arena.getStatus() == GameState.starting) {
-                        arena.changeStatus(GameState.starting);
-                        
-                        try {
+                plugin.getMapManager().getWarpPipeline().submit(gameId, spawns, teleports, () -> {
+                    storeTeamInfo(arena, team1Players, team2Players);
+                    
+                    Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                        if (arena.getStatus() == GameState.waiting || arena.getStatus() == GameState.starting) {
+                            arena.changeStatus(GameState.starting);
                             
-                            if (arena.getStartingTask() != null) {
-                                arena.getStartingTask().setCountdown(0);
+                            try {
+                                
+                                if (arena.getStartingTask() != null) {
+                                    arena.getStartingTask().setCountdown(0);
+                                }
+                                plugin.debug("Arena force started with 5 second countdown: " + mapName);
+                            } catch (Exception e) {
+                                plugin.getLogger().warning("Could not set countdown: " + e.getMessage());
                             }
-                            plugin.debug("Arena force started with 5 second countdown: " + mapName);
-                        } catch (Exception e) {
-                            plugin.getLogger().warning("Could not set countdown: " + e.getMessage());
                         }
-                    }
-                    
-                    plugin.getMapManager().sendWarpSuccess(gameId);
-                }, 20L);
+                        
+                        plugin.getMapManager().sendWarpSuccess(gameId);
+                    }, 20L);
+                });
                 
             } catch (Exception e) {
                 plugin.getLogger().warning("Error warping players to game: " + e.getMessage());
@@ -241,6 +255,17 @@ public class BedWars1058Implementation implements BedwarsAPI {
         return teamAssignments.get(arenaName);
     }
     
+    private void addTeleports(List<Runnable> teleports, List<String> players, IArena arena, ITeam team) {
+        for (String playerName : players) {
+            teleports.add(() -> {
+                Player player = plugin.getPlayerIndex().get(playerName);
+                if (player != null) {
+                    warpPlayerToArena(player, arena, team);
+                }
+            });
+        }
+    }
+    
     private void warpPlayerToArena(Player player, IArena arena, ITeam team) {
         
         IArena currentArena = bedwars1058API.getArenaUtil().getArenaByPlayer(player);
@@ -9,6 +9,8 @@ import de.marcely.bedwars.api.arena.Arena;
 import de.marcely.bedwars.api.arena.ArenaStatus;
 import de.marcely.bedwars.api.arena.Team;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
@@ -74,6 +76,19 @@ public class MBedwarsImplementation implements BedwarsAPI {
         }
     }
     
+    @Override
+    public List<Location> getSpawnLocations(String arenaName) {
+        Arena arena = GameAPI.get().getArenaByName(arenaName);
+        if (arena == null) return new ArrayList<>();
+        return getSpawnLocations(arena, arena.getEnabledTeams().toArray(new Team[0]));
+    }
+    
+    @Override
+    public boolean isArenaIdle(String arenaName) {
+        Arena arena = GameAPI.get().getArenaByName(arenaName);
+        return arena != null && arena.getStatus() == ArenaStatus.LOBBY && arena.getPlayers().isEmpty();
+    }
+    
     @Override
     public void warpPlayersToGame(String gameId, String mapName, Object team1, Object team2, boolean isRanked) {
         
@@ -82,8 +97,6 @@ public class MBedwarsImplementation implements BedwarsAPI {
         
         plugin.debug("Warping players for game #" + gameId + " on map " + mapName + " (ranked: " + isRanked + ")");
         
-        plugin.getMapManager().lockMap(mapName);
-        
         try {
             Arena arena = GameAPI.get().getArenaByName(mapName);
             if (arena == null) {
@@ -109,7 +122,7 @@ public class MBedwarsImplementation implements BedwarsAPI {
             allPlayers.addAll(team2Players);
             
             for (String ign : allPlayers) {
-                if (Bukkit.getPlayerExact(ign) == null) {
+                if (plugin.getPlayerIndex().get(ign) == null) {
                     offlinePlayers.add(ign);
                 }
             }
@@ -142,26 +155,16 @@ public class MBedwarsImplementation implements BedwarsAPI {
                 return;
             }
             
-            // Team1 = Green, Team2 = Red
-            for (String playerName : team1Players) {
-                Player player = Bukkit.getPlayerExact(playerName);
-                if (player != null) {
-                    warpPlayerToArena(player, arena, greenTeam);
-                }
-            }
-            
-            // Team2 = Red
-            for (String playerName : team2Players) {
-                Player player = Bukkit.getPlayerExact(playerName);
-                if (player != null) {
-                    warpPlayerToArena(player, arena, redTeam);
-                }
-            }
-            
+            // Team1 = Green, Team2 = Red. Chunk loading and arena joins are
+            // spread over ticks by the warp pipeline
+            List<Runnable> teleports = new ArrayList<>();
+            addTeleports(teleports, team1Players, arena, greenTeam);
+            addTeleports(teleports, team2Players, arena, redTeam);
             
-            
-            storeTeamInfo(arena, team1Players, team2Players);
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {                    plugin.getMapManager().sendWarpSuccess(gameId);
+            plugin.getMapManager().getWarpPipeline().submit(gameId, getSpawnLocations(arena, greenTeam, redTeam), teleports, () -> {
+                storeTeamInfo(arena, team1Players, team2Players);
+                Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                    plugin.getMapManager().sendWarpSuccess(gameId);
                 }, 20L);
                 
                 try {
@@ -170,9 +173,7 @@ public class MBedwarsImplementation implements BedwarsAPI {
                 } catch (Exception e) {
                     plugin.getLogger().warning("Error setting arena status: " + e.getMessage());
                 }
-            
-            
-
+            });
             
         } catch (Exception e) {
             plugin.getLogger().warning("Error warping players to game: " + e.getMessage());
@@ -219,6 +220,36 @@ public class MBedwarsImplementation implements BedwarsAPI {
     
     
 
+    private void addTeleports(List<Runnable> teleports, List<String> players, Arena arena, Team team) {
+        for (String playerName : players) {
+            teleports.add(() -> {
+                Player player = plugin.getPlayerIndex().get(playerName);
+                if (player != null) {
+                    warpPlayerToArena(player, arena, team);
+                }
+            });
+        }
+    }
+    
+    private List<Location> getSpawnLocations(Arena arena, Team... teams) {
+        List<Location> spawns = new ArrayList<>();
+        World world = arena.getGameWorld();
+        for (Team team : teams) {
+            try {
+                // Location or XYZYP depending on the MBedwars version
+                Object spawn = arena.getClass().getMethod("getTeamSpawn", Team.class).invoke(arena, team);
+                if (spawn instanceof Location) {
+                    spawns.add((Location) spawn);
+                } else if (spawn != null && world != null) {
+                    spawns.add((Location) spawn.getClass().getMethod("toLocation", World.class).invoke(spawn, world));
+                }
+            } catch (Exception e) {
+                plugin.debug("Could not get spawn of team " + team + " in arena " + arena.getName() + ": " + e.getMessage());
+            }
+        }
+        return spawns;
+    }
+    
     private void warpPlayerToArena(Player player, Arena arena, Team team) {
         Arena currentArena = GameAPI.get().getArenaByPlayer(player);
         if (currentArena != null) {
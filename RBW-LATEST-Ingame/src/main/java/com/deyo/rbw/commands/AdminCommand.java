@@ -27,7 +27,7 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
 
     public AdminCommand(RankedBedwars plugin) {
         this.plugin = plugin;
-        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::cleanupExpiredPings, 600L, 600L);
+        plugin.getExecutors().scheduleAtFixedRate(this::cleanupExpiredPings, 30_000L, 30_000L);
     }
 
     private void cleanupExpiredPings() {
@@ -174,6 +174,13 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(ChatColor.GOLD + "Game Data Storage: " +
                 (dataStorageEnabled ? ChatColor.GREEN + "Enabled" : ChatColor.GRAY + "Disabled"));
 
+        if (plugin.getExecutors() != null) {
+            sender.sendMessage(ChatColor.GOLD + "Executors:");
+            for (String lane : plugin.getExecutors().describe()) {
+                sender.sendMessage(ChatColor.GRAY + "  " + lane);
+            }
+        }
+
         sender.sendMessage(ChatColor.GOLD + "Debug Mode: " +
                 (plugin.getConfig().getBoolean("debug") ? ChatColor.GREEN + "Enabled" : ChatColor.GRAY + "Disabled"));
     }
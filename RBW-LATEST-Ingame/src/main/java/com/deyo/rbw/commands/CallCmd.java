@@ -1,6 +1,7 @@
 package com.deyo.rbw.commands;
 
 import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.managers.PlayerDirectory;
 import com.google.gson.JsonObject;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
@@ -9,23 +10,23 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 public class CallCmd implements CommandExecutor, TabCompleter {
     private final RankedBedwars plugin;
     private final Map<String, PendingCall> pendingCalls = new ConcurrentHashMap<>();
 
     private static final long CALL_TIMEOUT_MS = 60_000;
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final java.util.regex.Pattern IGN_PATTERN = java.util.regex.Pattern.compile("^[a-zA-Z0-9_]{1,16}$");
 
     public CallCmd(RankedBedwars plugin) {
         this.plugin = plugin;
-        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::cleanupExpiredCalls, 1200L, 1200L);
+        plugin.getExecutors().scheduleAtFixedRate(this::cleanupExpiredCalls, 60_000L, 60_000L);
     }
 
     private static class PendingCall {
@@ -79,6 +80,21 @@ public class CallCmd implements CommandExecutor, TabCompleter {
             return true;
         }
 
+        if (!IGN_PATTERN.matcher(targetIgn).matches()) {
+            player.sendMessage(ChatColor.RED + "That is not a valid player name!");
+            return true;
+        }
+
+        PlayerDirectory directory = plugin.getPlayerDirectory();
+        String knownIgn = directory.find(targetIgn);
+        if (knownIgn != null) {
+            targetIgn = knownIgn;
+        } else if (directory.hasNetwork()) {
+            // Only trusted once the bot has sent the network's players
+            player.sendMessage(ChatColor.YELLOW + targetIgn + ChatColor.RED + " is not online!");
+            return true;
+        }
+
         String callId = UUID.randomUUID().toString();
         JsonObject json = new JsonObject();
         json.addProperty("type", "callcmd");
@@ -111,17 +127,7 @@ public class CallCmd implements CommandExecutor, TabCompleter {
         }
 
         if (args.length == 1) {
-            List<String> playerNames = new ArrayList<>();
-
-            for (Player onlinePlayer : plugin.getServer().getOnlinePlayers()) {
-                if (!onlinePlayer.getName().equalsIgnoreCase(player.getName())) {
-                    playerNames.add(onlinePlayer.getName());
-                }
-            }
-
-            return playerNames.stream()
-                    .filter(name -> name.toLowerCase().startsWith(args[0].toLowerCase()))
-                    .collect(Collectors.toList());
+            return plugin.getPlayerDirectory().complete(args[0], player.getName(), MAX_SUGGESTIONS);
         }
 
         return Collections.emptyList();
@@ -20,7 +20,7 @@ public class QueueCmd implements CommandExecutor {
 
     public QueueCmd(RankedBedwars plugin) {
         this.plugin = plugin;
-        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::cleanupExpiredQueues, 1200L, 1200L);
+        plugin.getExecutors().scheduleAtFixedRate(this::cleanupExpiredQueues, 60_000L, 60_000L);
     }
 
     private static class PendingQueue {
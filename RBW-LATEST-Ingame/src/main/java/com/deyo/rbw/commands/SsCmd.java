@@ -66,7 +66,8 @@ public class SsCmd implements CommandExecutor {
      * unbounded when the bot never replies.
      */
     private void scheduleRequestExpiry(String uuid) {
-        plugin.getServer().getScheduler().runTaskLaterAsynchronously(plugin, () -> {
+        // Main thread: it messages the player
+        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
             Player pending = pendingSsRequests.remove(uuid);
             if (pending != null && pending.isOnline()) {
                 pending.sendMessage(ChatColor.RED + "SS request timed out.");
@@ -0,0 +1,54 @@
+package com.deyo.rbw.events;
+
+import com.deyo.rbw.managers.ConnectionState;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Fired (asynchronously, from the connection supervisor thread) whenever the
+ * bot WebSocket connection changes state.
+ */
+public class WebSocketStateChangeEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final ConnectionState previousState;
+    private final ConnectionState newState;
+    private final String host;
+    private final int failedAttempts;
+
+    public WebSocketStateChangeEvent(ConnectionState previousState, ConnectionState newState, String host, int failedAttempts) {
+        super(true);
+        this.previousState = previousState;
+        this.newState = newState;
+        this.host = host;
+        this.failedAttempts = failedAttempts;
+    }
+
+    public ConnectionState getPreviousState() {
+        return previousState;
+    }
+
+    public ConnectionState getNewState() {
+        return newState;
+    }
+
+    /** The host the state refers to (the one being tried, or the one connected to). */
+    public String getHost() {
+        return host;
+    }
+
+    /** Consecutive failed connection attempts across all hosts; 0 once connected. */
+    public int getFailedAttempts() {
+        return failedAttempts;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,32 @@
+package com.deyo.rbw.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted once MapManager has checked that the requested arena exists and is free.
+ * The duration covers the validation, cleanup and lock of the arena.
+ */
+@Name("com.deyo.rbw.ArenaValidated")
+@Label("Arena Validated")
+@Category({"RankedBedwars", "Warp"})
+@Description("The requested arena was validated and locked, or rejected")
+@StackTrace(false)
+public class ArenaValidatedEvent extends jdk.jfr.Event {
+
+    @Label("Game ID")
+    public String gameId;
+
+    @Label("Arena")
+    public String arena;
+
+    @Label("Valid")
+    public boolean valid;
+
+    @Label("Reason")
+    @Description("Why the arena was rejected, empty when valid")
+    public String reason;
+}
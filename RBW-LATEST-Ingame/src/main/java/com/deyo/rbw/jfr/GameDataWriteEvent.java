@@ -0,0 +1,33 @@
+package com.deyo.rbw.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Covers one GameDataManager file write, including the read of an existing warp file.
+ */
+@Name("com.deyo.rbw.GameDataWrite")
+@Label("Game Data Write")
+@Category({"RankedBedwars", "Storage"})
+@Description("Game data was written to disk")
+@StackTrace(false)
+public class GameDataWriteEvent extends jdk.jfr.Event {
+
+    @Label("Game ID")
+    public String gameId;
+
+    @Label("Kind")
+    @Description("warp or result")
+    public String kind;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Size")
+    @DataAmount
+    public long size;
+}
@@ -0,0 +1,44 @@
+package com.deyo.rbw.jfr;
+
+import com.deyo.rbw.models.Game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when a tracked game ends, before its scoring is built.
+ */
+@Name("com.deyo.rbw.GameEnd")
+@Label("Game End")
+@Category({"RankedBedwars", "Game"})
+@Description("A ranked game ended")
+@StackTrace(false)
+public class GameEndedEvent extends jdk.jfr.Event {
+
+    @Label("Game ID")
+    public String gameId;
+
+    @Label("Arena")
+    public String arena;
+
+    @Label("Winning Team")
+    @Description("1 or 2, 0 when no winner was tracked")
+    public int winningTeam;
+
+    @Label("Timeline Events")
+    public int timelineEvents;
+
+    public static void emit(Game game, String arena) {
+        GameEndedEvent event = new GameEndedEvent();
+        if (event.isEnabled()) {
+            event.gameId = game.getGameId();
+            event.arena = arena;
+            event.winningTeam = game.getWinningTeamNumber();
+            event.timelineEvents = game.getTimeline() != null ? game.getTimeline().size() : 0;
+            event.commit();
+        }
+    }
+}
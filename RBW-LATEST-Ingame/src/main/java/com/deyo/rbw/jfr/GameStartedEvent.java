@@ -0,0 +1,37 @@
+package com.deyo.rbw.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when a tracked game starts in its arena.
+ */
+@Name("com.deyo.rbw.GameStart")
+@Label("Game Start")
+@Category({"RankedBedwars", "Game"})
+@Description("A ranked game started")
+@StackTrace(false)
+public class GameStartedEvent extends jdk.jfr.Event {
+
+    @Label("Game ID")
+    public String gameId;
+
+    @Label("Arena")
+    public String arena;
+
+    @Label("Players")
+    public int players;
+
+    public static void emit(String gameId, String arena, int players) {
+        GameStartedEvent event = new GameStartedEvent();
+        if (event.isEnabled()) {
+            event.gameId = gameId;
+            event.arena = arena;
+            event.players = players;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.deyo.rbw.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when all players of a game have been added to the arena and warp_success is sent.
+ */
+@Name("com.deyo.rbw.PlayersTeleported")
+@Label("Players Teleported")
+@Category({"RankedBedwars", "Warp"})
+@Description("Every player of a game has landed in the arena")
+@StackTrace(false)
+public class PlayersTeleportedEvent extends jdk.jfr.Event {
+
+    @Label("Game ID")
+    public String gameId;
+}
@@ -0,0 +1,25 @@
+package com.deyo.rbw.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when the bot confirms a game with scoringsuccess or gamevoided.
+ */
+@Name("com.deyo.rbw.ScoringAcked")
+@Label("Scoring Acknowledged")
+@Category({"RankedBedwars", "Scoring"})
+@Description("The bot acknowledged the scoring of a game")
+@StackTrace(false)
+public class ScoringAckedEvent extends jdk.jfr.Event {
+
+    @Label("Game ID")
+    public String gameId;
+
+    @Label("Outcome")
+    @Description("scoringsuccess or gamevoided")
+    public String outcome;
+}
@@ -0,0 +1,25 @@
+package com.deyo.rbw.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Covers handing the scoring payload to the WebSocket.
+ */
+@Name("com.deyo.rbw.ScoringSent")
+@Label("Scoring Sent")
+@Category({"RankedBedwars", "Scoring"})
+@Description("The scoring payload for a game was written to the WebSocket")
+@StackTrace(false)
+public class ScoringSentEvent extends jdk.jfr.Event {
+
+    @Label("Game ID")
+    public String gameId;
+
+    @Label("Connected")
+    @Description("False when the socket was closed and the payload was dropped")
+    public boolean connected;
+}
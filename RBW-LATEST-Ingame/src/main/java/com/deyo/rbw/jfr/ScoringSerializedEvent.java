@@ -0,0 +1,29 @@
+package com.deyo.rbw.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Covers building the scoring JSON for a finished game.
+ */
+@Name("com.deyo.rbw.ScoringSerialized")
+@Label("Scoring Serialized")
+@Category({"RankedBedwars", "Scoring"})
+@Description("The scoring payload for a game was serialized")
+@StackTrace(false)
+public class ScoringSerializedEvent extends jdk.jfr.Event {
+
+    @Label("Game ID")
+    public String gameId;
+
+    @Label("Timeline Events")
+    public int timelineEvents;
+
+    @Label("Size")
+    @DataAmount
+    public long size;
+}
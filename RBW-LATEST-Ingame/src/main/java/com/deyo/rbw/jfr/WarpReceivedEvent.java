@@ -0,0 +1,31 @@
+package com.deyo.rbw.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when a warp_players command from the bot has been parsed.
+ * This is the first point of the warp pipeline; correlate with later events by gameId.
+ */
+@Name("com.deyo.rbw.WarpReceived")
+@Label("Warp Request Received")
+@Category({"RankedBedwars", "Warp"})
+@Description("A warp_players command was received from the bot")
+@StackTrace(false)
+public class WarpReceivedEvent extends jdk.jfr.Event {
+
+    @Label("Game ID")
+    public String gameId;
+
+    @Label("Map")
+    public String map;
+
+    @Label("Ranked")
+    public boolean ranked;
+
+    @Label("Players")
+    public int players;
+}
@@ -0,0 +1,107 @@
+package com.deyo.rbw.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One text frame sent to or received from the bot.
+ * Only enabled recordings pay for the type lookup and size calculation.
+ */
+@Name("com.deyo.rbw.WebSocketFrame")
+@Label("WebSocket Frame")
+@Category({"RankedBedwars", "WebSocket"})
+@Description("A text frame exchanged with the bot")
+@StackTrace(false)
+public class WebSocketFrameEvent extends jdk.jfr.Event {
+
+    private static final String TYPE_KEY = "\"type\":\"";
+
+    @Label("Direction")
+    @Description("inbound or outbound")
+    public String direction;
+
+    @Label("Message Type")
+    public String messageType;
+
+    @Label("Size")
+    @DataAmount
+    public long size;
+
+    public static void inbound(String messageType, String message) {
+        WebSocketFrameEvent event = new WebSocketFrameEvent();
+        if (event.isEnabled()) {
+            event.direction = "inbound";
+            event.messageType = messageType;
+            event.size = utf8Length(message);
+            event.commit();
+        }
+    }
+
+    public static void outbound(String message) {
+        WebSocketFrameEvent event = new WebSocketFrameEvent();
+        if (event.isEnabled()) {
+            event.direction = "outbound";
+            event.messageType = peekType(message);
+            event.size = utf8Length(message);
+            event.commit();
+        }
+    }
+
+    /**
+     * Outbound message that was encoded to bytes without going through a String.
+     */
+    public static void outbound(String messageType, long size) {
+        WebSocketFrameEvent event = new WebSocketFrameEvent();
+        if (event.isEnabled()) {
+            event.direction = "outbound";
+            event.messageType = messageType;
+            event.size = size;
+            event.commit();
+        }
+    }
+
+    /**
+     * Reads the "type" value of a compact Gson-serialized message without parsing it.
+     * Returns "unknown" when the message does not start with a plain type field.
+     */
+    static String peekType(String message) {
+        if (message == null) {
+            return "unknown";
+        }
+        int start = message.indexOf(TYPE_KEY);
+        if (start < 0) {
+            return "unknown";
+        }
+        start += TYPE_KEY.length();
+        int end = message.indexOf('"', start);
+        return end < 0 ? "unknown" : message.substring(start, end);
+    }
+
+    /**
+     * Number of bytes the message takes on the wire, without encoding it.
+     */
+    public static long utf8Length(String message) {
+        if (message == null) {
+            return 0;
+        }
+        long bytes = 0;
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < message.length() && Character.isLowSurrogate(message.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
@@ -10,7 +10,12 @@ import com.andrei1058.bedwars.api.events.player.PlayerBedBreakEvent;
 import com.andrei1058.bedwars.api.events.player.PlayerKillEvent;
 import com.andrei1058.bedwars.api.events.player.PlayerLeaveArenaEvent;
 import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.jfr.GameEndedEvent;
+import com.deyo.rbw.jfr.GameStartedEvent;
+import com.deyo.rbw.managers.WebSocketManager;
 import com.deyo.rbw.models.Game;
+import com.deyo.rbw.models.TimelineCoalescer;
+import com.deyo.rbw.utils.PluginExecutors;
 
 import com.google.gson.JsonObject;
 import org.bukkit.Bukkit;
@@ -39,7 +44,7 @@ public class BedWars1058Listener implements Listener {
     
     public BedWars1058Listener(RankedBedwars plugin) {
         this.plugin = plugin;
-        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::cleanupStaleData, 6000L, 6000L);
+        plugin.getExecutors().scheduleAtFixedRate(this::cleanupStaleData, 300_000L, 300_000L);
     }
 
     private void cleanupStaleData() {
@@ -70,7 +75,9 @@ public class BedWars1058Listener implements Listener {
     public void cleanupGameTrackerForMap(String mapName) {
         if (gameTrackers.containsKey(mapName)) {
             plugin.debug("Cleaning up existing game tracker for map: " + mapName);
-            gameTrackers.remove(mapName);
+            String gameId = gameTrackers.remove(mapName).gameId;
+            plugin.getMapManager().getLiveFeed().untrack(gameId);
+            plugin.getMapManager().getCheckpoints().finish(gameId);
             preGamePlayers.remove(mapName);
             plugin.debug("Cleaned up game tracker for map: " + mapName);
         }
@@ -92,8 +99,12 @@ public class BedWars1058Listener implements Listener {
             
             
             boolean isRanked = plugin.getMapManager().getGameIdForArena(arenaName) != null;
-            BW1058GameTracker gameTracker = new BW1058GameTracker(gameId, arena, isRanked);
+            BW1058GameTracker gameTracker = new BW1058GameTracker(gameId, arena, isRanked,
+                    plugin.getConfig().getLong("timeline.coalesce-window-ms", TimelineCoalescer.DEFAULT_WINDOW_MILLIS));
+            gameTracker.leaseToken = plugin.getMapManager().markGameStarted(arenaName, gameId);
             gameTrackers.put(arenaName, gameTracker);
+            plugin.getMapManager().getLiveFeed().track(gameTracker.live);
+            plugin.getMapManager().getCheckpoints().track(gameTracker.live);
             
             
             Set<String> players = new HashSet<>();
@@ -101,6 +112,7 @@ public class BedWars1058Listener implements Listener {
                 players.add(player.getName());
             }
             preGamePlayers.put(arenaName, players);
+            GameStartedEvent.emit(gameId, arenaName, players.size());
             
             
             sendGameStartNotification(gameId, arenaName);
@@ -112,32 +124,50 @@ public class BedWars1058Listener implements Listener {
         private final String arenaName;
         private final boolean isRanked;
         private final long startTime;
+        private long leaseToken;
         private long endTime;
         private ITeam winningTeam;
         
         
-        private final Map<String, String> playerTeams = new HashMap<>();
         private final List<String> bedBreakers = new ArrayList<>();
         private final Map<String, String> brokenBeds = new HashMap<>();
         
-        
-        private final Map<String, Integer> playerKills = new HashMap<>();
-        private final Map<String, Integer> playerDeaths = new HashMap<>();
-        private final Map<String, Integer> playerFinalKills = new HashMap<>();
-        private final Map<String, Integer> playerBedsDestroyed = new HashMap<>();
-        private final Map<String, Integer> playerBlocksPlaced = new HashMap<>();
-        private final Map<String, Integer> playerDiamondsCollected = new HashMap<>();
-        private final Map<String, Integer> playerEmeraldsCollected = new HashMap<>();
-        private final Map<String, Integer> playerGoldCollected = new HashMap<>();
-        private final Map<String, Integer> playerIronCollected = new HashMap<>();
-        private final Map<String, Boolean> playerTeamWon = new HashMap<>();
-        private final List<Map<String, Object>> timeline = new ArrayList<>();
-        
-        public BW1058GameTracker(String gameId, IArena arena, boolean isRanked) {
+        // The counters live in a Game from the start so the live feed can read them
+        private final Game live;
+        private final TimelineCoalescer coalescer;
+        private final Map<String, String> playerTeams;
+        private final Map<String, Integer> playerKills;
+        private final Map<String, Integer> playerDeaths;
+        private final Map<String, Integer> playerFinalKills;
+        private final Map<String, Integer> playerBedsDestroyed;
+        private final Map<String, Integer> playerBlocksPlaced;
+        private final Map<String, Integer> playerDiamondsCollected;
+        private final Map<String, Integer> playerEmeraldsCollected;
+        private final Map<String, Integer> playerGoldCollected;
+        private final Map<String, Integer> playerIronCollected;
+        private final Map<String, Boolean> playerTeamWon;
+        private final List<Map<String, Object>> timeline;
+        
+        public BW1058GameTracker(String gameId, IArena arena, boolean isRanked, long coalesceWindowMillis) {
             this.gameId = gameId;
+            this.coalescer = new TimelineCoalescer(coalesceWindowMillis);
             this.arenaName = arena.getArenaName();
             this.isRanked = isRanked;
             this.startTime = System.currentTimeMillis();
+            this.live = new Game(gameId, arenaName, isRanked, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                    bedBreakers, startTime, 0, new SimpleDateFormat("dd/MM/yyyy").format(new Date()));
+            this.playerTeams = live.getPlayerTeamName();
+            this.playerKills = live.getPlayerKills();
+            this.playerDeaths = live.getPlayerDeaths();
+            this.playerFinalKills = live.getPlayerFinalKills();
+            this.playerBedsDestroyed = live.getPlayerBedsDestroyed();
+            this.playerBlocksPlaced = live.getPlayerBlocksPlaced();
+            this.playerDiamondsCollected = live.getPlayerDiamondsCollected();
+            this.playerEmeraldsCollected = live.getPlayerEmeraldsCollected();
+            this.playerGoldCollected = live.getPlayerGoldCollected();
+            this.playerIronCollected = live.getPlayerIronCollected();
+            this.playerTeamWon = live.getPlayerTeamWon();
+            this.timeline = live.getTimeline();
             
             
             for (Player player : arena.getPlayers()) {
@@ -204,7 +234,7 @@ public class BedWars1058Listener implements Listener {
         
         public void recordBlocksPlaced(String player, int count) {
             playerBlocksPlaced.put(player, playerBlocksPlaced.getOrDefault(player, 0) + count);
-            addTimelineEvent("block_place", player, null, 1, null);
+            coalescer.record(live, "block_place", player, null, count, System.currentTimeMillis() - startTime);
         }
         
         public void recordPlayerLeave(String player) {
@@ -234,7 +264,8 @@ public class BedWars1058Listener implements Listener {
             
             int currentAmount = resourceMap.getOrDefault(player, 0);
             resourceMap.put(player, currentAmount + amount);
-            addTimelineEvent("resource_pickup", player, null, amount, null);
+            coalescer.record(live, "resource_pickup", player, resourceType.name().toLowerCase(), amount,
+                    System.currentTimeMillis() - startTime);
         }
         
         public void recordGameEnd(ITeam winningTeam) {
@@ -341,6 +372,9 @@ public class BedWars1058Listener implements Listener {
         boolean isFinalKill = event.getCause().isFinalKill();
         
         gameTracker.recordKill(killer.getName(), victim.getName(), isFinalKill);
+        if (isFinalKill) {
+            plugin.getMapManager().getLiveFeed().significant(gameTracker.gameId);
+        }
         plugin.debug("Player " + killer.getName() + " killed " + victim.getName() + " (final: " + isFinalKill + ") in arena " + arenaName);
     }
     
@@ -356,6 +390,7 @@ public class BedWars1058Listener implements Listener {
         
         String teamName = team.getName();
         gameTracker.recordBedBreak(player.getName(), teamName);
+        plugin.getMapManager().getLiveFeed().significant(gameTracker.gameId);
         plugin.debug("Player " + player.getName() + " broke the bed of team " + teamName + " in arena " + arenaName);
     }
     
@@ -381,20 +416,20 @@ public class BedWars1058Listener implements Listener {
             gameTracker.recordGameEnd(winningTeam);
 
             Game game = convertToGame(gameTracker);
+            GameEndedEvent.emit(game, arenaName);
+            // The checkpoint stays until the scoring is sent or held for the next connection
+            plugin.getMapManager().getCheckpoints().end(gameTracker.gameId);
             
-            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-                if (plugin.getWebSocketManager() != null && plugin.getWebSocketManager().isConnected()) {
-                    plugin.getWebSocketManager().sendGameScoring(game);
-                    plugin.debug("Sent game scoring data via WebSocket for game #" + game.getGameId());
-                } else {
-                    plugin.getLogger().warning("WebSocket is unavailable, could not send game data");
-                }
-                
+            plugin.getExecutors().execute(PluginExecutors.Lane.SERIALIZATION, () -> {
+                sendScoring(game);
                 plugin.getGameDataManager().saveGameResultData(game);
             });
+        } else {
+            plugin.getMapManager().getCheckpoints().finish(gameTracker.gameId);
         }
         
-        plugin.getMapManager().unlockMap(arenaName);
+        plugin.getMapManager().releaseLease(arenaName, gameTracker.leaseToken);
+        plugin.getMapManager().getLiveFeed().untrack(gameTracker.gameId);
         gameTrackers.remove(arenaName);
         preGamePlayers.remove(arenaName);
         
@@ -403,6 +438,20 @@ public class BedWars1058Listener implements Listener {
         }
     }
     
+    private void sendScoring(Game game) {
+        WebSocketManager webSocket = plugin.getWebSocketManager();
+        if (webSocket == null) {
+            plugin.getLogger().warning("WebSocket is unavailable, game #" + game.getGameId() + " will be recovered from its checkpoint");
+            return;
+        }
+        webSocket.sendGameScoring(game).thenAccept(handedOff -> {
+            if (handedOff) {
+                plugin.getMapManager().getCheckpoints().finish(game.getGameId());
+                plugin.debug("Handed off game scoring data for game #" + game.getGameId());
+            }
+        });
+    }
+    
     private ITeam findLastStandingTeam(IArena arena) {
         for (ITeam team : arena.getTeams()) {
             if (!team.getMembers().isEmpty() && !team.isBedDestroyed()) {
@@ -434,7 +483,7 @@ public class BedWars1058Listener implements Listener {
             tracker.getDuration(),
             new SimpleDateFormat("dd/MM/yyyy").format(new Date())
         );
-        
+        game.setLeaseToken(tracker.leaseToken);
         
         for (Map.Entry<String, Integer> entry : tracker.playerKills.entrySet()) {
             game.getPlayerKills().put(entry.getKey(), entry.getValue());
@@ -578,7 +627,7 @@ public class BedWars1058Listener implements Listener {
                     return;
                 }
                 
-                Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+                plugin.getExecutors().execute(PluginExecutors.Lane.SERIALIZATION, () -> {
                     JsonObject json = new JsonObject();
                     json.addProperty("type", "retrygame");
                     json.addProperty("gameid", gameId);
@@ -616,9 +665,11 @@ public class BedWars1058Listener implements Listener {
             preGamePlayers.remove(arenaName);
             gameTrackers.remove(arenaName);
         }
+        plugin.getMapManager().getLiveFeed().untrack(gameId);
+        plugin.getMapManager().getCheckpoints().finish(gameId);
         
         
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        plugin.getExecutors().execute(PluginExecutors.Lane.SERIALIZATION, () -> {
             JsonObject json = new JsonObject();
             json.addProperty("type", "voiding");
             json.addProperty("gameid", gameId);
@@ -629,7 +680,7 @@ public class BedWars1058Listener implements Listener {
     }
     
     private void sendGameStartNotification(String gameId, String arenaName) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        plugin.getExecutors().execute(PluginExecutors.Lane.SERIALIZATION, () -> {
             if (plugin.getWebSocketManager() != null && plugin.getWebSocketManager().isConnected()) {
                 JsonObject data = new JsonObject();
                 data.addProperty("type", "game_start");
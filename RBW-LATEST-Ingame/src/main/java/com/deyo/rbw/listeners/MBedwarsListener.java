@@ -1,8 +1,13 @@
 package com.deyo.rbw.listeners;
 
 import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.jfr.GameEndedEvent;
+import com.deyo.rbw.jfr.GameStartedEvent;
+import com.deyo.rbw.managers.WebSocketManager;
 import com.deyo.rbw.models.Game;
 import com.deyo.rbw.models.GameInstance;
+import com.deyo.rbw.models.TimelineCoalescer;
+import com.deyo.rbw.utils.PluginExecutors;
 import com.google.gson.JsonObject;
 import de.marcely.bedwars.api.arena.Arena;
 import de.marcely.bedwars.api.arena.ArenaStatus;
@@ -14,7 +19,6 @@ import de.marcely.bedwars.api.event.player.PlayerIngameDeathEvent;
 import de.marcely.bedwars.api.event.player.PlayerKillPlayerEvent;
 import de.marcely.bedwars.api.event.player.PlayerQuitArenaEvent;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -41,7 +45,7 @@ public class MBedwarsListener implements Listener {
 
     public MBedwarsListener(RankedBedwars plugin) {
         this.plugin = plugin;
-        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::cleanupStaleData, 6000L, 6000L);
+        plugin.getExecutors().scheduleAtFixedRate(this::cleanupStaleData, 300_000L, 300_000L);
     }
 
     private void cleanupStaleData() {
@@ -53,7 +57,9 @@ public class MBedwarsListener implements Listener {
     public void cleanupGameInstanceForMap(String mapName) {
         if (gameInstances.containsKey(mapName)) {
             plugin.debug("Cleaning up existing game instance for map: " + mapName);
-            gameInstances.remove(mapName);
+            String gameId = gameInstances.remove(mapName).getGame().getGameId();
+            plugin.getMapManager().getLiveFeed().untrack(gameId);
+            plugin.getMapManager().getCheckpoints().finish(gameId);
             preGamePlayers.remove(mapName);
             plugin.debug("Cleaned up game instance for map: " + mapName);
         }
@@ -69,8 +75,12 @@ public class MBedwarsListener implements Listener {
         if (gameId == null) {
             return;
         }
-        GameInstance gameInstance = new GameInstance(gameId, arena, true);
+        GameInstance gameInstance = new GameInstance(gameId, arena, true,
+                plugin.getConfig().getLong("timeline.coalesce-window-ms", TimelineCoalescer.DEFAULT_WINDOW_MILLIS));
+        gameInstance.getGame().setLeaseToken(plugin.getMapManager().markGameStarted(arenaName, gameId));
         gameInstances.put(arenaName, gameInstance);
+        plugin.getMapManager().getLiveFeed().track(gameInstance.getGame());
+        plugin.getMapManager().getCheckpoints().track(gameInstance.getGame());
 
         
         Set<String> players = new HashSet<>();
@@ -78,6 +88,7 @@ public class MBedwarsListener implements Listener {
             players.add(player.getName());
         }
         preGamePlayers.put(arenaName, players);
+        GameStartedEvent.emit(gameId, arenaName, players.size());
 
         sendGameStartNotification(gameId, arenaName);
     }
@@ -117,6 +128,9 @@ public class MBedwarsListener implements Listener {
             isFinalKill = true;
         }
         gameInstance.recordKill(killer.getName(), victim.getName(), isFinalKill);
+        if (isFinalKill) {
+            plugin.getMapManager().getLiveFeed().significant(gameInstance.getGame().getGameId());
+        }
         plugin.debug("Player " + killer.getName() + " killed " + victim.getName() + " (final: " + isFinalKill + ") in arena " + arenaName);
     }
 
@@ -135,6 +149,7 @@ public class MBedwarsListener implements Listener {
             teamName = team.toString();
         }
         gameInstance.recordBedBreak(player.getName(), teamName);
+        plugin.getMapManager().getLiveFeed().significant(gameInstance.getGame().getGameId());
     }
 
     @EventHandler
@@ -155,12 +170,21 @@ public class MBedwarsListener implements Listener {
             gameInstance.recordGameEnd(winningTeam);
         }
         Game game = gameInstance.toGame();
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            if (plugin.getWebSocketManager() != null && plugin.getWebSocketManager().isConnected()) {
-                plugin.getWebSocketManager().sendGameScoring(game);
-                plugin.debug("Sent game scoring data via WebSocket for game #" + game.getGameId());
+        GameEndedEvent.emit(game, arenaName);
+        if (plugin.getMapManager() != null) {
+            // The checkpoint stays until the scoring is sent or held for the next connection
+            plugin.getMapManager().getCheckpoints().end(game.getGameId());
+        }
+        plugin.getExecutors().execute(PluginExecutors.Lane.SERIALIZATION, () -> {
+            WebSocketManager webSocket = plugin.getWebSocketManager();
+            if (webSocket != null) {
+                webSocket.sendGameScoring(game).thenAccept(handedOff -> {
+                    if (handedOff && plugin.getMapManager() != null) {
+                        plugin.getMapManager().getCheckpoints().finish(game.getGameId());
+                    }
+                });
             } else {
-                plugin.getLogger().warning("WebSocket is unavailable, could not send game scoring data");
+                plugin.getLogger().warning("WebSocket is unavailable, game #" + game.getGameId() + " will be recovered from its checkpoint");
             }
             if (plugin.getGameDataManager() != null) {
                 plugin.getGameDataManager().saveGameResultData(game);
@@ -168,7 +192,8 @@ public class MBedwarsListener implements Listener {
             }
         });
         if (plugin.getMapManager() != null) {
-            plugin.getMapManager().unlockMap(arenaName);
+            plugin.getMapManager().releaseLease(arenaName, game.getLeaseToken());
+            plugin.getMapManager().getLiveFeed().untrack(game.getGameId());
         }
         preGamePlayers.remove(arenaName);
         gameInstances.remove(arenaName);
@@ -303,7 +328,9 @@ public class MBedwarsListener implements Listener {
             preGamePlayers.remove(arenaName);
             gameInstances.remove(arenaName);
         }
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        plugin.getMapManager().getLiveFeed().untrack(gameId);
+        plugin.getMapManager().getCheckpoints().finish(gameId);
+        plugin.getExecutors().execute(PluginExecutors.Lane.SERIALIZATION, () -> {
             JsonObject json = new JsonObject();
             json.addProperty("type", "voiding");
             json.addProperty("gameid", gameId);
@@ -329,7 +356,7 @@ public class MBedwarsListener implements Listener {
                 }
                 
                 
-                Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+                plugin.getExecutors().execute(PluginExecutors.Lane.SERIALIZATION, () -> {
                     
                     JsonObject json = new JsonObject();
                     json.addProperty("type", "retrygame");
@@ -356,7 +383,7 @@ public class MBedwarsListener implements Listener {
 
     private void sendGameStartNotification(String gameId, String arenaName) {
         if (plugin.getWebSocketManager() == null || !plugin.getWebSocketManager().isConnected()) return;
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        plugin.getExecutors().execute(PluginExecutors.Lane.SERIALIZATION, () -> {
             JsonObject json = new JsonObject();
             json.addProperty("type", "game_start");
             json.addProperty("game_id", gameId);
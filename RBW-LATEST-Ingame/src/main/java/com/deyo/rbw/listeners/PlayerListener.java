@@ -1,8 +1,9 @@
 package com.deyo.rbw.listeners;
 
 import com.deyo.rbw.RankedBedwars;
-import org.bukkit.entity.Player;
+import com.deyo.rbw.managers.PresenceService;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
@@ -17,25 +18,38 @@ public class PlayerListener implements Listener {
         this.plugin = plugin;
     }
 
+    // Indexed before and unindexed after every other handler
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void indexJoin(PlayerJoinEvent event) {
+        plugin.getPlayerIndex().add(event.getPlayer());
+        plugin.getPlayerDirectory().addLocal(event.getPlayer().getName());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void unindexQuit(PlayerQuitEvent event) {
+        plugin.getPlayerIndex().remove(event.getPlayer());
+        if (!plugin.getPlayerIndex().isOnline(event.getPlayer().getName())) {
+            plugin.getPlayerDirectory().removeLocal(event.getPlayer().getName());
+        }
+    }
+
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
-        sendPlayerStatusUpdate(event.getPlayer(), true);
+        PresenceService presence = presence();
+        if (presence != null) {
+            presence.joined(event.getPlayer());
+        }
     }
 
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
-        sendPlayerStatusUpdate(event.getPlayer(), false);
+        PresenceService presence = presence();
+        if (presence != null) {
+            presence.quit(event.getPlayer());
+        }
     }
 
-    private void sendPlayerStatusUpdate(Player player, boolean online) {
-        if (plugin.getWebSocketManager() == null || !plugin.getWebSocketManager().isConnected()) return;
-        org.bukkit.Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            com.google.gson.JsonObject json = new com.google.gson.JsonObject();
-            json.addProperty("type", "player_status_update");
-            json.addProperty("ign", player.getName());
-            json.addProperty("online", online);
-            json.addProperty("original_ign_case", player.getName());
-            plugin.getWebSocketManager().sendMessage(json.toString());
-        });
+    private PresenceService presence() {
+        return plugin.getWebSocketManager() == null ? null : plugin.getWebSocketManager().getPresence();
     }
 }
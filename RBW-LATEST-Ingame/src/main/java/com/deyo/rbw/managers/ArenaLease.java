@@ -0,0 +1,53 @@
+package com.deyo.rbw.managers;
+
+/**
+ * An arena group reserved for one game. Every lease gets a fencing token from
+ * a counter that only goes up, so a release or cleanup that still carries the
+ * token of an earlier game is rejected once the group has been leased again.
+ *
+ * Leases are immutable; {@link MapManager} swaps in a new instance when a game starts.
+ */
+public final class ArenaLease {
+
+    private final String groupId;
+    private final String arena;
+    private final String gameId;
+    private final long token;
+    private final long expiresAt;
+    private final boolean started;
+
+    ArenaLease(String groupId, String arena, String gameId, long token, long expiresAt, boolean started) {
+        this.groupId = groupId;
+        this.arena = arena;
+        this.gameId = gameId;
+        this.token = token;
+        this.expiresAt = expiresAt;
+        this.started = started;
+    }
+
+    ArenaLease start(long newExpiresAt) {
+        return new ArenaLease(groupId, arena, gameId, token, newExpiresAt, true);
+    }
+
+    public String getGroupId() { return groupId; }
+    /** The physical arena the game was warped to. */
+    public String getArena() { return arena; }
+    public String getGameId() { return gameId; }
+    public long getToken() { return token; }
+    public long getExpiresAt() { return expiresAt; }
+    /** Whether the game has actually started in the arena. */
+    public boolean isStarted() { return started; }
+
+    public boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+
+    public boolean isHeldBy(String gameId) {
+        return this.gameId != null && this.gameId.equals(gameId);
+    }
+
+    @Override
+    public String toString() {
+        return groupId + " (game " + gameId + ", token " + token + (started ? ", started" : ", pending") + ")";
+    }
+}
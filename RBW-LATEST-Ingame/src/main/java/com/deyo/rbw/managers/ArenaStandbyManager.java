@@ -0,0 +1,267 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.bedwars.BedwarsAPI;
+import com.deyo.rbw.bedwars.BedwarsAPIManager;
+import com.google.gson.JsonObject;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a few free arena groups warm so a warp after a queue pop does not have
+ * to load the arena first. A warm arena is the variant a game would use
+ * ({@link MapManager.ArenaGroup#getBestVariant}), idle in its waiting state,
+ * with the chunks under its spawn points loaded.
+ *
+ * How many arenas to keep warm is predicted from the players waiting in the
+ * latest queuestatus (queued players divided by game size) plus the recent
+ * warp rate over the lead time, between standby.min-arenas and
+ * standby.max-arenas. Groups that were warped most recently are warmed first,
+ * since the bot is likely to pick them again. When heap usage is above
+ * standby.memory-pressure-percent nothing is kept warm and the chunks of warm
+ * arenas are unloaded.
+ *
+ * Each run loads the chunks of at most one arena: it warms one, or reloads
+ * what the server unloaded from one warm arena.
+ *
+ * Warming runs on the main thread; the demand inputs may be recorded from any thread.
+ */
+public class ArenaStandbyManager {
+
+    private static final long RATE_WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final RankedBedwars plugin;
+    private final MapManager mapManager;
+    private final boolean enabled;
+    private final int minArenas;
+    private final int maxArenas;
+    private final long leadTimeMillis;
+    private final double memoryPressure;
+
+    // groupId -> warm arena; only changed on the main thread
+    private final Map<String, WarmArena> warm = new ConcurrentHashMap<>();
+    // Warps in the last RATE_WINDOW_MILLIS, oldest first; both guarded by warpTimes
+    private final ArrayDeque<Long> warpTimes = new ArrayDeque<>();
+    private final ArrayDeque<String> warpGroups = new ArrayDeque<>();
+    private volatile double queuedGames;
+    private volatile boolean rankedQueues = true;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ArenaStandbyManager(RankedBedwars plugin, MapManager mapManager) {
+        this.plugin = plugin;
+        this.mapManager = mapManager;
+        FileConfiguration config = plugin.getConfig();
+        this.enabled = config.getBoolean("standby.enabled", true);
+        this.minArenas = Math.max(0, config.getInt("standby.min-arenas", 1));
+        int max = config.getInt("standby.max-arenas", 4);
+        this.maxArenas = Math.max(minArenas, max > 0 ? max : 4);
+        long leadSeconds = config.getLong("standby.lead-time-seconds", 30L);
+        this.leadTimeMillis = TimeUnit.SECONDS.toMillis(leadSeconds > 0 ? leadSeconds : 30L);
+        int percent = config.getInt("standby.memory-pressure-percent", 85);
+        this.memoryPressure = (percent > 0 && percent <= 100 ? percent : 85) / 100.0;
+    }
+
+    public void start() {
+        if (enabled) {
+            Bukkit.getScheduler().runTaskTimer(plugin, this::refresh, 100L, 40L);
+        }
+    }
+
+    /**
+     * Records the queues of a queuestatus message: each queue counts as its
+     * waiting players divided by the players of one game.
+     */
+    public void onQueueStatus(JsonObject queues) {
+        double games = 0;
+        int ranked = 0;
+        int unranked = 0;
+        for (String queueId : queues.keySet()) {
+            JsonObject queue = queues.getAsJsonObject(queueId);
+            if (!queue.has("currentPlayers") || !queue.has("maxPlayers")) {
+                continue;
+            }
+            int maxPlayers = queue.get("maxPlayers").getAsInt();
+            if (maxPlayers > 0) {
+                games += (double) queue.get("currentPlayers").getAsInt() / maxPlayers;
+            }
+            if (queue.has("isRanked") && queue.get("isRanked").getAsBoolean()) {
+                ranked++;
+            } else {
+                unranked++;
+            }
+        }
+        queuedGames = games;
+        rankedQueues = ranked >= unranked;
+    }
+
+    /**
+     * Called when a warp leases groupId. Returns whether the arena was warm.
+     */
+    public boolean onLeased(String groupId) {
+        long now = System.currentTimeMillis();
+        synchronized (warpTimes) {
+            warpTimes.addLast(now);
+            warpGroups.addLast(groupId);
+            pruneWarps(now);
+        }
+        if (warm.remove(groupId) != null) {
+            hits.incrementAndGet();
+            return true;
+        }
+        misses.incrementAndGet();
+        return false;
+    }
+
+    /** How many arenas should be warm right now. */
+    int targetArenas() {
+        if (!enabled || isUnderMemoryPressure()) {
+            return 0;
+        }
+        double warpsPerMilli;
+        synchronized (warpTimes) {
+            pruneWarps(System.currentTimeMillis());
+            warpsPerMilli = (double) warpTimes.size() / RATE_WINDOW_MILLIS;
+        }
+        int predicted = (int) Math.ceil(queuedGames + warpsPerMilli * leadTimeMillis);
+        return Math.max(minArenas, Math.min(maxArenas, predicted));
+    }
+
+    boolean isUnderMemoryPressure() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        return used > runtime.maxMemory() * memoryPressure;
+    }
+
+    private void pruneWarps(long now) {
+        while (!warpTimes.isEmpty() && now - warpTimes.peekFirst() > RATE_WINDOW_MILLIS) {
+            warpTimes.removeFirst();
+            warpGroups.removeFirst();
+        }
+    }
+
+    void refresh() {
+        if (!BedwarsAPIManager.isAvailable()) {
+            return;
+        }
+        BedwarsAPI bedwars = BedwarsAPIManager.getImplementation();
+        // Forget arenas that were taken, disabled or are no longer idle
+        warm.values().removeIf(arena -> mapManager.isArenaGroupLocked(arena.groupId)
+                || mapManager.isArenaGroupDisabled(arena.groupId)
+                || !bedwars.isArenaIdle(arena.arenaName));
+
+        int target = targetArenas();
+        boolean unload = target == 0 && isUnderMemoryPressure();
+        if (unload && !warm.isEmpty()) {
+            plugin.getLogger().warning("Memory usage is above " + Math.round(memoryPressure * 100)
+                    + "%, unloading " + warm.size() + " standby arenas");
+        }
+        while (warm.size() > target) {
+            WarmArena oldest = warm.values().stream()
+                    .min(Comparator.comparingLong(arena -> arena.warmedAt))
+                    .orElseThrow(IllegalStateException::new);
+            cool(oldest, unload);
+        }
+
+        // One arena per run, so a run never loads more than one arena's chunks in a tick
+        if (warm.size() < target) {
+            String groupId = pickGroup();
+            if (groupId != null && warmGroup(bedwars, groupId)) {
+                return;
+            }
+        }
+
+        // Chunks the server unloaded in the meantime are loaded again, for the first arena missing any
+        for (WarmArena arena : warm.values()) {
+            if (arena.load()) {
+                return;
+            }
+        }
+    }
+
+    /** The free, not yet warm group warped most often recently. */
+    private String pickGroup() {
+        Map<String, Integer> popularity = new HashMap<>();
+        synchronized (warpTimes) {
+            for (String groupId : warpGroups) {
+                popularity.merge(groupId, 1, Integer::sum);
+            }
+        }
+        List<String> candidates = new ArrayList<>(mapManager.getAvailableArenaGroups());
+        candidates.removeAll(warm.keySet());
+        candidates.sort(Comparator.<String>comparingInt(groupId -> popularity.getOrDefault(groupId, 0)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        return candidates.isEmpty() ? null : candidates.get(0);
+    }
+
+    /** Returns whether an arena was warmed. */
+    private boolean warmGroup(BedwarsAPI bedwars, String groupId) {
+        String arenaName = mapManager.getBestArenaForGroup(groupId, rankedQueues);
+        if (arenaName == null || !bedwars.isArenaIdle(arenaName)) {
+            return false;
+        }
+        WarmArena arena = new WarmArena(groupId, arenaName, WarpPipeline.chunksOf(bedwars.getSpawnLocations(arenaName)));
+        arena.load();
+        warm.put(groupId, arena);
+        plugin.debug("Standby: warmed " + arenaName + " (" + warm.size() + " warm)");
+        return true;
+    }
+
+    private void cool(WarmArena arena, boolean unload) {
+        warm.remove(arena.groupId);
+        if (unload) {
+            arena.chunks.forEach(WarpPipeline.ChunkKey::unload);
+        }
+        plugin.debug("Standby: released " + arena.arenaName + (unload ? " and unloaded its chunks" : ""));
+    }
+
+    public JsonObject getStatistics() {
+        JsonObject stats = new JsonObject();
+        stats.addProperty("enabled", enabled);
+        stats.addProperty("warm", warm.size());
+        stats.addProperty("target", targetArenas());
+        stats.addProperty("hits", hits.get());
+        stats.addProperty("misses", misses.get());
+        return stats;
+    }
+
+    boolean isWarm(String groupId) {
+        return warm.containsKey(groupId);
+    }
+
+    private static final class WarmArena {
+        final String groupId;
+        final String arenaName;
+        final Set<WarpPipeline.ChunkKey> chunks;
+        final long warmedAt = System.nanoTime();
+
+        WarmArena(String groupId, String arenaName, Set<WarpPipeline.ChunkKey> chunks) {
+            this.groupId = groupId;
+            this.arenaName = arenaName;
+            this.chunks = chunks;
+        }
+
+        /** Loads the chunks that are not loaded; returns whether there were any. */
+        boolean load() {
+            boolean loaded = false;
+            for (WarpPipeline.ChunkKey chunk : chunks) {
+                if (!chunk.isLoaded()) {
+                    chunk.load();
+                    loaded = true;
+                }
+            }
+            return loaded;
+        }
+    }
+}
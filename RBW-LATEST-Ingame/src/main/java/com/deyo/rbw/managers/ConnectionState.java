@@ -0,0 +1,17 @@
+package com.deyo.rbw.managers;
+
+/**
+ * Lifecycle of the bot WebSocket connection as seen by the {@link ConnectionSupervisor}.
+ */
+public enum ConnectionState {
+    /** No connection and no attempt in flight. */
+    DISCONNECTED,
+    /** A non-blocking connect to one of the configured hosts is in flight. */
+    CONNECTING,
+    /** The handshake completed; messages can be sent. */
+    CONNECTED,
+    /** The last attempt failed and the next one is scheduled. */
+    BACKING_OFF,
+    /** The plugin is disabling; no further attempts are made. */
+    STOPPED
+}
@@ -0,0 +1,346 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.events.WebSocketStateChangeEvent;
+import org.bukkit.Bukkit;
+import org.java_websocket.client.WebSocketClient;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * Owns the bot connection lifecycle on a single dedicated thread. Connects are
+ * non-blocking: the supervisor starts the client, arms a timeout and reacts to
+ * the open/close callbacks. A failed host fails over to the next configured
+ * host almost immediately; only once every host has failed in a row does the
+ * retry delay grow, using decorrelated jitter so many servers restarting at
+ * once do not reconnect in lockstep. A connection that drops after opening
+ * is retried through the same backoff, and the failure history is only
+ * forgotten once the bot accepts the auth or the connection has stayed up
+ * for {@link #STABLE_MILLIS}, so a bot that accepts and then closes every
+ * connection is not hammered.
+ *
+ * All mutable state except {@link #state} and {@link #failedAttempts} is only
+ * touched on the supervisor thread.
+ */
+final class ConnectionSupervisor {
+
+    // Same threshold the old linear reconnect used before alerting admins
+    private static final int ALERT_AFTER_FAILURES = 5;
+    // Connected this long without auth_success also counts as a working connection
+    static final long STABLE_MILLIS = 60_000L;
+
+    private final RankedBedwars plugin;
+    private final List<String> hosts;
+    private final long connectTimeoutMillis;
+    private final Backoff backoff;
+    private final Function<String, WebSocketClient> clientFactory;
+    private final Consumer<String> adminNotifier;
+
+    private ScheduledExecutorService executor;
+    private volatile ConnectionState state = ConnectionState.DISCONNECTED;
+    private volatile int failedAttempts;
+    private int hostIndex;
+    private WebSocketClient current;
+    private ScheduledFuture<?> pending;
+    private ScheduledFuture<?> stable;
+
+    ConnectionSupervisor(RankedBedwars plugin, List<String> hosts, long baseDelayMillis, long maxDelayMillis,
+                         long connectTimeoutMillis, Function<String, WebSocketClient> clientFactory,
+                         Consumer<String> adminNotifier) {
+        this(plugin, hosts, new Backoff(baseDelayMillis, maxDelayMillis, new Random()), connectTimeoutMillis, clientFactory, adminNotifier);
+    }
+
+    ConnectionSupervisor(RankedBedwars plugin, List<String> hosts, Backoff backoff, long connectTimeoutMillis,
+                         Function<String, WebSocketClient> clientFactory, Consumer<String> adminNotifier) {
+        if (hosts.isEmpty()) {
+            throw new IllegalArgumentException("At least one WebSocket host is required");
+        }
+        this.plugin = plugin;
+        this.hosts = List.copyOf(hosts);
+        this.backoff = backoff;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.clientFactory = clientFactory;
+        this.adminNotifier = adminNotifier;
+    }
+
+    void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "RBW-WebSocket-Supervisor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        post(this::attempt);
+    }
+
+    /**
+     * Stops all further attempts and closes the current client without blocking.
+     */
+    void stop() {
+        ScheduledExecutorService exec = executor;
+        if (exec == null) {
+            return;
+        }
+        post(() -> {
+            cancelPending();
+            cancelStable();
+            WebSocketClient client = current;
+            current = null;
+            transition(ConnectionState.STOPPED, null);
+            if (client != null && !client.isClosed()) {
+                client.close(1000, "Plugin disabling");
+            }
+        });
+        exec.shutdown();
+    }
+
+    /**
+     * Nudge from a sender that found the connection closed. Only starts an
+     * attempt when nothing is in flight or scheduled; a pending backoff is kept.
+     */
+    void requestReconnect() {
+        post(() -> {
+            if (state == ConnectionState.DISCONNECTED) {
+                attempt();
+            }
+        });
+    }
+
+    /**
+     * Forgets the failure history and, if currently backing off, retries the
+     * primary host right away.
+     */
+    void reset() {
+        post(() -> {
+            backoff.reset();
+            failedAttempts = 0;
+            if (state == ConnectionState.BACKING_OFF) {
+                cancelPending();
+                hostIndex = 0;
+                attempt();
+            }
+        });
+    }
+
+    /**
+     * Called from the client thread once the handshake completes. The failure
+     * history is kept until {@link #authenticated()} or {@link #STABLE_MILLIS}.
+     */
+    void connected(WebSocketClient client) {
+        post(() -> {
+            if (client != current || state == ConnectionState.STOPPED) {
+                return;
+            }
+            cancelPending();
+            transition(ConnectionState.CONNECTED, currentHost());
+            cancelStable();
+            stable = executor.schedule(() -> {
+                if (client == current && state == ConnectionState.CONNECTED) {
+                    forgetFailures();
+                }
+            }, STABLE_MILLIS, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    /** Called once the bot answers auth_success: the connection works. */
+    void authenticated() {
+        post(() -> {
+            if (state == ConnectionState.CONNECTED) {
+                cancelStable();
+                forgetFailures();
+            }
+        });
+    }
+
+    private void forgetFailures() {
+        backoff.reset();
+        failedAttempts = 0;
+    }
+
+    /** Called from the client thread whenever a client closes, including failed connects. */
+    void closed(WebSocketClient client) {
+        post(() -> {
+            if (client != current || state == ConnectionState.STOPPED) {
+                return;
+            }
+            cancelPending();
+            cancelStable();
+            current = null;
+            if (state == ConnectionState.CONNECTED) {
+                // Lost an established connection: the same host again, after a jittered delay
+                transition(ConnectionState.DISCONNECTED, currentHost());
+                long delay = planReconnect();
+                plugin.getLogger().info("WebSocket connection to " + currentHost() + " lost, reconnecting in "
+                        + delay + " ms (Attempt " + failedAttempts + ")");
+                transition(ConnectionState.BACKING_OFF, currentHost());
+                pending = executor.schedule(this::attempt, delay, TimeUnit.MILLISECONDS);
+            } else {
+                retry("connection failed");
+            }
+        });
+    }
+
+    ConnectionState getState() {
+        return state;
+    }
+
+    int getFailedAttempts() {
+        return failedAttempts;
+    }
+
+    List<String> getHosts() {
+        return hosts;
+    }
+
+    String currentHost() {
+        return hosts.get(hostIndex);
+    }
+
+    private void attempt() {
+        if (state == ConnectionState.STOPPED || !plugin.isEnabled()) {
+            return;
+        }
+        String host = currentHost();
+        transition(ConnectionState.CONNECTING, host);
+        WebSocketClient client;
+        try {
+            client = clientFactory.apply(host);
+            current = client;
+            client.connect();
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Could not start WebSocket connection to " + host, e);
+            current = null;
+            retry("could not start connection");
+            return;
+        }
+        pending = executor.schedule(() -> {
+            if (client != current || state != ConnectionState.CONNECTING) {
+                return;
+            }
+            plugin.getLogger().warning("WebSocket connection to " + host + " timed out after " + connectTimeoutMillis + " ms");
+            current = null;
+            client.close();
+            retry("connect timeout");
+        }, connectTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void retry(String reason) {
+        String failedHost = currentHost();
+        long delay = planRetry();
+        plugin.getLogger().info("WebSocket connection to " + failedHost + " failed (" + reason + "), trying "
+                + currentHost() + " in " + delay + " ms (Attempt " + failedAttempts + ")");
+        if (failedAttempts == ALERT_AFTER_FAILURES) {
+            plugin.getLogger().severe("Failed to connect to WebSocket server after " + failedAttempts + " attempts");
+            plugin.getLogger().severe("The RankedBedwars bot appears to be offline. Please contact deyo.");
+            adminNotifier.accept("§4[RankedBedwars] §cFailed to connect to WebSocket after " +
+                failedAttempts + " attempts. The bot is likely offline. Please contact deyo.");
+        }
+        transition(ConnectionState.BACKING_OFF, currentHost());
+        pending = executor.schedule(this::attempt, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records a failed attempt, moves to the next host and returns how long to
+     * wait before trying it. Within a round of hosts the wait is a short jitter
+     * so failover happens within about one base delay; after a full round has
+     * failed the decorrelated backoff applies.
+     */
+    long planRetry() {
+        failedAttempts++;
+        hostIndex = (hostIndex + 1) % hosts.size();
+        if (failedAttempts % hosts.size() != 0) {
+            return backoff.failover();
+        }
+        return backoff.next();
+    }
+
+    /**
+     * Records a dropped connection and returns how long to wait before trying
+     * the same host again. Drops before auth_success keep growing the delay.
+     */
+    long planReconnect() {
+        failedAttempts++;
+        return backoff.next();
+    }
+
+    private void transition(ConnectionState next, String host) {
+        ConnectionState previous = state;
+        if (previous == next) {
+            return;
+        }
+        state = next;
+        plugin.debug("WebSocket connection state " + previous + " -> " + next + (host != null ? " (" + host + ")" : ""));
+        try {
+            Bukkit.getPluginManager().callEvent(new WebSocketStateChangeEvent(previous, next, host, failedAttempts));
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Error dispatching WebSocket state change event", e);
+        }
+    }
+
+    private void cancelPending() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    private void cancelStable() {
+        if (stable != null) {
+            stable.cancel(false);
+            stable = null;
+        }
+    }
+
+    private void post(Runnable task) {
+        ScheduledExecutorService exec = executor;
+        if (exec == null) {
+            return;
+        }
+        try {
+            exec.execute(task);
+        } catch (RejectedExecutionException ignored) {
+            // Supervisor already stopped
+        }
+    }
+
+    /**
+     * Decorrelated jitter: each delay is drawn from [base, previous * 3] and
+     * capped, so delays grow roughly exponentially but never synchronise.
+     */
+    static final class Backoff {
+        private final long baseMillis;
+        private final long maxMillis;
+        private final Random random;
+        private long previous;
+
+        Backoff(long baseMillis, long maxMillis, Random random) {
+            this.baseMillis = Math.max(1, baseMillis);
+            this.maxMillis = Math.max(this.baseMillis, maxMillis);
+            this.random = random;
+            this.previous = this.baseMillis;
+        }
+
+        long next() {
+            long upper = Math.min(maxMillis, previous * 3);
+            previous = upper <= baseMillis ? baseMillis : baseMillis + (long) (random.nextDouble() * (upper - baseMillis));
+            return previous;
+        }
+
+        /** Short random pause before trying the next host in the same round. */
+        long failover() {
+            return (long) (random.nextDouble() * baseMillis);
+        }
+
+        void reset() {
+            previous = baseMillis;
+        }
+    }
+}
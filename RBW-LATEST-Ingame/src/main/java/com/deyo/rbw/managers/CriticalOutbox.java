@@ -0,0 +1,151 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.utils.AtomicFiles;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.java_websocket.enums.Opcode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Game results the bot has not received yet: scoring, voiding and
+ * game_recovered messages. One that cannot be sent is held here and sent again
+ * on the next connection. At shutdown the held ones, plus any the bot has not
+ * acknowledged, are written to outbox.jsonl in the plugin folder, and the next
+ * start reads them back. A resent message may reach the bot twice; its gameid
+ * tells them apart.
+ */
+final class CriticalOutbox {
+
+    static final Set<String> CRITICAL_TYPES = new HashSet<>(Arrays.asList("scoring", "voiding", "game_recovered"));
+    static final int MAX_HELD = 1000;
+
+    private final Logger logger;
+    private final File file;
+    private final ArrayDeque<ResumableSession.Outbound> held = new ArrayDeque<>();
+
+    CriticalOutbox(Logger logger, File file) {
+        this.logger = logger;
+        this.file = file;
+    }
+
+    /** Value of the top-level "type" field of a compact JSON message, or null. */
+    static String typeOf(String message) {
+        int start = message.indexOf("\"type\":\"");
+        if (start < 0) {
+            return null;
+        }
+        start += 8;
+        int end = message.indexOf('"', start);
+        return end < 0 ? null : message.substring(start, end);
+    }
+
+    static boolean isCritical(ResumableSession.Outbound message) {
+        String type = message.messageType != null ? message.messageType : message.text != null ? typeOf(message.text) : null;
+        return type != null && CRITICAL_TYPES.contains(type);
+    }
+
+    /** Keeps message for the next connection; the oldest is dropped past {@link #MAX_HELD}. */
+    synchronized void hold(ResumableSession.Outbound message) {
+        if (held.size() >= MAX_HELD) {
+            held.removeFirst();
+            logger.warning("Too many undelivered game results, dropped the oldest");
+        }
+        held.addLast(message);
+    }
+
+    synchronized List<ResumableSession.Outbound> takeHeld() {
+        List<ResumableSession.Outbound> messages = new ArrayList<>(held);
+        held.clear();
+        return messages;
+    }
+
+    synchronized int getHeldCount() {
+        return held.size();
+    }
+
+    /**
+     * Holds the messages spilled by the last shutdown. The file stays until
+     * {@link #clearSpilled()}, so a crash before they are resent loses nothing.
+     */
+    synchronized int load() {
+        if (file == null || !file.exists()) {
+            return 0;
+        }
+        int loaded = 0;
+        try {
+            for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    JsonObject record = JsonParser.parseString(line).getAsJsonObject();
+                    String type = record.has("type") ? record.get("type").getAsString() : null;
+                    held.addLast(record.has("cbor")
+                            ? new ResumableSession.Outbound(Opcode.BINARY, null, Base64.getDecoder().decode(record.get("cbor").getAsString()), type)
+                            : new ResumableSession.Outbound(Opcode.TEXT, record.get("text").getAsString(), null, type));
+                    loaded++;
+                } catch (RuntimeException e) {
+                    logger.warning("Skipping unreadable line in " + file.getName() + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.warning("Could not read " + file.getName() + ": " + e.getMessage());
+        }
+        return loaded;
+    }
+
+    /** The spilled messages were resent; the file is no longer needed. */
+    synchronized void clearSpilled() {
+        if (file != null && file.exists() && !file.delete()) {
+            logger.warning("Could not delete " + file.getName());
+        }
+    }
+
+    /**
+     * Writes the held messages and the critical ones among unacked to the
+     * file, replacing it. Returns how many were written.
+     */
+    synchronized int spill(Collection<ResumableSession.Outbound> unacked) {
+        List<ResumableSession.Outbound> messages = new ArrayList<>(held);
+        for (ResumableSession.Outbound message : unacked) {
+            if (isCritical(message)) {
+                messages.add(message);
+            }
+        }
+        if (messages.isEmpty() || file == null) {
+            return 0;
+        }
+        StringBuilder lines = new StringBuilder();
+        for (ResumableSession.Outbound message : messages) {
+            JsonObject record = new JsonObject();
+            record.addProperty("type", message.messageType != null ? message.messageType : typeOf(message.text));
+            if (message.opcode == Opcode.BINARY) {
+                record.addProperty("cbor", Base64.getEncoder().encodeToString(message.body));
+            } else {
+                record.addProperty("text", message.text != null ? message.text : new String(message.body, StandardCharsets.UTF_8));
+            }
+            lines.append(record).append('\n');
+        }
+        try {
+            AtomicFiles.write(file.toPath(), lines.toString().getBytes(StandardCharsets.UTF_8));
+            held.clear();
+            return messages.size();
+        } catch (IOException e) {
+            logger.warning("Could not write " + messages.size() + " undelivered game result(s) to " + file.getName() + ": " + e.getMessage());
+            return 0;
+        }
+    }
+}
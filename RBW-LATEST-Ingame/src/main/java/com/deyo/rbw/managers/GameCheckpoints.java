@@ -0,0 +1,342 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.models.Game;
+import com.deyo.rbw.models.TimelineCoalescer;
+import com.deyo.rbw.utils.PluginExecutors;
+import com.deyo.rbw.utils.SerialExecutor;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Checkpoints running games so they can be reported after a crash or a
+ * reload. Each game has an append-only file in the checkpoints folder: a start
+ * record, then every checkpoint.interval-seconds one line with the counters
+ * that changed and the newest timeline events (at most
+ * checkpoint.max-timeline-events). The file is deleted when the game is scored
+ * or voided, so any file found on enable belongs to a game that never
+ * finished.
+ *
+ * Diffing runs on the main thread and is bounded by the players of a game and
+ * the event cap. Serializing and writing run in order on the io lane of
+ * {@link PluginExecutors}, one write at a time; when they fall more than {@link #MAX_QUEUED_WRITES} writes behind, a round is
+ * skipped and the next one covers it.
+ */
+public final class GameCheckpoints {
+
+    static final int MAX_QUEUED_WRITES = 64;
+
+    private final RankedBedwars plugin;
+    private final boolean enabled;
+    private final long intervalTicks;
+    private final int maxTimelineEvents;
+    private final boolean voidRecovered;
+    private final long coalesceWindowMillis;
+
+    private final Map<String, GameDeltaStream> streams = new ConcurrentHashMap<>();
+    // checkpoint file -> merged game, until reported to the bot
+    private final Map<File, JsonObject> recovered = new LinkedHashMap<>();
+    private final SerialExecutor writer;
+    private File folder;
+    private BukkitTask task;
+
+    public GameCheckpoints(RankedBedwars plugin) {
+        this.plugin = plugin;
+        FileConfiguration config = plugin.getConfig();
+        this.enabled = config.getBoolean("checkpoint.enabled", true);
+        long seconds = config.getLong("checkpoint.interval-seconds", 10L);
+        this.intervalTicks = (seconds > 0 ? seconds : 10L) * 20L;
+        int events = config.getInt("checkpoint.max-timeline-events", 200);
+        this.maxTimelineEvents = events > 0 ? events : 200;
+        // The bot has no game_recovered handler yet, so only an explicit "report" sends one
+        this.voidRecovered = !"report".equalsIgnoreCase(config.getString("checkpoint.recovery", "void"));
+        this.coalesceWindowMillis = config.getLong("timeline.coalesce-window-ms", TimelineCoalescer.DEFAULT_WINDOW_MILLIS);
+        this.writer = plugin.getExecutors().serial(PluginExecutors.Lane.IO);
+    }
+
+    private File folder() {
+        if (folder == null) {
+            folder = new File(plugin.getDataFolder(), "checkpoints");
+        }
+        return folder;
+    }
+
+    /** Starts checkpointing game. Main thread only. */
+    public void track(Game game) {
+        if (!enabled) {
+            return;
+        }
+        streams.put(game.getGameId(), new GameDeltaStream(game, System.currentTimeMillis(), coalesceWindowMillis));
+        JsonObject start = new JsonObject();
+        start.addProperty("type", "start");
+        start.addProperty("game_id", game.getGameId());
+        start.addProperty("map", game.getMap());
+        start.addProperty("ranked", game.isRanked());
+        start.addProperty("start_time", game.getStartTime());
+        write(game.getGameId(), start);
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::checkpoint, intervalTicks, intervalTicks);
+        }
+    }
+
+    /**
+     * The game is over but its result may not have reached the bot yet: stops
+     * checkpointing it, writes what was held back, and keeps the file until
+     * {@link #finish(String)}. Main thread only.
+     */
+    public void end(String gameId) {
+        GameDeltaStream stream = streams.remove(gameId);
+        if (stream != null) {
+            checkpoint(stream, System.currentTimeMillis(), true);
+        }
+    }
+
+    /** The game was scored or voided: its checkpoint file is no longer needed. Any thread. */
+    public void finish(String gameId) {
+        if (!enabled) {
+            return;
+        }
+        streams.remove(gameId);
+        File file = fileOf(gameId);
+        writer.execute(() -> {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (IOException e) {
+                plugin.getLogger().warning("Could not delete checkpoint of game #" + gameId + ": " + e.getMessage());
+            }
+        });
+    }
+
+    void checkpoint() {
+        if (streams.isEmpty()) {
+            if (task != null) {
+                task.cancel();
+                task = null;
+            }
+            return;
+        }
+        if (writer.getQueued() >= MAX_QUEUED_WRITES) {
+            plugin.debug("Checkpoint writer is " + writer.getQueued() + " writes behind, skipping this round");
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (GameDeltaStream stream : streams.values()) {
+            checkpoint(stream, now, false);
+        }
+    }
+
+    private void checkpoint(GameDeltaStream stream, long now, boolean last) {
+        JsonObject delta = stream.delta(now, maxTimelineEvents, last);
+        if (delta != null) {
+            delta.addProperty("type", "checkpoint");
+            delta.addProperty("checkpoint_at", now);
+            write(stream.game.getGameId(), delta);
+        }
+    }
+
+    private void write(String gameId, JsonObject record) {
+        File file = fileOf(gameId);
+        writer.execute(() -> {
+            File parent = file.getParentFile();
+            if (!parent.exists() && !parent.mkdirs()) {
+                plugin.getLogger().warning("Failed to create checkpoint directory: " + parent.getAbsolutePath());
+                return;
+            }
+            byte[] line = (record.toString() + "\n").getBytes(StandardCharsets.UTF_8);
+            try (FileChannel channel = FileChannel.open(file.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                channel.write(ByteBuffer.wrap(line));
+                channel.force(false);
+            } catch (IOException e) {
+                plugin.getLogger().warning("Could not write checkpoint of game #" + gameId + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private File fileOf(String gameId) {
+        return new File(folder(), "game_" + gameId.replaceAll("[^A-Za-z0-9_-]", "_") + ".jsonl");
+    }
+
+    /**
+     * Reads the checkpoint files left by games that did not finish. They are
+     * deleted once reported. Call once on enable, before any game starts.
+     */
+    public void recover() {
+        if (!enabled) {
+            return;
+        }
+        File[] files = folder().listFiles((dir, name) -> name.endsWith(".jsonl"));
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            try {
+                JsonObject game = replay(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+                if (game == null) {
+                    Files.delete(file.toPath());
+                    continue;
+                }
+                synchronized (recovered) {
+                    recovered.put(file, game);
+                }
+                plugin.getLogger().warning("Game #" + game.get("game_id").getAsString() + " on "
+                        + game.get("map").getAsString() + " did not finish before the last shutdown");
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Could not read checkpoint " + file.getName(), e);
+            }
+        }
+    }
+
+    /** Merges the records of one checkpoint file; a torn last line is ignored. */
+    static JsonObject replay(List<String> lines) {
+        JsonObject game = null;
+        JsonObject teams = new JsonObject();
+        JsonObject players = new JsonObject();
+        JsonArray timeline = new JsonArray();
+        int dropped = 0;
+        for (String line : lines) {
+            JsonObject record;
+            try {
+                record = JsonParser.parseString(line).getAsJsonObject();
+            } catch (Exception e) {
+                break;
+            }
+            if (game == null) {
+                if (!"start".equals(optString(record, "type"))) {
+                    return null;
+                }
+                game = record;
+                game.remove("type");
+                continue;
+            }
+            if (record.has("teams")) {
+                record.getAsJsonObject("teams").entrySet().forEach(team -> teams.add(team.getKey(), team.getValue()));
+            }
+            if (record.has("players")) {
+                for (Map.Entry<String, JsonElement> player : record.getAsJsonObject("players").entrySet()) {
+                    if (!players.has(player.getKey())) {
+                        players.add(player.getKey(), new JsonObject());
+                    }
+                    JsonObject counters = players.getAsJsonObject(player.getKey());
+                    player.getValue().getAsJsonObject().entrySet().forEach(counter -> counters.add(counter.getKey(), counter.getValue()));
+                }
+            }
+            if (record.has("timeline")) {
+                timeline.addAll(record.getAsJsonArray("timeline"));
+            }
+            if (record.has("timeline_dropped")) {
+                dropped += record.get("timeline_dropped").getAsInt();
+            }
+            game.add("elapsed", record.get("elapsed"));
+            game.add("last_checkpoint", record.get("checkpoint_at"));
+        }
+        if (game == null) {
+            return null;
+        }
+        game.add("teams", teams);
+        game.add("players", players);
+        game.add("timeline", timeline);
+        if (dropped > 0) {
+            game.addProperty("timeline_dropped", dropped);
+        }
+        return game;
+    }
+
+    private static String optString(JsonObject json, String key) {
+        return json.has(key) ? json.get(key).getAsString() : null;
+    }
+
+    /**
+     * Sends the recovered games to the bot, as game_recovered or, with
+     * checkpoint.recovery: void, as voiding with the partial stats attached.
+     * A game and its file are only dropped once the message is handed off;
+     * the rest are kept for the next connection.
+     */
+    public void reportRecovered() {
+        WebSocketManager webSocket = plugin.getWebSocketManager();
+        if (webSocket == null || !webSocket.isConnected()) {
+            return;
+        }
+        // Held for the whole round so two connections cannot report a game twice
+        synchronized (recovered) {
+            Iterator<Map.Entry<File, JsonObject>> games = recovered.entrySet().iterator();
+            while (games.hasNext()) {
+                Map.Entry<File, JsonObject> entry = games.next();
+                JsonObject game = entry.getValue();
+                String gameId = game.get("game_id").getAsString();
+                JsonObject message = new JsonObject();
+                if (voidRecovered) {
+                    message.addProperty("type", "voiding");
+                    message.addProperty("gameid", gameId);
+                    message.addProperty("reason", "[system] voided because the game server stopped during the game");
+                    message.add("partial", game);
+                } else {
+                    message.addProperty("type", "game_recovered");
+                    game.entrySet().forEach(field -> message.add(field.getKey(), field.getValue()));
+                }
+                if (!webSocket.sendMessage(message.toString())) {
+                    plugin.debug("Could not report unfinished game #" + gameId + ", keeping it for the next connection");
+                    return;
+                }
+                games.remove();
+                if (!entry.getKey().delete()) {
+                    plugin.getLogger().warning("Could not delete checkpoint " + entry.getKey().getName());
+                }
+                plugin.getLogger().info("Reported unfinished game #" + gameId + " to the bot"
+                        + (voidRecovered ? " as voided" : ""));
+            }
+        }
+    }
+
+    public int getRecoveredCount() {
+        synchronized (recovered) {
+            return recovered.size();
+        }
+    }
+
+    /**
+     * Writes a last checkpoint of the running games and waits up to
+     * timeoutMillis for the writer. The files stay, so the games are recovered
+     * on the next enable. Returns false if writes were still pending.
+     */
+    public boolean shutdown(long timeoutMillis) {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        long now = System.currentTimeMillis();
+        for (GameDeltaStream stream : streams.values()) {
+            checkpoint(stream, now, true);
+        }
+        streams.clear();
+        try {
+            if (!writer.awaitIdle(timeoutMillis)) {
+                plugin.getLogger().warning("Checkpoint writer did not finish in time");
+                return false;
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,50 +1,65 @@
 package com.deyo.rbw.managers;
 
 import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.jfr.GameDataWriteEvent;
 import com.deyo.rbw.models.Game;
+import com.deyo.rbw.utils.AtomicFiles;
+import com.deyo.rbw.utils.PluginExecutors;
+import com.deyo.rbw.utils.SerialExecutor;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
-import org.bukkit.Bukkit;
 import org.bukkit.configuration.file.FileConfiguration;
 
 import java.io.File;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.logging.Level;
 
-
- 
+/**
+ * Saves warp and result data of games as JSON files under data-storage.folder-path.
+ * Writes run in order on the io lane and replace each file atomically, so a
+ * server stopped mid-write never leaves a truncated file.
+ */
 public class GameDataManager {
     
     private final RankedBedwars plugin;
     private final ThreadLocal<SimpleDateFormat> dateFormat = ThreadLocal.withInitial(() -> new SimpleDateFormat("yyyy-MM-dd"));
     private final ThreadLocal<SimpleDateFormat> timeFormat = ThreadLocal.withInitial(() -> new SimpleDateFormat("HH-mm-ss"));
-    private final File dataFolder;
-    private final boolean enabled;
+    // Both replaced by applyConfig() on reload
+    private volatile File dataFolder;
+    private volatile boolean enabled;
+    private final SerialExecutor writer;
     
     public GameDataManager(RankedBedwars plugin) {
         this.plugin = plugin;
-        
+        this.writer = plugin.getExecutors().serial(PluginExecutors.Lane.IO);
+        applyConfig();
+    }
+
+    /** Reads data-storage.enabled and data-storage.folder-path again. */
+    public void applyConfig() {
         FileConfiguration config = plugin.getConfig();
-        this.enabled = config.getBoolean("data-storage.enabled", true);
+        boolean enabled = config.getBoolean("data-storage.enabled", true);
         
         String folderPath = config.getString("data-storage.folder-path", "games");
-        this.dataFolder = new File(plugin.getDataFolder(), folderPath);
+        File dataFolder = new File(plugin.getDataFolder(), folderPath);
         
         if (enabled && !dataFolder.exists() && !dataFolder.mkdirs()) {
             plugin.getLogger().warning("Failed to create data directory: " + dataFolder.getAbsolutePath());
         }
+        this.dataFolder = dataFolder;
+        this.enabled = enabled;
     }
     public void saveGameWarpData(String gameId, String mapName, JsonObject team1Json, JsonObject team2Json, boolean isRanked) {
         if (!enabled) {
             return;
         }
         
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        writer.execute(() -> {
             try {
                 JsonObject warpData = new JsonObject();
                 warpData.addProperty("type", "warp_data");
@@ -70,7 +85,7 @@ public class GameDataManager {
             return;
         }
         
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        writer.execute(() -> {
             try {
                 String json = plugin.getGson().toJson(game);
                 JsonObject resultJson = JsonParser.parseString(json).getAsJsonObject();
@@ -96,10 +111,11 @@ public class GameDataManager {
         String filename = String.format("game_%s_%s_%s.json", gameId, type, timestamp);
         File file = new File(dateFolder, filename);
         
-        try (FileWriter writer = new FileWriter(file)) {
-            plugin.getGson().toJson(data, writer);
-            plugin.debug("Saved game " + type + " data to " + file.getAbsolutePath());
-        }
+        GameDataWriteEvent writeEvent = new GameDataWriteEvent();
+        writeEvent.begin();
+        AtomicFiles.write(file.toPath(), plugin.getGson().toJson(data).getBytes(StandardCharsets.UTF_8));
+        plugin.debug("Saved game " + type + " data to " + file.getAbsolutePath());
+        commitWriteEvent(writeEvent, gameId, type, file);
     }
     
     private void appendToWarpFile(JsonObject warpData, String gameId) throws IOException {
@@ -113,6 +129,8 @@ public class GameDataManager {
         String filename = String.format("game_%s_warp.json", gameId);
         File file = new File(dateFolder, filename);
         
+        GameDataWriteEvent writeEvent = new GameDataWriteEvent();
+        writeEvent.begin();
         JsonArray warpsArray;
         
         if (file.exists()) {
@@ -129,13 +147,32 @@ public class GameDataManager {
         
         warpsArray.add(warpData);
         
-        try (FileWriter writer = new FileWriter(file)) {
-            plugin.getGson().toJson(warpsArray, writer);
-            plugin.debug("Updated game warp data in " + file.getAbsolutePath());
+        AtomicFiles.write(file.toPath(), plugin.getGson().toJson(warpsArray).getBytes(StandardCharsets.UTF_8));
+        plugin.debug("Updated game warp data in " + file.getAbsolutePath());
+        commitWriteEvent(writeEvent, gameId, "warp", file);
+    }
+
+    private void commitWriteEvent(GameDataWriteEvent event, String gameId, String kind, File file) {
+        if (event.shouldCommit()) {
+            event.gameId = gameId;
+            event.kind = kind;
+            event.path = file.getPath();
+            event.size = file.length();
+            event.commit();
         }
     }
     
     public boolean isEnabled() {
         return enabled;
     }
+
+    /** Waits up to timeoutMillis for the queued writes; false if some are still pending. */
+    public boolean awaitWrites(long timeoutMillis) {
+        try {
+            return writer.awaitIdle(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
 }
@@ -0,0 +1,163 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.models.Game;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Diffs a running {@link Game} against what was last taken from it: the
+ * counters that changed and the timeline events added since. Used by the live
+ * feed and by the checkpoints, each with its own stream per game.
+ *
+ * Only the live feed's stream seals the timeline, since only its deltas reach
+ * the bot. A checkpoint stream leaves coalescing alone and instead holds back
+ * the timeline from the first event that can still be folded into.
+ *
+ * Must be read on the thread that updates the game, i.e. the main thread.
+ */
+final class GameDeltaStream {
+
+    /** Counter names, in the order of {@link #counters}; the same names as in game_scoring. */
+    static final String[] COUNTERS = {
+            "kills", "deaths", "finalkills", "beds", "blocksplaced", "diamonds", "irons", "gold", "emeralds"
+    };
+
+    final Game game;
+    // player -> counters as of the last delta
+    private final Map<String, int[]> sent = new HashMap<>();
+    private int timelineSent;
+    private int seq;
+    private final boolean seals;
+    private final long openMillis;
+    long lastSent;
+    volatile boolean urgent;
+
+    /** A stream whose deltas are sent to the bot; taken events are sealed. */
+    GameDeltaStream(Game game, long now) {
+        this(game, now, true, 0L);
+    }
+
+    /** A stream that does not seal; coalesced events younger than openMillis are held back. */
+    GameDeltaStream(Game game, long now, long openMillis) {
+        this(game, now, false, openMillis);
+    }
+
+    private GameDeltaStream(Game game, long now, boolean seals, long openMillis) {
+        this.game = game;
+        this.lastSent = now;
+        this.seals = seals;
+        this.openMillis = Math.max(0, openMillis);
+    }
+
+    static int[] counters(Game game, String player) {
+        return new int[] {
+                game.getPlayerKills().getOrDefault(player, 0),
+                game.getPlayerDeaths().getOrDefault(player, 0),
+                game.getPlayerFinalKills().getOrDefault(player, 0),
+                game.getPlayerBedsDestroyed().getOrDefault(player, 0),
+                game.getPlayerBlocksPlaced().getOrDefault(player, 0),
+                game.getPlayerDiamondsCollected().getOrDefault(player, 0),
+                game.getPlayerIronCollected().getOrDefault(player, 0),
+                game.getPlayerGoldCollected().getOrDefault(player, 0),
+                game.getPlayerEmeraldsCollected().getOrDefault(player, 0)
+        };
+    }
+
+    /**
+     * The changes since the previous delta, or null if there are none. The
+     * first delta also holds the map and the teams. At most maxEvents of the
+     * newest timeline events are included; older ones are only counted in
+     * timeline_dropped.
+     */
+    JsonObject delta(long now, int maxEvents) {
+        return delta(now, maxEvents, false);
+    }
+
+    /** As {@link #delta(long, int)}; with last, events still held back are taken too. */
+    JsonObject delta(long now, int maxEvents, boolean last) {
+        lastSent = now;
+        urgent = false;
+
+        JsonObject players = new JsonObject();
+        for (String player : game.getPlayerKills().keySet()) {
+            int[] current = counters(game, player);
+            int[] previous = sent.get(player);
+            JsonObject changed = new JsonObject();
+            for (int i = 0; i < current.length; i++) {
+                if (previous == null || previous[i] != current[i]) {
+                    changed.addProperty(COUNTERS[i], current[i]);
+                }
+            }
+            if (changed.size() > 0) {
+                players.add(player, changed);
+                sent.put(player, current);
+            }
+        }
+
+        JsonArray timeline = new JsonArray();
+        List<Map<String, Object>> events = game.getTimeline();
+        int end = last ? events.size() : settled(events, now - game.getStartTime());
+        int from = Math.max(timelineSent, end - maxEvents);
+        int dropped = from - timelineSent;
+        for (Map<String, Object> event : events.subList(from, end)) {
+            timeline.add(event(event));
+        }
+        timelineSent = end;
+        if (seals) {
+            game.sealTimeline(end);
+        }
+
+        if (seq > 0 && players.size() == 0 && timeline.size() == 0) {
+            return null;
+        }
+        JsonObject delta = new JsonObject();
+        delta.addProperty("game_id", game.getGameId());
+        delta.addProperty("seq", ++seq);
+        delta.addProperty("elapsed", now - game.getStartTime());
+        if (seq == 1) {
+            delta.addProperty("map", game.getMap());
+            JsonObject teams = new JsonObject();
+            game.getPlayerTeamName().forEach(teams::addProperty);
+            delta.add("teams", teams);
+        }
+        if (players.size() > 0) {
+            delta.add("players", players);
+        }
+        if (timeline.size() > 0) {
+            delta.add("timeline", timeline);
+        }
+        if (dropped > 0) {
+            delta.addProperty("timeline_dropped", dropped);
+        }
+        return delta;
+    }
+
+    /** The index of the first unsent event that may still be folded into, or the timeline size. */
+    private int settled(List<Map<String, Object>> events, long elapsed) {
+        for (int i = Math.max(timelineSent, game.getSealedTimeline()); i < events.size(); i++) {
+            Object timestamp = events.get(i).get("timestamp");
+            if (events.get(i).containsKey("end_timestamp")
+                    && elapsed - ((Number) timestamp).longValue() < openMillis) {
+                return i;
+            }
+        }
+        return events.size();
+    }
+
+    private static JsonObject event(Map<String, Object> event) {
+        JsonObject json = new JsonObject();
+        for (Map.Entry<String, Object> field : event.entrySet()) {
+            Object value = field.getValue();
+            if (value instanceof Number) {
+                json.addProperty(field.getKey(), (Number) value);
+            } else if (value != null) {
+                json.addProperty(field.getKey(), value.toString());
+            }
+        }
+        return json;
+    }
+}
@@ -0,0 +1,133 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.models.Game;
+import com.deyo.rbw.utils.PluginExecutors;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams the stats of running games to the bot as {@code game_delta}
+ * messages, so the bot does not have to wait for game_scoring.
+ *
+ * A game is due every live-feed.interval-seconds, or as soon as possible
+ * after a bed break or final kill, but never more often than
+ * live-feed.min-interval-ms. A delta only holds the counters that changed and
+ * the timeline events added since the previous delta of that game; the first
+ * one also holds the teams. All games due in the same run share one frame.
+ *
+ * The trackers are read on the main thread, where they are updated; the frame
+ * is serialized and sent asynchronously.
+ */
+public final class LiveGameFeed {
+
+    private final RankedBedwars plugin;
+    private final boolean enabled;
+    private final long intervalMillis;
+    private final long minIntervalMillis;
+
+    private final Map<String, GameDeltaStream> streams = new ConcurrentHashMap<>();
+    private BukkitTask task;
+
+    public LiveGameFeed(RankedBedwars plugin) {
+        this.plugin = plugin;
+        FileConfiguration config = plugin.getConfig();
+        this.enabled = config.getBoolean("live-feed.enabled", false);
+        long seconds = config.getLong("live-feed.interval-seconds", 5L);
+        long minMillis = config.getLong("live-feed.min-interval-ms", 1000L);
+        this.intervalMillis = TimeUnit.SECONDS.toMillis(seconds > 0 ? seconds : 5L);
+        this.minIntervalMillis = Math.min(intervalMillis, minMillis > 0 ? minMillis : 1000L);
+    }
+
+    LiveGameFeed(RankedBedwars plugin, long intervalMillis, long minIntervalMillis) {
+        this.plugin = plugin;
+        this.enabled = true;
+        this.intervalMillis = intervalMillis;
+        this.minIntervalMillis = minIntervalMillis;
+    }
+
+    /** Starts streaming game, whose maps the tracker keeps updating until the game ends. Main thread only. */
+    public void track(Game game) {
+        if (!enabled) {
+            return;
+        }
+        streams.put(game.getGameId(), new GameDeltaStream(game, System.currentTimeMillis()));
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 10L, 10L);
+        }
+    }
+
+    /** Stops streaming gameId; anything not yet sent is covered by game_scoring. */
+    public void untrack(String gameId) {
+        streams.remove(gameId);
+    }
+
+    /** Marks a bed break or final kill, so gameId is sent after the minimum interval instead of the full one. */
+    public void significant(String gameId) {
+        GameDeltaStream stream = streams.get(gameId);
+        if (stream != null) {
+            stream.urgent = true;
+        }
+    }
+
+    public int getTracked() {
+        return streams.size();
+    }
+
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        streams.clear();
+    }
+
+    void tick() {
+        if (streams.isEmpty()) {
+            if (task != null) {
+                task.cancel();
+                task = null;
+            }
+            return;
+        }
+        WebSocketManager webSocket = plugin.getWebSocketManager();
+        // Nothing is marked as sent while offline, so the first delta after a reconnect covers the gap
+        if (webSocket == null || !webSocket.isConnected()) {
+            return;
+        }
+        JsonObject frame = collect(System.currentTimeMillis());
+        if (frame != null) {
+            plugin.getExecutors().execute(PluginExecutors.Lane.SERIALIZATION, () -> webSocket.sendMessage(frame.toString()));
+        }
+    }
+
+    /** Builds the frame of all games due at now, or null if none changed. */
+    JsonObject collect(long now) {
+        JsonArray games = new JsonArray();
+        for (GameDeltaStream stream : streams.values()) {
+            long elapsed = now - stream.lastSent;
+            if (elapsed < minIntervalMillis || (!stream.urgent && elapsed < intervalMillis)) {
+                continue;
+            }
+            JsonObject delta = stream.delta(now, Integer.MAX_VALUE);
+            if (delta != null) {
+                games.add(delta);
+            }
+        }
+        if (games.size() == 0) {
+            return null;
+        }
+        JsonObject frame = new JsonObject();
+        frame.addProperty("type", "game_delta");
+        frame.addProperty("timestamp", now);
+        frame.add("games", games);
+        return frame;
+    }
+}
@@ -2,13 +2,20 @@ package com.deyo.rbw.managers;
 
 import com.deyo.rbw.RankedBedwars;
 import com.deyo.rbw.bedwars.BedwarsAPIManager;
+import com.deyo.rbw.jfr.ArenaValidatedEvent;
+import com.deyo.rbw.jfr.PlayersTeleportedEvent;
+import com.deyo.rbw.utils.PluginExecutors;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
 
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Enhanced Map Manager that handles arena groups with multiple knockback variants.
@@ -98,15 +105,52 @@ public class MapManager {
     private final Map<String, String> gameIdToPhysicalArenaMap = new ConcurrentHashMap<>();
     
     
-    private final Set<String> lockedArenaGroups = ConcurrentHashMap.newKeySet();
+    // groupId -> lease of the game using it; a group is locked while it has an unexpired lease
+    private final Map<String, ArenaLease> leases = new ConcurrentHashMap<>();
+    private final AtomicLong fencingTokens = new AtomicLong();
     private final Set<String> disabledArenaGroups = ConcurrentHashMap.newKeySet();
     private final Set<String> allowedGroups = new HashSet<>();
-    
-    
+    // Completed with the number of arena groups by the first load that finds any
+    private final CompletableFuture<Integer> arenasLoaded = new CompletableFuture<>();
+    // How long a lease lives before the game starts, and after
+    private final long warpLeaseMillis;
+    private final long gameLeaseMillis;
+    private final WarpPipeline warpPipeline;
+    private final ArenaStandbyManager standby;
+    private final LiveGameFeed liveFeed;
+    private final GameCheckpoints checkpoints;
     
 
     public MapManager(RankedBedwars plugin) {
         this.plugin = plugin;
+        FileConfiguration config = plugin.getConfig();
+        this.warpLeaseMillis = leaseMillis(config, "arena-lease.warp-timeout-seconds", 120L);
+        this.gameLeaseMillis = leaseMillis(config, "arena-lease.max-game-seconds", 7200L);
+        this.warpPipeline = new WarpPipeline(plugin);
+        this.standby = new ArenaStandbyManager(plugin, this);
+        this.liveFeed = new LiveGameFeed(plugin);
+        this.checkpoints = new GameCheckpoints(plugin);
+    }
+
+    public WarpPipeline getWarpPipeline() {
+        return warpPipeline;
+    }
+
+    public ArenaStandbyManager getStandby() {
+        return standby;
+    }
+
+    public LiveGameFeed getLiveFeed() {
+        return liveFeed;
+    }
+
+    public GameCheckpoints getCheckpoints() {
+        return checkpoints;
+    }
+
+    private static long leaseMillis(FileConfiguration config, String key, long defaultSeconds) {
+        long seconds = config.getLong(key, defaultSeconds);
+        return TimeUnit.SECONDS.toMillis(seconds > 0 ? seconds : defaultSeconds);
     }
     
 
@@ -273,42 +317,46 @@ public class MapManager {
     
     public void finishMapInitialization(String implementationName) {
         plugin.getLogger().info("Initialized " + arenaGroups.size() + " arena groups from " + implementationName);
+        if (!arenaGroups.isEmpty()) {
+            arenasLoaded.complete(arenaGroups.size());
+        }
         sendMapInfoToBot();
     }
 
-    public void sendMapInfoToBot() {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-			JsonObject mapsJson = new JsonObject();
-			mapsJson.addProperty("type", "maps_info");
-            JsonArray reserved = new JsonArray();
-            JsonArray locked = new JsonArray();
-            JsonArray disabled = new JsonArray();
-            JsonArray all = new JsonArray();
-
-            for (ArenaGroup arenaGroup : arenaGroups.values()) {
-                JsonObject entry = new JsonObject();
-                entry.addProperty("name", arenaGroup.getDisplayName());
-                entry.addProperty("maxplayers", arenaGroup.getMaxPlayers());
-                
-            
-                all.add(entry);
-
-                if (isArenaGroupDisabled(arenaGroup.getGroupId())) {
-                    disabled.add(entry);
-                } else if (isArenaGroupLocked(arenaGroup.getGroupId())) {
-                    locked.add(entry);
+    /**
+     * Loads the arenas now and again every retryTicks until the BedWars plugin
+     * has registered at least one, which it may do some time after enabling.
+     * The future completes with the number of arena groups.
+     */
+    public CompletableFuture<Integer> loadArenas(long retryTicks) {
+        if (!arenasLoaded.isDone()) {
+            Runnable attempt = () -> {
+                if (arenasLoaded.isDone()) {
+                    return;
+                }
+                if (BedwarsAPIManager.isAvailable()) {
+                    BedwarsAPIManager.getImplementation().initializeMaps();
                 } else {
-                    reserved.add(entry);
+                    plugin.debug("Waiting for a BedWars implementation before loading arenas");
                 }
-            }
+            };
+            attempt.run();
+            org.bukkit.scheduler.BukkitTask retry = Bukkit.getScheduler().runTaskTimer(plugin, attempt, retryTicks, retryTicks);
+            arenasLoaded.whenComplete((groups, error) -> retry.cancel());
+        }
+        return arenasLoaded;
+    }
 
-            mapsJson.add("reserved", reserved);
-            mapsJson.add("locked", locked);
-            mapsJson.add("disabled", disabled);
-            mapsJson.add("all", all);
+    public boolean areArenasLoaded() {
+        return arenasLoaded.isDone();
+    }
+
+    public void sendMapInfoToBot() {
+        plugin.getExecutors().execute(PluginExecutors.Lane.SERIALIZATION, () -> {
+            JsonObject mapsJson = buildMapInfoPayload();
 
             if (plugin.getWebSocketManager() != null && plugin.getWebSocketManager().isConnected()) {
-                plugin.getWebSocketManager().sendMessage(mapsJson.toString());
+                plugin.getWebSocketManager().sendPayload(mapsJson);
                 plugin.debug("Sent simplified maps information via WebSocket");
             } else {
                 String reason = plugin.getWebSocketManager() == null ? "WebSocketManager is null" : "WebSocket not connected";
@@ -317,9 +365,71 @@ public class MapManager {
             }
         });
     }
-    
 
-    
+    /**
+     * Builds the maps_info message describing every arena group and whether it is
+     * free (reserved), locked by a running game or disabled.
+     */
+    JsonObject buildMapInfoPayload() {
+        JsonObject mapsJson = new JsonObject();
+        mapsJson.addProperty("type", "maps_info");
+        JsonArray reserved = new JsonArray();
+        JsonArray locked = new JsonArray();
+        JsonArray disabled = new JsonArray();
+        JsonArray all = new JsonArray();
+
+        for (ArenaGroup arenaGroup : arenaGroups.values()) {
+            JsonObject entry = new JsonObject();
+            entry.addProperty("name", arenaGroup.getDisplayName());
+            entry.addProperty("maxplayers", arenaGroup.getMaxPlayers());
+
+            all.add(entry);
+
+            if (isArenaGroupDisabled(arenaGroup.getGroupId())) {
+                disabled.add(entry);
+            } else if (isArenaGroupLocked(arenaGroup.getGroupId())) {
+                locked.add(entry);
+            } else {
+                reserved.add(entry);
+            }
+        }
+
+        mapsJson.add("reserved", reserved);
+        mapsJson.add("locked", locked);
+        mapsJson.add("disabled", disabled);
+        mapsJson.add("all", all);
+        mapsJson.add("server", buildServerInfo(reserved));
+        return mapsJson;
+    }
+
+    /**
+     * Identity and spare capacity of this server, so a bot driving several game
+     * servers can pick the least loaded one and address warp_players to it.
+     */
+    private JsonObject buildServerInfo(JsonArray reserved) {
+        WebSocketManager webSocketManager = plugin.getWebSocketManager();
+        JsonObject server = new JsonObject();
+        server.addProperty("id", webSocketManager != null ? webSocketManager.getServerId() : "default");
+        JsonArray groups = new JsonArray();
+        arenaGroups.keySet().stream().sorted().forEach(groups::add);
+        server.add("arena_groups", groups);
+        int freeSlots = 0;
+        for (int i = 0; i < reserved.size(); i++) {
+            freeSlots += reserved.get(i).getAsJsonObject().get("maxplayers").getAsInt();
+        }
+        server.addProperty("free_arenas", reserved.size());
+        server.addProperty("free_slots", freeSlots);
+        server.addProperty("players", plugin.getPlayerIndex().size());
+        server.addProperty("max_players", Bukkit.getMaxPlayers());
+        server.addProperty("tps", webSocketManager != null ? webSocketManager.getServerTPS() : 20.0);
+        return server;
+    }
+
+    private void addServerId(JsonObject response) {
+        if (plugin.getWebSocketManager() != null) {
+            response.addProperty("server_id", plugin.getWebSocketManager().getServerId());
+        }
+    }
     
     public void disableArenaGroup(String groupId) {
         disabledArenaGroups.add(groupId);
@@ -365,28 +475,38 @@ public class MapManager {
         plugin.debug("Warping players for game #" + gameId + " on requested map " + requestedMap + " (ranked: " + isRanked + ")");
 
         String physicalArenaToUse = requestedMap;
+        ArenaValidatedEvent validatedEvent = new ArenaValidatedEvent();
+        validatedEvent.begin();
+        validatedEvent.gameId = gameId;
+        validatedEvent.arena = physicalArenaToUse;
 
         if (!physicalArenaToGroupMap.containsKey(physicalArenaToUse)) {
             plugin.getLogger().warning("Map not found: " + requestedMap);
+            commitArenaValidated(validatedEvent, "not_found");
             sendWarpFailedArenaNotFound(gameId, requestedMap);
             return;
         }
 
         if (isMapDisabled(physicalArenaToUse)) {
             plugin.getLogger().warning("Map is disabled: " + physicalArenaToUse);
+            commitArenaValidated(validatedEvent, "disabled");
             sendWarpFailedArenaNotFound(gameId, requestedMap);
             return;
         }
 
-        if (isMapLocked(physicalArenaToUse)) {
+        ArenaLease lease = acquireLease(physicalArenaToUse, gameId);
+        if (lease == null) {
             plugin.getLogger().warning("Map is already locked: " + physicalArenaToUse);
+            commitArenaValidated(validatedEvent, "locked");
             sendWarpFailedArenaNotFound(gameId, requestedMap);
             return;
         }
 
-        cleanupExistingGameForMap(physicalArenaToUse);
-
-        lockMap(physicalArenaToUse);
+        if (standby.onLeased(lease.getGroupId())) {
+            warpPipeline.prewarmed(gameId);
+        }
+        cleanupExistingGameForMap(physicalArenaToUse, lease.getToken());
+        commitArenaValidated(validatedEvent, "");
 
         gameIdToPhysicalArenaMap.put(gameId, physicalArenaToUse);
 
@@ -402,31 +522,139 @@ public class MapManager {
         }
     }
     
+
+    private void commitArenaValidated(ArenaValidatedEvent event, String reason) {
+        if (event.shouldCommit()) {
+            event.valid = reason.isEmpty();
+            event.reason = reason;
+            event.commit();
+        }
+    }
     
-    public void lockArenaGroup(String groupId) {
-        lockedArenaGroups.add(groupId);
-        plugin.debug("Locked arena group: " + groupId);
+    /**
+     * Leases the arena group of mapName for gameId. Returns null if the group is
+     * unknown or another game holds an unexpired lease on it. The lease expires
+     * after arena-lease.warp-timeout-seconds unless the game starts.
+     */
+    public ArenaLease acquireLease(String mapName, String gameId) {
+        String groupId = physicalArenaToGroupMap.get(mapName);
+        if (groupId == null) {
+            plugin.getLogger().warning("Cannot lock arena '" + mapName + "' - not found in any group");
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        ArenaLease[] acquired = new ArenaLease[1];
+        leases.compute(groupId, (id, current) -> {
+            if (current != null && !current.isExpired(now)) {
+                return current;
+            }
+            acquired[0] = new ArenaLease(id, mapName, gameId, fencingTokens.incrementAndGet(), now + warpLeaseMillis, false);
+            return acquired[0];
+        });
+        if (acquired[0] == null) {
+            return null;
+        }
+        plugin.debug("Leased arena group " + acquired[0]);
         sendMapInfoToBot();
+        return acquired[0];
     }
-    
+
+    /**
+     * Called when the game for gameId actually starts: the lease is extended to
+     * arena-lease.max-game-seconds. Returns the fencing token the game must use
+     * to release the arena, or 0 if gameId holds no lease on it.
+     */
+    public long markGameStarted(String mapName, String gameId) {
+        String groupId = physicalArenaToGroupMap.get(mapName);
+        if (groupId == null) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        ArenaLease lease = leases.computeIfPresent(groupId, (id, current) ->
+                current.isHeldBy(gameId) && !current.isExpired(now) ? current.start(now + gameLeaseMillis) : current);
+        if (lease == null || !lease.isHeldBy(gameId)) {
+            plugin.debug("Game #" + gameId + " started on " + mapName + " without holding its lease");
+            return 0;
+        }
+        return lease.getToken();
+    }
+
+    /**
+     * Releases the arena group of mapName if token is still the current lease's
+     * token. A release from a game whose lease has already expired or been
+     * replaced is ignored.
+     */
+    public boolean releaseLease(String mapName, long token) {
+        String groupId = physicalArenaToGroupMap.get(mapName);
+        if (groupId == null) {
+            plugin.getLogger().warning("Cannot unlock arena '" + mapName + "' - not found in any group");
+            return false;
+        }
+        boolean[] released = new boolean[1];
+        leases.computeIfPresent(groupId, (id, current) -> {
+            if (current.getToken() != token) {
+                return current;
+            }
+            released[0] = true;
+            return null;
+        });
+        if (!released[0]) {
+            plugin.debug("Ignored release of arena group " + groupId + " with stale token " + token);
+            return false;
+        }
+        onGroupReleased(groupId);
+        plugin.debug("Released arena group " + groupId + " (token " + token + ")");
+        return true;
+    }
+
+    /**
+     * Drops leases that ran out, e.g. a warp whose game never started.
+     */
+    void expireLeases(long now) {
+        for (ArenaLease lease : leases.values()) {
+            if (lease.isExpired(now) && leases.remove(lease.getGroupId(), lease)) {
+                plugin.getLogger().warning("Lease on arena group " + lease + " expired"
+                        + (lease.isStarted() ? "" : " before the game started") + ", arena is free again");
+                onGroupReleased(lease.getGroupId());
+            }
+        }
+    }
+
+    /**
+     * Releases the group whatever lease holds it. Admin use only; games release
+     * through {@link #releaseLease(String, long)}.
+     */
     public void unlockArenaGroup(String groupId) {
-        lockedArenaGroups.remove(groupId);
+        if (leases.remove(groupId) != null) {
+            onGroupReleased(groupId);
+        }
+        plugin.debug("Unlocked arena group: " + groupId);
+    }
+
+    private void onGroupReleased(String groupId) {
         ArenaGroup group = arenaGroups.get(groupId);
         if (group != null) {
-            group.setCurrentlyUsed(null); 
+            group.setCurrentlyUsed(null);
         }
-        plugin.debug("Unlocked arena group: " + groupId);
         sendMapInfoToBot();
     }
+
+    public ArenaLease getLease(String mapName) {
+        String groupId = physicalArenaToGroupMap.get(mapName);
+        ArenaLease lease = groupId != null ? leases.get(groupId) : null;
+        return lease != null && !lease.isExpired(System.currentTimeMillis()) ? lease : null;
+    }
     
     public boolean isArenaGroupLocked(String groupId) {
-        return lockedArenaGroups.contains(groupId);
+        ArenaLease lease = leases.get(groupId);
+        return lease != null && !lease.isExpired(System.currentTimeMillis());
     }
     
     /**
-     * Clean up any existing game data for the specified arena group
+     * Clean up any existing game data for the specified arena group. Only the
+     * holder of the group's current lease may do this.
      */
-    public void cleanupExistingGameForArenaGroup(String groupId) {
+    public void cleanupExistingGameForArenaGroup(String groupId, long token) {
         plugin.debug("Cleaning up existing game data for arena group: " + groupId);
         
         ArenaGroup group = arenaGroups.get(groupId);
@@ -437,7 +665,7 @@ public class MapManager {
         
         
         for (String physicalArenaName : group.getAllPhysicalArenaNames()) {
-            cleanupExistingGameForMap(physicalArenaName);
+            cleanupExistingGameForMap(physicalArenaName, token);
         }
         
         
@@ -448,10 +676,20 @@ public class MapManager {
     
     
     public void sendWarpSuccess(String gameId) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        PlayersTeleportedEvent teleportedEvent = new PlayersTeleportedEvent();
+        if (teleportedEvent.isEnabled()) {
+            teleportedEvent.gameId = gameId;
+            teleportedEvent.commit();
+        }
+        JsonObject timings = warpPipeline.takeTimings(gameId);
+        plugin.getExecutors().execute(PluginExecutors.Lane.SERIALIZATION, () -> {
             JsonObject response = new JsonObject();
             response.addProperty("type", "warp_success");
             response.addProperty("gameId", gameId);
+            addServerId(response);
+            if (timings != null) {
+                response.add("timings", timings);
+            }
             if (plugin.getWebSocketManager() != null) {
                 plugin.getWebSocketManager().sendMessage(response.toString());
             }
@@ -459,10 +697,12 @@ public class MapManager {
     }
 
     public void sendWarpFailedArenaNotFound(String gameId, String mapName) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        warpPipeline.discard(gameId);
+        plugin.getExecutors().execute(PluginExecutors.Lane.SERIALIZATION, () -> {
             JsonObject response = new JsonObject();
             response.addProperty("type", "warp_failed_arena_not_found");
             response.addProperty("gameId", gameId);
+            addServerId(response);
             response.addProperty("map", mapName);
             if (plugin.getWebSocketManager() != null) {
                 plugin.getWebSocketManager().sendMessage(response.toString());
@@ -471,10 +711,12 @@ public class MapManager {
     }
 
     public void sendWarpFailedOfflinePlayers(String gameId, List<String> offlinePlayers) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        warpPipeline.discard(gameId);
+        plugin.getExecutors().execute(PluginExecutors.Lane.SERIALIZATION, () -> {
             JsonObject response = new JsonObject();
             response.addProperty("type", "warp_failed_offline_players");
             response.addProperty("gameId", gameId);
+            addServerId(response);
             JsonArray offlineArray = new JsonArray();
             for (String ign : offlinePlayers) {
                 offlineArray.add(ign);
@@ -486,10 +728,12 @@ public class MapManager {
         });
     }
     public void sendWarpFailureUnknown(String gameId) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        warpPipeline.discard(gameId);
+        plugin.getExecutors().execute(PluginExecutors.Lane.SERIALIZATION, () -> {
             JsonObject response = new JsonObject();
             response.addProperty("type", "warp_failure_unknown");
             response.addProperty("gameid", gameId);
+            addServerId(response);
             if (plugin.getWebSocketManager() != null) {
                 plugin.getWebSocketManager().sendMessage(response.toString());
             }
@@ -506,9 +750,16 @@ public class MapManager {
 
     /**
      * Cleans up any existing game data for the specified physical arena
-     * This includes removing game instances from listeners and clearing the game ID mapping
+     * This includes removing game instances from listeners and clearing the game ID mapping.
+     * Ignored unless token is the current lease on the arena, so a late cleanup
+     * can never remove a game that has since taken the arena.
      */
-    public void cleanupExistingGameForMap(String mapName) {
+    public void cleanupExistingGameForMap(String mapName, long token) {
+        ArenaLease lease = getLease(mapName);
+        if (lease == null || lease.getToken() != token) {
+            plugin.debug("Ignored cleanup of " + mapName + " with stale token " + token);
+            return;
+        }
         plugin.debug("Cleaning up existing game data for map: " + mapName);
         
         
@@ -592,24 +843,6 @@ public class MapManager {
     }
     
     
-    public void lockMap(String mapName) {
-        String groupId = physicalArenaToGroupMap.get(mapName);
-        if (groupId != null) {
-            lockArenaGroup(groupId);
-        } else {
-            plugin.getLogger().warning("Cannot lock arena '" + mapName + "' - not found in any group");
-        }
-    }
-    
-    public void unlockMap(String mapName) {
-        String groupId = physicalArenaToGroupMap.get(mapName);
-        if (groupId != null) {
-            unlockArenaGroup(groupId);
-        } else {
-            plugin.getLogger().warning("Cannot unlock arena '" + mapName + "' - not found in any group");
-        }
-    }
-    
     public boolean isMapLocked(String mapName) {
         String groupId = physicalArenaToGroupMap.get(mapName);
         return groupId != null && isArenaGroupLocked(groupId);
@@ -624,23 +857,27 @@ public class MapManager {
 
     public Set<String> getLockedMaps() {
         
-        return lockedArenaGroups.stream()
-                .filter(groupId -> !isArenaGroupDisabled(groupId))
+        return leases.keySet().stream()
+                .filter(groupId -> isArenaGroupLocked(groupId) && !isArenaGroupDisabled(groupId))
                 .collect(java.util.stream.Collectors.toSet());
     }
     
     public void startMapAutoRefresh() {
-        Bukkit.getScheduler().runTaskLater(plugin, this::initializeMaps, 20L);
-
-        
-        Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+        plugin.getExecutors().scheduleAtFixedRate(PluginExecutors.Lane.SERIALIZATION, () -> {
             if (plugin.getWebSocketManager() != null && plugin.getWebSocketManager().isConnected()) {
                 if (!arenaGroups.isEmpty()) {
                     sendMapInfoToBot();
                     plugin.debug("Periodic arena groups data sync with WebSocket server");
                 }
             }
-        }, 600L, 600L);
+        }, 30_000L, 30_000L);
+
+        
+        plugin.getExecutors().scheduleAtFixedRate(PluginExecutors.Lane.SERIALIZATION, () -> expireLeases(System.currentTimeMillis()), 1000L, 1000L);
+
+        checkpoints.recover();
+        checkpoints.reportRecovered();
+        standby.start();
 
         
         Bukkit.getScheduler().runTaskTimer(plugin, () -> {
@@ -648,8 +885,10 @@ public class MapManager {
                 return;
             }
             
-            Set<String> locked = new HashSet<>(lockedArenaGroups);
-            for (String groupId : locked) {
+            // Only games that have started; a freshly warped arena is empty until players arrive
+            for (ArenaLease lease : new ArrayList<>(leases.values())) {
+                if (!lease.isStarted()) continue;
+                String groupId = lease.getGroupId();
                 ArenaGroup group = arenaGroups.get(groupId);
                 if (group == null) continue;
                 
@@ -696,8 +935,7 @@ public class MapManager {
                     }
                 }
                 
-                if (isEmpty) {
-                    unlockArenaGroup(groupId);
+                if (isEmpty && releaseLease(lease.getArena(), lease.getToken())) {
                     plugin.debug("Auto-unlocked arena group '" + groupId + "' because all its arenas are empty.");
                 }
             }
@@ -756,7 +994,7 @@ public class MapManager {
      * Force unlock all arena groups (admin utility)
      */
     public void unlockAllArenaGroups() {
-        Set<String> lockedGroupsCopy = new HashSet<>(lockedArenaGroups);
+        Set<String> lockedGroupsCopy = new HashSet<>(leases.keySet());
         for (String groupId : lockedGroupsCopy) {
             unlockArenaGroup(groupId);
         }
@@ -806,7 +1044,7 @@ public class MapManager {
         
         stats.addProperty("total_groups", arenaGroups.size());
         stats.addProperty("total_physical_arenas", physicalArenaToGroupMap.size());
-        stats.addProperty("locked_groups", lockedArenaGroups.size());
+        stats.addProperty("locked_groups", getLockedMaps().size());
         stats.addProperty("disabled_groups", disabledArenaGroups.size());
         stats.addProperty("available_groups", getAvailableArenaGroups().size());
         stats.addProperty("active_games", gameIdToPhysicalArenaMap.size());
@@ -823,6 +1061,7 @@ public class MapManager {
             variantStats.addProperty(variant.name().toLowerCase(), count);
         }
         stats.add("variant_distribution", variantStats);
+        stats.add("standby", standby.getStatistics());
         
         return stats;
     }
@@ -0,0 +1,178 @@
+package com.deyo.rbw.managers;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Every player that can be called: the ones online on this server plus the
+ * ones the bot knows are online anywhere on the network.
+ *
+ * The bot sends {@code player_directory} with everyone and then
+ * {@code player_directory_delta} with the added and removed names, each with
+ * a version one higher than the previous message. A delta that does not fit
+ * is rejected so the caller can ask for a new snapshot.
+ *
+ * Names are kept as one sorted array of lower-case names, rebuilt on the first
+ * lookup after a change, so prefix queries are a binary search plus a scan
+ * over the matches. Safe to use from any thread.
+ */
+public final class PlayerDirectory {
+
+    private static final class Names {
+        static final Names EMPTY = new Names(new String[0], new String[0]);
+
+        final String[] keys;
+        final String[] display;
+
+        Names(String[] keys, String[] display) {
+            this.keys = keys;
+            this.display = display;
+        }
+    }
+
+    // lower-case name -> name
+    private final Map<String, String> network = new HashMap<>();
+    private final Map<String, String> local = new HashMap<>();
+    // -1 until the first snapshot
+    private long version = -1;
+    private boolean dirty;
+    private volatile Names names = Names.EMPTY;
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /** Replaces the network players with a player_directory snapshot. */
+    public synchronized void applySnapshot(long version, JsonArray players) {
+        network.clear();
+        for (JsonElement player : players) {
+            network.put(key(player.getAsString()), player.getAsString());
+        }
+        this.version = version;
+        dirty = true;
+    }
+
+    /**
+     * Applies a player_directory_delta. Returns false, leaving the directory
+     * as it was, if it does not follow the last snapshot or delta.
+     */
+    public synchronized boolean applyDelta(long version, JsonArray added, JsonArray removed) {
+        if (this.version < 0 || version != this.version + 1) {
+            return false;
+        }
+        if (removed != null) {
+            for (JsonElement player : removed) {
+                network.remove(key(player.getAsString()));
+            }
+        }
+        if (added != null) {
+            for (JsonElement player : added) {
+                network.put(key(player.getAsString()), player.getAsString());
+            }
+        }
+        this.version = version;
+        dirty = true;
+        return true;
+    }
+
+    public synchronized void addLocal(String name) {
+        local.put(key(name), name);
+        dirty = true;
+    }
+
+    public synchronized void removeLocal(String name) {
+        local.remove(key(name));
+        dirty = true;
+    }
+
+    /** Forgets the network players, e.g. when the bot disconnects. */
+    public synchronized void clearNetwork() {
+        network.clear();
+        version = -1;
+        dirty = true;
+    }
+
+    /** Whether the network players are known, i.e. a snapshot arrived. */
+    public synchronized boolean hasNetwork() {
+        return version >= 0;
+    }
+
+    private Names names() {
+        synchronized (this) {
+            if (dirty) {
+                Map<String, String> all = new HashMap<>(network);
+                all.putAll(local);
+                String[] keys = all.keySet().toArray(new String[0]);
+                Arrays.sort(keys);
+                String[] display = new String[keys.length];
+                for (int i = 0; i < keys.length; i++) {
+                    display[i] = all.get(keys[i]);
+                }
+                names = new Names(keys, display);
+                dirty = false;
+            }
+            return names;
+        }
+    }
+
+    /** The name as the player spells it, or null if they are not in the directory. */
+    public String find(String name) {
+        Names current = names();
+        int index = Arrays.binarySearch(current.keys, key(name));
+        return index >= 0 ? current.display[index] : null;
+    }
+
+    /**
+     * Up to limit names starting with prefix in any case, in alphabetical
+     * order, leaving out exclude.
+     */
+    public List<String> complete(String prefix, String exclude, int limit) {
+        Names current = names();
+        String[] keys = current.keys;
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareIgnoreCase(keys[mid], prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low == keys.length || !keys[low].regionMatches(true, 0, prefix, 0, prefix.length())) {
+            return Collections.emptyList();
+        }
+        List<String> matches = new ArrayList<>();
+        for (int i = low; i < keys.length && matches.size() < limit
+                && keys[i].regionMatches(true, 0, prefix, 0, prefix.length()); i++) {
+            if (exclude == null || !keys[i].equalsIgnoreCase(exclude)) {
+                matches.add(current.display[i]);
+            }
+        }
+        return matches;
+    }
+
+    /** Compares a lower-case key with text as if text were lower case, without copying it. */
+    private static int compareIgnoreCase(String key, String text) {
+        int length = Math.min(key.length(), text.length());
+        for (int i = 0; i < length; i++) {
+            int diff = key.charAt(i) - Character.toLowerCase(text.charAt(i));
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return key.length() - text.length();
+    }
+
+    public int size() {
+        return names().keys.length;
+    }
+}
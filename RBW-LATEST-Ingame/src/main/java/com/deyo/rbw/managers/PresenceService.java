@@ -0,0 +1,181 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.utils.PluginExecutors;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tells the bot who is online.
+ *
+ * Joins and quits are collected and sent every presence.flush-interval-ms as
+ * one {@code presence_delta} with the players that joined and left since the
+ * previous one; a player who joins and quits in between is left out. Each
+ * delta carries a version one higher than the previous message, so the bot can
+ * spot a gap and answer with {@code presence_resync}, which is answered with a
+ * {@code presence_snapshot} of everyone online. A snapshot is also sent on
+ * every fresh connection. While disconnected the changes are kept and go out
+ * in the next delta.
+ *
+ * An interval of 0 sends a player_status_update per join and quit instead.
+ *
+ * Main thread only.
+ */
+public final class PresenceService {
+
+    private final RankedBedwars plugin;
+    private long flushMillis;
+
+    // lower-case name -> name, as last reported to the bot
+    private final Map<String, String> reported = new HashMap<>();
+    // lower-case name -> true for a join, false for a quit; the last change wins
+    private final LinkedHashMap<String, Boolean> pending = new LinkedHashMap<>();
+    private final Map<String, String> pendingNames = new HashMap<>();
+    private long version;
+    private BukkitTask task;
+
+    public PresenceService(RankedBedwars plugin) {
+        this(plugin, plugin.getConfig().getLong("presence.flush-interval-ms", 0L));
+    }
+
+    PresenceService(RankedBedwars plugin, long flushMillis) {
+        this.plugin = plugin;
+        this.flushMillis = Math.max(0, flushMillis);
+    }
+
+    public void joined(Player player) {
+        record(player.getName(), true);
+    }
+
+    public void quit(Player player) {
+        record(player.getName(), false);
+    }
+
+    private void record(String name, boolean online) {
+        if (flushMillis == 0) {
+            sendStatusUpdate(name, online);
+            return;
+        }
+        String key = name.toLowerCase(Locale.ROOT);
+        pending.remove(key);
+        pending.put(key, online);
+        pendingNames.put(key, name);
+        if (task == null) {
+            long ticks = Math.max(1L, flushMillis / 50L);
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::flush, ticks, ticks);
+        }
+    }
+
+    private void sendStatusUpdate(String name, boolean online) {
+        WebSocketManager webSocket = plugin.getWebSocketManager();
+        if (webSocket == null || !webSocket.isConnected()) {
+            return;
+        }
+        JsonObject json = new JsonObject();
+        json.addProperty("type", "player_status_update");
+        json.addProperty("ign", name);
+        json.addProperty("online", online);
+        json.addProperty("original_ign_case", name);
+        plugin.getExecutors().execute(PluginExecutors.Lane.SERIALIZATION, () -> webSocket.sendMessage(json.toString()));
+    }
+
+    /** Sends the pending joins and quits as one presence_delta, if connected and anything changed. */
+    void flush() {
+        WebSocketManager webSocket = plugin.getWebSocketManager();
+        if (pending.isEmpty() || webSocket == null || !webSocket.isConnected()) {
+            return;
+        }
+        JsonArray joined = new JsonArray();
+        JsonArray left = new JsonArray();
+        for (Map.Entry<String, Boolean> change : pending.entrySet()) {
+            String key = change.getKey();
+            String name = pendingNames.get(key);
+            if (change.getValue()) {
+                if (!name.equals(reported.put(key, name))) {
+                    joined.add(name);
+                }
+            } else if (reported.remove(key) != null) {
+                left.add(name);
+            }
+        }
+        pending.clear();
+        pendingNames.clear();
+        if (joined.size() == 0 && left.size() == 0) {
+            return;
+        }
+        JsonObject delta = new JsonObject();
+        delta.addProperty("type", "presence_delta");
+        delta.addProperty("version", ++version);
+        delta.addProperty("timestamp", System.currentTimeMillis());
+        delta.add("joined", joined);
+        delta.add("left", left);
+        delta.addProperty("online", reported.size());
+        plugin.debug("Presence delta " + version + ": +" + joined.size() + " -" + left.size());
+        plugin.getExecutors().execute(PluginExecutors.Lane.SERIALIZATION, () -> webSocket.sendMessage(delta.toString()));
+    }
+
+    /**
+     * Sends everyone online as a presence_snapshot and starts the next deltas
+     * from it. Used on connect and when the bot asks for a resync.
+     */
+    public void sendSnapshot() {
+        WebSocketManager webSocket = plugin.getWebSocketManager();
+        if (flushMillis == 0 || webSocket == null) {
+            return;
+        }
+        pending.clear();
+        pendingNames.clear();
+        reported.clear();
+        JsonArray players = new JsonArray();
+        for (Player player : plugin.getPlayerIndex().snapshot().values()) {
+            reported.put(player.getName().toLowerCase(Locale.ROOT), player.getName());
+            players.add(player.getName());
+        }
+        JsonObject snapshot = new JsonObject();
+        snapshot.addProperty("type", "presence_snapshot");
+        snapshot.addProperty("version", ++version);
+        snapshot.addProperty("timestamp", System.currentTimeMillis());
+        snapshot.add("players", players);
+        plugin.getExecutors().execute(PluginExecutors.Lane.SERIALIZATION, () -> webSocket.sendMessage(snapshot.toString()));
+    }
+
+    /**
+     * Applies a reloaded presence.flush-interval-ms. Pending changes are sent
+     * first, so the bot's view and the version carry over.
+     */
+    public void setFlushInterval(long flushMillis) {
+        flushMillis = Math.max(0, flushMillis);
+        if (flushMillis == this.flushMillis) {
+            return;
+        }
+        flush();
+        shutdown();
+        boolean wasBatching = this.flushMillis > 0;
+        this.flushMillis = flushMillis;
+        if (flushMillis == 0) {
+            pending.clear();
+            pendingNames.clear();
+        } else if (!wasBatching) {
+            // The bot heard per-player updates meanwhile; start the deltas from a snapshot
+            sendSnapshot();
+        } else if (!pending.isEmpty()) {
+            long ticks = Math.max(1L, flushMillis / 50L);
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::flush, ticks, ticks);
+        }
+    }
+
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+}
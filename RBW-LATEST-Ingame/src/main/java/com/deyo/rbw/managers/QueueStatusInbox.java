@@ -0,0 +1,188 @@
+package com.deyo.rbw.managers;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Queue status messages from the network thread, held until the main thread
+ * takes them, at most once per tick. Latest wins: a queuestatus replaces
+ * whatever is pending and later deltas are folded into it; once it was taken,
+ * the deltas that follow are folded into one delta. A delta whose version
+ * does not follow the one before is dropped along with every delta after it
+ * until the next queuestatus, and only the first gap asks the bot for one.
+ *
+ * Thread-safe.
+ */
+final class QueueStatusInbox {
+
+    enum Offer { NONE, SCHEDULE, REQUEST }
+
+    /** What to apply: a queuestatus, or a delta building on version since. */
+    static final class Batch {
+        final JsonObject message;
+        final boolean full;
+        final long since;
+
+        Batch(JsonObject message, boolean full, long since) {
+            this.message = message;
+            this.full = full;
+            this.since = since;
+        }
+    }
+
+    private JsonObject pending;
+    private boolean full;
+    private long since;
+    // last version received in order, -1 until a queuestatus
+    private long version = -1;
+    private boolean requested;
+    private boolean scheduled;
+
+    /**
+     * Takes a queuestatus (full) or queuestatus_delta. Returns SCHEDULE when
+     * the caller should schedule a {@link #take()}, REQUEST when it should ask
+     * the bot for a queuestatus.
+     */
+    synchronized Offer offer(JsonObject json, boolean full) {
+        long next = json.has("version") ? json.get("version").getAsLong() : -1;
+        if (full) {
+            pending = json;
+            this.full = true;
+            version = next;
+            requested = false;
+        } else if (version < 0 || next != version + 1) {
+            return gap() ? Offer.REQUEST : Offer.NONE;
+        } else if (pending == null) {
+            pending = json;
+            this.full = false;
+            since = version;
+            version = next;
+        } else {
+            merge(pending, json, this.full);
+            version = next;
+        }
+        if (scheduled) {
+            return Offer.NONE;
+        }
+        scheduled = true;
+        return Offer.SCHEDULE;
+    }
+
+    /** The pending batch, or null if there is none. */
+    synchronized Batch take() {
+        scheduled = false;
+        if (pending == null) {
+            return null;
+        }
+        Batch batch = new Batch(pending, full, since);
+        pending = null;
+        return batch;
+    }
+
+    /**
+     * Drops deltas until the next queuestatus. Returns true if the caller
+     * should ask for one, false if that was already done.
+     */
+    synchronized boolean gap() {
+        version = -1;
+        if (requested) {
+            return false;
+        }
+        requested = true;
+        return true;
+    }
+
+    /** Forgets everything, e.g. when the bot disconnects. */
+    synchronized void clear() {
+        pending = null;
+        version = -1;
+        requested = false;
+    }
+
+    /** Folds delta into into, a queuestatus when full and a delta otherwise. */
+    static void merge(JsonObject into, JsonObject delta, boolean full) {
+        if (!into.has("queues")) {
+            into.add("queues", new JsonObject());
+        }
+        JsonObject queues = into.getAsJsonObject("queues");
+        if (delta.has("removed")) {
+            for (JsonElement queueId : delta.getAsJsonArray("removed")) {
+                queues.remove(queueId.getAsString());
+                if (!full) {
+                    if (!into.has("removed")) {
+                        into.add("removed", new JsonArray());
+                    }
+                    if (!into.getAsJsonArray("removed").contains(queueId)) {
+                        into.getAsJsonArray("removed").add(queueId);
+                    }
+                }
+            }
+        }
+        if (delta.has("queues")) {
+            for (Map.Entry<String, JsonElement> update : delta.getAsJsonObject("queues").entrySet()) {
+                JsonObject queue = queues.getAsJsonObject(update.getKey());
+                if (queue == null) {
+                    queues.add(update.getKey(), update.getValue().deepCopy());
+                } else {
+                    mergeQueue(queue, update.getValue().getAsJsonObject());
+                }
+            }
+        }
+        into.add("version", delta.get("version"));
+    }
+
+    private static void mergeQueue(JsonObject queue, JsonObject update) {
+        for (Map.Entry<String, JsonElement> field : update.entrySet()) {
+            if (!field.getKey().equals("joined") && !field.getKey().equals("left")) {
+                queue.add(field.getKey(), field.getValue());
+            }
+        }
+        if (update.has("players")) {
+            queue.remove("joined");
+            queue.remove("left");
+            return;
+        }
+        Set<String> left = names(update, "left");
+        Set<String> joined = names(update, "joined");
+        if (left.isEmpty() && joined.isEmpty()) {
+            return;
+        }
+        if (queue.has("players")) {
+            Set<String> players = names(queue, "players");
+            players.removeAll(left);
+            players.addAll(joined);
+            queue.add("players", array(players));
+            return;
+        }
+        // Only the last change of each player counts
+        Set<String> allLeft = names(queue, "left");
+        Set<String> allJoined = names(queue, "joined");
+        allJoined.removeAll(left);
+        allLeft.addAll(left);
+        allLeft.removeAll(joined);
+        allJoined.addAll(joined);
+        queue.add("left", array(allLeft));
+        queue.add("joined", array(allJoined));
+    }
+
+    private static Set<String> names(JsonObject json, String key) {
+        Set<String> names = new LinkedHashSet<>();
+        if (json.has(key)) {
+            for (JsonElement name : json.getAsJsonArray(key)) {
+                names.add(name.getAsString());
+            }
+        }
+        return names;
+    }
+
+    private static JsonArray array(Set<String> names) {
+        JsonArray array = new JsonArray();
+        names.forEach(array::add);
+        return array;
+    }
+}
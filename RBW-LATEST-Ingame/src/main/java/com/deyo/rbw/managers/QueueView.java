@@ -0,0 +1,284 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.RankedBedwars;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * The queue action bars, kept in step with the bot's queues.
+ *
+ * A {@code queuestatus} holds every queue; a {@code queuestatus_delta} only
+ * the queues that changed, each with the fields that changed and either the
+ * whole {@code players} list or {@code joined}/{@code left}, plus the ids of
+ * {@code removed} queues. Each carries a version one higher than the message
+ * before it; a delta that does not fit is not applied so the caller can ask
+ * for a full queuestatus. Only players whose text changed get an action bar
+ * right away. The others are sent the same text again once it is
+ * queue-view.refresh-ms old, just before the client fades it out; the refresh
+ * task only runs while someone is being shown a queue.
+ *
+ * Main thread only.
+ */
+public final class QueueView {
+
+    private static final String[] FIELDS = {"minElo", "maxElo", "currentPlayers", "maxPlayers", "isRanked", "isPicking"};
+
+    private final RankedBedwars plugin;
+    private long refreshMillis;
+    private final BiConsumer<Player, String> actionBar;
+
+    private final Map<String, Queue> queues = new HashMap<>();
+    // lower-case name -> what the player was last sent, oldest send first
+    private final LinkedHashMap<String, Shown> shown = new LinkedHashMap<>();
+    private long version = -1;
+    private BukkitTask task;
+
+    private static final class Queue {
+        final JsonObject fields = new JsonObject();
+        Set<String> players = new LinkedHashSet<>();
+        String message;
+    }
+
+    private static final class Shown {
+        final String name;
+        final String queueId;
+        final String message;
+        final long sentAt;
+
+        Shown(String name, String queueId, String message, long sentAt) {
+            this.name = name;
+            this.queueId = queueId;
+            this.message = message;
+            this.sentAt = sentAt;
+        }
+    }
+
+    public QueueView(RankedBedwars plugin, BiConsumer<Player, String> actionBar) {
+        this(plugin, plugin.getConfig().getLong("queue-view.refresh-ms", 2000L), actionBar);
+    }
+
+    QueueView(RankedBedwars plugin, long refreshMillis, BiConsumer<Player, String> actionBar) {
+        this.plugin = plugin;
+        this.refreshMillis = refreshMillis > 0 ? refreshMillis : 2000L;
+        this.actionBar = actionBar;
+    }
+
+    /** Applies a reloaded queue-view.refresh-ms; the queues and what players were shown are kept. */
+    public void setRefreshMillis(long refreshMillis) {
+        this.refreshMillis = refreshMillis > 0 ? refreshMillis : 2000L;
+    }
+
+    /**
+     * Applies a queuestatus (full) or queuestatus_delta message and sends the
+     * action bars whose text changed. Returns false, changing nothing, for a
+     * delta whose version does not follow the last message.
+     */
+    public boolean apply(JsonObject json, boolean full) {
+        return apply(json, full, System.currentTimeMillis());
+    }
+
+    boolean apply(JsonObject json, boolean full, long now) {
+        long next = json.has("version") ? json.get("version").getAsLong() : -1;
+        return apply(json, full, next - 1, now);
+    }
+
+    /** As {@link #apply(JsonObject, boolean)} for a delta building on version since, e.g. several folded into one. */
+    boolean apply(JsonObject json, boolean full, long since, long now) {
+        long next = json.has("version") ? json.get("version").getAsLong() : -1;
+        if (!full && (version < 0 || since != version)) {
+            return false;
+        }
+        version = next;
+        JsonObject update = json.has("queues") ? json.getAsJsonObject("queues") : new JsonObject();
+        if (full) {
+            for (String queueId : new ArrayList<>(queues.keySet())) {
+                if (!update.has(queueId)) {
+                    remove(queueId);
+                }
+            }
+        } else if (json.has("removed")) {
+            for (JsonElement queueId : json.getAsJsonArray("removed")) {
+                remove(queueId.getAsString());
+            }
+        }
+        for (String queueId : update.keySet()) {
+            update(queueId, update.getAsJsonObject(queueId), now);
+        }
+        scheduleRefresh();
+        return true;
+    }
+
+    /** Runs the refresh task only while there is an action bar to keep up. */
+    private void scheduleRefresh() {
+        if (shown.isEmpty()) {
+            cancelRefresh();
+        } else if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, () -> refresh(System.currentTimeMillis()), 4L, 4L);
+        }
+    }
+
+    private void cancelRefresh() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private void update(String queueId, JsonObject data, long now) {
+        Queue queue = queues.get(queueId);
+        if (queue == null) {
+            for (String field : FIELDS) {
+                if (!data.has(field)) {
+                    plugin.debug("Ignoring queue " + queueId + " without " + field + "; waiting for a full queuestatus");
+                    return;
+                }
+            }
+            queue = new Queue();
+            queues.put(queueId, queue);
+        }
+        for (String field : FIELDS) {
+            if (data.has(field)) {
+                queue.fields.add(field, data.get(field));
+            }
+        }
+
+        List<String> left = new ArrayList<>();
+        boolean playersChanged = false;
+        if (data.has("players")) {
+            Set<String> players = names(data.getAsJsonArray("players"));
+            if (!players.equals(queue.players)) {
+                for (String player : queue.players) {
+                    if (!players.contains(player)) {
+                        left.add(player);
+                    }
+                }
+                queue.players = players;
+                playersChanged = true;
+            }
+        }
+        if (data.has("left")) {
+            for (JsonElement player : data.getAsJsonArray("left")) {
+                if (queue.players.remove(player.getAsString())) {
+                    left.add(player.getAsString());
+                    playersChanged = true;
+                }
+            }
+        }
+        if (data.has("joined")) {
+            playersChanged |= queue.players.addAll(names(data.getAsJsonArray("joined")));
+        }
+
+        String message = format(queue.fields);
+        if (message.equals(queue.message) && !playersChanged) {
+            return;
+        }
+        queue.message = message;
+        for (String player : left) {
+            hide(player, queueId);
+        }
+        for (String player : queue.players) {
+            Shown last = shown.get(key(player));
+            if (last == null || !last.message.equals(message) || !last.queueId.equals(queueId)) {
+                send(player, queueId, message, now);
+            }
+        }
+    }
+
+    private static Set<String> names(JsonArray array) {
+        Set<String> names = new LinkedHashSet<>();
+        for (JsonElement name : array) {
+            names.add(name.getAsString());
+        }
+        return names;
+    }
+
+    private static String format(JsonObject queue) {
+        return String.format("§6In Queue [§e%d-%d§6] §f%d/%d §7Ranked: %s §7Picking: %s",
+                queue.get("minElo").getAsInt(), queue.get("maxElo").getAsInt(),
+                queue.get("currentPlayers").getAsInt(), queue.get("maxPlayers").getAsInt(),
+                queue.get("isRanked").getAsBoolean() ? "§atrue" : "§cfalse",
+                queue.get("isPicking").getAsBoolean() ? "§atrue" : "§cfalse");
+    }
+
+    private static String key(String player) {
+        return player.toLowerCase(Locale.ROOT);
+    }
+
+    private void remove(String queueId) {
+        Queue queue = queues.remove(queueId);
+        if (queue != null) {
+            for (String player : queue.players) {
+                hide(player, queueId);
+            }
+        }
+    }
+
+    private void hide(String player, String queueId) {
+        Shown last = shown.get(key(player));
+        if (last != null && last.queueId.equals(queueId)) {
+            shown.remove(key(player));
+        }
+    }
+
+    /** Sends message to player if online and moves them to the end of the refresh order either way. */
+    private void send(String player, String queueId, String message, long now) {
+        String key = key(player);
+        shown.remove(key);
+        shown.put(key, new Shown(player, queueId, message, now));
+        Player online = plugin.getPlayerIndex().get(player);
+        if (online != null && online.isOnline()) {
+            actionBar.accept(online, message);
+        }
+    }
+
+    /** Sends the action bars that are about to fade again; only looks at the due ones. */
+    void refresh(long now) {
+        List<Shown> due = new ArrayList<>();
+        Iterator<Shown> oldest = shown.values().iterator();
+        while (oldest.hasNext()) {
+            Shown last = oldest.next();
+            if (now - last.sentAt < refreshMillis) {
+                break;
+            }
+            due.add(last);
+        }
+        for (Shown last : due) {
+            send(last.name, last.queueId, last.message, now);
+        }
+        scheduleRefresh();
+    }
+
+    /** The queues as of the latest message, in the shape of queuestatus. */
+    public JsonObject getQueues() {
+        JsonObject all = new JsonObject();
+        queues.forEach((queueId, queue) -> all.add(queueId, queue.fields.deepCopy()));
+        return all;
+    }
+
+    /** Forgets every queue, e.g. when the bot disconnects; the action bars fade out on their own. */
+    public void clear() {
+        queues.clear();
+        shown.clear();
+        version = -1;
+        cancelRefresh();
+    }
+
+    public void shutdown() {
+        clear();
+    }
+}
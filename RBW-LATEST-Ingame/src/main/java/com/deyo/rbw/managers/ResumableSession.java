@@ -0,0 +1,307 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.jfr.WebSocketFrameEvent;
+import com.deyo.rbw.utils.CborWriter;
+import org.java_websocket.enums.Opcode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plugin side of the resumable session with the bot.
+ * <p>
+ * Every outbound message gets a "seq" (per session, starting at 1) and a
+ * cumulative "ack" of the highest bot seq received. Messages stay in a
+ * bounded replay buffer until the bot acks them. On reconnect the auth
+ * message carries the session id and last received seq; if the bot answers
+ * auth_success with session_resumed, everything it has not acked is sent
+ * again in order, otherwise the session restarts and only messages that
+ * never reached the wire are carried over.
+ * <p>
+ * Until {@link #setReady(boolean)} is called after auth_success, messages are
+ * only buffered, so nothing can overtake the replay.
+ */
+class ResumableSession {
+
+    private final int maxMessages;
+    private final long maxBytes;
+    private final ArrayDeque<Outbound> unacked = new ArrayDeque<>();
+    private final ArrayDeque<Outbound> unsent = new ArrayDeque<>();
+    private String sessionId = UUID.randomUUID().toString();
+    private long nextSeq = 1;
+    private long ackedByBot;
+    private long lastReceived;
+    private long lastAckSent;
+    private long bufferedBytes;
+    private long evictedUpTo;
+    private boolean ready;
+
+    ResumableSession(int maxMessages, long maxBytes) {
+        this.maxMessages = Math.max(1, maxMessages);
+        this.maxBytes = Math.max(1, maxBytes);
+    }
+
+    /**
+     * One outbound message. Exactly one of text and body is set; body holds an
+     * encoded JSON or CBOR object without the envelope fields.
+     */
+    static final class Outbound {
+        long seq;
+        final Opcode opcode;
+        final String text;
+        final byte[] body;
+        final String messageType;
+
+        Outbound(Opcode opcode, String text, byte[] body, String messageType) {
+            this.opcode = opcode;
+            this.text = text;
+            this.body = body;
+            this.messageType = messageType;
+        }
+
+        /** Bytes on the wire, which is what websocket.resume.buffer-bytes limits. */
+        long size() {
+            return text != null ? WebSocketFrameEvent.utf8Length(text) : body.length;
+        }
+    }
+
+    synchronized Outbound record(Opcode opcode, String text, byte[] body, String messageType) {
+        Outbound message = new Outbound(opcode, text, body, messageType);
+        message.seq = nextSeq++;
+        unacked.addLast(message);
+        unsent.addLast(message);
+        bufferedBytes += message.size();
+        return message;
+    }
+
+    /**
+     * Drops the oldest messages once the buffer is over its limits.
+     * Returns how many were dropped, including ones never sent.
+     */
+    synchronized int trim() {
+        int dropped = 0;
+        while (unacked.size() > 1 && (unacked.size() > maxMessages || bufferedBytes > maxBytes)) {
+            Outbound oldest = unacked.removeFirst();
+            unsent.remove(oldest);
+            bufferedBytes -= oldest.size();
+            evictedUpTo = oldest.seq;
+            dropped++;
+        }
+        return dropped;
+    }
+
+    synchronized Outbound pollUnsent() {
+        return ready ? unsent.pollFirst() : null;
+    }
+
+    /**
+     * Puts back a message whose send failed, ahead of everything else.
+     */
+    synchronized void requeue(Outbound message) {
+        if (unacked.contains(message)) {
+            unsent.addFirst(message);
+        }
+    }
+
+    synchronized boolean isReady() {
+        return ready;
+    }
+
+    synchronized void setReady(boolean ready) {
+        this.ready = ready;
+    }
+
+    synchronized String getSessionId() {
+        return sessionId;
+    }
+
+    synchronized long getLastReceived() {
+        return lastReceived;
+    }
+
+    synchronized int getBufferedCount() {
+        return unacked.size();
+    }
+
+    /** The messages the bot has not acknowledged yet, oldest first. */
+    synchronized List<Outbound> getUnacked() {
+        return new ArrayList<>(unacked);
+    }
+
+    /**
+     * Cumulative ack from the bot: everything up to and including seq arrived.
+     */
+    synchronized void acknowledge(long seq) {
+        if (seq <= ackedByBot) {
+            return;
+        }
+        ackedByBot = seq;
+        while (!unacked.isEmpty() && unacked.peekFirst().seq <= seq) {
+            Outbound acked = unacked.removeFirst();
+            unsent.remove(acked);
+            bufferedBytes -= acked.size();
+        }
+    }
+
+    /**
+     * Records an inbound seq. Returns false for a replayed message that was
+     * already handled.
+     */
+    synchronized boolean accept(long seq) {
+        if (seq <= lastReceived) {
+            return false;
+        }
+        lastReceived = seq;
+        return true;
+    }
+
+    synchronized boolean needsAck() {
+        return lastReceived > lastAckSent;
+    }
+
+    synchronized long takeAck() {
+        lastAckSent = lastReceived;
+        return lastReceived;
+    }
+
+    /**
+     * The bot resumed the session and has everything up to botAck. Queues all
+     * later messages for replay. Returns false if some of them were already
+     * evicted, in which case the caller should restart instead.
+     */
+    synchronized boolean resume(long botAck) {
+        if (botAck < evictedUpTo) {
+            return false;
+        }
+        acknowledge(botAck);
+        unsent.clear();
+        unsent.addAll(unacked);
+        return true;
+    }
+
+    /**
+     * Starts over after the bot declined to resume. Messages that never reached
+     * the wire are renumbered into the new session; ones that were sent but not
+     * acked are dropped, since there is no telling whether the bot handled them.
+     * Returns the dropped ones, so the caller can send game results again.
+     */
+    synchronized List<Outbound> restart(String newSessionId) {
+        if (newSessionId != null && !newSessionId.isEmpty()) {
+            sessionId = newSessionId;
+        }
+        List<Outbound> carried = new ArrayList<>(unsent);
+        // The unsent messages are always the newest ones, so the rest were sent
+        List<Outbound> dropped = new ArrayList<>();
+        for (Outbound message : unacked) {
+            if (dropped.size() == unacked.size() - carried.size()) {
+                break;
+            }
+            dropped.add(message);
+        }
+        unacked.clear();
+        unsent.clear();
+        bufferedBytes = 0;
+        nextSeq = 1;
+        ackedByBot = 0;
+        lastReceived = 0;
+        lastAckSent = 0;
+        evictedUpTo = 0;
+        for (Outbound message : carried) {
+            message.seq = nextSeq++;
+            unacked.addLast(message);
+            unsent.addLast(message);
+            bufferedBytes += message.size();
+        }
+        return dropped;
+    }
+
+    /**
+     * JSON text of a message with "seq" and "ack" as its first fields.
+     */
+    static String envelope(String message, long seq, long ack) {
+        String fields = "\"seq\":" + seq + ",\"ack\":" + ack;
+        String rest = message.substring(1);
+        return "{" + fields + (rest.trim().startsWith("}") ? "" : ",") + rest;
+    }
+
+    /**
+     * Same as {@link #envelope(String, long, long)} for an encoded JSON or CBOR object.
+     */
+    static byte[] envelope(Opcode opcode, byte[] body, long seq, long ack) {
+        byte[] prefix;
+        if (opcode == Opcode.BINARY) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(24);
+            try {
+                // Indefinite-length map header followed by the two fields
+                new CborWriter(out).beginObject().name("seq").value(seq).name("ack").value(ack);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            prefix = out.toByteArray();
+        } else {
+            boolean empty = body.length > 1 && body[1] == '}';
+            prefix = ("{\"seq\":" + seq + ",\"ack\":" + ack + (empty ? "" : ",")).getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] enveloped = new byte[prefix.length + body.length - 1];
+        System.arraycopy(prefix, 0, enveloped, 0, prefix.length);
+        System.arraycopy(body, 1, enveloped, prefix.length, body.length - 1);
+        return enveloped;
+    }
+
+    /**
+     * Value of "seq" or "ack" in the {"seq":N,"ack":M prefix the bot puts
+     * first on every message, or -1 when the message does not start with it.
+     * Used on the socket thread so seq and ack are handled in arrival order
+     * without parsing the message twice; a field of the same name further in
+     * the message is never read.
+     */
+    static long peekLong(String message, String key) {
+        int at = skip(message, 0, "{\"seq\":");
+        long seq = -1;
+        if (at >= 0) {
+            int end = digits(message, at);
+            seq = end > at ? parseDigits(message, at, end) : -1;
+            at = end;
+        }
+        if (seq < 0) {
+            return -1;
+        }
+        if ("seq".equals(key)) {
+            return seq;
+        }
+        at = skip(message, at, ",\"ack\":");
+        if (!"ack".equals(key) || at < 0) {
+            return -1;
+        }
+        int end = digits(message, at);
+        return end > at ? parseDigits(message, at, end) : -1;
+    }
+
+    /** Index just past expected at from, or -1. */
+    private static int skip(String message, int from, String expected) {
+        return message.startsWith(expected, from) ? from + expected.length() : -1;
+    }
+
+    /** End of the run of at most 18 digits starting at from. */
+    private static int digits(String message, int from) {
+        int end = from;
+        while (end < message.length() && end - from < 18 && message.charAt(end) >= '0' && message.charAt(end) <= '9') {
+            end++;
+        }
+        return end;
+    }
+
+    private static long parseDigits(String message, int from, int end) {
+        long value = 0;
+        for (int i = from; i < end; i++) {
+            value = value * 10 + (message.charAt(i) - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,89 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.models.Game;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams the scoring message straight to a Writer instead of building a
+ * JsonObject tree first. Produces the same JSON, field for field, as
+ * {@link WebSocketManager#buildScoringJson(Game)}. Passing a
+ * {@link com.deyo.rbw.utils.CborWriter} gives the same message as CBOR.
+ */
+final class ScoringEncoder {
+
+    private ScoringEncoder() {
+    }
+
+    static void write(Game game, Writer out) throws IOException {
+        write(game, new JsonWriter(out));
+    }
+
+    static void write(Game game, JsonWriter json) throws IOException {
+        json.beginObject();
+        json.name("type").value("scoring");
+        json.name("gameid").value(game.getGameId());
+
+        writeNonEmptyArray(json, "mvps", game.getMvps());
+        writeNonEmptyArray(json, "bedsbroken", game.getBedBreakers());
+
+        json.name("players").beginObject();
+        for (String playerName : game.getPlayerKills().keySet()) {
+            json.name(playerName).beginObject();
+            json.name("kills").value(game.getPlayerKills().getOrDefault(playerName, 0));
+            json.name("deaths").value(game.getPlayerDeaths().getOrDefault(playerName, 0));
+            json.name("finalkills").value(game.getPlayerFinalKills().getOrDefault(playerName, 0));
+            json.name("blocksplaced").value(game.getPlayerBlocksPlaced().getOrDefault(playerName, 0));
+            json.name("diamonds").value(game.getPlayerDiamondsCollected().getOrDefault(playerName, 0));
+            json.name("irons").value(game.getPlayerIronCollected().getOrDefault(playerName, 0));
+            json.name("gold").value(game.getPlayerGoldCollected().getOrDefault(playerName, 0));
+            json.name("emeralds").value(game.getPlayerEmeraldsCollected().getOrDefault(playerName, 0));
+            json.endObject();
+        }
+        json.endObject();
+
+        if (game.getTimeline() != null && !game.getTimeline().isEmpty()) {
+            json.name("timeline").beginArray();
+            for (Map<String, Object> event : game.getTimeline()) {
+                json.beginObject();
+                for (Map.Entry<String, Object> entry : event.entrySet()) {
+                    json.name(entry.getKey());
+                    Object value = entry.getValue();
+                    if (value instanceof Number) json.value((Number) value);
+                    else if (value instanceof Boolean) json.value((Boolean) value);
+                    else if (value == null) json.nullValue();
+                    else json.value(String.valueOf(value));
+                }
+                json.endObject();
+            }
+            json.endArray();
+        }
+
+        int winningTeamNumber = game.getWinningTeamNumber();
+        if (winningTeamNumber == 1 || winningTeamNumber == 2) {
+            json.name("winningteamignlist").beginArray();
+            for (String player : winningTeamNumber == 1 ? game.getTeam1() : game.getTeam2()) {
+                json.value(player);
+            }
+            json.endArray();
+        }
+
+        json.endObject();
+        json.flush();
+    }
+
+    private static void writeNonEmptyArray(JsonWriter json, String name, List<String> values) throws IOException {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        json.name(name).beginArray();
+        for (String value : values) {
+            json.value(value);
+        }
+        json.endArray();
+    }
+}
@@ -0,0 +1,277 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.RankedBedwars;
+import com.google.gson.JsonObject;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spreads the main-thread work of warps over several ticks so that a burst of
+ * games after a queue pop does not land in a single tick:
+ *
+ * <ol>
+ *   <li>validate: the async checks in WebSocketManager before the warp reaches the main thread</li>
+ *   <li>preload: chunks under the arena spawn points, at most chunks-per-tick loads per tick</li>
+ *   <li>teleport: per-player steps, at most teleports-per-tick per tick across all warps</li>
+ * </ol>
+ *
+ * Warps are served first come first served, so the first game of a burst is
+ * ready as early as possible. The time spent in each stage is reported in
+ * {@code warp_success}. Everything except the timings map is main thread only.
+ */
+public final class WarpPipeline {
+
+    private final RankedBedwars plugin;
+    private int chunksPerTick;
+    private int teleportsPerTick;
+
+    private final Map<String, Timings> timings = new ConcurrentHashMap<>();
+    private final ArrayDeque<Warp> warps = new ArrayDeque<>();
+    private BukkitTask task;
+
+    public WarpPipeline(RankedBedwars plugin) {
+        this.plugin = plugin;
+        applyConfig();
+    }
+
+    /** Reads the per-tick limits again; warps in progress continue at the new rate. */
+    public void applyConfig() {
+        FileConfiguration config = plugin.getConfig();
+        this.chunksPerTick = positive(config.getInt("warp.chunks-per-tick", 4), 4);
+        this.teleportsPerTick = positive(config.getInt("warp.teleports-per-tick", 4), 4);
+    }
+
+    WarpPipeline(RankedBedwars plugin, int chunksPerTick, int teleportsPerTick) {
+        this.plugin = plugin;
+        this.chunksPerTick = chunksPerTick;
+        this.teleportsPerTick = teleportsPerTick;
+    }
+
+    private static int positive(int value, int defaultValue) {
+        return value > 0 ? value : defaultValue;
+    }
+
+    /** Marks the arrival of warp_players; called before the async validation. */
+    public void received(String gameId) {
+        timings.put(gameId, new Timings());
+    }
+
+    /** Marks the end of the async validation, just before handing off to the main thread. */
+    public void validated(String gameId) {
+        Timings t = timings.get(gameId);
+        if (t != null) {
+            t.validated = System.nanoTime();
+        }
+    }
+
+    /** Marks that the arena of gameId was already warm when the warp arrived. */
+    public void prewarmed(String gameId) {
+        timings.computeIfAbsent(gameId, id -> new Timings()).prewarmed = true;
+    }
+
+    /**
+     * Queues a warp. Must be called on the main thread.
+     *
+     * @param spawns     locations whose chunks are loaded before anyone is teleported; nulls are skipped
+     * @param teleports  one step per player, run on the main thread in order
+     * @param onComplete runs right after the last teleport step
+     */
+    public void submit(String gameId, List<Location> spawns, List<Runnable> teleports, Runnable onComplete) {
+        Timings t = timings.computeIfAbsent(gameId, id -> new Timings());
+        t.submitted = System.nanoTime();
+        warps.add(new Warp(gameId, chunksOf(spawns), teleports, onComplete, t));
+        plugin.debug("Queued warp for game #" + gameId + " (" + warps.size() + " in pipeline)");
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    /**
+     * Removes and returns the stage timings of gameId in milliseconds, or null
+     * if the warp did not go through the pipeline.
+     */
+    public JsonObject takeTimings(String gameId) {
+        Timings t = timings.remove(gameId);
+        return t == null ? null : t.toJson(System.nanoTime());
+    }
+
+    /** Forgets gameId after a failed warp. */
+    public void discard(String gameId) {
+        timings.remove(gameId);
+    }
+
+    public int getPending() {
+        return warps.size();
+    }
+
+    /** Drops all queued warps, e.g. on disable. */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        warps.clear();
+        timings.clear();
+    }
+
+    void tick() {
+        int chunkBudget = chunksPerTick;
+        int teleportBudget = teleportsPerTick;
+        Iterator<Warp> iterator = warps.iterator();
+        while (iterator.hasNext()) {
+            Warp warp = iterator.next();
+            if (!warp.chunks.isEmpty()) {
+                chunkBudget = preload(warp, chunkBudget);
+                if (!warp.chunks.isEmpty()) {
+                    continue;
+                }
+            }
+            if (warp.timings.preloaded == 0) {
+                warp.timings.preloaded = System.nanoTime();
+            }
+            while (teleportBudget > 0 && !warp.teleports.isEmpty()) {
+                Runnable step = warp.teleports.poll();
+                teleportBudget--;
+                try {
+                    step.run();
+                } catch (Exception e) {
+                    plugin.getLogger().warning("Error in warp step for game #" + warp.gameId + ": " + e.getMessage());
+                }
+            }
+            if (!warp.teleports.isEmpty()) {
+                continue;
+            }
+            warp.timings.teleported = System.nanoTime();
+            iterator.remove();
+            try {
+                warp.onComplete.run();
+            } catch (Exception e) {
+                plugin.getLogger().warning("Error completing warp for game #" + warp.gameId + ": " + e.getMessage());
+            }
+        }
+        if (warps.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private static int preload(Warp warp, int budget) {
+        Iterator<ChunkKey> chunks = warp.chunks.iterator();
+        while (chunks.hasNext()) {
+            ChunkKey chunk = chunks.next();
+            // Already loaded chunks cost nothing and do not use the budget
+            if (!chunk.isLoaded()) {
+                if (budget == 0) {
+                    return 0;
+                }
+                chunk.load();
+                budget--;
+            }
+            chunks.remove();
+        }
+        return budget;
+    }
+
+    static Set<ChunkKey> chunksOf(List<Location> spawns) {
+        Set<ChunkKey> chunks = new LinkedHashSet<>();
+        for (Location spawn : spawns) {
+            if (spawn != null && spawn.getWorld() != null) {
+                chunks.add(new ChunkKey(spawn.getWorld(), spawn.getBlockX() >> 4, spawn.getBlockZ() >> 4));
+            }
+        }
+        return chunks;
+    }
+
+    private static final class Warp {
+        final String gameId;
+        final Set<ChunkKey> chunks;
+        final ArrayDeque<Runnable> teleports;
+        final Runnable onComplete;
+        final Timings timings;
+
+        Warp(String gameId, Set<ChunkKey> chunks, List<Runnable> teleports, Runnable onComplete, Timings timings) {
+            this.gameId = gameId;
+            this.chunks = chunks;
+            this.teleports = new ArrayDeque<>(teleports);
+            this.onComplete = onComplete;
+            this.timings = timings;
+        }
+    }
+
+    static final class ChunkKey {
+        final World world;
+        final int x;
+        final int z;
+
+        ChunkKey(World world, int x, int z) {
+            this.world = world;
+            this.x = x;
+            this.z = z;
+        }
+
+        boolean isLoaded() {
+            return world.isChunkLoaded(x, z);
+        }
+
+        void load() {
+            world.loadChunk(x, z);
+        }
+
+        /** Safe unload: the server keeps the chunk if a player is near it. */
+        void unload() {
+            world.unloadChunk(x, z);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ChunkKey)) return false;
+            ChunkKey other = (ChunkKey) o;
+            return x == other.x && z == other.z && world.equals(other.world);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(world, x, z);
+        }
+    }
+
+    /** System.nanoTime() at the end of each stage; 0 if the stage was not reached. */
+    private static final class Timings {
+        final long received = System.nanoTime();
+        volatile long validated;
+        long submitted;
+        long preloaded;
+        long teleported;
+        volatile boolean prewarmed;
+
+        JsonObject toJson(long now) {
+            JsonObject json = new JsonObject();
+            long validatedAt = validated != 0 ? validated : received;
+            json.addProperty("validate_ms", millis(received, validatedAt));
+            // Waiting for the main thread plus arena checks and the lease
+            json.addProperty("queue_ms", millis(validatedAt, submitted));
+            json.addProperty("preload_ms", millis(submitted, preloaded));
+            json.addProperty("teleport_ms", millis(preloaded, teleported));
+            json.addProperty("total_ms", millis(received, now));
+            json.addProperty("prewarmed", prewarmed);
+            return json;
+        }
+
+        private static long millis(long from, long to) {
+            return from == 0 || to == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(Math.max(0, to - from));
+        }
+    }
+}
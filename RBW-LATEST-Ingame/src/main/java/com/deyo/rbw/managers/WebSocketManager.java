@@ -1,7 +1,20 @@
 package com.deyo.rbw.managers;
 
 import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.jfr.ScoringAckedEvent;
+import com.deyo.rbw.jfr.ScoringSentEvent;
+import com.deyo.rbw.jfr.ScoringSerializedEvent;
+import com.deyo.rbw.jfr.WarpReceivedEvent;
+import com.deyo.rbw.jfr.WebSocketFrameEvent;
 import com.deyo.rbw.models.Game;
+import com.deyo.rbw.utils.CborWriter;
+import com.deyo.rbw.utils.DeflateExtension;
+import com.deyo.rbw.utils.NmsAdapter;
+import com.deyo.rbw.utils.OnlinePlayerIndex;
+import com.deyo.rbw.utils.PluginExecutors;
+import com.deyo.rbw.utils.PooledUtf8Writer;
+import com.deyo.rbw.utils.SerialExecutor;
+import com.deyo.rbw.utils.StartupOrchestrator;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
@@ -10,11 +23,23 @@ import lombok.Getter;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.enums.Opcode;
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
 import org.java_websocket.handshake.ServerHandshake;
 
+import java.io.File;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 
@@ -23,29 +48,122 @@ import java.util.logging.Level;
 public class WebSocketManager {
     private final RankedBedwars plugin;
     @Getter
-    private WebSocketClient client;
+    private volatile WebSocketClient client;
     private String host;
     private int port;
     private boolean explicitPortConfigured = false;
-    private int reconnectDelay;
-    private boolean reconnectScheduled = false;
+    // Identifies this game server to the bot when several servers share one bot
+    @Getter
+    private String serverId = "default";
+    // Owns connect/reconnect/failover; null until initialize()
+    private volatile ConnectionSupervisor supervisor;
+    // connectionSettings() of the config the supervisor was built from
+    private String connectionSettings;
+    // Payloads larger than this go out as continuation frames; 0 sends everything as one frame
+    private int fragmentSize;
+    // Fragments of one message must not interleave with other data frames
+    private final Object sendLock = new Object();
+    private boolean compressionEnabled;
+    private int compressionThreshold;
+    private int compressionLevel;
+    // scoring and maps_info go out as CBOR binary frames instead of JSON text
+    private boolean binaryPayloads;
+    // null unless websocket.resume.enabled; survives reconnects
+    private ResumableSession session;
+    private ScheduledFuture<?> sessionAckTask;
+    // Game results that could not be sent; spilled to outbox.jsonl at shutdown
+    private final CriticalOutbox outbox;
+    // Bot messages are handled one at a time, in the order they arrived
+    private final SerialExecutor inbound;
+    // warp_players that arrived before startup registered the arenas; guarded by itself
+    private final List<JsonObject> deferredWarps = new ArrayList<>();
+    // Action bar and TPS access for this server version, resolved once
+    private final NmsAdapter nms;
+    // Queue action bars; replaced on every initialize()
+    private volatile QueueView queueView;
+    private final QueueStatusInbox queueStatus = new QueueStatusInbox();
+    // Who is online, as told to the bot; replaced on every initialize()
+    @Getter
+    private volatile PresenceService presence;
 
     public WebSocketManager(RankedBedwars plugin) {
         this.plugin = plugin;
+        this.nms = new NmsAdapter(Bukkit.getServer());
+        this.inbound = plugin.getExecutors().serial(PluginExecutors.Lane.NETWORK);
+        this.outbox = new CriticalOutbox(plugin.getLogger(),
+                plugin.getDataFolder() != null ? new File(plugin.getDataFolder(), "outbox.jsonl") : null);
     }
 
     public void initialize() {
         
         FileConfiguration config = plugin.getConfig();
+        applySettings(config);
+        if (queueView != null) {
+            queueView.shutdown();
+        }
+        queueView = new QueueView(plugin, nms::sendActionBar);
+        if (presence != null) {
+            presence.shutdown();
+        }
+        presence = new PresenceService(plugin);
+        int spilled = outbox.load();
+        if (spilled > 0) {
+            plugin.getLogger().info(spilled + " game result(s) undelivered at the last shutdown will be sent once connected");
+        }
+        
+        plugin.getLogger().info("Initializing WebSocket connection...");
+        plugin.debug("Action bar mode: " + nms.getActionBarMode());
+        connect(config);
+    }
+
+    /** Settings that take effect without reconnecting: frames, payloads and the resume buffer. */
+    private void applySettings(FileConfiguration config) {
+        fragmentSize = Math.max(0, config.getInt("websocket.fragment-size", 0));
+        if (fragmentSize > 0 && fragmentSize < 1024) {
+            fragmentSize = 1024;
+        }
+        // Offered on the next connect; the current connection keeps what it negotiated
+        compressionEnabled = config.getBoolean("websocket.compression.enabled", false);
+        compressionThreshold = config.getInt("websocket.compression.threshold", 1024);
+        compressionLevel = config.getInt("websocket.compression.level", 6);
+        binaryPayloads = "cbor".equalsIgnoreCase(config.getString("websocket.payload-format", "json"));
+        if (config.getBoolean("websocket.resume.enabled", false) && session == null) {
+            session = new ResumableSession(
+                    config.getInt("websocket.resume.buffer-messages", 1000),
+                    config.getLong("websocket.resume.buffer-bytes", 8L * 1024 * 1024));
+            sessionAckTask = plugin.getExecutors().scheduleAtFixedRate(PluginExecutors.Lane.SERIALIZATION, this::sendSessionAck, 1000L, 1000L);
+        }
+    }
+
+    /** Everything that decides where and as whom we connect; a change needs a new connection. */
+    private static String connectionSettings(FileConfiguration config) {
+        return String.join("\n",
+                config.getString("websocket.host", ""),
+                String.valueOf(config.getStringList("websocket.hosts")),
+                config.contains("websocket.port") ? config.getString("websocket.port") : "",
+                config.getString("websocket.auth_key", ""),
+                config.getString("server.id", ""),
+                config.getString("websocket.reconnect.base-delay-ms", ""),
+                config.getString("websocket.reconnect.max-delay-ms", ""),
+                config.getString("websocket.connect-timeout-seconds", ""));
+    }
+
+    /** Replaces the supervisor, closing any current connection, and connects with the current settings. */
+    private void connect(FileConfiguration config) {
+        connectionSettings = connectionSettings(config);
         host = config.getString("websocket.host", "rbw.deyo.lol");
+        serverId = resolveServerId(config.getString("server.id", ""));
         explicitPortConfigured = config.contains("websocket.port");
         if (explicitPortConfigured) {
             port = config.getInt("websocket.port");
         }
-        reconnectDelay = 5;
-        
-        plugin.getLogger().info("Initializing WebSocket connection...");
-        plugin.getLogger().info("Target server: " + host);
+        List<String> hosts = new ArrayList<>(config.getStringList("websocket.hosts"));
+        hosts.removeIf(h -> h == null || h.trim().isEmpty());
+        if (hosts.isEmpty()) {
+            hosts.add(host);
+        }
+        host = hosts.get(0);
+        plugin.getLogger().info("Target server: " + host + (hosts.size() > 1 ? " (failover: " + String.join(", ", hosts.subList(1, hosts.size())) + ")" : ""));
         plugin.getLogger().info("Full WebSocket URL: " + buildWebSocketUri());
         plugin.getLogger().info("If connection fails, ensure the RankedBedwars bot is running and accessible");
         
@@ -54,7 +172,64 @@ public class WebSocketManager {
             testConnectivity();
         }
         
-        connect();
+        if (supervisor != null) {
+            supervisor.stop();
+        }
+        supervisor = new ConnectionSupervisor(plugin, hosts,
+                config.getLong("websocket.reconnect.base-delay-ms", 1000L),
+                config.getLong("websocket.reconnect.max-delay-ms", 60000L),
+                config.getLong("websocket.connect-timeout-seconds", 5L) * 1000L,
+                this::createClient, this::notifyAdmins);
+        supervisor.start();
+    }
+
+    /**
+     * Applies the reloaded config to this manager, its queue view and its
+     * presence service. Only a change to the host, port, auth key, server id
+     * or reconnect timing opens a new connection; the resume buffer, queue
+     * view and presence state carry over either way. Main thread only.
+     *
+     * @return whether it reconnected
+     */
+    public boolean applyConfig() {
+        FileConfiguration config = plugin.getConfig();
+        applySettings(config);
+        if (queueView != null) {
+            queueView.setRefreshMillis(config.getLong("queue-view.refresh-ms", 2000L));
+        }
+        if (presence != null) {
+            presence.setFlushInterval(config.getLong("presence.flush-interval-ms", 0L));
+        }
+        if (connectionSettings(config).equals(connectionSettings)) {
+            return false;
+        }
+        plugin.getLogger().info("WebSocket connection settings changed, reconnecting...");
+        connect(config);
+        return true;
+    }
+
+    /**
+     * server.id from the config, or "server-&lt;port&gt;" so servers on one host
+     * still get distinct ids when it is left empty.
+     */
+    private static String resolveServerId(String configured) {
+        if (configured != null && !configured.trim().isEmpty()) {
+            return configured.trim();
+        }
+        try {
+            return "server-" + Bukkit.getServer().getPort();
+        } catch (Exception e) {
+            return "default";
+        }
+    }
+
+    /**
+     * Messages without server_id are for every server (single-server setups);
+     * otherwise only the named server acts on them.
+     */
+    public boolean isAddressedToThisServer(JsonObject json) {
+        return !json.has("server_id") || json.get("server_id").isJsonNull()
+                || serverId.equalsIgnoreCase(json.get("server_id").getAsString());
     }
 
     /**
@@ -86,7 +261,7 @@ public class WebSocketManager {
     }
     
     private void testConnectivity() {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        plugin.getIoExecutor().execute(() -> {
             try {
                 plugin.getLogger().info("Testing basic connectivity to " + host + ":" + port + "...");
                 
@@ -120,39 +295,60 @@ public class WebSocketManager {
         plugin.getLogger().info("WebSocket connection established - automatically sending initial data");
     }
 
-    private void connect() {
-        if (client != null && client.isOpen()) {
-            plugin.debug("connection already exists");
-            return;
-        }
-        
+    /**
+     * Builds an unconnected client for one of the configured hosts. Called by the
+     * {@link ConnectionSupervisor} on its own thread, which then starts the
+     * connect without blocking and reacts to the open/close callbacks.
+     */
+    private WebSocketClient createClient(String targetHost) {
         try {
-            URI serverUri = new URI(buildWebSocketUri());
-            client = new WebSocketClient(serverUri) {
+            URI serverUri = new URI(buildWebSocketUri(targetHost));
+            // permessage-deflate is only offered; the bot decides whether to use it
+            Draft draft = compressionEnabled
+                    ? new Draft_6455(new DeflateExtension(compressionThreshold, compressionLevel))
+                    : new Draft_6455();
+            int connectTimeout = (int) Math.min(Integer.MAX_VALUE, plugin.getConfig().getLong("websocket.connect-timeout-seconds", 5L) * 1000L);
+            WebSocketClient newClient = new WebSocketClient(serverUri, draft, null, connectTimeout) {
                 @Override
                 public void onOpen(ServerHandshake handshake) {
-                    boolean wasReconnecting = reconnectAttempts > 0;
-                    reconnectAttempts = 0; 
-                    reconnectScheduled = false; 
+                    boolean wasReconnecting = supervisor.getFailedAttempts() > 0;
+                    supervisor.connected(this);
                     
                     JsonObject authMsg = new JsonObject();
                     authMsg.addProperty("type", "auth");
                     authMsg.addProperty("auth_key", plugin.getConfig().getString("websocket.auth_key", System.getenv("AUTH_KEY") != null ? System.getenv("AUTH_KEY") : "change_me_in_production"));
-                    send(authMsg.toString());
+                    authMsg.addProperty("server_id", serverId);
+                    if (session != null) {
+                        // Buffer everything until auth_success says whether the session resumed
+                        session.setReady(false);
+                        authMsg.addProperty("session_id", session.getSessionId());
+                        authMsg.addProperty("resume_from", session.getLastReceived());
+                    }
+                    synchronized (sendLock) {
+                        send(authMsg.toString());
+                    }
                     
                     Bukkit.getScheduler().runTask(plugin, WebSocketManager.this::displayConnectionSuccess);
+                    if (compressionEnabled && getDraft() instanceof Draft_6455) {
+                        plugin.getLogger().info("WebSocket extension in use: " + ((Draft_6455) getDraft()).getExtension());
+                    }
                     
                     if (wasReconnecting) {
                         plugin.getLogger().info("WebSocket connection re-established after reconnection attempts");
                         notifyAdmins("§a[RankedBedwars] §2WebSocket connection re-established successfully.");
                     }
                     
-                    sendInitialData();
+                    if (session == null) {
+                        sendInitialData();
+                    }
                     notifyReconnection();
                 }
                 @Override
                 public void onMessage(String message) {
                     try {
+                        if (session != null && !acceptSessionMessage(message)) {
+                            return;
+                        }
                         handleIncomingMessage(message);
                     } catch (Exception e) {
                         plugin.getLogger().log(Level.WARNING, "Error handling WebSocket message: " + message, e);
@@ -160,6 +356,9 @@ public class WebSocketManager {
                 }
                 @Override
                 public void onClose(int code, String reason, boolean remote) {
+                    if (session != null) {
+                        session.setReady(false);
+                    }
                     if (remote) {
                         plugin.getLogger().warning("WebSocket connection closed by server: " + reason + " (code: " + code + ")");
                         plugin.getLogger().warning("The RankedBedwars bot might have restarted or shut down");
@@ -167,18 +366,24 @@ public class WebSocketManager {
                         plugin.getLogger().warning("WebSocket connection closed: " + reason + " (code: " + code + ")");
                     }
                     
-                    if (plugin.isEnabled() && !reconnectScheduled) {
-                        scheduleReconnect();
+                    if (plugin.getPlayerDirectory() != null) {
+                        plugin.getPlayerDirectory().clearNetwork();
+                    }
+                    queueStatus.clear();
+                    QueueView view = queueView;
+                    if (view != null && plugin.isEnabled()) {
+                        Bukkit.getScheduler().runTask(plugin, view::clear);
                     }
+                    supervisor.closed(this);
                 }
                 @Override
                 public void onError(Exception ex) {
-                    if (client == null || !client.isOpen()) {
+                    if (!isOpen()) {
                         if (ex instanceof java.net.ConnectException) {
                             String message = ex.getMessage();
                             if (message.contains("Connection refused")) {
                                 plugin.getLogger().warning("WebSocket connection refused - Bot server appears to be offline");
-                                plugin.getLogger().warning("Make sure the RankedBedwars bot is running on " + host + ":" + port);
+                                plugin.getLogger().warning("Make sure the RankedBedwars bot is running on " + targetHost);
                             } else if (message.contains("Connection timed out")) {
                                 plugin.getLogger().warning("WebSocket connection timed out - This could indicate:");
                                 plugin.getLogger().warning("1. Network connectivity issues");
@@ -192,66 +397,51 @@ public class WebSocketManager {
                         } else {
                             plugin.getLogger().log(Level.WARNING, "WebSocket error", ex);
                         }
-                        scheduleReconnect();
                     } else {
                         plugin.getLogger().log(Level.WARNING, "WebSocket error (but still connected)", ex);
                     }
                 }
             };
             
-            // Set connection timeout (30 seconds)
-            client.setConnectionLostTimeout(30);
+            // Heartbeat: drop the connection if no pong arrives for 30 seconds
+            newClient.setConnectionLostTimeout(30);
             
             // Set TCP no delay for better responsiveness
-            client.setTcpNoDelay(true);
+            newClient.setTcpNoDelay(true);
             
-            // Add additional logging for debugging
-            plugin.getLogger().info("Attempting WebSocket connection to: " + serverUri.toString());
-            plugin.getLogger().info("Connection timeout set to 30 seconds");
-            plugin.getLogger().info("TCP NoDelay enabled for better performance");
-            
-            // Connect with timeout
-            boolean connected = client.connectBlocking(30, java.util.concurrent.TimeUnit.SECONDS);
-            if (!connected) {
-                plugin.getLogger().warning("WebSocket connection timed out after 30 seconds");
-
-                // Give the already-started connection thread a bit more time
-                Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                    if (client == null || !client.isOpen()) {
-                        plugin.getLogger().warning("Alternative connection method also failed");
-                        scheduleReconnect();
-                    }
-                }, 20L * 10); // Wait 10 more seconds
-            }
+            plugin.getLogger().info("Attempting WebSocket connection to: " + serverUri);
+            client = newClient;
+            return newClient;
         } catch (URISyntaxException e) {
-            plugin.getLogger().log(Level.SEVERE, "Invalid WebSocket URI", e);
-            scheduleReconnect();
-        } catch (InterruptedException e) {
-            plugin.getLogger().log(Level.WARNING, "WebSocket connection interrupted", e);
-            Thread.currentThread().interrupt();
-            scheduleReconnect();
-        } catch (IllegalStateException e) {
-            plugin.getLogger().log(Level.WARNING, "WebSocket client was already used for a connection attempt", e);
-            scheduleReconnect();
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.WARNING, "Unexpected error during WebSocket connection", e);
-            scheduleReconnect();
+            throw new IllegalArgumentException("Invalid WebSocket URI for host " + targetHost, e);
         }
     }
     private void handleIncomingMessage(String message) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        inbound.execute(() -> {
             plugin.debug("Received WebSocket message: " + message);
             JsonObject json;
             try {
-                json = JsonParser.parseString(message).getAsJsonObject();
-                if (!json.has("type")) {
+                json = parseIncomingMessage(message);
+                if (json == null) {
+                    WebSocketFrameEvent.inbound("unknown", message);
                     plugin.getLogger().warning("Received WebSocket message without 'type' field: " + message);
                     return;
                 }
                 String type = json.get("type").getAsString();
+                WebSocketFrameEvent.inbound(type, message);
                 switch (type) {
                     case "auth_success":
                         plugin.getLogger().info("WebSocket authentication successful");
+                        ConnectionSupervisor connection = supervisor;
+                        if (connection != null) {
+                            connection.authenticated();
+                        }
+                        if (session != null) {
+                            resumeOrRestartSession(json);
+                        }
+                        break;
+                    case "ack":
+                        // Cumulative ack, already applied on the socket thread
                         break;
                     case "auth_failure":
                         plugin.getLogger().warning("WebSocket authentication failed: " + 
@@ -267,7 +457,10 @@ public class WebSocketManager {
                         handleWarpPlayersAsync(json);
                         break;
                     case "check_player":
-                        Bukkit.getScheduler().runTask(plugin, () -> handleCheckPlayer(json));
+                        handleCheckPlayer(json);
+                        break;
+                    case "check_players":
+                        handleCheckPlayers(json);
                         break;
                     case "pong":
                         if (json.has("ping_id")) {
@@ -293,7 +486,27 @@ public class WebSocketManager {
                         handleQueueFailure(json);
                         break;
                     case "queuestatus":
-                        handleQueueStatus(json);
+                        handleQueueStatus(json, true);
+                        break;
+                    case "queuestatus_delta":
+                        handleQueueStatus(json, false);
+                        break;
+                    case "player_directory":
+                        plugin.getPlayerDirectory().applySnapshot(json.get("version").getAsLong(), json.getAsJsonArray("players"));
+                        break;
+                    case "player_directory_delta":
+                        if (!plugin.getPlayerDirectory().applyDelta(json.get("version").getAsLong(),
+                                json.getAsJsonArray("added"), json.getAsJsonArray("removed"))) {
+                            plugin.debug("Player directory delta " + json.get("version") + " is out of order, asking for a snapshot");
+                            requestPlayerDirectory();
+                        }
+                        break;
+                    case "presence_resync":
+                        Bukkit.getScheduler().runTask(plugin, () -> {
+                            if (presence != null) {
+                                presence.sendSnapshot();
+                            }
+                        });
                         break;
                     case "screensharedontlog":
                         Bukkit.getScheduler().runTask(plugin, () -> handleScreenshareDontLog(json));
@@ -331,6 +544,15 @@ public class WebSocketManager {
         });
     }
 
+    /**
+     * Parses a raw bot message. Returns null when the message has no "type" field;
+     * malformed JSON is left to throw so the caller can log it.
+     */
+    static JsonObject parseIncomingMessage(String message) {
+        JsonObject json = JsonParser.parseString(message).getAsJsonObject();
+        return json.has("type") ? json : null;
+    }
+
     private void handleAutossSuccess(JsonObject json) {
         String uuid = json.has("uuid") ? json.get("uuid").getAsString() : null;
         if (uuid != null) {
@@ -364,7 +586,7 @@ public class WebSocketManager {
             sendMessage(response.toString());
             return;
         }
-        org.bukkit.entity.Player player = Bukkit.getPlayerExact(ign);
+        org.bukkit.entity.Player player = plugin.getPlayerIndex().get(ign);
         if (player != null && player.isOnline()) {
             player.sendMessage("§c[RankedBedwars] §eYou are being requested for screenshare, do not log off the server.");
             
@@ -385,7 +607,7 @@ public class WebSocketManager {
     private void handleVerification(JsonObject json) {
         String ign = json.get("ign").getAsString();
         String code = json.get("code").getAsString();
-        org.bukkit.entity.Player player = Bukkit.getPlayerExact(ign);
+        org.bukkit.entity.Player player = plugin.getPlayerIndex().get(ign);
         if (player != null) {
             player.sendMessage("§6§l[RBW] §aYour verification code is: §e§l" + code);
             player.sendMessage("§6§l[RBW] §aEnter this code on Discord to complete verification.");
@@ -394,18 +616,48 @@ public class WebSocketManager {
             plugin.getLogger().info("Player not online for verification: " + ign);
         }
     }
-    private void handleWarpPlayersAsync(JsonObject json) {
+    void handleWarpPlayersAsync(JsonObject json) {
+        if (!isAddressedToThisServer(json)) {
+            plugin.debug("Ignoring warp_players for server " + json.get("server_id").getAsString() + " (this is " + serverId + ")");
+            return;
+        }
         String gameId = json.get("game_id").getAsString();
         String map = json.get("map").getAsString();
+        StartupOrchestrator startup = plugin.getStartup();
+        synchronized (deferredWarps) {
+            // Checked under the lock so onStartupFinished() cannot miss it
+            if (startup != null && !startup.isComplete() && !startup.isFailed()) {
+                deferredWarps.add(json);
+                plugin.getLogger().info("Warp request for game #" + gameId + " will be handled once the arenas are loaded");
+                return;
+            }
+        }
+        MapManager mapManager = plugin.getMapManager();
+        if (mapManager == null || (startup != null && startup.isFailed())) {
+            JsonObject response = new JsonObject();
+            response.addProperty("type", "warp_failed_arena_not_found");
+            response.addProperty("game_id", gameId);
+            response.addProperty("map", map);
+            response.addProperty("server_id", serverId);
+            sendMessage(response.toString());
+            plugin.getLogger().warning("Warp failed for game #" + gameId + ": the plugin did not start up");
+            return;
+        }
         boolean isRanked = json.get("is_ranked").getAsBoolean();
         JsonObject team1Json = json.getAsJsonObject("team1");
         JsonObject team2Json = json.getAsJsonObject("team2");
         plugin.getLogger().info("Received warp request for game #" + gameId + " on map " + map);
+        WarpPipeline warpPipeline = mapManager.getWarpPipeline();
+        warpPipeline.received(gameId);
 
-        if (plugin.getMapManager() != null) {
-            plugin.debug("Cleaning up existing game data before warping to prevent conflicts with game #" + gameId + " on map " + map);
-            plugin.getMapManager().cleanupExistingGameForMap(map);
-            plugin.debug("Cleanup completed, proceeding with warp request for game #" + gameId);
+        WarpReceivedEvent warpEvent = new WarpReceivedEvent();
+        if (warpEvent.isEnabled()) {
+            warpEvent.gameId = gameId;
+            warpEvent.map = map;
+            warpEvent.ranked = isRanked;
+            warpEvent.players = (team1Json.has("players") ? team1Json.getAsJsonArray("players").size() : 0)
+                    + (team2Json.has("players") ? team2Json.getAsJsonArray("players").size() : 0);
+            warpEvent.commit();
         }
 
         if (!com.deyo.rbw.bedwars.BedwarsAPIManager.isAvailable() || 
@@ -414,8 +666,10 @@ public class WebSocketManager {
             response.addProperty("type", "warp_failed_arena_not_found");
             response.addProperty("game_id", gameId);
             response.addProperty("map", map);
+            response.addProperty("server_id", serverId);
             sendMessage(response.toString());
             plugin.getLogger().warning("Warp failed: arena not found for map '" + map + "'");
+            warpPipeline.discard(gameId);
             return;
         }
 
@@ -437,8 +691,9 @@ public class WebSocketManager {
         }
         
         java.util.List<String> offlinePlayers = new java.util.ArrayList<>();
+        OnlinePlayerIndex online = plugin.getPlayerIndex();
         for (String ign : allPlayers) {
-            if (Bukkit.getPlayerExact(ign) == null) {
+            if (!online.isOnline(ign)) {
                 offlinePlayers.add(ign);
             }
         }
@@ -447,6 +702,7 @@ public class WebSocketManager {
             JsonObject response = new JsonObject();
             response.addProperty("type", "warp_failed_offline_players");
             response.addProperty("game_id", gameId);
+            response.addProperty("server_id", serverId);
             JsonArray offlineArray = new JsonArray();
             for (String ign : offlinePlayers) {
                 offlineArray.add(ign);
@@ -454,140 +710,443 @@ public class WebSocketManager {
             response.add("offline_players", offlineArray);
             sendMessage(response.toString());
             plugin.getLogger().warning("Warp failed for offline players: " + offlinePlayers);
-            
+            warpPipeline.discard(gameId);
             return;
         }
+        warpPipeline.validated(gameId);
         Bukkit.getScheduler().runTask(plugin, () -> {
             plugin.getMapManager().warpPlayersToGame(gameId, map, team1Json, team2Json, isRanked);
         });
     }
     private void handleCheckPlayer(JsonObject json) {
         String ign = json.get("ign").getAsString();
-        boolean isOnline = Bukkit.getPlayerExact(ign) != null;
+        sendMessage(playerStatus("player_status", ign).toString());
+    }
+
+    /**
+     * Answers {@code { type: "check_players", igns: [...], request_id? }} with
+     * one players_status holding a player_status entry per name.
+     */
+    private void handleCheckPlayers(JsonObject json) {
         JsonObject response = new JsonObject();
-        response.addProperty("type", "player_status");
-        response.addProperty("ign", ign);
-        response.addProperty("online", isOnline);
-        response.addProperty("original_ign_case", ign);
+        response.addProperty("type", "players_status");
+        if (json.has("request_id")) {
+            response.add("request_id", json.get("request_id"));
+        }
+        response.addProperty("server_id", serverId);
+        JsonArray players = new JsonArray();
+        if (json.has("igns")) {
+            for (JsonElement ign : json.getAsJsonArray("igns")) {
+                players.add(playerStatus(null, ign.getAsString()));
+            }
+        }
+        response.add("players", players);
         sendMessage(response.toString());
     }
+
+    private JsonObject playerStatus(String type, String ign) {
+        JsonObject status = new JsonObject();
+        if (type != null) {
+            status.addProperty("type", type);
+        }
+        status.addProperty("ign", ign);
+        status.addProperty("online", plugin.getPlayerIndex().isOnline(ign));
+        status.addProperty("original_ign_case", ign);
+        return status;
+    }
     private void sendPong() {
         JsonObject pong = new JsonObject();
         pong.addProperty("type", "pong");
         pong.addProperty("timestamp", System.currentTimeMillis());
         
-        pong.addProperty("server_online", Bukkit.getOnlinePlayers().size());
+        pong.addProperty("server_online", plugin.getPlayerIndex().size());
         pong.addProperty("server_max", Bukkit.getMaxPlayers());
         pong.addProperty("server_tps", getServerTPS());
         
         sendMessage(pong.toString());
     }
     
-    private double getServerTPS() {
-        try {
-            Object serverInstance = Bukkit.getServer().getClass().getMethod("getServer").invoke(Bukkit.getServer());
-            double[] tps = (double[]) serverInstance.getClass().getField("recentTps").get(serverInstance);
-            return tps[0]; 
-        } catch (Exception e) {
-            return 20.0;
-        }
+    public double getServerTPS() {
+        return nms.getTps();
     }
 
-    public void sendMessage(String message) {
-        if (client != null && client.isOpen()) {
-            client.send(message);
-            
-            if (!message.contains("\"type\":\"maps_info\"")) {
-                plugin.debug("Sent WebSocket message: " + message);
-            }
-        } else {
-            plugin.getLogger().warning("Cannot send WebSocket message: connection is closed");
-            
-            if (!reconnectScheduled) {
-                notifyAdmins("§c[RankedBedwars] §4WebSocket connection is closed. Cannot send messages to the bot. Please contact deyo.");
-                
-                if (plugin.isEnabled()) {
-                    scheduleReconnect();
+    /**
+     * Sends a JSON text message. Like {@link #sendData}, returns false only if
+     * it was dropped: true once it was written, recorded for replay or, for a
+     * game result, held for the next connection.
+     */
+    public boolean sendMessage(String message) {
+        if (session != null) {
+            session.record(Opcode.TEXT, message, null, null);
+            flushSession();
+            return true;
+        }
+        WebSocketClient current = client;
+        if (current != null && current.isOpen()) {
+            try {
+                synchronized (sendLock) {
+                    current.send(message);
                 }
+                WebSocketFrameEvent.outbound(message);
+
+                if (!message.contains("\"type\":\"maps_info\"")) {
+                    plugin.debug("Sent WebSocket message: " + message);
+                }
+                return true;
+            } catch (WebsocketNotConnectedException e) {
+                plugin.debug("Connection dropped while sending a message");
             }
         }
+        boolean held = false;
+        String type = CriticalOutbox.typeOf(message);
+        if (type != null && CriticalOutbox.CRITICAL_TYPES.contains(type)) {
+            outbox.hold(new ResumableSession.Outbound(Opcode.TEXT, message, null, type));
+            held = true;
+        }
+        handleSendWhileClosed();
+        return held;
     }
-    public void sendGameScoring(Game game) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            JsonObject json = new JsonObject();
-            json.addProperty("type", "scoring");
-            json.addProperty("gameid", game.getGameId());
-            
-            if (game.getMvps() != null && !game.getMvps().isEmpty()) {
-                JsonArray mvpsArray = new JsonArray();
-                for (String mvp : game.getMvps()) {
-                    mvpsArray.add(mvp);
-                }
-                json.add("mvps", mvpsArray);
-            }
-            if (game.getBedBreakers() != null && !game.getBedBreakers().isEmpty()) {
-                JsonArray bedBreakersArray = new JsonArray();
-                for (String breaker : game.getBedBreakers()) {
-                    bedBreakersArray.add(breaker);
+
+    /**
+     * Sends maps_info and other large structured messages, as CBOR when
+     * websocket.payload-format is cbor and as JSON text otherwise.
+     */
+    public void sendPayload(JsonObject message) {
+        if (!binaryPayloads) {
+            sendMessage(message.toString());
+            return;
+        }
+        String type = message.has("type") ? message.get("type").getAsString() : "unknown";
+        try (PooledUtf8Writer payload = PooledUtf8Writer.acquire()) {
+            plugin.getGson().toJson(message, new CborWriter(payload.asOutputStream()));
+            sendData(Opcode.BINARY, payload.toByteBuffer(), type);
+        }
+    }
+
+    /**
+     * Sends an already encoded message without turning it back into a String.
+     * Above websocket.fragment-size the payload is split into continuation frames,
+     * on character boundaries for text. The buffer is copied into the frame, so
+     * the caller may reuse it once this returns. Returns false only if the
+     * message was dropped: it is true once it was written, recorded for replay
+     * or, for a game result, held for the next connection.
+     */
+    boolean sendData(Opcode opcode, ByteBuffer payload, String messageType) {
+        if (session != null) {
+            // The replay buffer outlives the pooled buffer, so this one needs a copy
+            byte[] body = new byte[payload.remaining()];
+            payload.duplicate().get(body);
+            session.record(opcode, null, body, messageType);
+            flushSession();
+            return true;
+        }
+        WebSocketClient current = client;
+        if (current != null && current.isOpen()) {
+            int size = payload.remaining();
+            try {
+                synchronized (sendLock) {
+                    writeFrames(current, opcode, payload);
                 }
-                json.add("bedsbroken", bedBreakersArray);
+                WebSocketFrameEvent.outbound(messageType, size);
+                plugin.debug("Sent WebSocket " + messageType + " message (" + size + " bytes)");
+                return true;
+            } catch (WebsocketNotConnectedException e) {
+                plugin.debug("Connection dropped while sending " + messageType);
             }
-            JsonObject playersJson = new JsonObject();
-            for (String playerName : game.getPlayerKills().keySet()) {
-                JsonObject playerJson = new JsonObject();
-                playerJson.addProperty("kills", game.getPlayerKills().getOrDefault(playerName, 0));
-                playerJson.addProperty("deaths", game.getPlayerDeaths().getOrDefault(playerName, 0));
-                playerJson.addProperty("finalkills", game.getPlayerFinalKills().getOrDefault(playerName, 0));
-                playerJson.addProperty("blocksplaced", game.getPlayerBlocksPlaced().getOrDefault(playerName, 0));
-                playerJson.addProperty("diamonds", game.getPlayerDiamondsCollected().getOrDefault(playerName, 0));
-                playerJson.addProperty("irons", game.getPlayerIronCollected().getOrDefault(playerName, 0));
-                playerJson.addProperty("gold", game.getPlayerGoldCollected().getOrDefault(playerName, 0));
-                playerJson.addProperty("emeralds", game.getPlayerEmeraldsCollected().getOrDefault(playerName, 0));
-                playersJson.add(playerName, playerJson);
+        }
+        boolean held = false;
+        if (CriticalOutbox.CRITICAL_TYPES.contains(messageType)) {
+            byte[] body = new byte[payload.remaining()];
+            payload.duplicate().get(body);
+            outbox.hold(new ResumableSession.Outbound(opcode, null, body, messageType));
+            held = true;
+        }
+        handleSendWhileClosed();
+        return held;
+    }
+
+    /**
+     * Caller holds sendLock.
+     */
+    private void writeFrames(WebSocketClient current, Opcode opcode, ByteBuffer payload) {
+        if (fragmentSize > 0 && payload.remaining() > fragmentSize) {
+            ByteBuffer remaining = payload.duplicate();
+            while (remaining.hasRemaining()) {
+                int end = opcode == Opcode.TEXT
+                        ? fragmentEnd(remaining, fragmentSize)
+                        : Math.min(remaining.limit(), remaining.position() + fragmentSize);
+                ByteBuffer fragment = remaining.duplicate();
+                fragment.limit(end);
+                remaining.position(end);
+                // slice() so the frame's UTF-8 check sees the fragment from index 0
+                current.sendFragmentedFrame(opcode, fragment.slice(), !remaining.hasRemaining());
             }
-            json.add("players", playersJson);
-            
-            if (game.getTimeline() != null && !game.getTimeline().isEmpty()) {
-                JsonArray timelineArray = new JsonArray();
-                for (Map<String, Object> event : game.getTimeline()) {
-                    JsonObject eventJson = new JsonObject();
-                    for (Map.Entry<String, Object> entry : event.entrySet()) {
-                        Object value = entry.getValue();
-                        if (value instanceof Number) eventJson.addProperty(entry.getKey(), (Number) value);
-                        else if (value instanceof Boolean) eventJson.addProperty(entry.getKey(), (Boolean) value);
-                        else if (value == null) eventJson.add(entry.getKey(), com.google.gson.JsonNull.INSTANCE);
-                        else eventJson.addProperty(entry.getKey(), String.valueOf(value));
+        } else {
+            current.sendFragmentedFrame(opcode, payload.slice(), true);
+        }
+    }
+
+    /**
+     * Sends every buffered message the bot has not seen yet, in seq order. While
+     * the connection is down (or auth has not finished) messages just stay in the
+     * replay buffer.
+     */
+    private void flushSession() {
+        int dropped = session.trim();
+        if (dropped > 0) {
+            plugin.getLogger().warning("Session replay buffer is full, dropped " + dropped + " unacknowledged message(s)");
+        }
+        WebSocketClient current = client;
+        if (current == null || !current.isOpen()) {
+            plugin.debug("WebSocket not connected, " + session.getBufferedCount() + " message(s) buffered for replay");
+            scheduleReconnect();
+            return;
+        }
+        synchronized (sendLock) {
+            ResumableSession.Outbound message;
+            while ((message = session.pollUnsent()) != null) {
+                long ack = session.takeAck();
+                try {
+                    if (message.text != null) {
+                        String enveloped = ResumableSession.envelope(message.text, message.seq, ack);
+                        current.send(enveloped);
+                        WebSocketFrameEvent.outbound(enveloped);
+                        if (!enveloped.contains("\"type\":\"maps_info\"")) {
+                            plugin.debug("Sent WebSocket message: " + enveloped);
+                        }
+                    } else {
+                        byte[] enveloped = ResumableSession.envelope(message.opcode, message.body, message.seq, ack);
+                        writeFrames(current, message.opcode, ByteBuffer.wrap(enveloped));
+                        WebSocketFrameEvent.outbound(message.messageType, enveloped.length);
+                        plugin.debug("Sent WebSocket " + message.messageType + " message #" + message.seq + " (" + enveloped.length + " bytes)");
                     }
-                    timelineArray.add(eventJson);
+                } catch (WebsocketNotConnectedException e) {
+                    session.requeue(message);
+                    plugin.debug("Connection dropped while flushing, message #" + message.seq + " kept for replay");
+                    return;
                 }
-                json.add("timeline", timelineArray);
             }
-            
+        }
+    }
+
+    /**
+     * Runs on the socket thread so seq and ack are applied in arrival order.
+     * Returns false for a message the bot replayed but that was already handled.
+     */
+    private boolean acceptSessionMessage(String message) {
+        long ack = ResumableSession.peekLong(message, "ack");
+        if (ack > 0) {
+            session.acknowledge(ack);
+        }
+        long seq = ResumableSession.peekLong(message, "seq");
+        if (seq > 0 && !session.accept(seq)) {
+            plugin.debug("Skipping replayed WebSocket message #" + seq);
+            return false;
+        }
+        return true;
+    }
+
+    private void resumeOrRestartSession(JsonObject json) {
+        boolean resumed = json.has("session_resumed") && json.get("session_resumed").getAsBoolean();
+        long botAck = json.has("ack") ? json.get("ack").getAsLong() : 0;
+        if (resumed && session.resume(botAck)) {
+            plugin.getLogger().info("Resumed WebSocket session " + session.getSessionId() + ", replaying "
+                    + session.getBufferedCount() + " unacknowledged message(s)");
+            session.setReady(true);
+            flushSession();
+            return;
+        }
+        String newSessionId = json.has("session_id") ? json.get("session_id").getAsString() : null;
+        List<ResumableSession.Outbound> dropped = session.restart(newSessionId);
+        int resent = 0;
+        for (ResumableSession.Outbound message : dropped) {
+            // Game results go out again in the new session; the bot tells them apart by gameid
+            if (CriticalOutbox.isCritical(message)) {
+                outbox.hold(message);
+                resent++;
+            }
+        }
+        if (!dropped.isEmpty()) {
+            plugin.getLogger().warning(dropped.size() + " message(s) sent before the reconnect were never acknowledged and cannot be replayed"
+                    + (resent > 0 ? "; " + resent + " game result(s) will be sent again" : ""));
+        }
+        plugin.debug("Started WebSocket session " + session.getSessionId() + " with " + session.getBufferedCount() + " carried-over message(s)");
+        session.setReady(true);
+        flushSession();
+        sendInitialData();
+    }
+
+    /**
+     * Standalone cumulative ack for when the plugin has nothing else to send.
+     */
+    private void sendSessionAck() {
+        WebSocketClient current = client;
+        if (session == null || current == null || !current.isOpen() || !session.isReady()) {
+            return;
+        }
+        synchronized (sendLock) {
+            if (!session.needsAck()) {
+                return;
+            }
+            JsonObject ack = new JsonObject();
+            ack.addProperty("type", "ack");
+            ack.addProperty("session_id", session.getSessionId());
+            ack.addProperty("ack", session.takeAck());
+            try {
+                current.send(ack.toString());
+            } catch (WebsocketNotConnectedException e) {
+                plugin.debug("Could not send session ack: connection closed");
+            }
+        }
+    }
+
+    /**
+     * End index of the next fragment: at most fragmentSize bytes, moved back so a
+     * multi-byte UTF-8 sequence is never split across frames.
+     */
+    static int fragmentEnd(ByteBuffer buffer, int fragmentSize) {
+        int start = buffer.position();
+        int end = Math.min(buffer.limit(), start + fragmentSize);
+        while (end < buffer.limit() && end > start + 1 && (buffer.get(end) & 0xC0) == 0x80) {
+            end--;
+        }
+        return end;
+    }
+
+    private void handleSendWhileClosed() {
+        plugin.getLogger().warning("Cannot send WebSocket message: connection is closed");
+        
+        // Only alert when nothing is already in flight; the supervisor reports its own retries
+        if (supervisor != null && supervisor.getState() == ConnectionState.DISCONNECTED) {
+            notifyAdmins("§c[RankedBedwars] §4WebSocket connection is closed. Cannot send messages to the bot. Please contact deyo.");
+            scheduleReconnect();
+        }
+    }
+
+    /**
+     * Serializes and sends the scoring of game on the serialization lane. While
+     * disconnected it is held for the next connection. The future is true once
+     * the scoring was sent, recorded for replay or held, and false if it was lost.
+     */
+    public CompletableFuture<Boolean> sendGameScoring(Game game) {
+        CompletableFuture<Boolean> handedOff = new CompletableFuture<>();
+        plugin.getExecutors().execute(PluginExecutors.Lane.SERIALIZATION, () -> {
+            boolean sent = false;
             int winningTeamNumber = game.getWinningTeamNumber();
-            if (winningTeamNumber == 1 || winningTeamNumber == 2) {
-                JsonArray winningTeamIgnList = new JsonArray();
-                if (winningTeamNumber == 1) {
-                    for (String player : game.getTeam1()) {
-                        winningTeamIgnList.add(player);
-                    }
+            if (winningTeamNumber != 1 && winningTeamNumber != 2) {
+                plugin.getLogger().warning("Not sending winning team for game " + game.getGameId() + ": winner not tracked");
+            }
+
+            try (PooledUtf8Writer payload = PooledUtf8Writer.acquire()) {
+                ScoringSerializedEvent serializedEvent = new ScoringSerializedEvent();
+                serializedEvent.begin();
+                if (binaryPayloads) {
+                    ScoringEncoder.write(game, new CborWriter(payload.asOutputStream()));
                 } else {
-                    for (String player : game.getTeam2()) {
-                        winningTeamIgnList.add(player);
-                    }
+                    ScoringEncoder.write(game, payload);
                 }
-                json.add("winningteamignlist", winningTeamIgnList);
-            } else {
-                plugin.getLogger().warning("Not sending winning team for game " + game.getGameId() + ": winner not tracked");
+                if (serializedEvent.shouldCommit()) {
+                    serializedEvent.gameId = game.getGameId();
+                    serializedEvent.timelineEvents = game.getTimeline() != null ? game.getTimeline().size() : 0;
+                    serializedEvent.size = payload.size();
+                    serializedEvent.commit();
+                }
+
+                ScoringSentEvent sentEvent = new ScoringSentEvent();
+                sentEvent.begin();
+                sentEvent.connected = isConnected();
+                sent = sendData(binaryPayloads ? Opcode.BINARY : Opcode.TEXT, payload.toByteBuffer(), "scoring");
+                if (sentEvent.shouldCommit()) {
+                    sentEvent.gameId = game.getGameId();
+                    sentEvent.commit();
+                }
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to send scoring for game " + game.getGameId(), e);
             }
-            
-            sendMessage(json.toString());
 
             if (plugin.getMapManager() != null) {
                 String mapName = game.getMap();
-                plugin.getMapManager().unlockMap(mapName);
-                plugin.debug("Unlocked map after scoring: " + mapName);
+                // Usually already released at round end; the token keeps a late release from freeing the next game's lease
+                if (plugin.getMapManager().releaseLease(mapName, game.getLeaseToken())) {
+                    plugin.debug("Unlocked map after scoring: " + mapName);
+                }
             }
+            handedOff.complete(sent);
         });
+        return handedOff;
+    }
+
+    /**
+     * Builds the scoring message for a finished game as a tree. sendGameScoring
+     * streams the same JSON through {@link ScoringEncoder}; this is kept as the
+     * reference for tests and benchmarks.
+     */
+    static JsonObject buildScoringJson(Game game) {
+        JsonObject json = new JsonObject();
+        json.addProperty("type", "scoring");
+        json.addProperty("gameid", game.getGameId());
+        
+        if (game.getMvps() != null && !game.getMvps().isEmpty()) {
+            JsonArray mvpsArray = new JsonArray();
+            for (String mvp : game.getMvps()) {
+                mvpsArray.add(mvp);
+            }
+            json.add("mvps", mvpsArray);
+        }
+        if (game.getBedBreakers() != null && !game.getBedBreakers().isEmpty()) {
+            JsonArray bedBreakersArray = new JsonArray();
+            for (String breaker : game.getBedBreakers()) {
+                bedBreakersArray.add(breaker);
+            }
+            json.add("bedsbroken", bedBreakersArray);
+        }
+        JsonObject playersJson = new JsonObject();
+        for (String playerName : game.getPlayerKills().keySet()) {
+            JsonObject playerJson = new JsonObject();
+            playerJson.addProperty("kills", game.getPlayerKills().getOrDefault(playerName, 0));
+            playerJson.addProperty("deaths", game.getPlayerDeaths().getOrDefault(playerName, 0));
+            playerJson.addProperty("finalkills", game.getPlayerFinalKills().getOrDefault(playerName, 0));
+            playerJson.addProperty("blocksplaced", game.getPlayerBlocksPlaced().getOrDefault(playerName, 0));
+            playerJson.addProperty("diamonds", game.getPlayerDiamondsCollected().getOrDefault(playerName, 0));
+            playerJson.addProperty("irons", game.getPlayerIronCollected().getOrDefault(playerName, 0));
+            playerJson.addProperty("gold", game.getPlayerGoldCollected().getOrDefault(playerName, 0));
+            playerJson.addProperty("emeralds", game.getPlayerEmeraldsCollected().getOrDefault(playerName, 0));
+            playersJson.add(playerName, playerJson);
+        }
+        json.add("players", playersJson);
+        
+        if (game.getTimeline() != null && !game.getTimeline().isEmpty()) {
+            JsonArray timelineArray = new JsonArray();
+            for (Map<String, Object> event : game.getTimeline()) {
+                JsonObject eventJson = new JsonObject();
+                for (Map.Entry<String, Object> entry : event.entrySet()) {
+                    Object value = entry.getValue();
+                    if (value instanceof Number) eventJson.addProperty(entry.getKey(), (Number) value);
+                    else if (value instanceof Boolean) eventJson.addProperty(entry.getKey(), (Boolean) value);
+                    else if (value == null) eventJson.add(entry.getKey(), com.google.gson.JsonNull.INSTANCE);
+                    else eventJson.addProperty(entry.getKey(), String.valueOf(value));
+                }
+                timelineArray.add(eventJson);
+            }
+            json.add("timeline", timelineArray);
+        }
+        
+        int winningTeamNumber = game.getWinningTeamNumber();
+        if (winningTeamNumber == 1 || winningTeamNumber == 2) {
+            JsonArray winningTeamIgnList = new JsonArray();
+            if (winningTeamNumber == 1) {
+                for (String player : game.getTeam1()) {
+                    winningTeamIgnList.add(player);
+                }
+            } else {
+                for (String player : game.getTeam2()) {
+                    winningTeamIgnList.add(player);
+                }
+            }
+            json.add("winningteamignlist", winningTeamIgnList);
+        }
+        
+        return json;
     }
     private void sendInitialData() {
         Bukkit.getScheduler().runTask(plugin, () -> {
@@ -597,37 +1156,104 @@ public class WebSocketManager {
                 statusMessage.addProperty("type", "server_status");
                 statusMessage.addProperty("status", "connected");
                 statusMessage.addProperty("timestamp", System.currentTimeMillis());
+                StartupOrchestrator startup = plugin.getStartup();
+                statusMessage.addProperty("ready", startup == null || startup.isComplete());
                 sendMessage(statusMessage.toString());
                 
                 sendPermissionData();
+                if (presence != null) {
+                    presence.sendSnapshot();
+                }
+                requestPlayerDirectory();
                 
-                scheduleMapDataSending();
+                sendMapDataIfReady();
+                sendReady();
+                if (plugin.getMapManager() != null) {
+                    plugin.getMapManager().getCheckpoints().reportRecovered();
+                }
+                resendUndelivered();
                 plugin.debug("Initial data sending process started");
             } catch (Exception e) {
                 plugin.getLogger().log(Level.WARNING, "Error sending initial data to WebSocket", e);
             }
         });
     }
-    private void scheduleMapDataSending() {
-        sendMapDataIfReady(0);
+    private void requestPlayerDirectory() {
+        JsonObject request = new JsonObject();
+        request.addProperty("type", "player_directory_request");
+        sendMessage(request.toString());
+    }
+    private void requestQueueStatus() {
+        JsonObject request = new JsonObject();
+        request.addProperty("type", "queuestatus_request");
+        sendMessage(request.toString());
     }
-    private void sendMapDataIfReady(int attempt) {
+    /**
+     * Sends the arenas once startup has registered them. Before that there is
+     * nothing to send; onStartupFinished() sends them as soon as they are loaded.
+     */
+    private void sendMapDataIfReady() {
         if (!isConnected()) {
-            plugin.debug("WebSocket not connected, skipping map data send (attempt " + attempt + ")");
+            plugin.debug("WebSocket not connected, skipping map data send");
+            return;
+        }
+        StartupOrchestrator startup = plugin.getStartup();
+        if (startup != null && !startup.isComplete()) {
+            plugin.debug("Arenas not loaded yet, map data will be sent when startup completes");
             return;
         }
         if (plugin.getMapManager() != null && !plugin.getMapManager().getMapNames().isEmpty()) {
             plugin.getMapManager().sendMapInfoToBot();
-            plugin.getLogger().info("Successfully sent map data to WebSocket server (attempt " + attempt + ")");
+            plugin.getLogger().info("Successfully sent map data to WebSocket server");
         } else {
-            plugin.debug("MapManager not ready or no maps available (attempt " + attempt + ")");
-            if (attempt >= 3) {
-                plugin.getLogger().warning("Failed to send map data after 3 attempts - MapManager may not be initialized");
-            }
+            plugin.getLogger().warning("No arenas to send to the WebSocket server");
+        }
+    }
+
+    /**
+     * Called once startup is over. If it completed, anything connected before
+     * then gets the arenas and ready now. Either way the held warps run; after
+     * a failed startup they are answered with warp_failed_arena_not_found.
+     */
+    public void onStartupFinished(boolean completed) {
+        if (completed) {
+            sendMapDataIfReady();
+            sendReady();
+        }
+        List<JsonObject> warps;
+        synchronized (deferredWarps) {
+            warps = new ArrayList<>(deferredWarps);
+            deferredWarps.clear();
+        }
+        for (JsonObject warp : warps) {
+            inbound.execute(() -> handleWarpPlayersAsync(warp));
         }
     }
+
+    /**
+     * Tells the bot this server can take games: the managers are up and the
+     * arena registry is populated. Sent when startup completes and again on
+     * every reconnect after that, with how long each startup stage took.
+     */
+    private void sendReady() {
+        StartupOrchestrator startup = plugin.getStartup();
+        if (startup == null || !startup.isComplete() || !isConnected()) {
+            return;
+        }
+        JsonObject ready = new JsonObject();
+        ready.addProperty("type", "ready");
+        ready.addProperty("server_id", serverId);
+        ready.addProperty("timestamp", System.currentTimeMillis());
+        ready.addProperty("arena_groups", plugin.getMapManager() != null ? plugin.getMapManager().getMapNames().size() : 0);
+        ready.addProperty("startup_ms", startup.getTotalMillis());
+        JsonObject stages = new JsonObject();
+        startup.getStageMillis().forEach(stages::addProperty);
+        ready.add("stages", stages);
+        sendMessage(ready.toString());
+        plugin.debug("Sent ready to WebSocket server");
+    }
     private void notifyReconnection() {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        plugin.getExecutors().execute(PluginExecutors.Lane.NETWORK, () -> {
             plugin.debug("WebSocket reconnection notification - checking for additional data to send");
         });
     }
@@ -638,56 +1264,14 @@ public class WebSocketManager {
             plugin.getLogger().warning("Cannot resend initial data: WebSocket not connected");
         }
     }
-    private int reconnectAttempts = 0;
-    private static final int MAX_RECONNECT_ATTEMPTS = 5;
-    
+    /**
+     * Asks the supervisor to connect if it is idle. A no-op while a connect or
+     * backoff is already in progress.
+     */
     private void scheduleReconnect() {
-        if (reconnectScheduled) {
-            return;
-        }
-        if (!plugin.isEnabled()) {
-            plugin.getLogger().warning("Plugin is disabled, not scheduling WebSocket reconnection.");
-            return;
+        if (supervisor != null && plugin.isEnabled()) {
+            supervisor.requestReconnect();
         }
-        
-        if (client != null && client.isOpen()) {
-            plugin.debug("WebSocket is already connected, skipping reconnection schedule");
-            return;
-        }
-        
-        reconnectScheduled = true;
-        reconnectAttempts++;
-        
-        int currentDelay = Math.min(reconnectDelay * reconnectAttempts, 60); 
-        
-        plugin.getLogger().info("Scheduling WebSocket reconnection in " + currentDelay + " seconds (Attempt " + reconnectAttempts + ")");
-        
-        if (reconnectAttempts == MAX_RECONNECT_ATTEMPTS) {
-            plugin.getLogger().severe("Failed to connect to WebSocket server after " + reconnectAttempts + " attempts");
-            plugin.getLogger().severe("The RankedBedwars bot appears to be offline. Please contact deyo.");
-            notifyAdmins("§4[RankedBedwars] §cFailed to connect to WebSocket after " +
-                reconnectAttempts + " attempts. The bot is likely offline. Please contact deyo.");
-        }
-
-        // Keep retrying indefinitely (capped delay) instead of giving up forever;
-        // the bot may come back online at any time.
-        Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> {
-            if (!plugin.isEnabled()) {
-                plugin.getLogger().warning("Plugin is disabled, aborting scheduled WebSocket reconnection.");
-                reconnectScheduled = false;
-                return;
-            }
-            
-            if (client != null && client.isOpen()) {
-                plugin.debug("WebSocket is already connected, canceling reconnection attempt");
-                reconnectScheduled = false;
-                return;
-            }
-            
-            reconnectScheduled = false;
-            plugin.getLogger().info("Attempting to reconnect to WebSocket server... (Attempt " + reconnectAttempts + ")");
-            connect();
-        }, currentDelay * 20L);
     }
 
     /**
@@ -695,26 +1279,111 @@ public class WebSocketManager {
      * call from any thread (WebSocket threads, async scheduler threads).
      */
     private void notifyAdmins(String message) {
-        Bukkit.getScheduler().runTask(plugin, () ->
-            Bukkit.getOnlinePlayers().stream()
-                .filter(p -> p.hasPermission("rankedbedwars.admin") || p.isOp())
-                .forEach(p -> p.sendMessage(message))
-        );
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            for (org.bukkit.entity.Player admin : plugin.getPlayerIndex().admins()) {
+                admin.sendMessage(message);
+            }
+        });
     }
     public boolean isConnected() {
         return client != null && client.isOpen();
     }
+    /** Stops at once, without waiting for queued messages; undelivered game results are still spilled. */
     public void shutdown() {
+        beginShutdown();
+        drainAndClose(0L);
+    }
+
+    /**
+     * First half of a graceful shutdown, on the main thread: stops reconnects,
+     * the ack timer and the action bars, and hands the pending presence changes
+     * to the serialization lane.
+     */
+    public void beginShutdown() {
         plugin.getLogger().info("Shutting down WebSocket connection...");
         
-        reconnectScheduled = false;
-        
-        if (client != null && client.isOpen()) {
+        if (sessionAckTask != null) {
+            sessionAckTask.cancel(false);
+            sessionAckTask = null;
+        }
+        if (supervisor != null) {
+            supervisor.stop();
+        }
+        if (queueView != null) {
+            queueView.shutdown();
+        }
+        if (presence != null) {
+            presence.flush();
+            presence.shutdown();
+        }
+    }
+
+    /**
+     * Second half, once the serialization lane is drained: waits up to
+     * timeoutMillis for queued frames to be written and, with a resumable
+     * session, for the bot to ack the game results. Results still undelivered
+     * then go to outbox.jsonl, and the connection is closed. Returns false if
+     * any had to be spilled.
+     */
+    public boolean drainAndClose(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeoutMillis));
+        WebSocketClient current = client;
+        while (current != null && current.isOpen() && (current.hasBufferedData() || hasUnackedResults())) {
+            long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (left <= 0) {
+                break;
+            }
+            try {
+                Thread.sleep(Math.min(10L, left));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        int spilled = outbox.spill(session != null ? session.getUnacked() : Collections.emptyList());
+        if (spilled > 0) {
+            plugin.getLogger().warning("Saved " + spilled + " undelivered game result(s) to outbox.jsonl; they are sent again after the next start");
+        }
+        if (current != null && current.isOpen()) {
             // Non-blocking close: onDisable runs on the main thread and
             // closeBlocking() can hang the server shutdown forever.
-            client.close(1000, "Plugin disabling");
+            current.close(1000, "Plugin disabling");
         }
         client = null;
+        return spilled == 0;
+    }
+
+    private boolean hasUnackedResults() {
+        if (session == null) {
+            return false;
+        }
+        for (ResumableSession.Outbound message : session.getUnacked()) {
+            if (CriticalOutbox.isCritical(message)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Sends the game results held while disconnected or spilled by the last shutdown. */
+    private void resendUndelivered() {
+        List<ResumableSession.Outbound> messages = outbox.takeHeld();
+        if (messages.isEmpty()) {
+            return;
+        }
+        plugin.getLogger().info("Resending " + messages.size() + " undelivered game result(s)");
+        for (ResumableSession.Outbound message : messages) {
+            if (message.text != null) {
+                sendMessage(message.text);
+            } else {
+                sendData(message.opcode, ByteBuffer.wrap(message.body), message.messageType);
+            }
+        }
+        // Anything that failed again is held again and spilled at shutdown
+        if (outbox.getHeldCount() == 0) {
+            outbox.clearSpilled();
+        }
     }
 
     public void sendPingWithId(String pingId) {
@@ -763,8 +1432,9 @@ public class WebSocketManager {
     
 
     public void resetReconnectionState() {
-        reconnectAttempts = 0;
-        reconnectScheduled = false;
+        if (supervisor != null) {
+            supervisor.reset();
+        }
         plugin.getLogger().info("WebSocket reconnection state has been reset");
     }
     
@@ -773,9 +1443,14 @@ public class WebSocketManager {
         plugin.getLogger().info("Target Host: " + host);
         plugin.getLogger().info("Target Port: " + port);
         plugin.getLogger().info("Full URL: ws://" + host + ":" + port + "/rbw/websocket");
-        plugin.getLogger().info("Current Connection State: " + (isConnected() ? "CONNECTED" : "DISCONNECTED"));
-        plugin.getLogger().info("Reconnect Attempts: " + reconnectAttempts);
-        plugin.getLogger().info("Reconnect Scheduled: " + reconnectScheduled);
+        if (supervisor != null) {
+            plugin.getLogger().info("Configured Hosts: " + String.join(", ", supervisor.getHosts()));
+            plugin.getLogger().info("Current Host: " + supervisor.currentHost());
+            plugin.getLogger().info("Current Connection State: " + supervisor.getState());
+            plugin.getLogger().info("Failed Attempts: " + supervisor.getFailedAttempts());
+        } else {
+            plugin.getLogger().info("Current Connection State: " + (isConnected() ? "CONNECTED" : "DISCONNECTED"));
+        }
         
         // Test basic connectivity
         testConnectivity();
@@ -821,77 +1496,43 @@ public class WebSocketManager {
         }
     }
     
-    private void handleQueueStatus(JsonObject json) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                if (!json.has("queues")) {
-                    return;
-                }
-                
-                JsonObject queues = json.getAsJsonObject("queues");
-                
-                for (String queueId : queues.keySet()) {
-                    JsonObject queue = queues.getAsJsonObject(queueId);
-                    
-                    if (!queue.has("players")) {
-                        continue;
-                    }
-                    
-                    JsonArray playersArray = queue.getAsJsonArray("players");
-                    java.util.List<String> queuePlayers = new java.util.ArrayList<>();
-                    for (int i = 0; i < playersArray.size(); i++) {
-                        queuePlayers.add(playersArray.get(i).getAsString());
-                    }
-                    
-                    int minElo = queue.get("minElo").getAsInt();
-                    int maxElo = queue.get("maxElo").getAsInt();
-                    int currentPlayers = queue.get("currentPlayers").getAsInt();
-                    int maxPlayers = queue.get("maxPlayers").getAsInt();
-                    boolean isRanked = queue.get("isRanked").getAsBoolean();
-                    boolean isPicking = queue.get("isPicking").getAsBoolean();
-                    
-                    String queueMessage = String.format("§6In Queue [§e%d-%d§6] §f%d/%d §7Ranked: %s §7Picking: %s", 
-                        minElo, maxElo, currentPlayers, maxPlayers,
-                        isRanked ? "§atrue" : "§cfalse",
-                        isPicking ? "§atrue" : "§cfalse"
-                    );
-                    
-                    Bukkit.getScheduler().runTask(plugin, () -> {
-                        for (String playerName : queuePlayers) {
-                            org.bukkit.entity.Player player = Bukkit.getPlayerExact(playerName);
-                            if (player != null && player.isOnline()) {
-                                sendActionBar(player, queueMessage);
-                            }
-                        }
-                    });
-                }
-                
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.WARNING, "Error handling queue status", e);
-            }
-        });
+    private void handleQueueStatus(JsonObject json, boolean full) {
+        switch (queueStatus.offer(json, full)) {
+            case SCHEDULE:
+                Bukkit.getScheduler().runTask(plugin, this::applyQueueStatus);
+                break;
+            case REQUEST:
+                plugin.debug("Queue status delta " + json.get("version") + " is out of order, asking for a full queuestatus");
+                requestQueueStatus();
+                break;
+            default:
+                break;
+        }
     }
-    
-    private void sendActionBar(org.bukkit.entity.Player player, String message) {
-        try {
-            Class<?> craftPlayerClass = Class.forName("org.bukkit.craftbukkit." + Bukkit.getServer().getClass().getPackage().getName().split("\\.")[3] + ".entity.CraftPlayer");
-            java.lang.reflect.Method getHandleMethod = craftPlayerClass.getMethod("getHandle");
-            Object entityPlayer = getHandleMethod.invoke(player);
-            Class<?> playerConnectionClass = entityPlayer.getClass().getField("playerConnection").getType();
-            java.lang.reflect.Method sendPacketMethod = playerConnectionClass.getMethod("sendPacket", Class.forName("net.minecraft.server." + Bukkit.getServer().getClass().getPackage().getName().split("\\.")[3] + ".Packet"));
-            Class<?> chatSerializerClass = Class.forName("net.minecraft.server." + Bukkit.getServer().getClass().getPackage().getName().split("\\.")[3] + ".IChatBaseComponent$ChatSerializer");
 
-            Object chatBaseComponent = chatSerializerClass.getMethod("a", String.class).invoke(null,
-                    "{\"text\":\"" + org.bukkit.ChatColor.translateAlternateColorCodes('&', message) + "\",\"bold\":true,\"color\":\"red\",\"italic\":false}");
-
-            Class<?> packetPlayOutChatClass = Class.forName("net.minecraft.server." + Bukkit.getServer().getClass().getPackage().getName().split("\\.")[3] + ".PacketPlayOutChat");
-            Object packetPlayOutChat = packetPlayOutChatClass.getConstructor(Class.forName("net.minecraft.server." + Bukkit.getServer().getClass().getPackage().getName().split("\\.")[3] + ".IChatBaseComponent"), byte.class).newInstance(chatBaseComponent, (byte) 2);
-            sendPacketMethod.invoke(entityPlayer.getClass().getField("playerConnection").get(entityPlayer), packetPlayOutChat);
-        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException | java.lang.reflect.InvocationTargetException | NoSuchFieldException | InstantiationException e) {
-            player.sendMessage("§8[§6Queue§8] " + message);
+    /** Applies what arrived since the last tick in one go. Main thread. */
+    private void applyQueueStatus() {
+        QueueStatusInbox.Batch batch = queueStatus.take();
+        QueueView view = queueView;
+        if (batch == null || view == null) {
+            return;
+        }
+        try {
+            if (!view.apply(batch.message, batch.full, batch.since, System.currentTimeMillis())) {
+                if (queueStatus.gap()) {
+                    plugin.debug("Queue status does not follow the last one applied, asking for a full queuestatus");
+                    requestQueueStatus();
+                }
+                return;
+            }
+            if (plugin.getMapManager() != null) {
+                plugin.getMapManager().getStandby().onQueueStatus(view.getQueues());
+            }
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Error handling queue status", e);
         }
     }
-
+    
     private static final java.util.regex.Pattern IGN_PATTERN = java.util.regex.Pattern.compile("^[a-zA-Z0-9_]{1,16}$");
 
     private boolean isValidIgn(String ign) {
@@ -973,6 +1614,7 @@ public class WebSocketManager {
 
 	private void handleScoringSuccess(JsonObject json) {
 		int gameId = parseGameId(json);
+		commitScoringAcked(gameId, "scoringsuccess");
 		if (!json.has("players") || !json.get("players").isJsonArray()) {
 			plugin.getLogger().warning("scoringsuccess missing players array");
 			return;
@@ -981,7 +1623,7 @@ public class WebSocketManager {
 		String message = "§6§l[RBW] §aGame §e#" + gameId + " §ahas been scored.";
 		for (int i = 0; i < playersArray.size(); i++) {
 			String playerName = playersArray.get(i).getAsString();
-			org.bukkit.entity.Player player = Bukkit.getPlayerExact(playerName);
+			org.bukkit.entity.Player player = plugin.getPlayerIndex().get(playerName);
 			if (player != null && player.isOnline()) {
 				player.sendMessage(message);
 			}
@@ -990,6 +1632,7 @@ public class WebSocketManager {
 
 	private void handleGameVoided(JsonObject json) {
 		int gameId = parseGameId(json);
+		commitScoringAcked(gameId, "gamevoided");
 		String reason = json.has("reason") && !json.get("reason").isJsonNull() ? json.get("reason").getAsString() : "unspecified";
 		if (!json.has("players") || !json.get("players").isJsonArray()) {
 			plugin.getLogger().warning("gamevoided missing players array");
@@ -999,13 +1642,22 @@ public class WebSocketManager {
 		String message = "§6§l[RBW] §cGame §e#" + gameId + " §chas been voided. §7Reason: §f" + reason;
 		for (int i = 0; i < playersArray.size(); i++) {
 			String playerName = playersArray.get(i).getAsString();
-			org.bukkit.entity.Player player = Bukkit.getPlayerExact(playerName);
+			org.bukkit.entity.Player player = plugin.getPlayerIndex().get(playerName);
 			if (player != null && player.isOnline()) {
 				player.sendMessage(message);
 			}
 		}
 	}
 
+	private void commitScoringAcked(int gameId, String outcome) {
+		ScoringAckedEvent event = new ScoringAckedEvent();
+		if (event.isEnabled()) {
+			event.gameId = String.valueOf(gameId);
+			event.outcome = outcome;
+			event.commit();
+		}
+	}
+
 	/**
 	 * Parses the gameid from a bot message. The bot may send it as a number or
 	 * as a string; non-numeric ids are tolerated and reported as -1 instead of
@@ -30,6 +30,10 @@ public class Game {
     private final Map<String, String> playerTeamName = new HashMap<>();
     private final Map<String, Boolean> playerBedBroken = new HashMap<>();
     private final List<Map<String, Object>> timeline = new ArrayList<>();
+    // Fencing token of the arena lease this game holds; not part of the saved or sent data
+    private transient long leaseToken;
+    // Timeline events before this index were sent or checkpointed and must not change
+    private transient int sealedTimeline;
 
     public Game(String gameId, String map, boolean ranked, List<String> team1, List<String> team2,
                 List<String> mvps, List<String> bedBreakers, long startTime, int duration, String date) {
@@ -57,6 +61,10 @@ public class Game {
     public String getDate() { return date; }
 
     public void setDuration(int duration) { this.duration = duration; }
+    public long getLeaseToken() { return leaseToken; }
+    public void setLeaseToken(long leaseToken) { this.leaseToken = leaseToken; }
+    public int getSealedTimeline() { return sealedTimeline; }
+    public void sealTimeline(int index) { this.sealedTimeline = Math.max(sealedTimeline, index); }
 
     public Map<String, Integer> getPlayerKills() { return playerKills; }
     public Map<String, Integer> getPlayerDeaths() { return playerDeaths; }
@@ -19,8 +19,15 @@ public class GameInstance {
     private final Map<String, String> brokenBeds = new HashMap<>();
     private Team winningTeam;
     private long endTime;
+    private final TimelineCoalescer coalescer;
 
     public GameInstance(String gameId, Arena arena, boolean isRanked) {
+        this(gameId, arena, isRanked, TimelineCoalescer.DEFAULT_WINDOW_MILLIS);
+    }
+
+    /** @param coalesceWindowMillis window for folding block_place and resource_pickup events, 0 to keep each */
+    public GameInstance(String gameId, Arena arena, boolean isRanked, long coalesceWindowMillis) {
+        this.coalescer = new TimelineCoalescer(coalesceWindowMillis);
         this.arenaName = arena.getName();
         this.displayName = arena.getDisplayName();
         this.game = new Game(
@@ -113,7 +120,7 @@ public class GameInstance {
 
     public void recordBlocksPlaced(String player, int count) {
         game.getPlayerBlocksPlaced().put(player, game.getPlayerBlocksPlaced().getOrDefault(player, 0) + count);
-        addTimelineEvent("block_place", player, null, 1, null);
+        coalescer.record(game, "block_place", player, null, count, System.currentTimeMillis() - game.getStartTime());
     }
 
     public void recordPlayerLeave(String player) {
@@ -147,7 +154,8 @@ public class GameInstance {
         // reason to discard the amount, so no upper-bound check is applied.
         int currentAmount = resourceMap.getOrDefault(player, 0);
         resourceMap.put(player, currentAmount + amount);
-        addTimelineEvent("resource_pickup", player, null, amount, null);
+        coalescer.record(game, "resource_pickup", player, resourceType.name().toLowerCase(), amount,
+                System.currentTimeMillis() - game.getStartTime());
     }
 
     public void recordGameEnd(Team winningTeam) {
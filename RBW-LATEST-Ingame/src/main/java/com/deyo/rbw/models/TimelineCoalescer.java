@@ -0,0 +1,58 @@
+package com.deyo.rbw.models;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds frequent per-player events (block_place, resource_pickup) into one
+ * timeline event per player and type for up to windowMillis: the amounts are
+ * summed, timestamp stays the time of the first one and end_timestamp is the
+ * time of the last one. Events before {@link Game#getSealedTimeline()} were
+ * already sent and are never changed; a new event is started instead.
+ *
+ * A window of 0 appends every event on its own in the old shape, without
+ * resource and end_timestamp.
+ */
+public final class TimelineCoalescer {
+
+    public static final long DEFAULT_WINDOW_MILLIS = 5000L;
+
+    private final long windowMillis;
+    // player, type and resource -> index of the event still being folded into
+    private final Map<String, Integer> open = new HashMap<>();
+
+    public TimelineCoalescer(long windowMillis) {
+        this.windowMillis = Math.max(0, windowMillis);
+    }
+
+    /** Records amount for player; resource, if not null, is kept in the event and never mixed. */
+    public void record(Game game, String type, String player, String resource, int amount, long timestamp) {
+        List<Map<String, Object>> timeline = game.getTimeline();
+        String key = player + '\u0000' + type + '\u0000' + resource;
+        Integer index = open.get(key);
+        if (index != null && index >= game.getSealedTimeline() && index < timeline.size()) {
+            Map<String, Object> event = timeline.get(index);
+            if (timestamp - ((Number) event.get("timestamp")).longValue() < windowMillis) {
+                event.put("amount", ((Number) event.get("amount")).intValue() + amount);
+                event.put("end_timestamp", timestamp);
+                return;
+            }
+        }
+        Map<String, Object> event = new HashMap<>();
+        event.put("type", type);
+        event.put("player", player);
+        event.put("target", null);
+        event.put("amount", amount);
+        event.put("team", null);
+        event.put("timestamp", timestamp);
+        timeline.add(event);
+        if (windowMillis > 0) {
+            if (resource != null) {
+                event.put("resource", resource);
+            }
+            event.put("end_timestamp", timestamp);
+            open.put(key, timeline.size() - 1);
+        }
+    }
+}
@@ -41,11 +41,15 @@ public class RankedBedwarsExpansion extends PlaceholderExpansion {
     private static final Pattern TOP_VALUE_PATTERN = Pattern.compile("top_([a-z]+)_([0-9]+)_value");
     
     public RankedBedwarsExpansion(RankedBedwars plugin) {
+        this(plugin, new APIClient(plugin.getGson(), plugin.getLogger(), plugin.getConfig(), plugin.getIoExecutor()));
+    }
+
+    RankedBedwarsExpansion(RankedBedwars plugin, APIClient apiClient) {
         this.plugin = plugin;
-        this.apiClient = new APIClient(plugin.getGson(), plugin.getLogger(), plugin.getConfig());
+        this.apiClient = apiClient;
         
         
-        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::cleanupExpiredCache, 20L * 60L, 20L * 60L); 
+        plugin.getExecutors().scheduleAtFixedRate(this::cleanupExpiredCache, 60_000L, 60_000L);
     }
 
     @Override
@@ -15,8 +15,7 @@ import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 import java.util.logging.Logger;
 
 public class APIClient {
@@ -24,16 +23,13 @@ public class APIClient {
     private final Gson gson;
     private final Logger logger;
     private final HttpClient httpClient;
-    private final ExecutorService executor;
+    private final Executor executor;
 
-    public APIClient(Gson gson, Logger logger, FileConfiguration config) {
+    /** executor runs the blocking requests; it is owned by the caller. */
+    public APIClient(Gson gson, Logger logger, FileConfiguration config, Executor executor) {
         this.gson = gson;
         this.logger = logger;
-        this.executor = Executors.newFixedThreadPool(2, r -> {
-            Thread t = new Thread(r, "RBW-APIClient");
-            t.setDaemon(true);
-            return t;
-        });
+        this.executor = executor;
         this.httpClient = HttpClient.newBuilder()
                 .executor(executor)
                 .connectTimeout(Duration.ofSeconds(5))
@@ -148,8 +144,4 @@ public class APIClient {
     private LeaderboardEntry createDefaultLeaderboardEntry() {
         return new LeaderboardEntry("Unknown", 0.0);
     }
-
-    public void shutdown() {
-        executor.shutdownNow();
-    }
 }
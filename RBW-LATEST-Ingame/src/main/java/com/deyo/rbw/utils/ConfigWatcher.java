@@ -0,0 +1,143 @@
+package com.deyo.rbw.utils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Watches files in the plugin's data folder and runs a handler on the main
+ * thread when one of them changes. Editors often write a file in several
+ * steps, so a change is acted on once the file has been quiet for the
+ * debounce time. The watching and a parse to check the file is valid YAML
+ * happen on a thread of its own; a file that does not parse is left alone
+ * until it is saved again.
+ */
+public final class ConfigWatcher {
+
+    private final Plugin plugin;
+    private final long debounceMillis;
+    private final Executor mainThread;
+    // file name -> what to run on the main thread when it changes
+    private final Map<String, Runnable> handlers = new LinkedHashMap<>();
+    private WatchService watchService;
+    private Thread thread;
+
+    public ConfigWatcher(Plugin plugin, long debounceMillis) {
+        this(plugin, debounceMillis, task -> Bukkit.getScheduler().runTask(plugin, task));
+    }
+
+    ConfigWatcher(Plugin plugin, long debounceMillis, Executor mainThread) {
+        this.plugin = plugin;
+        this.debounceMillis = Math.max(0, debounceMillis);
+        this.mainThread = mainThread;
+    }
+
+    /** Runs handler on the main thread after fileName in the data folder changes. Call before start(). */
+    public ConfigWatcher watch(String fileName, Runnable handler) {
+        handlers.put(fileName, handler);
+        return this;
+    }
+
+    public void start() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            plugin.getDataFolder().toPath().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not watch the config files for changes", e);
+            return;
+        }
+        WatchService service = watchService;
+        thread = new Thread(() -> run(service), "RBW-Config-Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run(WatchService service) {
+        try {
+            while (true) {
+                Set<String> changed = new LinkedHashSet<>();
+                collect(service.take(), changed);
+                // Keep collecting until the files have been quiet for the debounce time
+                WatchKey more;
+                while ((more = service.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    collect(more, changed);
+                }
+                for (String fileName : changed) {
+                    reloadIfValid(fileName);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stop()
+        }
+    }
+
+    private void collect(WatchKey key, Set<String> changed) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path) {
+                String fileName = event.context().toString();
+                if (handlers.containsKey(fileName)) {
+                    changed.add(fileName);
+                }
+            }
+        }
+        key.reset();
+    }
+
+    private void reloadIfValid(String fileName) {
+        File file = new File(plugin.getDataFolder(), fileName);
+        if (!file.isFile()) {
+            return;
+        }
+        try {
+            new YamlConfiguration().load(file);
+        } catch (IOException | InvalidConfigurationException e) {
+            plugin.getLogger().warning("Ignoring change to " + fileName + ", it could not be read: " + e.getMessage());
+            return;
+        }
+        if (!plugin.isEnabled()) {
+            return;
+        }
+        plugin.getLogger().info(fileName + " changed on disk, applying it");
+        Runnable handler = handlers.get(fileName);
+        mainThread.execute(() -> {
+            try {
+                handler.run();
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "Error applying the changed " + fileName, e);
+            }
+        });
+    }
+
+    public void stop() {
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+            }
+            watchService = null;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.deyo.rbw.utils;
+
+import org.java_websocket.exceptions.InvalidDataException;
+import org.java_websocket.extensions.IExtension;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
+import org.java_websocket.framing.ContinuousFrame;
+import org.java_websocket.framing.DataFrame;
+import org.java_websocket.framing.Framedata;
+import org.java_websocket.framing.FramedataImpl1;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+
+/**
+ * permessage-deflate (RFC 7692) with a configurable level and threshold.
+ * <p>
+ * The stock extension compresses the whole backing array of the payload and
+ * applies the threshold per frame, which breaks pooled buffers and fragmented
+ * messages. This one compresses only the payload's remaining bytes, decides
+ * once per message (on its first frame) and resets the deflater after every
+ * message, matching the client_no_context_takeover it offers. Decoding is left
+ * to the stock implementation, except for uncompressed fragmented messages.
+ */
+public class DeflateExtension extends PerMessageDeflateExtension {
+
+    private static final byte[] TAIL_BYTES = {0x00, 0x00, (byte) 0xFF, (byte) 0xFF};
+
+    private final int threshold;
+    private final int level;
+    private final Deflater deflater;
+    private boolean compressingMessage;
+    private boolean inboundCompressed;
+
+    public DeflateExtension(int threshold, int level) {
+        this.threshold = Math.max(0, threshold);
+        this.level = Math.max(Deflater.BEST_SPEED, Math.min(Deflater.BEST_COMPRESSION, level));
+        this.deflater = new Deflater(this.level, true);
+        setThreshold(this.threshold);
+    }
+
+    @Override
+    public void encodeFrame(Framedata inputFrame) {
+        if (!(inputFrame instanceof DataFrame)) {
+            return;
+        }
+        ByteBuffer payload = inputFrame.getPayloadData();
+        boolean firstFrame = !(inputFrame instanceof ContinuousFrame);
+        if (firstFrame) {
+            compressingMessage = payload.remaining() >= threshold;
+        }
+        if (!compressingMessage) {
+            return;
+        }
+        if (firstFrame) {
+            ((DataFrame) inputFrame).setRSV1(true);
+        }
+
+        byte[] input = new byte[payload.remaining()];
+        payload.duplicate().get(input);
+        deflater.setInput(input);
+        ByteArrayOutputStream output = new ByteArrayOutputStream(input.length / 4 + 64);
+        byte[] chunk = new byte[8192];
+        int compressed;
+        while ((compressed = deflater.deflate(chunk, 0, chunk.length, Deflater.SYNC_FLUSH)) > 0) {
+            output.write(chunk, 0, compressed);
+        }
+
+        byte[] bytes = output.toByteArray();
+        int length = bytes.length;
+        if (inputFrame.isFin()) {
+            // RFC 7692 7.2.1: drop the trailing empty block of the final fragment
+            if (endsWithTail(bytes)) {
+                length -= TAIL_BYTES.length;
+            }
+            deflater.reset();
+            compressingMessage = false;
+        }
+        ((FramedataImpl1) inputFrame).setPayload(ByteBuffer.wrap(bytes, 0, length));
+    }
+
+    @Override
+    public void decodeFrame(Framedata inputFrame) throws InvalidDataException {
+        if (!(inputFrame instanceof DataFrame)) {
+            return;
+        }
+        if (!(inputFrame instanceof ContinuousFrame)) {
+            inboundCompressed = inputFrame.isRSV1();
+        }
+        // The stock decoder inflates every continuation frame, compressed or not
+        if (inboundCompressed) {
+            super.decodeFrame(inputFrame);
+        }
+    }
+
+    private static boolean endsWithTail(byte[] data) {
+        if (data.length < TAIL_BYTES.length) {
+            return false;
+        }
+        for (int i = 0; i < TAIL_BYTES.length; i++) {
+            if (data[data.length - TAIL_BYTES.length + i] != TAIL_BYTES[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public IExtension copyInstance() {
+        return new DeflateExtension(threshold, level);
+    }
+
+    @Override
+    public String toString() {
+        return "DeflateExtension(level=" + level + ", threshold=" + threshold + ")";
+    }
+}
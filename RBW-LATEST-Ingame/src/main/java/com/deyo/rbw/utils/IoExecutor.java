@@ -0,0 +1,135 @@
+package com.deyo.rbw.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Runs blocking work: HTTP calls, file writes and connectivity checks. On
+ * Java 21 and later every task gets a virtual thread of its own, so a slow
+ * call parks cheaply instead of holding a pool thread. On older runtimes, or
+ * with io.mode set to platform, tasks share a fixed pool of daemon threads
+ * with a bounded queue; when the queue is full the submitting thread runs the
+ * task itself, which slows the producer down instead of dropping work.
+ *
+ * The plugin is built for Java 11, so the virtual thread factory is looked up
+ * at runtime. Both modes keep {@link LaneMetrics}; a caller run counts as
+ * rejected.
+ */
+public final class IoExecutor implements Executor {
+
+    public enum Mode { AUTO, VIRTUAL, PLATFORM }
+
+    private final ExecutorService delegate;
+    private final boolean virtual;
+
+    private final LaneMetrics metrics;
+
+    public IoExecutor(Logger logger, Mode mode, int platformThreads, int queueCapacity) {
+        this.metrics = new LaneMetrics(logger, "io");
+        ExecutorService virtualThreads = mode == Mode.PLATFORM ? null : newVirtualThreadPerTaskExecutor();
+        if (virtualThreads == null && mode == Mode.VIRTUAL) {
+            logger.warning("io.mode is virtual but this Java " + Runtime.version().feature()
+                    + " runtime has no virtual threads; using a platform pool");
+        }
+        this.virtual = virtualThreads != null;
+        this.delegate = virtual ? virtualThreads : newPlatformPool(Math.max(1, platformThreads), Math.max(1, queueCapacity));
+    }
+
+    /** Parses io.mode; anything unknown is auto. */
+    public static Mode parseMode(String mode) {
+        try {
+            return Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            return Mode.AUTO;
+        }
+    }
+
+    /** Executors.newVirtualThreadPerTaskExecutor() on Java 21+, otherwise null. */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            MethodHandle factory = MethodHandles.publicLookup().findStatic(java.util.concurrent.Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+            return (ExecutorService) factory.invokeExact();
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    private ExecutorService newPlatformPool(int threads, int queueCapacity) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "RBW-IO-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (task, executor) -> {
+                    if (!executor.isShutdown()) {
+                        metrics.rejected.incrementAndGet();
+                        task.run();
+                    }
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        delegate.execute(metrics.wrap(task));
+    }
+
+    /** "virtual" or "platform". */
+    public String getMode() {
+        return virtual ? "virtual" : "platform";
+    }
+
+    public long getSubmitted() {
+        return metrics.submitted.get();
+    }
+
+    public long getCompleted() {
+        return metrics.completed.get();
+    }
+
+    public long getFailed() {
+        return metrics.failed.get();
+    }
+
+    /** Tasks the submitting thread ran itself because the platform queue was full. */
+    public long getCallerRuns() {
+        return metrics.rejected.get();
+    }
+
+    public int getActive() {
+        return metrics.active.get();
+    }
+
+    /** Tasks waiting for a platform thread; always 0 with virtual threads. */
+    public int getQueued() {
+        return delegate instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) delegate).getQueue().size() : 0;
+    }
+
+    /** One line for /rbw status and the log. */
+    public String describe() {
+        return metrics.describe(getMode() + " threads", getQueued());
+    }
+
+    /** Stops taking tasks and waits up to timeoutMillis for the running ones. */
+    public boolean shutdown(long timeoutMillis) {
+        delegate.shutdown();
+        try {
+            return delegate.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.deyo.rbw.utils;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * A fixed number of daemon threads with a bounded queue, for one lane of
+ * {@link PluginExecutors}. What happens to a task that finds the queue full
+ * is the lane's {@link Rejection}; every rejection is counted.
+ */
+public final class LaneExecutor implements Executor {
+
+    public enum Rejection {
+        /** The submitting thread runs the task, slowing the producer down. */
+        CALLER_RUNS,
+        /** The oldest queued task is dropped to make room. */
+        DISCARD_OLDEST,
+        /** The new task is dropped. */
+        DISCARD;
+
+        /** Parses caller-runs, discard-oldest or discard; anything else is defaultValue. */
+        public static Rejection parse(String value, Rejection defaultValue) {
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return defaultValue;
+            }
+        }
+    }
+
+    private final String name;
+    private final Rejection rejection;
+    private final LaneMetrics metrics;
+    private final ThreadPoolExecutor pool;
+
+    public LaneExecutor(Logger logger, String name, int threads, int queueCapacity, Rejection rejection) {
+        this.name = name;
+        this.rejection = rejection;
+        this.metrics = new LaneMetrics(logger, name);
+        AtomicInteger count = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "RBW-" + name + "-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, rejectionHandler(logger));
+        this.pool.allowCoreThreadTimeOut(true);
+    }
+
+    private RejectedExecutionHandler rejectionHandler(Logger logger) {
+        return (task, executor) -> {
+            if (executor.isShutdown()) {
+                metrics.rejected.incrementAndGet();
+                logger.warning("Dropped a " + name + " task submitted after shutdown");
+                return;
+            }
+            metrics.rejected.incrementAndGet();
+            switch (rejection) {
+                case CALLER_RUNS:
+                    task.run();
+                    break;
+                case DISCARD_OLDEST:
+                    executor.getQueue().poll();
+                    executor.execute(task);
+                    break;
+                default:
+                    break;
+            }
+        };
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        pool.execute(metrics.wrap(task));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueued() {
+        return pool.getQueue().size();
+    }
+
+    public int getActive() {
+        return metrics.active.get();
+    }
+
+    public long getCompleted() {
+        return metrics.completed.get();
+    }
+
+    public long getRejected() {
+        return metrics.rejected.get();
+    }
+
+    /** One line for /rbw status and the log. */
+    public String describe() {
+        return metrics.describe(pool.getMaximumPoolSize() + " threads, " + rejection.name().toLowerCase(Locale.ROOT).replace('_', '-'),
+                getQueued());
+    }
+
+    /** Stops taking tasks and waits up to timeoutMillis for the queued and running ones. */
+    public boolean shutdown(long timeoutMillis) {
+        pool.shutdown();
+        try {
+            return pool.awaitTermination(Math.max(0, timeoutMillis), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
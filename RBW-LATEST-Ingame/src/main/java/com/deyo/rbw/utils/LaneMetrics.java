@@ -0,0 +1,80 @@
+package com.deyo.rbw.utils;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Counters shared by the plugin's executors: tasks submitted, completed,
+ * failed and rejected, tasks in flight, the wait between submitting a task
+ * and its start, and how long tasks run.
+ */
+final class LaneMetrics {
+
+    private final Logger logger;
+    private final String name;
+
+    final AtomicLong submitted = new AtomicLong();
+    final AtomicLong completed = new AtomicLong();
+    final AtomicLong failed = new AtomicLong();
+    final AtomicLong rejected = new AtomicLong();
+    final AtomicInteger active = new AtomicInteger();
+    final AtomicInteger peakActive = new AtomicInteger();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong runNanos = new AtomicLong();
+
+    LaneMetrics(Logger logger, String name) {
+        this.logger = logger;
+        this.name = name;
+    }
+
+    /** Wraps task so running it updates the counters; call when the task is submitted. */
+    Runnable wrap(Runnable task) {
+        long queuedAt = System.nanoTime();
+        submitted.incrementAndGet();
+        return () -> {
+            long start = System.nanoTime();
+            long wait = start - queuedAt;
+            waitNanos.addAndGet(wait);
+            maxWaitNanos.accumulateAndGet(wait, Math::max);
+            peakActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                task.run();
+                completed.incrementAndGet();
+            } catch (RuntimeException | Error e) {
+                failed.incrementAndGet();
+                logger.log(Level.WARNING, "Uncaught error in a " + name + " task", e);
+            } finally {
+                active.decrementAndGet();
+                runNanos.addAndGet(System.nanoTime() - start);
+            }
+        };
+    }
+
+    private long started() {
+        return completed.get() + failed.get() + active.get();
+    }
+
+    double averageWaitMillis() {
+        long started = started();
+        return started == 0 ? 0 : waitNanos.get() / 1_000_000.0 / started;
+    }
+
+    double maxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    double averageRunMillis() {
+        long finished = completed.get() + failed.get();
+        return finished == 0 ? 0 : runNanos.get() / 1_000_000.0 / finished;
+    }
+
+    String describe(String mode, int queued) {
+        return String.format(Locale.ROOT, "%s: %s, %d active (peak %d), %d queued, %d done, %d failed, %d rejected, wait avg %.1f ms max %.1f ms, run avg %.1f ms",
+                name, mode, active.get(), peakActive.get(), queued, completed.get(), failed.get(), rejected.get(),
+                averageWaitMillis(), maxWaitMillis(), averageRunMillis());
+    }
+}
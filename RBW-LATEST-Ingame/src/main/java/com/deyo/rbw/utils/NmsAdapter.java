@@ -0,0 +1,205 @@
+package com.deyo.rbw.utils;
+
+import net.md_5.bungee.api.ChatColor;
+import net.md_5.bungee.api.ChatMessageType;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Version-dependent server access, resolved once into MethodHandles:
+ *
+ * <ul>
+ *   <li>action bar: Spigot's {@code Player.spigot().sendMessage(ChatMessageType, ...)}
+ *   where it exists (1.9+), else a PacketPlayOutChat through the versioned NMS
+ *   classes (1.8), else a plain chat message</li>
+ *   <li>TPS: Paper's {@code Server.getTPS()}, else {@code MinecraftServer.recentTps}, else 20</li>
+ * </ul>
+ *
+ * The component or packet of an action bar is built once per distinct text
+ * and reused for every player it is sent to. Action bars are main thread
+ * only; {@link #getTps()} may be called from any thread.
+ */
+public final class NmsAdapter {
+
+    private static final int CACHED_MESSAGES = 32;
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    private final String actionBarMode;
+    // Spigot API: (Player) -> Player.Spigot, (Player.Spigot, ChatMessageType, BaseComponent[]) -> void
+    private MethodHandle spigot;
+    private MethodHandle spigotSend;
+    // NMS: (Player) -> EntityPlayer, (EntityPlayer) -> PlayerConnection, (PlayerConnection, Packet) -> void
+    private MethodHandle getHandle;
+    private MethodHandle playerConnection;
+    private MethodHandle sendPacket;
+    private MethodHandle serializeChat;
+    private MethodHandle newChatPacket;
+    // () -> double[] of the 1, 5 and 15 minute TPS, or null
+    private final MethodHandle tps;
+
+    // text -> BaseComponent[] or packet, least recently used first
+    private final Map<String, Object> actionBars = new LinkedHashMap<String, Object>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+            return size() > CACHED_MESSAGES;
+        }
+    };
+
+    public NmsAdapter(Server server) {
+        if (resolveSpigotActionBar()) {
+            actionBarMode = "spigot-api";
+        } else if (server != null && resolveNmsActionBar(server)) {
+            actionBarMode = "nms " + nmsVersion(server);
+        } else {
+            actionBarMode = "chat";
+        }
+        this.tps = server == null ? null : resolveTps(server);
+    }
+
+    private boolean resolveSpigotActionBar() {
+        try {
+            Method spigotMethod = Player.class.getMethod("spigot");
+            Method send = spigotMethod.getReturnType().getMethod("sendMessage", ChatMessageType.class, BaseComponent[].class);
+            spigot = LOOKUP.unreflect(spigotMethod).asType(MethodType.methodType(Object.class, Player.class));
+            spigotSend = LOOKUP.unreflect(send)
+                    .asType(MethodType.methodType(void.class, Object.class, ChatMessageType.class, BaseComponent[].class));
+            return true;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private boolean resolveNmsActionBar(Server server) {
+        String version = nmsVersion(server);
+        if (version == null) {
+            return false;
+        }
+        String nms = "net.minecraft.server." + version + ".";
+        try {
+            Class<?> craftPlayer = Class.forName("org.bukkit.craftbukkit." + version + ".entity.CraftPlayer");
+            Class<?> entityPlayer = Class.forName(nms + "EntityPlayer");
+            Class<?> packet = Class.forName(nms + "Packet");
+            Class<?> chatComponent = Class.forName(nms + "IChatBaseComponent");
+            Class<?> chatSerializer = Class.forName(nms + "IChatBaseComponent$ChatSerializer");
+            Class<?> chatPacket = Class.forName(nms + "PacketPlayOutChat");
+            Field connection = entityPlayer.getField("playerConnection");
+
+            getHandle = LOOKUP.findVirtual(craftPlayer, "getHandle", MethodType.methodType(entityPlayer))
+                    .asType(MethodType.methodType(Object.class, Player.class));
+            playerConnection = LOOKUP.unreflectGetter(connection)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            sendPacket = LOOKUP.findVirtual(connection.getType(), "sendPacket", MethodType.methodType(void.class, packet))
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            serializeChat = LOOKUP.findStatic(chatSerializer, "a", MethodType.methodType(chatComponent, String.class))
+                    .asType(MethodType.methodType(Object.class, String.class));
+            newChatPacket = LOOKUP.findConstructor(chatPacket, MethodType.methodType(void.class, chatComponent, byte.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, byte.class));
+            return true;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /** The craftbukkit package version, e.g. v1_8_R3, or null on servers without one. */
+    private static String nmsVersion(Server server) {
+        String[] parts = server.getClass().getPackage().getName().split("\\.");
+        return parts.length > 3 && parts[3].startsWith("v") ? parts[3] : null;
+    }
+
+    private static MethodHandle resolveTps(Server server) {
+        MethodType type = MethodType.methodType(double[].class);
+        try {
+            return LOOKUP.unreflect(server.getClass().getMethod("getTPS")).bindTo(server).asType(type);
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException ignored) {
+            // Not Paper
+        }
+        try {
+            Object minecraftServer = server.getClass().getMethod("getServer").invoke(server);
+            Field recentTps = minecraftServer.getClass().getField("recentTps");
+            return LOOKUP.unreflectGetter(recentTps).bindTo(minecraftServer).asType(type);
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /** The action bar path in use: spigot-api, nms &lt;version&gt; or chat. */
+    public String getActionBarMode() {
+        return actionBarMode;
+    }
+
+    /**
+     * Shows message (&amp; or section-sign colors) in player's action bar, in
+     * bold red where it sets no color itself. Falls back to a chat line.
+     */
+    public void sendActionBar(Player player, String message) {
+        try {
+            if (spigotSend != null) {
+                BaseComponent[] components = (BaseComponent[]) actionBars.computeIfAbsent(message, NmsAdapter::components);
+                spigotSend.invokeExact(spigot.invokeExact(player), ChatMessageType.ACTION_BAR, components);
+                return;
+            }
+            if (sendPacket != null) {
+                Object packet = actionBars.get(message);
+                if (packet == null) {
+                    packet = chatPacket(message);
+                    actionBars.put(message, packet);
+                }
+                sendPacket.invokeExact(playerConnection.invokeExact(getHandle.invokeExact(player)), packet);
+                return;
+            }
+        } catch (Throwable e) {
+            // Fall through to chat
+        }
+        player.sendMessage("§8[§6Queue§8] " + message);
+    }
+
+    private static BaseComponent[] components(String message) {
+        TextComponent text = new TextComponent(org.bukkit.ChatColor.translateAlternateColorCodes('&', message));
+        text.setBold(true);
+        text.setItalic(false);
+        text.setColor(ChatColor.RED);
+        return new BaseComponent[] {text};
+    }
+
+    private Object chatPacket(String message) throws Throwable {
+        String json = "{\"text\":" + jsonString(org.bukkit.ChatColor.translateAlternateColorCodes('&', message)) + ",\"bold\":true,\"color\":\"red\",\"italic\":false}";
+        return newChatPacket.invokeExact(serializeChat.invokeExact(json), (byte) 2);
+    }
+
+    private static String jsonString(String text) {
+        StringBuilder out = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    /** Recent TPS (1 minute average), or 20 if the server does not expose it. */
+    public double getTps() {
+        if (tps == null) {
+            return 20.0;
+        }
+        try {
+            return ((double[]) tps.invokeExact())[0];
+        } catch (Throwable e) {
+            return 20.0;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.deyo.rbw.utils;
+
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The online players by lower-case name, plus the admins among them, kept up
+ * to date from join and quit events. Changes replace an immutable snapshot, so
+ * lookups are safe from any thread and never see a half-applied change.
+ *
+ * Admins are players with rankedbedwars.admin or op. Spigot has no event for
+ * permission changes, so the admins are also recomputed by
+ * {@link #refreshAdmins()}, which the plugin runs on a timer.
+ */
+public final class OnlinePlayerIndex {
+
+    public static final String ADMIN_PERMISSION = "rankedbedwars.admin";
+
+    private static final class Snapshot {
+        final Map<String, Player> byName;
+        final List<Player> admins;
+
+        Snapshot(Map<String, Player> byName, List<Player> admins) {
+            this.byName = Collections.unmodifiableMap(byName);
+            this.admins = Collections.unmodifiableList(admins);
+        }
+    }
+
+    private volatile Snapshot snapshot = new Snapshot(new HashMap<>(), new ArrayList<>());
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isAdmin(Player player) {
+        return player.hasPermission(ADMIN_PERMISSION) || player.isOp();
+    }
+
+    /** Main thread only, as it checks permissions. */
+    public synchronized void add(Player player) {
+        Map<String, Player> byName = new HashMap<>(snapshot.byName);
+        Player replaced = byName.put(key(player.getName()), player);
+        List<Player> admins = new ArrayList<>(snapshot.admins);
+        admins.remove(replaced);
+        if (isAdmin(player)) {
+            admins.add(player);
+        }
+        snapshot = new Snapshot(byName, admins);
+    }
+
+    /** Removes player, unless the name already belongs to a newer login. */
+    public synchronized void remove(Player player) {
+        String key = key(player.getName());
+        if (snapshot.byName.get(key) != player) {
+            return;
+        }
+        Map<String, Player> byName = new HashMap<>(snapshot.byName);
+        byName.remove(key);
+        List<Player> admins = new ArrayList<>(snapshot.admins);
+        admins.remove(player);
+        snapshot = new Snapshot(byName, admins);
+    }
+
+    /** Main thread only, as it checks permissions. */
+    public synchronized void reset(Collection<? extends Player> players) {
+        Map<String, Player> byName = new HashMap<>();
+        for (Player player : players) {
+            byName.put(key(player.getName()), player);
+        }
+        snapshot = new Snapshot(byName, admins(byName.values()));
+    }
+
+    /** Checks every player's permissions again. Main thread only. */
+    public synchronized void refreshAdmins() {
+        List<Player> admins = admins(snapshot.byName.values());
+        if (!admins.equals(snapshot.admins)) {
+            snapshot = new Snapshot(new HashMap<>(snapshot.byName), admins);
+        }
+    }
+
+    private static List<Player> admins(Collection<Player> players) {
+        List<Player> admins = new ArrayList<>();
+        for (Player player : players) {
+            if (isAdmin(player)) {
+                admins.add(player);
+            }
+        }
+        return admins;
+    }
+
+    /** The online player with this name in any case, or null. */
+    public Player get(String name) {
+        return name == null ? null : snapshot.byName.get(key(name));
+    }
+
+    public boolean isOnline(String name) {
+        return get(name) != null;
+    }
+
+    public int size() {
+        return snapshot.byName.size();
+    }
+
+    /** The players at this moment; does not change afterwards. */
+    public Map<String, Player> snapshot() {
+        return snapshot.byName;
+    }
+
+    /** The online admins at this moment; does not change afterwards. */
+    public List<Player> admins() {
+        return snapshot.admins;
+    }
+}
@@ -0,0 +1,166 @@
+package com.deyo.rbw.utils;
+
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The threads the plugin runs its background work on, instead of the Bukkit
+ * async pool it would share with every other plugin. Work goes to a lane:
+ *
+ * <ul>
+ *   <li>network: parsing and handling messages from the bot, in order through a {@link SerialExecutor}</li>
+ *   <li>serialization: building and sending messages to the bot</li>
+ *   <li>io: blocking file and HTTP work, the {@link IoExecutor}</li>
+ * </ul>
+ *
+ * network and serialization have executors.&lt;lane&gt;.threads threads and a
+ * queue of executors.&lt;lane&gt;.queue-capacity; executors.&lt;lane&gt;.rejection
+ * decides what happens when it is full. Repeating and delayed work is timed
+ * by one timer thread that hands each run to its lane; short bookkeeping,
+ * like dropping expired cache entries, may run on the timer thread itself.
+ *
+ * shutdown() stops the timers first, then drains network, serialization and
+ * io in that order, so work handed from one lane to the next still runs.
+ */
+public final class PluginExecutors {
+
+    public enum Lane {
+        NETWORK, SERIALIZATION, IO;
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Logger logger;
+    private final Map<Lane, LaneExecutor> pools = new EnumMap<>(Lane.class);
+    private final IoExecutor io;
+    private final ScheduledThreadPoolExecutor timers;
+
+    public PluginExecutors(Logger logger, FileConfiguration config, IoExecutor io) {
+        this.logger = logger;
+        this.io = io;
+        pools.put(Lane.NETWORK, pool(config, Lane.NETWORK, 2, 1000, LaneExecutor.Rejection.CALLER_RUNS));
+        pools.put(Lane.SERIALIZATION, pool(config, Lane.SERIALIZATION, 2, 1000, LaneExecutor.Rejection.CALLER_RUNS));
+        this.timers = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "RBW-timers");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timers.setRemoveOnCancelPolicy(true);
+        this.timers.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    private LaneExecutor pool(FileConfiguration config, Lane lane, int threads, int queueCapacity, LaneExecutor.Rejection rejection) {
+        String prefix = "executors." + lane.key() + ".";
+        int configuredThreads = config.getInt(prefix + "threads", threads);
+        int configuredCapacity = config.getInt(prefix + "queue-capacity", queueCapacity);
+        return new LaneExecutor(logger, lane.key(),
+                configuredThreads > 0 ? configuredThreads : threads,
+                configuredCapacity > 0 ? configuredCapacity : queueCapacity,
+                LaneExecutor.Rejection.parse(config.getString(prefix + "rejection", null), rejection));
+    }
+
+    public Executor lane(Lane lane) {
+        return lane == Lane.IO ? io : pools.get(lane);
+    }
+
+    public void execute(Lane lane, Runnable task) {
+        lane(lane).execute(task);
+    }
+
+    /** An executor that runs its tasks in order, one at a time, on lane. */
+    public SerialExecutor serial(Lane lane) {
+        return new SerialExecutor(logger, lane(lane));
+    }
+
+    /** Runs task on lane after delayMillis. */
+    public ScheduledFuture<?> schedule(Lane lane, Runnable task, long delayMillis) {
+        Executor executor = lane(lane);
+        return timers.schedule(() -> executor.execute(task), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs task on lane every periodMillis, starting after delayMillis. Runs
+     * are handed off on schedule, so a slow run never delays the timer thread.
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Lane lane, Runnable task, long delayMillis, long periodMillis) {
+        Executor executor = lane(lane);
+        return timers.scheduleAtFixedRate(() -> executor.execute(task), delayMillis, Math.max(1L, periodMillis), TimeUnit.MILLISECONDS);
+    }
+
+    /** Runs a short task on the timer thread every periodMillis, starting after delayMillis. */
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long delayMillis, long periodMillis) {
+        return timers.scheduleAtFixedRate(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // An exception would cancel the timer for good
+                logger.log(Level.WARNING, "Uncaught error in a timer task", e);
+            }
+        }, delayMillis, Math.max(1L, periodMillis), TimeUnit.MILLISECONDS);
+    }
+
+    public IoExecutor getIo() {
+        return io;
+    }
+
+    /** One line per lane for /rbw status. */
+    public List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        for (LaneExecutor pool : pools.values()) {
+            lines.add(pool.describe());
+        }
+        lines.add(io.describe());
+        lines.add("timers: " + timers.getQueue().size() + " scheduled");
+        return lines;
+    }
+
+    /** Cancels all repeating and delayed work; runs already handed to a lane still happen. */
+    public void stopTimers() {
+        timers.shutdownNow();
+    }
+
+    /**
+     * Stops lane taking tasks and waits up to timeoutMillis for its queue.
+     * Returns false if it still had work at the end.
+     */
+    public boolean shutdown(Lane lane, long timeoutMillis) {
+        boolean drained = lane == Lane.IO ? io.shutdown(timeoutMillis) : pools.get(lane).shutdown(timeoutMillis);
+        if (!drained) {
+            logger.warning("Executor lane " + lane.key() + " did not finish in time: "
+                    + (lane == Lane.IO ? io.describe() : pools.get(lane).describe()));
+        }
+        return drained;
+    }
+
+    /**
+     * Stops the timers, then lets each lane finish its queue in order, all
+     * within timeoutMillis. Lanes already shut down return at once. Returns
+     * false if a lane still had work at the end.
+     */
+    public boolean shutdown(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeoutMillis));
+        stopTimers();
+        boolean drained = true;
+        for (Lane lane : Lane.values()) {
+            drained &= shutdown(lane, remainingMillis(deadline));
+        }
+        return drained;
+    }
+
+    private static long remainingMillis(long deadline) {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+}
@@ -0,0 +1,178 @@
+package com.deyo.rbw.utils;
+
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writer that UTF-8 encodes straight into a reusable heap ByteBuffer.
+ * Binary encoders can write to the same buffer via {@link #asOutputStream()}.
+ * Buffers come from a small shared pool; close() hands the buffer back,
+ * so the result of {@link #toByteBuffer()} must not be used after that.
+ * Not thread-safe.
+ */
+public final class PooledUtf8Writer extends Writer {
+
+    static final int INITIAL_CAPACITY = 64 * 1024;
+    static final int MAX_POOLED_CAPACITY = 4 * 1024 * 1024;
+    private static final BlockingQueue<ByteBuffer> POOL = new ArrayBlockingQueue<>(4);
+
+    private ByteBuffer buffer;
+    private char pendingHighSurrogate;
+
+    private PooledUtf8Writer(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public static PooledUtf8Writer acquire() {
+        ByteBuffer pooled = POOL.poll();
+        if (pooled == null) {
+            pooled = ByteBuffer.allocate(INITIAL_CAPACITY);
+        }
+        pooled.clear();
+        return new PooledUtf8Writer(pooled);
+    }
+
+    @Override
+    public void write(int c) {
+        writeChar((char) c);
+    }
+
+    @Override
+    public void write(char[] chars, int off, int len) {
+        for (int i = off; i < off + len; i++) {
+            writeChar(chars[i]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+        for (int i = off; i < off + len; i++) {
+            writeChar(str.charAt(i));
+        }
+    }
+
+    private void writeChar(char c) {
+        ensureOpen();
+        if (pendingHighSurrogate != 0) {
+            char high = pendingHighSurrogate;
+            pendingHighSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                ensureCapacity(4);
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+                return;
+            }
+            // Lone high surrogate, same replacement String.getBytes uses
+            putByte((byte) '?');
+        }
+        if (c < 0x80) {
+            putByte((byte) c);
+        } else if (c < 0x800) {
+            ensureCapacity(2);
+            buffer.put((byte) (0xC0 | (c >> 6)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isHighSurrogate(c)) {
+            pendingHighSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            putByte((byte) '?');
+        } else {
+            ensureCapacity(3);
+            buffer.put((byte) (0xE0 | (c >> 12)));
+            buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        }
+    }
+
+    private void putByte(byte b) {
+        if (!buffer.hasRemaining()) {
+            ensureCapacity(1);
+        }
+        buffer.put(b);
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        int capacity = buffer.capacity();
+        while (capacity - buffer.position() < bytes) {
+            capacity *= 2;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+
+    private void ensureOpen() {
+        if (buffer == null) {
+            throw new IllegalStateException("Writer already closed");
+        }
+    }
+
+    /**
+     * Raw byte view of the same pooled buffer, for binary encoders such as
+     * {@link CborWriter}.
+     */
+    public OutputStream asOutputStream() {
+        return new OutputStream() {
+            @Override
+            public void write(int b) {
+                ensureOpen();
+                putByte((byte) b);
+            }
+
+            @Override
+            public void write(byte[] bytes, int off, int len) {
+                ensureOpen();
+                ensureCapacity(len);
+                buffer.put(bytes, off, len);
+            }
+        };
+    }
+
+    /**
+     * Number of bytes written so far.
+     */
+    public int size() {
+        ensureOpen();
+        return buffer.position() + (pendingHighSurrogate != 0 ? 1 : 0);
+    }
+
+    /**
+     * View of the bytes written so far, positioned at zero. Backed by the
+     * pooled buffer, so it must not be modified or kept past close().
+     */
+    public ByteBuffer toByteBuffer() {
+        flush();
+        ByteBuffer view = buffer.duplicate();
+        view.flip();
+        return view;
+    }
+
+    @Override
+    public void flush() {
+        ensureOpen();
+        if (pendingHighSurrogate != 0) {
+            pendingHighSurrogate = 0;
+            putByte((byte) '?');
+        }
+    }
+
+    @Override
+    public void close() {
+        if (buffer == null) {
+            return;
+        }
+        if (buffer.capacity() <= MAX_POOLED_CAPACITY) {
+            POOL.offer(buffer);
+        }
+        buffer = null;
+    }
+}
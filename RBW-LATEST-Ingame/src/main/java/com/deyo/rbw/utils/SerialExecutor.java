@@ -0,0 +1,72 @@
+package com.deyo.rbw.utils;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs tasks one at a time, in the order they were submitted, on the threads
+ * of another executor. For work that must not overlap, like appending to one
+ * file, without giving it a thread of its own. The lane must not discard
+ * tasks.
+ */
+public final class SerialExecutor implements Executor {
+
+    private final Logger logger;
+    private final Executor lane;
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    private boolean running;
+
+    public SerialExecutor(Logger logger, Executor lane) {
+        this.logger = logger;
+        this.lane = lane;
+    }
+
+    @Override
+    public synchronized void execute(Runnable task) {
+        tasks.add(task);
+        if (!running) {
+            running = true;
+            lane.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Runnable task;
+            synchronized (this) {
+                task = tasks.poll();
+                if (task == null) {
+                    running = false;
+                    notifyAll();
+                    return;
+                }
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Uncaught error in a serial task", e);
+            }
+        }
+    }
+
+    /** Tasks submitted but not yet started. */
+    public synchronized int getQueued() {
+        return tasks.size();
+    }
+
+    /** Waits up to timeoutMillis until every submitted task has run. */
+    public synchronized boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (running) {
+            long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (left <= 0) {
+                return false;
+            }
+            wait(left);
+        }
+        return true;
+    }
+}
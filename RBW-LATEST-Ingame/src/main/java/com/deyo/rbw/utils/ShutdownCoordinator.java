@@ -0,0 +1,81 @@
+package com.deyo.rbw.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the shutdown steps of the plugin in order on the calling thread, all
+ * within one deadline. Each step is given the time left and must not wait
+ * longer; once the deadline has passed the remaining steps still run, with
+ * no time to wait, so the parts that do not block (saving to disk, closing
+ * the connection) always happen. A step that throws is logged and the next
+ * one runs. The wall time of every step is logged.
+ */
+public final class ShutdownCoordinator {
+
+    /** A step that may wait up to remainingMillis; returns false if it gave up on something. */
+    @FunctionalInterface
+    public interface Step {
+        boolean run(long remainingMillis) throws Exception;
+    }
+
+    private final Logger logger;
+    private final long deadlineMillis;
+    private final Map<String, Step> steps = new LinkedHashMap<>();
+
+    public ShutdownCoordinator(Logger logger, long deadlineMillis) {
+        this.logger = logger;
+        this.deadlineMillis = Math.max(0, deadlineMillis);
+    }
+
+    /** Adds a step that does not wait. */
+    public ShutdownCoordinator step(String name, Runnable body) {
+        return step(name, remaining -> {
+            body.run();
+            return true;
+        });
+    }
+
+    public ShutdownCoordinator step(String name, Step body) {
+        if (steps.putIfAbsent(name, body) != null) {
+            throw new IllegalArgumentException("Duplicate shutdown step " + name);
+        }
+        return this;
+    }
+
+    /** Runs every step; returns false if one failed, gave up or the deadline passed. */
+    public boolean run() {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        Map<String, Long> millis = new LinkedHashMap<>();
+        List<String> incomplete = new ArrayList<>();
+        for (Map.Entry<String, Step> step : steps.entrySet()) {
+            long begin = System.nanoTime();
+            try {
+                if (!step.getValue().run(Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - begin)))) {
+                    incomplete.add(step.getKey());
+                }
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Shutdown step " + step.getKey() + " failed", e);
+                incomplete.add(step.getKey());
+            }
+            millis.put(step.getKey(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+        }
+        long total = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (!incomplete.isEmpty()) {
+            logger.warning("Shutdown finished in " + total + " ms with unfinished steps " + incomplete + " " + millis);
+            return false;
+        }
+        if (total > deadlineMillis) {
+            logger.warning("Shutdown took " + total + " ms, over its " + deadlineMillis + " ms deadline " + millis);
+            return false;
+        }
+        logger.info("Shutdown finished in " + total + " ms " + millis);
+        return true;
+    }
+}
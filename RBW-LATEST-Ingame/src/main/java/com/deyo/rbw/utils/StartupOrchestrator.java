@@ -0,0 +1,145 @@
+package com.deyo.rbw.utils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Runs the startup stages of the plugin, each as soon as the stages it depends
+ * on are done, so independent ones overlap. A stage runs on the main thread or
+ * on a Bukkit async thread; an await stage is done when the future it returns
+ * completes. The wall time of every stage is recorded.
+ *
+ * If a stage fails, the stages depending on it are skipped and startup never
+ * completes.
+ */
+public final class StartupOrchestrator {
+
+    private final Plugin plugin;
+    private final Map<String, CompletableFuture<Void>> stages = new LinkedHashMap<>();
+    private final Map<String, Long> millis = new ConcurrentHashMap<>();
+    private final CompletableFuture<Void> complete = new CompletableFuture<>();
+    private final List<Runnable> starters = new ArrayList<>();
+    private long startedAt;
+    private volatile long totalMillis = -1;
+
+    public StartupOrchestrator(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /** Adds a stage that is done when body returns. */
+    public StartupOrchestrator stage(String name, boolean mainThread, Runnable body, String... after) {
+        return awaitStage(name, mainThread, () -> {
+            body.run();
+            return CompletableFuture.completedFuture(null);
+        }, after);
+    }
+
+    /** Adds a stage that is done when the future returned by body completes. */
+    public StartupOrchestrator awaitStage(String name, boolean mainThread, Supplier<CompletableFuture<?>> body, String... after) {
+        if (stages.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate startup stage " + name);
+        }
+        List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+        for (String dependency : after) {
+            CompletableFuture<Void> stage = stages.get(dependency);
+            if (stage == null) {
+                throw new IllegalArgumentException("Startup stage " + name + " depends on unknown stage " + dependency);
+            }
+            dependencies.add(stage);
+        }
+        CompletableFuture<Void> trigger = new CompletableFuture<>();
+        starters.add(() -> trigger.complete(null));
+        dependencies.add(trigger);
+        Executor lane = mainThread
+                ? task -> Bukkit.getScheduler().runTask(plugin, task)
+                : task -> Bukkit.getScheduler().runTaskAsynchronously(plugin, task);
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, failed) -> {
+            if (failed != null) {
+                plugin.getLogger().warning("Skipping startup stage " + name + " because a stage it needs failed");
+                done.completeExceptionally(failed);
+                return;
+            }
+            lane.execute(() -> {
+                long begin = System.nanoTime();
+                CompletableFuture<?> result;
+                try {
+                    result = body.get();
+                } catch (RuntimeException e) {
+                    result = failed(e);
+                }
+                result.whenComplete((value, error) -> {
+                    if (error != null) {
+                        plugin.getLogger().log(Level.SEVERE, "Startup stage " + name + " failed", error);
+                        done.completeExceptionally(error);
+                    } else {
+                        millis.put(name, (System.nanoTime() - begin) / 1_000_000L);
+                        done.complete(null);
+                    }
+                });
+            });
+        });
+        stages.put(name, done);
+        return this;
+    }
+
+    private static CompletableFuture<?> failed(Throwable error) {
+        CompletableFuture<?> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+    /** Starts every stage whose dependencies are met. Returns a future that completes after the last stage. */
+    public CompletableFuture<Void> start() {
+        startedAt = System.nanoTime();
+        CompletableFuture.allOf(stages.values().toArray(new CompletableFuture<?>[0])).whenComplete((ignored, failed) -> {
+            if (failed != null) {
+                complete.completeExceptionally(failed);
+                return;
+            }
+            totalMillis = (System.nanoTime() - startedAt) / 1_000_000L;
+            plugin.getLogger().info("Startup finished in " + totalMillis + " ms " + getStageMillis());
+            complete.complete(null);
+        });
+        starters.forEach(Runnable::run);
+        return complete;
+    }
+
+    public boolean isComplete() {
+        return complete.isDone() && !complete.isCompletedExceptionally();
+    }
+
+    /** True once a stage has failed; startup will then never complete. */
+    public boolean isFailed() {
+        return complete.isCompletedExceptionally();
+    }
+
+    /** From start() until the last stage was done, or -1 until then. */
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    /** Wall time of each finished stage, in the order the stages were added. */
+    public Map<String, Long> getStageMillis() {
+        Map<String, Long> ordered = new LinkedHashMap<>();
+        for (String name : stages.keySet()) {
+            Long stageMillis = millis.get(name);
+            if (stageMillis != null) {
+                ordered.put(name, stageMillis);
+            }
+        }
+        return Collections.unmodifiableMap(ordered);
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -116,6 +117,64 @@ public class GameTimelineTest {
         }
     }
 
+    @Test
+    public void coalescesBlockPlacesAndPickupsPerPlayer() {
+        Player a = mockPlayer("A");
+        Player b = mockPlayer("B");
+        Arena arena = mockArena("TimelineArena", a, b);
+        Team red = mockTeam("Red");
+        Team blue = mockTeam("Blue");
+        Mockito.when(arena.getPlayerTeam(a)).thenReturn(red);
+        Mockito.when(arena.getPlayerTeam(b)).thenReturn(blue);
+        GameInstance game = new GameInstance("1", arena, true, 5000);
+
+        for (int i = 0; i < 200; i++) {
+            game.recordBlocksPlaced("A", 1);
+        }
+        for (int i = 0; i < 10; i++) {
+            game.recordResourceCollection("A", GameInstance.ResourceType.IRON, 16);
+        }
+        game.recordResourceCollection("A", GameInstance.ResourceType.GOLD, 8);
+        game.recordBlocksPlaced("B", 1);
+
+        List<Map<String, Object>> timeline = game.getGame().getTimeline();
+        assertEquals(200, game.getGame().getPlayerBlocksPlaced().get("A"));
+        assertEquals(160, game.getGame().getPlayerIronCollected().get("A"));
+        assertEquals(2, timeline.stream().filter(event -> "block_place".equals(event.get("type"))).count());
+        assertEquals(200, findEvent(timeline, "block_place", "A").get("amount"));
+        Map<String, Object> iron = findEvent(timeline, "resource_pickup", "A");
+        assertEquals("iron", iron.get("resource"));
+        assertEquals(160, iron.get("amount"));
+        assertTrue(((Number) iron.get("end_timestamp")).longValue() >= ((Number) iron.get("timestamp")).longValue());
+        assertEquals(2, timeline.stream().filter(event -> "resource_pickup".equals(event.get("type"))).count());
+
+        // Events already sent are left alone
+        game.getGame().sealTimeline(timeline.size());
+        game.recordBlocksPlaced("A", 1);
+        assertEquals(200, findEvent(timeline, "block_place", "A").get("amount"));
+        assertEquals(3, timeline.stream().filter(event -> "block_place".equals(event.get("type"))).count());
+        assertEquals(201, game.getGame().getPlayerBlocksPlaced().get("A"));
+    }
+
+    @Test
+    public void windowOfZeroKeepsTheOldEventShape() {
+        Player a = mockPlayer("A");
+        Arena arena = mockArena("TimelineArena", a);
+        Team red = mockTeam("Red");
+        Mockito.when(arena.getPlayerTeam(a)).thenReturn(red);
+        GameInstance game = new GameInstance("1", arena, true, 0);
+
+        game.recordBlocksPlaced("A", 1);
+        game.recordBlocksPlaced("A", 1);
+        game.recordResourceCollection("A", GameInstance.ResourceType.IRON, 16);
+
+        List<Map<String, Object>> timeline = game.getGame().getTimeline();
+        assertEquals(2, timeline.stream().filter(event -> "block_place".equals(event.get("type"))).count());
+        Map<String, Object> pickup = findEvent(timeline, "resource_pickup", "A");
+        assertEquals(new HashSet<>(Arrays.asList("type", "player", "target", "amount", "team", "timestamp")),
+                pickup.keySet());
+    }
+
     private void assertEvent(List<Map<String, Object>> timeline, String type, String player, String target) {
         Map<String, Object> event = findEvent(timeline, type);
         assertNotNull(event, "missing timeline event of type " + type);
@@ -0,0 +1,29 @@
+package com.deyo.rbw.jfr;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class WebSocketFrameEventTest {
+
+    @Test
+    public void typeIsReadFromCompactJson() {
+        assertEquals("warp_success", WebSocketFrameEvent.peekType("{\"type\":\"warp_success\",\"gameId\":\"12\"}"));
+    }
+
+    @Test
+    public void missingTypeIsReportedAsUnknown() {
+        assertEquals("unknown", WebSocketFrameEvent.peekType("{\"gameId\":\"12\"}"));
+        assertEquals("unknown", WebSocketFrameEvent.peekType("{\"type\":\"trunc"));
+        assertEquals("unknown", WebSocketFrameEvent.peekType(null));
+    }
+
+    @Test
+    public void sizeCountsUtf8Bytes() {
+        assertEquals(3, WebSocketFrameEvent.utf8Length("abc"));
+        assertEquals(2, WebSocketFrameEvent.utf8Length("§"));
+        assertEquals(3, WebSocketFrameEvent.utf8Length("€"));
+        assertEquals(4, WebSocketFrameEvent.utf8Length("😀"));
+        assertEquals(0, WebSocketFrameEvent.utf8Length(null));
+    }
+}
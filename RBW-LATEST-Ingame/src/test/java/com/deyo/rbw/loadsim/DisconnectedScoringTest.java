@@ -0,0 +1,99 @@
+package com.deyo.rbw.loadsim;
+
+import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.managers.WebSocketManager;
+import com.deyo.rbw.models.Game;
+import com.deyo.rbw.utils.IoExecutor;
+import com.deyo.rbw.utils.PluginExecutors;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A game that ends while the bot is unreachable is held, not dropped, and its
+ * scoring reaches the bot once the plugin reconnects.
+ */
+public class DisconnectedScoringTest {
+
+    private static final String AUTH_KEY = "disconnected";
+
+    @Test
+    public void scoringOfAGameEndedWhileDisconnectedIsSentAfterReconnect() throws Exception {
+        int port;
+        try (ServerSocket free = new ServerSocket(0)) {
+            port = free.getLocalPort();
+        }
+        SimulatedScheduler scheduler = SimulatedScheduler.create(new LatencyRecorder());
+        SimulatedServer.install().reset(scheduler, scheduler.startMainThread());
+
+        File dataFolder = Files.createTempDirectory("rbw-disconnected").toFile();
+        Files.write(new File(dataFolder, "permission.yml").toPath(), new byte[0]);
+        FileConfiguration config = Mockito.mock(FileConfiguration.class, Mockito.withSettings().stubOnly());
+        Mockito.when(config.getString(ArgumentMatchers.eq("websocket.host"), ArgumentMatchers.any()))
+                .thenReturn("ws://127.0.0.1:" + port);
+        Mockito.when(config.getString(ArgumentMatchers.eq("websocket.auth_key"), ArgumentMatchers.any()))
+                .thenReturn(AUTH_KEY);
+        Mockito.when(config.getString(ArgumentMatchers.eq("server.id"), ArgumentMatchers.any())).thenReturn("solo");
+        Mockito.when(config.getLong("websocket.connect-timeout-seconds", 5L)).thenReturn(5L);
+        Mockito.when(config.getLong("websocket.reconnect.base-delay-ms", 1000L)).thenReturn(100L);
+        Mockito.when(config.getLong("websocket.reconnect.max-delay-ms", 60000L)).thenReturn(200L);
+
+        Logger logger = Logger.getLogger("RBW-Disconnected");
+        RankedBedwars plugin = Mockito.mock(RankedBedwars.class, Mockito.withSettings().stubOnly());
+        Mockito.when(plugin.getConfig()).thenReturn(config);
+        Mockito.when(plugin.getLogger()).thenReturn(logger);
+        Mockito.when(plugin.getDataFolder()).thenReturn(dataFolder);
+        Mockito.when(plugin.isEnabled()).thenReturn(true);
+        Mockito.when(plugin.getPlayerIndex()).thenReturn(SimulatedServer.install().playerIndex);
+        PluginExecutors executors = new PluginExecutors(logger, config, new IoExecutor(logger, IoExecutor.Mode.PLATFORM, 2, 256));
+        Mockito.when(plugin.getExecutors()).thenReturn(executors);
+        WebSocketManager webSocketManager = new WebSocketManager(plugin);
+        Mockito.when(plugin.getWebSocketManager()).thenReturn(webSocketManager);
+
+        FakeBotServer bot = null;
+        try {
+            // Nothing listens on the port yet, so the game ends while disconnected
+            webSocketManager.initialize();
+            Game game = new Game("41", "Lighthouse", true,
+                    new ArrayList<>(Arrays.asList("Red_1")), new ArrayList<>(Arrays.asList("Blue_1")),
+                    new ArrayList<>(Arrays.asList("Red_1")), new ArrayList<>(Arrays.asList("Blue_1")),
+                    1000L, 600, "19/10/2026");
+            assertTrue(webSocketManager.sendGameScoring(game).get(5, TimeUnit.SECONDS),
+                    "the scoring should be held for the next connection");
+
+            bot = new FakeBotServer(AUTH_KEY, port);
+            bot.start();
+            FakeBotServer started = bot;
+            await(() -> started.scoredGames.contains("41"), "the held scoring should be sent after reconnecting");
+        } finally {
+            webSocketManager.shutdown();
+            executors.shutdown(1000L);
+            if (bot != null) {
+                bot.stop(1000);
+            }
+            scheduler.shutdown();
+        }
+    }
+
+    private static void await(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError(message);
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.deyo.rbw.loadsim;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Stand-in for the RankedBedwars bot. Speaks the same WebSocket protocol as the
+ * real bot for the messages the simulation exercises and measures the plugin's
+ * replies: warp_players to warp_success, game end to scoring, ping to pong.
+ * Several plugin instances may connect at once; each is known by the
+ * server_id it sends in auth and the capacity it reports in maps_info.
+ */
+public class FakeBotServer extends WebSocketServer {
+
+    private final String authKey;
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch authenticated = new CountDownLatch(1);
+    private volatile WebSocket pluginConnection;
+
+    final Map<String, LongAdder> receivedByType = new ConcurrentHashMap<>();
+    final LongAdder received = new LongAdder();
+    final LongAdder sent = new LongAdder();
+
+    private final Map<String, Long> warpSentAt = new ConcurrentHashMap<>();
+    final LatencyRecorder warpLatency = new LatencyRecorder();
+    // Stage name from warp_success "timings" (validate_ms, preload_ms, ...) -> samples
+    final Map<String, LatencyRecorder> warpStages = new ConcurrentHashMap<>();
+    final LongAdder warpFailures = new LongAdder();
+
+    final Map<String, Long> gameEndedAt = new ConcurrentHashMap<>();
+    final LatencyRecorder scoringLatency = new LatencyRecorder();
+    final Set<String> scoredGames = ConcurrentHashMap.newKeySet();
+
+    private final ConcurrentLinkedQueue<Long> pingSentAt = new ConcurrentLinkedQueue<>();
+    final LatencyRecorder pingRtt = new LatencyRecorder();
+
+    final Map<String, WebSocket> serverConnections = new ConcurrentHashMap<>();
+    // Latest "server" block from each server's maps_info
+    final Map<String, JsonObject> serverInfo = new ConcurrentHashMap<>();
+    // gameId -> server_id of the server that answered warp_success
+    final Map<String, String> warpedBy = new ConcurrentHashMap<>();
+
+    private volatile Consumer<String> onScored = gameId -> { };
+
+    public FakeBotServer(String authKey) {
+        this(authKey, 0);
+    }
+
+    /** Listens on port, e.g. one the plugin is already trying to reach; 0 picks a free one. */
+    public FakeBotServer(String authKey, int port) {
+        super(new InetSocketAddress("127.0.0.1", port));
+        this.authKey = authKey;
+        setReuseAddr(true);
+    }
+
+    void onScored(Consumer<String> onScored) {
+        this.onScored = onScored;
+    }
+
+    @Override
+    public void onStart() {
+        started.countDown();
+    }
+
+    @Override
+    public void onOpen(WebSocket conn, ClientHandshake handshake) {
+        pluginConnection = conn;
+    }
+
+    @Override
+    public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+        if (conn == pluginConnection) {
+            pluginConnection = null;
+        }
+        serverConnections.values().remove(conn);
+    }
+
+    @Override
+    public void onError(WebSocket conn, Exception ex) {
+        java.util.logging.Logger.getLogger("RBW-LoadSim").log(java.util.logging.Level.WARNING, "Fake bot error", ex);
+    }
+
+    @Override
+    public void onMessage(WebSocket conn, String message) {
+        long now = System.nanoTime();
+        received.increment();
+        JsonObject json = JsonParser.parseString(message).getAsJsonObject();
+        String type = json.has("type") ? json.get("type").getAsString() : "unknown";
+        receivedByType.computeIfAbsent(type, k -> new LongAdder()).increment();
+        if (json.has("seq")) {
+            // Resumable session: ack cumulatively every 64 messages
+            long seq = json.get("seq").getAsLong();
+            if (seq % 64 == 0) {
+                reply(conn, "{\"type\":\"ack\",\"ack\":" + seq + "}");
+            }
+        }
+        switch (type) {
+            case "auth":
+                if (authKey.equals(json.get("auth_key").getAsString())) {
+                    // A fresh bot never has the session, so it always starts a new one
+                    reply(conn, json.has("session_id")
+                            ? "{\"type\":\"auth_success\",\"session_resumed\":false}"
+                            : "{\"type\":\"auth_success\"}");
+                    if (json.has("server_id")) {
+                        serverConnections.put(json.get("server_id").getAsString(), conn);
+                    }
+                    authenticated.countDown();
+                } else {
+                    reply(conn, "{\"type\":\"auth_failure\",\"message\":\"Invalid authentication key\"}");
+                }
+                break;
+            case "maps_info":
+                if (json.has("server")) {
+                    JsonObject server = json.getAsJsonObject("server");
+                    serverInfo.put(server.get("id").getAsString(), server);
+                }
+                break;
+            case "warp_success": {
+                if (json.has("server_id")) {
+                    warpedBy.put(json.get("gameId").getAsString(), json.get("server_id").getAsString());
+                }
+                Long sentAt = warpSentAt.remove(json.get("gameId").getAsString());
+                if (sentAt != null) {
+                    warpLatency.record(now - sentAt);
+                }
+                if (json.has("timings")) {
+                    for (Map.Entry<String, JsonElement> stage : json.getAsJsonObject("timings").entrySet()) {
+                        if (!stage.getKey().endsWith("_ms")) {
+                            continue;
+                        }
+                        warpStages.computeIfAbsent(stage.getKey(), k -> new LatencyRecorder())
+                                .record(TimeUnit.MILLISECONDS.toNanos(stage.getValue().getAsLong()));
+                    }
+                }
+                break;
+            }
+            case "warp_failed_arena_not_found":
+            case "warp_failed_offline_players":
+            case "warp_failure_unknown":
+                warpFailures.increment();
+                break;
+            case "pong": {
+                Long sentAt = pingSentAt.poll();
+                if (sentAt != null) {
+                    pingRtt.record(now - sentAt);
+                }
+                break;
+            }
+            case "scoring":
+                handleScoring(conn, json, now);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void handleScoring(WebSocket conn, JsonObject json, long now) {
+        String gameId = json.get("gameid").getAsString();
+        Long endedAt = gameEndedAt.remove(gameId);
+        if (endedAt != null) {
+            scoringLatency.record(now - endedAt);
+        }
+        JsonObject reply = new JsonObject();
+        reply.addProperty("type", "scoringsuccess");
+        reply.addProperty("gameid", gameId);
+        JsonArray players = new JsonArray();
+        for (String player : json.getAsJsonObject("players").keySet()) {
+            players.add(player);
+        }
+        reply.add("players", players);
+        reply(conn, reply.toString());
+        scoredGames.add(gameId);
+        onScored.accept(gameId);
+    }
+
+    void send(String message) {
+        WebSocket conn = pluginConnection;
+        if (conn != null && conn.isOpen()) {
+            conn.send(message);
+            sent.increment();
+        }
+    }
+
+    private void reply(WebSocket conn, String message) {
+        if (conn.isOpen()) {
+            conn.send(message);
+            sent.increment();
+        }
+    }
+
+    void sendWarp(String gameId, String map, List<String> team1, List<String> team2) {
+        send(warp(null, gameId, map, team1, team2));
+    }
+
+    /**
+     * Sends a warp_players addressed to one server to every connected server,
+     * like a bot broadcasting to a shared channel; only the addressed one may act.
+     */
+    void broadcastWarp(String serverId, String gameId, String map, List<String> team1, List<String> team2) {
+        String message = warp(serverId, gameId, map, team1, team2);
+        for (WebSocket conn : serverConnections.values()) {
+            reply(conn, message);
+        }
+    }
+
+    private String warp(String serverId, String gameId, String map, List<String> team1, List<String> team2) {
+        JsonObject json = new JsonObject();
+        json.addProperty("type", "warp_players");
+        if (serverId != null) {
+            json.addProperty("server_id", serverId);
+        }
+        json.addProperty("game_id", gameId);
+        json.addProperty("map", map);
+        json.addProperty("is_ranked", true);
+        json.add("team1", team(team1));
+        json.add("team2", team(team2));
+        warpSentAt.put(gameId, System.nanoTime());
+        return json.toString();
+    }
+
+    private static JsonObject team(List<String> players) {
+        JsonObject team = new JsonObject();
+        JsonArray array = new JsonArray();
+        players.forEach(array::add);
+        team.add("players", array);
+        return team;
+    }
+
+    void sendQueueStatus(List<String> queuedPlayers) {
+        JsonObject queue = new JsonObject();
+        JsonArray players = new JsonArray();
+        queuedPlayers.forEach(players::add);
+        queue.add("players", players);
+        queue.addProperty("minElo", 0);
+        queue.addProperty("maxElo", 1000);
+        queue.addProperty("currentPlayers", queuedPlayers.size());
+        queue.addProperty("maxPlayers", 8);
+        queue.addProperty("isRanked", true);
+        queue.addProperty("isPicking", false);
+        JsonObject queues = new JsonObject();
+        queues.add("1", queue);
+        JsonObject json = new JsonObject();
+        json.addProperty("type", "queuestatus");
+        json.add("queues", queues);
+        send(json.toString());
+    }
+
+    void sendPing() {
+        pingSentAt.add(System.nanoTime());
+        send("{\"type\":\"ping\"}");
+    }
+
+    void sendBan(String ign) {
+        send("{\"type\":\"botban\",\"ign\":\"" + ign + "\",\"reason\":\"LoadSim\",\"duration\":1}");
+    }
+
+    long received(String type) {
+        LongAdder adder = receivedByType.get(type);
+        return adder == null ? 0 : adder.sum();
+    }
+}
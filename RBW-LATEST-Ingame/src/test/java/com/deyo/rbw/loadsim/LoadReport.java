@@ -0,0 +1,53 @@
+package com.deyo.rbw.loadsim;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Throughput and latency figures from one load simulation run.
+ */
+public class LoadReport {
+
+    LoadSimulationConfig config;
+    double runSeconds;
+    long botMessagesSent;
+    long pluginMessagesReceived;
+    Map<String, Long> receivedByType = new TreeMap<>();
+    long gamesStarted;
+    long gamesScored;
+    long warpFailures;
+    long queueActionBars;
+    long bansDispatched;
+    long pluginWarnings;
+    LatencyRecorder warpLatency;
+    Map<String, LatencyRecorder> warpStages = new TreeMap<>();
+    LatencyRecorder scoringLatency;
+    LatencyRecorder pingRtt;
+    LatencyRecorder mainThreadLag;
+
+    public double botMessagesPerSecond() {
+        return runSeconds <= 0 ? 0 : botMessagesSent / runSeconds;
+    }
+
+    public double pluginMessagesPerSecond() {
+        return runSeconds <= 0 ? 0 : pluginMessagesReceived / runSeconds;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append("=== RankedBedwars load simulation ===\n");
+        out.append("config:            ").append(config).append('\n');
+        out.append(String.format("bot -> plugin:     %d messages (%.1f/s)%n", botMessagesSent, botMessagesPerSecond()));
+        out.append(String.format("plugin -> bot:     %d messages (%.1f/s) %s%n", pluginMessagesReceived, pluginMessagesPerSecond(), receivedByType));
+        out.append(String.format("games:             %d started, %d scored, %d warp failures%n", gamesStarted, gamesScored, warpFailures));
+        out.append("warp latency:      ").append(warpLatency.summary()).append('\n');
+        warpStages.forEach((stage, recorder) ->
+                out.append(String.format("  %-16s %s%n", stage, recorder.summary())));
+        out.append("scoring latency:   ").append(scoringLatency.summary()).append('\n');
+        out.append("ping rtt:          ").append(pingRtt.summary()).append('\n');
+        out.append("main-thread lag:   ").append(mainThreadLag.summary()).append('\n');
+        out.append(String.format("queue action bars: %d, bans dispatched: %d, plugin warnings: %d%n", queueActionBars, bansDispatched, pluginWarnings));
+        return out.toString();
+    }
+}
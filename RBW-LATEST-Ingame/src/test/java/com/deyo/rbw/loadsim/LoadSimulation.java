@@ -0,0 +1,470 @@
+package com.deyo.rbw.loadsim;
+
+import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.bedwars.BedwarsAPI;
+import com.deyo.rbw.bedwars.BedwarsAPIManager;
+import com.deyo.rbw.managers.MapManager;
+import com.deyo.rbw.managers.WebSocketManager;
+import com.deyo.rbw.models.Game;
+import com.deyo.rbw.models.GameInstance;
+import com.deyo.rbw.utils.IoExecutor;
+import com.deyo.rbw.utils.PluginExecutors;
+import de.marcely.bedwars.api.arena.Arena;
+import de.marcely.bedwars.api.arena.Team;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Drives a real WebSocketManager and MapManager against {@link FakeBotServer}
+ * with N arenas playing synthetic games back to back, while the bot floods
+ * queuestatus, ping and botban messages. Bukkit is replaced by
+ * {@link SimulatedServer} and {@link SimulatedScheduler}; games are played by
+ * feeding GameInstance the same calls MBedwarsListener makes.
+ */
+public class LoadSimulation {
+
+    private static final String AUTH_KEY = "loadsim";
+    private static final String ARENA_PREFIX = "rbwsim";
+    private static final String QUEUE_PREFIX = "§8[§6Queue§8]";
+
+    private final LoadSimulationConfig config;
+    private final Map<String, SimulatedGame> games = new ConcurrentHashMap<>();
+    private final List<List<String>> rosters = new ArrayList<>();
+    private final List<String> allPlayers = new ArrayList<>();
+    private final AtomicInteger gameSequence = new AtomicInteger();
+    private final LongAdder gamesStarted = new LongAdder();
+    private final LongAdder queueActionBars = new LongAdder();
+    private final LongAdder pluginWarnings = new LongAdder();
+    private volatile boolean running;
+
+    private FakeBotServer bot;
+    private SimulatedScheduler scheduler;
+    private SimulatedServer server;
+    private RankedBedwars plugin;
+    private PluginExecutors executors;
+    private MapManager mapManager;
+    private WebSocketManager webSocketManager;
+    private ScheduledExecutorService botTraffic;
+    private Team red;
+    private Team blue;
+
+    public LoadSimulation(LoadSimulationConfig config) {
+        this.config = config;
+    }
+
+    public LoadReport run() throws Exception {
+        LatencyRecorder mainThreadLag = new LatencyRecorder();
+        try {
+            setUp(mainThreadLag);
+            return play(mainThreadLag);
+        } finally {
+            tearDown();
+        }
+    }
+
+    private void setUp(LatencyRecorder mainThreadLag) throws Exception {
+        bot = new FakeBotServer(AUTH_KEY);
+        bot.start();
+        if (!bot.started.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Fake bot did not start");
+        }
+
+        scheduler = SimulatedScheduler.create(mainThreadLag);
+        Thread mainThread = scheduler.startMainThread();
+        server = SimulatedServer.install();
+        server.reset(scheduler, mainThread);
+
+        red = team("Red");
+        blue = team("Blue");
+        for (int arena = 0; arena < config.arenas; arena++) {
+            List<String> roster = new ArrayList<>();
+            for (int slot = 0; slot < config.playersPerTeam * 2; slot++) {
+                String name = "S" + arena + (slot < config.playersPerTeam ? "R" : "B") + slot;
+                roster.add(name);
+                allPlayers.add(name);
+                server.addPlayer(player(name));
+            }
+            rosters.add(roster);
+        }
+
+        File dataFolder = Files.createTempDirectory("rbw-loadsim").toFile();
+        Files.write(new File(dataFolder, "permission.yml").toPath(), new byte[0]);
+
+        Logger logger = Logger.getLogger("RBW-LoadSim-Plugin");
+        logger.setUseParentHandlers(false);
+        for (Handler handler : logger.getHandlers()) {
+            logger.removeHandler(handler);
+        }
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                if (record.getLevel().intValue() >= Level.WARNING.intValue()) {
+                    pluginWarnings.increment();
+                    System.err.println("[plugin " + record.getLevel() + "] " + record.getMessage() + (record.getThrown() != null ? " " + record.getThrown() : ""));
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        FileConfiguration fileConfig = Mockito.mock(FileConfiguration.class, Mockito.withSettings().stubOnly());
+        Mockito.when(fileConfig.getString(ArgumentMatchers.eq("websocket.host"), ArgumentMatchers.any()))
+                .thenReturn("ws://127.0.0.1:" + bot.getPort());
+        Mockito.when(fileConfig.getString(ArgumentMatchers.eq("websocket.auth_key"), ArgumentMatchers.any()))
+                .thenReturn(AUTH_KEY);
+        Mockito.when(fileConfig.getLong("websocket.connect-timeout-seconds", 5L)).thenReturn(5L);
+        Mockito.when(fileConfig.getLong("websocket.reconnect.base-delay-ms", 1000L)).thenReturn(1000L);
+        Mockito.when(fileConfig.getLong("websocket.reconnect.max-delay-ms", 60000L)).thenReturn(60000L);
+        Mockito.when(fileConfig.getBoolean("websocket.resume.enabled", false)).thenReturn(config.resume);
+        Mockito.when(fileConfig.getInt("websocket.resume.buffer-messages", 1000)).thenReturn(1000);
+        Mockito.when(fileConfig.getLong("websocket.resume.buffer-bytes", 8L * 1024 * 1024)).thenReturn(8L * 1024 * 1024);
+
+        plugin = Mockito.mock(RankedBedwars.class, Mockito.withSettings().stubOnly());
+        Mockito.when(plugin.getConfig()).thenReturn(fileConfig);
+        Mockito.when(plugin.getLogger()).thenReturn(logger);
+        Mockito.when(plugin.getDataFolder()).thenReturn(dataFolder);
+        Mockito.when(plugin.isEnabled()).thenReturn(true);
+        Mockito.when(plugin.getServer()).thenReturn(server);
+        Mockito.when(plugin.getPlayerIndex()).thenReturn(server.playerIndex);
+        executors = new PluginExecutors(logger, fileConfig, new IoExecutor(logger, IoExecutor.Mode.PLATFORM, 2, 256));
+        Mockito.when(plugin.getExecutors()).thenReturn(executors);
+
+        mapManager = new MapManager(plugin);
+        for (int arena = 0; arena < config.arenas; arena++) {
+            mapManager.addMap(ARENA_PREFIX + arena, "Sim" + arena, config.playersPerTeam * 2, Arrays.asList("Red", "Blue"));
+        }
+        Mockito.when(plugin.getMapManager()).thenReturn(mapManager);
+        setBedwarsImplementation(new SimulatedBedwars());
+
+        webSocketManager = new WebSocketManager(plugin);
+        Mockito.when(plugin.getWebSocketManager()).thenReturn(webSocketManager);
+        webSocketManager.initialize();
+        if (!bot.authenticated.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Plugin did not authenticate with the fake bot");
+        }
+    }
+
+    private LoadReport play(LatencyRecorder mainThreadLag) throws Exception {
+        running = true;
+        bot.onScored(gameId -> {
+            SimulatedGame finished = games.remove(gameId);
+            if (finished != null && running) {
+                botTraffic.schedule(() -> warp(finished.arenaIndex), SimulatedScheduler.TICK_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        });
+        botTraffic = Executors.newScheduledThreadPool(2, r -> {
+            Thread thread = new Thread(r, "LoadSim-Bot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.runTaskTimer(plugin, this::tickGames, 1L, 1L);
+
+        long startedAt = System.nanoTime();
+        for (int arena = 0; arena < config.arenas; arena++) {
+            warp(arena);
+        }
+        scheduleFlood(config.messagesPerSecond, () -> {
+            List<String> queued = rosters.get(ThreadLocalRandom.current().nextInt(rosters.size()));
+            bot.sendQueueStatus(queued);
+        });
+        scheduleFlood(config.pingsPerSecond, bot::sendPing);
+        scheduleFlood(config.bansPerSecond, () -> bot.sendBan(allPlayers.get(ThreadLocalRandom.current().nextInt(allPlayers.size()))));
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(config.seconds));
+        running = false;
+        double runSeconds = (System.nanoTime() - startedAt) / 1e9;
+        long botSent = bot.sent.sum();
+        long pluginSent = bot.received.sum();
+        botTraffic.shutdownNow();
+
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.drainSeconds);
+        while (bot.scoredGames.size() + bot.warpFailures.sum() < gamesStarted.sum() && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+
+        LoadReport report = new LoadReport();
+        report.config = config;
+        report.runSeconds = runSeconds;
+        report.botMessagesSent = botSent;
+        report.pluginMessagesReceived = pluginSent;
+        bot.receivedByType.forEach((type, count) -> report.receivedByType.put(type, count.sum()));
+        report.gamesStarted = gamesStarted.sum();
+        report.gamesScored = bot.scoredGames.size();
+        report.warpFailures = bot.warpFailures.sum();
+        report.queueActionBars = queueActionBars.sum();
+        report.bansDispatched = server.getDispatchedCommands();
+        report.pluginWarnings = pluginWarnings.sum();
+        report.warpLatency = bot.warpLatency;
+        report.warpStages.putAll(bot.warpStages);
+        report.scoringLatency = bot.scoringLatency;
+        report.pingRtt = bot.pingRtt;
+        report.mainThreadLag = mainThreadLag;
+        return report;
+    }
+
+    /**
+     * Sends ratePerSecond messages spread over 10 ms slots.
+     */
+    private void scheduleFlood(int ratePerSecond, Runnable send) {
+        if (ratePerSecond <= 0) {
+            return;
+        }
+        double perSlot = ratePerSecond / 100.0;
+        double[] owed = {0};
+        botTraffic.scheduleAtFixedRate(() -> {
+            owed[0] += perSlot;
+            while (owed[0] >= 1 && running) {
+                send.run();
+                owed[0] -= 1;
+            }
+        }, 0, 10, TimeUnit.MILLISECONDS);
+    }
+
+    private void warp(int arenaIndex) {
+        if (!running) {
+            return;
+        }
+        String gameId = String.valueOf(arenaIndex * 100_000 + gameSequence.incrementAndGet());
+        List<String> roster = rosters.get(arenaIndex);
+        games.put(gameId, new SimulatedGame(arenaIndex, gameId));
+        gamesStarted.increment();
+        bot.sendWarp(gameId, ARENA_PREFIX + arenaIndex,
+                roster.subList(0, config.playersPerTeam), roster.subList(config.playersPerTeam, roster.size()));
+    }
+
+    /**
+     * Runs every tick on the main thread, like the BedWars plugin firing events.
+     */
+    private void tickGames() {
+        long now = System.nanoTime();
+        for (SimulatedGame game : games.values()) {
+            if (game.tracker == null || game.ended) {
+                continue;
+            }
+            game.tick(now);
+        }
+    }
+
+    private void tearDown() {
+        running = false;
+        if (botTraffic != null) {
+            botTraffic.shutdownNow();
+        }
+        if (webSocketManager != null) {
+            webSocketManager.shutdown();
+        }
+        if (executors != null) {
+            executors.shutdown(1000L);
+        }
+        try {
+            setBedwarsImplementation(null);
+        } catch (ReflectiveOperationException ignored) {
+        }
+        if (bot != null) {
+            try {
+                bot.stop(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    private static void setBedwarsImplementation(BedwarsAPI implementation) throws ReflectiveOperationException {
+        // BedwarsAPIManager only loads implementations for installed BedWars plugins
+        Field field = BedwarsAPIManager.class.getDeclaredField("implementation");
+        field.setAccessible(true);
+        field.set(null, implementation);
+    }
+
+    private Player player(String name) {
+        Player player = Mockito.mock(Player.class, Mockito.withSettings().stubOnly());
+        Mockito.when(player.getName()).thenReturn(name);
+        Mockito.when(player.isOnline()).thenReturn(true);
+        Mockito.doAnswer(inv -> {
+            String message = inv.getArgument(0);
+            if (message != null && message.startsWith(QUEUE_PREFIX)) {
+                queueActionBars.increment();
+            }
+            return null;
+        }).when(player).sendMessage(ArgumentMatchers.anyString());
+        return player;
+    }
+
+    private static Team team(String name) {
+        Team team = Mockito.mock(Team.class, Mockito.withSettings().stubOnly());
+        Mockito.when(team.getDisplayName()).thenReturn(name);
+        return team;
+    }
+
+    private Arena arena(int arenaIndex) {
+        Arena arena = Mockito.mock(Arena.class, Mockito.withSettings().stubOnly());
+        Mockito.when(arena.getName()).thenReturn(ARENA_PREFIX + arenaIndex);
+        Mockito.when(arena.getDisplayName()).thenReturn("Sim" + arenaIndex);
+        List<Player> players = new ArrayList<>();
+        List<String> roster = rosters.get(arenaIndex);
+        for (int slot = 0; slot < roster.size(); slot++) {
+            Player player = server.getPlayerExact(roster.get(slot));
+            Mockito.when(arena.getPlayerTeam(player)).thenReturn(slot < config.playersPerTeam ? red : blue);
+            players.add(player);
+        }
+        Mockito.when(arena.getPlayers()).thenReturn(players);
+        return arena;
+    }
+
+    /**
+     * One synthetic game. All tracker calls happen on the main thread.
+     */
+    private class SimulatedGame {
+        final int arenaIndex;
+        final String gameId;
+        GameInstance tracker;
+        long endsAt;
+        double owedEvents;
+        int eventCounter;
+        boolean ended;
+
+        SimulatedGame(int arenaIndex, String gameId) {
+            this.arenaIndex = arenaIndex;
+            this.gameId = gameId;
+        }
+
+        void start() {
+            tracker = new GameInstance(gameId, arena(arenaIndex), true);
+            tracker.getGame().setLeaseToken(mapManager.markGameStarted(ARENA_PREFIX + arenaIndex, gameId));
+            endsAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.gameSeconds);
+        }
+
+        void tick(long now) {
+            owedEvents += config.eventsPerGamePerSecond / 20.0;
+            List<String> roster = rosters.get(arenaIndex);
+            while (owedEvents >= 1) {
+                String player = roster.get(eventCounter % roster.size());
+                String other = roster.get((eventCounter + config.playersPerTeam) % roster.size());
+                switch (eventCounter % 5) {
+                    case 0:
+                        tracker.recordKill(player, other, false);
+                        break;
+                    case 1:
+                    case 2:
+                        tracker.recordBlocksPlaced(player, 1);
+                        break;
+                    default:
+                        tracker.recordResourceCollection(player, GameInstance.ResourceType.IRON, 16);
+                        break;
+                }
+                eventCounter++;
+                owedEvents -= 1;
+            }
+            if (now >= endsAt) {
+                end();
+            }
+        }
+
+        void end() {
+            ended = true;
+            tracker.recordGameEnd(red);
+            Game game = tracker.toGame();
+            bot.gameEndedAt.put(gameId, System.nanoTime());
+            scheduler.runTaskAsynchronously(plugin, () -> webSocketManager.sendGameScoring(game));
+            mapManager.releaseLease(ARENA_PREFIX + arenaIndex, game.getLeaseToken());
+        }
+    }
+
+    /**
+     * Mirrors the warp flow of the real implementations: players go through the
+     * warp pipeline a few per tick, then warp_success follows once everyone is in.
+     */
+    private class SimulatedBedwars implements BedwarsAPI {
+
+        @Override
+        public void initialize(RankedBedwars plugin) {
+        }
+
+        @Override
+        public void registerListeners() {
+        }
+
+        @Override
+        public String getName() {
+            return "LoadSim";
+        }
+
+        @Override
+        public boolean arenaExists(String arenaName) {
+            return arenaName.startsWith(ARENA_PREFIX);
+        }
+
+        @Override
+        public Object getArenaByName(String arenaName) {
+            return null;
+        }
+
+        @Override
+        public Object getArenaByPlayer(Player player) {
+            return null;
+        }
+
+        @Override
+        public String getArenaGroup(Object arena) {
+            return null;
+        }
+
+        @Override
+        public void warpPlayersToGame(String gameId, String mapName, Object team1, Object team2, boolean isRanked) {
+            SimulatedGame game = games.get(gameId);
+            if (game == null) {
+                mapManager.sendWarpFailureUnknown(gameId);
+                return;
+            }
+            List<Runnable> teleports = new ArrayList<>();
+            for (int slot = 0; slot < config.playersPerTeam * 2; slot++) {
+                teleports.add(() -> scheduler.runTaskLater(plugin, () -> { }, 5L));
+            }
+            mapManager.getWarpPipeline().submit(gameId, Collections.emptyList(), teleports,
+                    () -> scheduler.runTaskLater(plugin, () -> {
+                        game.start();
+                        mapManager.sendWarpSuccess(gameId);
+                    }, 20L));
+        }
+
+        @Override
+        public void initializeMaps() {
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+    }
+}
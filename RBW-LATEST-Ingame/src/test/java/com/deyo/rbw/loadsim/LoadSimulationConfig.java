@@ -0,0 +1,51 @@
+package com.deyo.rbw.loadsim;
+
+/**
+ * Knobs for a load simulation run. Every value can be overridden with a
+ * system property named rbw.loadsim.&lt;field&gt;, e.g. -Drbw.loadsim.arenas=50.
+ */
+public class LoadSimulationConfig {
+
+    /** Arenas playing games in parallel. */
+    int arenas = 5;
+    /** Players per team; games are always two teams. */
+    int playersPerTeam = 4;
+    /** Seconds the bot keeps starting new games and flooding messages. */
+    int seconds = 3;
+    /** Length of one synthetic game in seconds. */
+    int gameSeconds = 1;
+    /** Tracker events (kills, block places, pickups) per game per second. */
+    int eventsPerGamePerSecond = 40;
+    /** queuestatus broadcasts the bot sends per second. */
+    int messagesPerSecond = 500;
+    /** ping messages the bot sends per second. */
+    int pingsPerSecond = 20;
+    /** botban commands the bot sends per second. */
+    int bansPerSecond = 2;
+    /** How long to wait for in-flight games to be scored after the run. */
+    int drainSeconds = 30;
+    /** Run with websocket.resume.enabled (seq/ack envelope and replay buffer). */
+    boolean resume = false;
+
+    public static LoadSimulationConfig fromSystemProperties() {
+        LoadSimulationConfig config = new LoadSimulationConfig();
+        config.arenas = Integer.getInteger("rbw.loadsim.arenas", config.arenas);
+        config.playersPerTeam = Integer.getInteger("rbw.loadsim.playersPerTeam", config.playersPerTeam);
+        config.seconds = Integer.getInteger("rbw.loadsim.seconds", config.seconds);
+        config.gameSeconds = Integer.getInteger("rbw.loadsim.gameSeconds", config.gameSeconds);
+        config.eventsPerGamePerSecond = Integer.getInteger("rbw.loadsim.eventsPerGamePerSecond", config.eventsPerGamePerSecond);
+        config.messagesPerSecond = Integer.getInteger("rbw.loadsim.messagesPerSecond", config.messagesPerSecond);
+        config.pingsPerSecond = Integer.getInteger("rbw.loadsim.pingsPerSecond", config.pingsPerSecond);
+        config.bansPerSecond = Integer.getInteger("rbw.loadsim.bansPerSecond", config.bansPerSecond);
+        config.drainSeconds = Integer.getInteger("rbw.loadsim.drainSeconds", config.drainSeconds);
+        config.resume = Boolean.parseBoolean(System.getProperty("rbw.loadsim.resume", String.valueOf(config.resume)));
+        return config;
+    }
+
+    @Override
+    public String toString() {
+        return arenas + " arenas x " + (playersPerTeam * 2) + " players, " + seconds + " s run, "
+                + gameSeconds + " s games at " + eventsPerGamePerSecond + " events/s, "
+                + messagesPerSecond + " queuestatus/s, " + pingsPerSecond + " pings/s, " + bansPerSecond + " bans/s" + (resume ? ", session resume on" : "");
+    }
+}
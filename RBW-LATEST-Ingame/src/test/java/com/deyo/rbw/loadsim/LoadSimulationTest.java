@@ -0,0 +1,30 @@
+package com.deyo.rbw.loadsim;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the load simulator. By default this is a short smoke run; pass
+ * -Drbw.loadsim.arenas=50 -Drbw.loadsim.messagesPerSecond=10000 -Drbw.loadsim.seconds=60
+ * (see LoadSimulationConfig) for the pre-release run.
+ */
+public class LoadSimulationTest {
+
+    @Test
+    public void pluginKeepsUpWithSimulatedBot() throws Exception {
+        LoadSimulationConfig config = LoadSimulationConfig.fromSystemProperties();
+        LoadReport report = new LoadSimulation(config).run();
+        System.out.println(report);
+
+        assertEquals(0, report.warpFailures, "warps failed");
+        assertTrue(report.warpStages.containsKey("teleport_ms"), "warp_success should carry stage timings");
+        assertEquals(report.warpLatency.count(), report.warpStages.get("total_ms").count());
+        assertEquals(report.gamesStarted, report.gamesScored, "not every game was scored");
+        assertTrue(report.gamesStarted >= config.arenas, "every arena should have played at least one game");
+        assertTrue(report.botMessagesPerSecond() >= config.messagesPerSecond * 0.9,
+                "bot could not sustain the target rate: " + report.botMessagesPerSecond());
+        assertEquals(0, report.pluginWarnings, "plugin logged warnings under load");
+    }
+}
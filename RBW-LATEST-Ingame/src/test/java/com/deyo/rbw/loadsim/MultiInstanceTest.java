@@ -0,0 +1,291 @@
+package com.deyo.rbw.loadsim;
+
+import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.bedwars.BedwarsAPI;
+import com.deyo.rbw.bedwars.BedwarsAPIManager;
+import com.deyo.rbw.managers.MapManager;
+import com.deyo.rbw.managers.WebSocketManager;
+import com.deyo.rbw.utils.IoExecutor;
+import com.deyo.rbw.utils.PluginExecutors;
+import com.google.gson.JsonObject;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Several plugin instances (one WebSocketManager and MapManager each, sharing
+ * the simulated Bukkit server) connect to one {@link FakeBotServer}. The bot
+ * places every game on the server reporting the most free slots and broadcasts
+ * the warp to all of them; only the addressed server may act on it.
+ */
+public class MultiInstanceTest {
+
+    private static final String AUTH_KEY = "multi";
+    private static final int PLAYERS_PER_GAME = 8;
+
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private final Map<String, LongAdder> warpsHandled = new ConcurrentHashMap<>();
+    private final LongAdder pluginWarnings = new LongAdder();
+
+    @Test
+    public void botLoadBalancesGamesAcrossServers() throws Exception {
+        FakeBotServer bot = new FakeBotServer(AUTH_KEY);
+        bot.start();
+        SimulatedScheduler scheduler = SimulatedScheduler.create(new LatencyRecorder());
+        try {
+            assertTrue(bot.started.await(10, TimeUnit.SECONDS), "fake bot did not start");
+            SimulatedServer server = SimulatedServer.install();
+            server.reset(scheduler, scheduler.startMainThread());
+            List<String> players = new ArrayList<>();
+            for (int i = 0; i < PLAYERS_PER_GAME; i++) {
+                String name = "M" + i;
+                players.add(name);
+                Player player = Mockito.mock(Player.class, Mockito.withSettings().stubOnly());
+                Mockito.when(player.getName()).thenReturn(name);
+                server.addPlayer(player);
+            }
+            setBedwarsImplementation(new RoutingBedwars());
+
+            // Unequal sizes so the placement order is predictable
+            addNode("node-a", 3, bot);
+            addNode("node-b", 2, bot);
+            addNode("node-c", 1, bot);
+
+            await(() -> bot.serverConnections.size() == nodes.size() && bot.serverInfo.size() == nodes.size(),
+                    "every server should authenticate and report maps_info");
+            JsonObject nodeA = bot.serverInfo.get("node-a");
+            assertEquals(3, nodeA.get("free_arenas").getAsInt());
+            assertEquals(3 * PLAYERS_PER_GAME, nodeA.get("free_slots").getAsInt());
+            assertEquals(3, nodeA.getAsJsonArray("arena_groups").size());
+            assertTrue(nodeA.has("tps") && nodeA.has("players") && nodeA.has("max_players"));
+
+            int totalArenas = nodes.values().stream().mapToInt(node -> node.arenas).sum();
+            for (int game = 0; game < totalArenas; game++) {
+                String gameId = "g" + game;
+                String target = bot.serverInfo.values().stream()
+                        .max(Comparator.<JsonObject>comparingInt(info -> info.get("free_slots").getAsInt())
+                                .thenComparing(info -> info.get("id").getAsString(), Comparator.reverseOrder()))
+                        .map(info -> info.get("id").getAsString())
+                        .orElseThrow(IllegalStateException::new);
+                Node node = nodes.get(target);
+                int freeBefore = bot.serverInfo.get(target).get("free_slots").getAsInt();
+                String arena = node.nextFreeArena();
+                bot.broadcastWarp(target, gameId, arena, players.subList(0, 4), players.subList(4, 8));
+                await(() -> target.equals(bot.warpedBy.get(gameId))
+                                && bot.serverInfo.get(target).get("free_slots").getAsInt() < freeBefore,
+                        "warp " + gameId + " should succeed on " + target);
+            }
+
+            assertEquals(3, handled("node-a"));
+            assertEquals(2, handled("node-b"));
+            assertEquals(1, handled("node-c"));
+            for (JsonObject info : bot.serverInfo.values()) {
+                assertEquals(0, info.get("free_slots").getAsInt(), "every arena should be in use: " + info);
+            }
+            assertEquals(0, bot.warpFailures.sum());
+            assertEquals(0, pluginWarnings.sum(), "plugin instances logged warnings");
+        } finally {
+            for (Node node : nodes.values()) {
+                node.webSocketManager.shutdown();
+                node.executors.shutdown(1000L);
+            }
+            setBedwarsImplementation(null);
+            bot.stop(1000);
+            scheduler.shutdown();
+        }
+    }
+
+    private long handled(String serverId) {
+        LongAdder count = warpsHandled.get(serverId);
+        return count == null ? 0 : count.sum();
+    }
+
+    private void addNode(String serverId, int arenas, FakeBotServer bot) throws Exception {
+        File dataFolder = Files.createTempDirectory("rbw-multi").toFile();
+        Files.write(new File(dataFolder, "permission.yml").toPath(), new byte[0]);
+
+        FileConfiguration config = Mockito.mock(FileConfiguration.class, Mockito.withSettings().stubOnly());
+        Mockito.when(config.getString(ArgumentMatchers.eq("websocket.host"), ArgumentMatchers.any()))
+                .thenReturn("ws://127.0.0.1:" + bot.getPort());
+        Mockito.when(config.getString(ArgumentMatchers.eq("websocket.auth_key"), ArgumentMatchers.any()))
+                .thenReturn(AUTH_KEY);
+        Mockito.when(config.getString(ArgumentMatchers.eq("server.id"), ArgumentMatchers.any())).thenReturn(serverId);
+        Mockito.when(config.getLong("websocket.connect-timeout-seconds", 5L)).thenReturn(5L);
+        Mockito.when(config.getLong("websocket.reconnect.base-delay-ms", 1000L)).thenReturn(1000L);
+        Mockito.when(config.getLong("websocket.reconnect.max-delay-ms", 60000L)).thenReturn(60000L);
+
+        Logger logger = Logger.getLogger("RBW-Multi-" + serverId);
+        logger.setUseParentHandlers(false);
+        for (Handler handler : logger.getHandlers()) {
+            logger.removeHandler(handler);
+        }
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                if (record.getLevel().intValue() >= Level.WARNING.intValue()) {
+                    pluginWarnings.increment();
+                    System.err.println("[" + serverId + " " + record.getLevel() + "] " + record.getMessage());
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        RankedBedwars plugin = Mockito.mock(RankedBedwars.class, Mockito.withSettings().stubOnly());
+        Mockito.when(plugin.getConfig()).thenReturn(config);
+        Mockito.when(plugin.getLogger()).thenReturn(logger);
+        Mockito.when(plugin.getDataFolder()).thenReturn(dataFolder);
+        Mockito.when(plugin.isEnabled()).thenReturn(true);
+        Mockito.when(plugin.getPlayerIndex()).thenReturn(SimulatedServer.install().playerIndex);
+        PluginExecutors executors = new PluginExecutors(logger, config, new IoExecutor(logger, IoExecutor.Mode.PLATFORM, 2, 256));
+        Mockito.when(plugin.getExecutors()).thenReturn(executors);
+
+        Node node = new Node(serverId, arenas, plugin, executors);
+        for (int i = 0; i < arenas; i++) {
+            node.mapManager.addMap(node.arenaName(i), serverId + "-" + i, PLAYERS_PER_GAME, Arrays.asList("Red", "Blue"));
+        }
+        Mockito.when(plugin.getMapManager()).thenReturn(node.mapManager);
+        Mockito.when(plugin.getWebSocketManager()).thenReturn(node.webSocketManager);
+        nodes.put(serverId, node);
+        node.webSocketManager.initialize();
+    }
+
+    private static void await(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError(message);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static void setBedwarsImplementation(BedwarsAPI implementation) throws ReflectiveOperationException {
+        Field field = BedwarsAPIManager.class.getDeclaredField("implementation");
+        field.setAccessible(true);
+        field.set(null, implementation);
+    }
+
+    private static final class Node {
+        final String serverId;
+        final int arenas;
+        final MapManager mapManager;
+        final WebSocketManager webSocketManager;
+        final PluginExecutors executors;
+
+        Node(String serverId, int arenas, RankedBedwars plugin, PluginExecutors executors) {
+            this.serverId = serverId;
+            this.arenas = arenas;
+            this.executors = executors;
+            this.mapManager = new MapManager(plugin);
+            this.webSocketManager = new WebSocketManager(plugin);
+        }
+
+        String arenaName(int index) {
+            return "rbw" + serverId.replace("-", "") + index;
+        }
+
+        String nextFreeArena() {
+            for (int i = 0; i < arenas; i++) {
+                if (!mapManager.isMapLocked(arenaName(i))) {
+                    return arenaName(i);
+                }
+            }
+            throw new IllegalStateException(serverId + " has no free arena");
+        }
+    }
+
+    /**
+     * BedwarsAPIManager is static, so one implementation serves every instance
+     * and routes by arena name to the instance that owns the arena.
+     */
+    private final class RoutingBedwars implements BedwarsAPI {
+
+        private Node owner(String arenaName) {
+            for (Node node : nodes.values()) {
+                if (arenaName.startsWith("rbw" + node.serverId.replace("-", ""))) {
+                    return node;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void initialize(RankedBedwars plugin) {
+        }
+
+        @Override
+        public void registerListeners() {
+        }
+
+        @Override
+        public String getName() {
+            return "MultiInstance";
+        }
+
+        @Override
+        public boolean arenaExists(String arenaName) {
+            return owner(arenaName) != null;
+        }
+
+        @Override
+        public Object getArenaByName(String arenaName) {
+            return null;
+        }
+
+        @Override
+        public Object getArenaByPlayer(Player player) {
+            return null;
+        }
+
+        @Override
+        public String getArenaGroup(Object arena) {
+            return null;
+        }
+
+        @Override
+        public void warpPlayersToGame(String gameId, String mapName, Object team1, Object team2, boolean isRanked) {
+            Node node = owner(mapName);
+            warpsHandled.computeIfAbsent(node.serverId, k -> new LongAdder()).increment();
+            node.mapManager.sendWarpSuccess(gameId);
+        }
+
+        @Override
+        public void initializeMaps() {
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.deyo.rbw.loadsim;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.mockito.Mockito;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A BukkitScheduler backed by real threads: one "Server thread" for sync tasks
+ * (a tick is 50 ms) and a cached pool for async tasks, like CraftScheduler.
+ * Sync tasks also record how long they waited for the main thread.
+ */
+public abstract class SimulatedScheduler implements BukkitScheduler {
+
+    static final long TICK_MILLIS = 50L;
+
+    private final ScheduledThreadPoolExecutor mainThread;
+    private final ExecutorService asyncPool;
+    private final ScheduledExecutorService asyncTimer;
+    private final LatencyRecorder mainThreadLag;
+    private volatile Thread mainThreadRef;
+
+    public SimulatedScheduler(LatencyRecorder mainThreadLag) {
+        this.mainThreadLag = mainThreadLag;
+        this.mainThread = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "Server thread");
+            thread.setDaemon(true);
+            mainThreadRef = thread;
+            return thread;
+        });
+        this.mainThread.setRemoveOnCancelPolicy(true);
+        this.asyncPool = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "Craft Scheduler Thread");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.asyncTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Craft Async Timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    static SimulatedScheduler create(LatencyRecorder mainThreadLag) {
+        return Mockito.mock(SimulatedScheduler.class, Mockito.withSettings()
+                .useConstructor(mainThreadLag)
+                .stubOnly()
+                .defaultAnswer(Mockito.CALLS_REAL_METHODS));
+    }
+
+    /**
+     * Starts the main thread and returns it once it is running.
+     */
+    Thread startMainThread() throws Exception {
+        mainThread.submit(() -> { }).get();
+        return mainThreadRef;
+    }
+
+    void shutdown() {
+        mainThread.shutdownNow();
+        asyncTimer.shutdownNow();
+        asyncPool.shutdownNow();
+    }
+
+    private Runnable timedSync(Runnable task) {
+        long queuedAt = System.nanoTime();
+        return () -> {
+            mainThreadLag.record(System.nanoTime() - queuedAt);
+            runSafely(task);
+        };
+    }
+
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable t) {
+            // CraftScheduler logs and carries on; a failing task must not kill the thread
+            java.util.logging.Logger.getLogger("RBW-LoadSim").log(java.util.logging.Level.WARNING, "Task threw", t);
+        }
+    }
+
+    private static BukkitTask task(Future<?> future, boolean sync) {
+        BukkitTask task = Mockito.mock(BukkitTask.class, Mockito.withSettings().stubOnly());
+        Mockito.doAnswer(inv -> future.cancel(false)).when(task).cancel();
+        Mockito.when(task.isSync()).thenReturn(sync);
+        return task;
+    }
+
+    @Override
+    public BukkitTask runTask(Plugin plugin, Runnable task) {
+        return task(mainThread.submit(timedSync(task)), true);
+    }
+
+    @Override
+    public BukkitTask runTaskAsynchronously(Plugin plugin, Runnable task) {
+        return task(asyncPool.submit(() -> runSafely(task)), false);
+    }
+
+    @Override
+    public BukkitTask runTaskLater(Plugin plugin, Runnable task, long delay) {
+        return task(mainThread.schedule(() -> runSafely(task), delay * TICK_MILLIS, TimeUnit.MILLISECONDS), true);
+    }
+
+    @Override
+    public BukkitTask runTaskLaterAsynchronously(Plugin plugin, Runnable task, long delay) {
+        return task(asyncTimer.schedule(() -> asyncPool.execute(() -> runSafely(task)), delay * TICK_MILLIS, TimeUnit.MILLISECONDS), false);
+    }
+
+    @Override
+    public BukkitTask runTaskTimer(Plugin plugin, Runnable task, long delay, long period) {
+        return task(mainThread.scheduleAtFixedRate(() -> runSafely(task),
+                delay * TICK_MILLIS, Math.max(1, period) * TICK_MILLIS, TimeUnit.MILLISECONDS), true);
+    }
+
+    @Override
+    public BukkitTask runTaskTimerAsynchronously(Plugin plugin, Runnable task, long delay, long period) {
+        return task(asyncTimer.scheduleAtFixedRate(() -> asyncPool.execute(() -> runSafely(task)),
+                delay * TICK_MILLIS, Math.max(1, period) * TICK_MILLIS, TimeUnit.MILLISECONDS), false);
+    }
+}
@@ -0,0 +1,138 @@
+package com.deyo.rbw.loadsim;
+
+import com.deyo.rbw.utils.OnlinePlayerIndex;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.mockito.Mockito;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * The Bukkit server seen by the plugin during a load simulation. Only the calls
+ * the plugin makes are implemented; everything else falls back to Mockito defaults.
+ *
+ * Bukkit.setServer only accepts one server per JVM and static mocks are
+ * thread-local, so a single instance is installed once and re-pointed at each
+ * simulation's scheduler and player list.
+ */
+public abstract class SimulatedServer implements Server {
+
+    private static SimulatedServer installed;
+
+    private final Logger logger = Logger.getLogger("RBW-LoadSim-Server");
+    private final Map<String, Player> onlinePlayers = new ConcurrentHashMap<>();
+    // What PlayerListener would keep for the plugin
+    final OnlinePlayerIndex playerIndex = new OnlinePlayerIndex();
+    private final LongAdder dispatchedCommands = new LongAdder();
+    private volatile BukkitScheduler scheduler;
+    private volatile Thread mainThread;
+    private volatile ConsoleCommandSender console;
+    private final PluginManager pluginManager = Mockito.mock(PluginManager.class, Mockito.withSettings().stubOnly());
+
+    public SimulatedServer() {
+        logger.setUseParentHandlers(false);
+    }
+
+    static synchronized SimulatedServer install() {
+        if (installed == null) {
+            if (Bukkit.getServer() != null) {
+                throw new IllegalStateException("A Bukkit server is already installed: " + Bukkit.getServer());
+            }
+            installed = Mockito.mock(SimulatedServer.class, Mockito.withSettings()
+                    .useConstructor()
+                    .stubOnly()
+                    .defaultAnswer(Mockito.CALLS_REAL_METHODS));
+            Bukkit.setServer(installed);
+        }
+        return installed;
+    }
+
+    void reset(BukkitScheduler scheduler, Thread mainThread) {
+        this.scheduler = scheduler;
+        this.mainThread = mainThread;
+        this.console = Mockito.mock(ConsoleCommandSender.class, Mockito.withSettings().stubOnly());
+        onlinePlayers.clear();
+        playerIndex.reset(Collections.emptyList());
+        dispatchedCommands.reset();
+    }
+
+    void addPlayer(Player player) {
+        onlinePlayers.put(player.getName().toLowerCase(), player);
+        playerIndex.add(player);
+    }
+
+    long getDispatchedCommands() {
+        return dispatchedCommands.sum();
+    }
+
+    @Override
+    public BukkitScheduler getScheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public Player getPlayerExact(String name) {
+        return name == null ? null : onlinePlayers.get(name.toLowerCase());
+    }
+
+    @Override
+    public Collection<? extends Player> getOnlinePlayers() {
+        return Collections.unmodifiableCollection(onlinePlayers.values());
+    }
+
+    @Override
+    public int getMaxPlayers() {
+        return 1000;
+    }
+
+    @Override
+    public PluginManager getPluginManager() {
+        return pluginManager;
+    }
+
+    @Override
+    public boolean isPrimaryThread() {
+        return Thread.currentThread() == mainThread;
+    }
+
+    @Override
+    public ConsoleCommandSender getConsoleSender() {
+        return console;
+    }
+
+    @Override
+    public boolean dispatchCommand(CommandSender sender, String commandLine) {
+        dispatchedCommands.increment();
+        return true;
+    }
+
+    @Override
+    public Logger getLogger() {
+        return logger;
+    }
+
+    @Override
+    public String getName() {
+        return "RBW-LoadSim";
+    }
+
+    @Override
+    public String getVersion() {
+        return "loadsim";
+    }
+
+    @Override
+    public String getBukkitVersion() {
+        return "1.8.8-R0.1-SNAPSHOT";
+    }
+}
@@ -0,0 +1,107 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.utils.InlineExecutors;
+import com.deyo.rbw.utils.OnlinePlayerIndex;
+import com.google.gson.JsonObject;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+public class ArenaLeaseTest {
+
+    private static final String MAP = "rbwkatsu";
+    private static final long WARP_TIMEOUT = TimeUnit.SECONDS.toMillis(120);
+    private static final long MAX_GAME = TimeUnit.SECONDS.toMillis(7200);
+
+    private MockedStatic<Bukkit> bukkit;
+    private MapManager mapManager;
+
+    @BeforeEach
+    public void setUp() {
+        RankedBedwars plugin = mock(RankedBedwars.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("RBW-Test"));
+        InlineExecutors.install(plugin);
+        when(plugin.getPlayerIndex()).thenReturn(new OnlinePlayerIndex());
+        when(plugin.getConfig()).thenReturn(mock(FileConfiguration.class));
+        bukkit = mockStatic(Bukkit.class);
+        bukkit.when(Bukkit::getScheduler).thenReturn(mock(BukkitScheduler.class));
+        mapManager = new MapManager(plugin);
+        mapManager.addMap(MAP, "Katsu", 8, Arrays.asList("Red", "Blue"));
+        mapManager.addMap("p" + MAP, "Katsu", 8, Arrays.asList("Red", "Blue"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bukkit.close();
+    }
+
+    @Test
+    public void groupCanOnlyBeLeasedOnce() {
+        ArenaLease first = mapManager.acquireLease(MAP, "g1");
+        assertNotNull(first);
+        assertNull(mapManager.acquireLease(MAP, "g2"));
+        // Variants share the group lock
+        assertNull(mapManager.acquireLease("p" + MAP, "g2"));
+        assertTrue(mapManager.releaseLease(MAP, first.getToken()));
+        assertTrue(mapManager.acquireLease(MAP, "g2").getToken() > first.getToken());
+    }
+
+    @Test
+    public void lateReleaseFromPreviousGameIsIgnored() {
+        long now = System.currentTimeMillis();
+        ArenaLease first = mapManager.acquireLease(MAP, "g1");
+        mapManager.expireLeases(now + WARP_TIMEOUT + 1000);
+        assertFalse(mapManager.isMapLocked(MAP));
+
+        ArenaLease second = mapManager.acquireLease(MAP, "g2");
+        assertFalse(mapManager.releaseLease(MAP, first.getToken()));
+        assertTrue(mapManager.isMapLocked(MAP));
+        assertTrue(mapManager.releaseLease(MAP, second.getToken()));
+        assertFalse(mapManager.isMapLocked(MAP));
+    }
+
+    @Test
+    public void onlyLeasesOfGamesThatNeverStartedExpireAfterTheWarpTimeout() {
+        long now = System.currentTimeMillis();
+        ArenaLease lease = mapManager.acquireLease(MAP, "g1");
+        assertEquals(0, mapManager.markGameStarted(MAP, "other"));
+        assertEquals(lease.getToken(), mapManager.markGameStarted(MAP, "g1"));
+
+        mapManager.expireLeases(now + WARP_TIMEOUT + 1000);
+        assertTrue(mapManager.isMapLocked(MAP));
+        mapManager.expireLeases(now + MAX_GAME + 1000);
+        assertFalse(mapManager.isMapLocked(MAP));
+    }
+
+    @Test
+    public void staleCleanupDoesNotRemoveTheNewGame() {
+        long now = System.currentTimeMillis();
+        JsonObject team = new JsonObject();
+        mapManager.warpPlayersToGame("g1", MAP, team, team, true);
+        long firstToken = mapManager.getLease(MAP).getToken();
+        mapManager.expireLeases(now + WARP_TIMEOUT + 1000);
+
+        mapManager.warpPlayersToGame("g2", MAP, team, team, true);
+        assertEquals("g2", mapManager.getGameIdForArena(MAP));
+        mapManager.cleanupExistingGameForMap(MAP, firstToken);
+        assertEquals("g2", mapManager.getGameIdForArena(MAP));
+    }
+}
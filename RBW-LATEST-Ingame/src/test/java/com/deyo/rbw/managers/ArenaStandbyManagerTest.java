@@ -0,0 +1,158 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.bedwars.BedwarsAPI;
+import com.deyo.rbw.bedwars.BedwarsAPIManager;
+import com.deyo.rbw.utils.InlineExecutors;
+import com.deyo.rbw.utils.OnlinePlayerIndex;
+import com.google.gson.JsonObject;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ArenaStandbyManagerTest {
+
+    private MockedStatic<Bukkit> bukkit;
+    private MapManager mapManager;
+    private ArenaStandbyManager standby;
+    private World world;
+    private BedwarsAPI bedwars;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        FileConfiguration config = mock(FileConfiguration.class);
+        when(config.getBoolean("standby.enabled", true)).thenReturn(true);
+        when(config.getInt("standby.min-arenas", 1)).thenReturn(1);
+        when(config.getInt("standby.max-arenas", 4)).thenReturn(4);
+        when(config.getLong("standby.lead-time-seconds", 30L)).thenReturn(30L);
+        // Never under memory pressure in the test
+        when(config.getInt("standby.memory-pressure-percent", 85)).thenReturn(100);
+        RankedBedwars plugin = mock(RankedBedwars.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("RBW-Test"));
+        InlineExecutors.install(plugin);
+        when(plugin.getPlayerIndex()).thenReturn(new OnlinePlayerIndex());
+        when(plugin.getConfig()).thenReturn(config);
+        bukkit = mockStatic(Bukkit.class);
+        bukkit.when(Bukkit::getScheduler).thenReturn(mock(BukkitScheduler.class));
+
+        mapManager = new MapManager(plugin);
+        for (String group : Arrays.asList("aquarium", "katsu", "lectus")) {
+            mapManager.addMap("rbw" + group, group, 8, Arrays.asList("Red", "Blue"));
+        }
+        standby = mapManager.getStandby();
+
+        world = mock(World.class);
+        bedwars = mock(BedwarsAPI.class);
+        when(bedwars.isAvailable()).thenReturn(true);
+        when(bedwars.isArenaIdle(anyString())).thenReturn(true);
+        when(bedwars.getSpawnLocations(anyString())).thenReturn(Collections.singletonList(new Location(world, 100, 64, 100)));
+        setBedwarsImplementation(bedwars);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        setBedwarsImplementation(null);
+        bukkit.close();
+    }
+
+    private static void setBedwarsImplementation(BedwarsAPI implementation) throws ReflectiveOperationException {
+        Field field = BedwarsAPIManager.class.getDeclaredField("implementation");
+        field.setAccessible(true);
+        field.set(null, implementation);
+    }
+
+    private static JsonObject queues(int... currentPlayers) {
+        JsonObject queues = new JsonObject();
+        for (int i = 0; i < currentPlayers.length; i++) {
+            JsonObject queue = new JsonObject();
+            queue.addProperty("currentPlayers", currentPlayers[i]);
+            queue.addProperty("maxPlayers", 8);
+            queue.addProperty("isRanked", true);
+            queues.add("q" + i, queue);
+        }
+        return queues;
+    }
+
+    @Test
+    public void predictsDemandFromQueuesAndWarpRate() {
+        assertEquals(1, standby.targetArenas(), "idle server keeps the minimum warm");
+
+        standby.onQueueStatus(queues(6, 8));
+        assertEquals(2, standby.targetArenas());
+
+        // 10 warps in the last five minutes, about one more within the 30 s lead time
+        for (int i = 0; i < 10; i++) {
+            standby.onLeased("elsewhere");
+        }
+        assertEquals(3, standby.targetArenas());
+
+        standby.onQueueStatus(queues(8, 8, 8, 8, 8));
+        assertEquals(4, standby.targetArenas(), "capped at max-arenas");
+    }
+
+    @Test
+    public void warmsPopularGroupsAndCountsHits() {
+        standby.onLeased("lectus");
+        standby.onQueueStatus(queues(8, 4));
+
+        standby.refresh();
+        assertTrue(standby.isWarm("lectus"), "most recently warped group should be warmed first");
+        verify(world, atLeastOnce()).loadChunk(6, 6);
+        standby.refresh();
+        assertTrue(standby.isWarm("aquarium"));
+        assertFalse(standby.isWarm("katsu"));
+
+        // A warp to a warm arena is a hit, and a leased group is no longer kept warm
+        assertTrue(standby.onLeased("lectus"));
+        assertFalse(standby.onLeased("katsu"));
+        mapManager.acquireLease("rbwaquarium", "g1");
+        standby.refresh();
+        assertFalse(standby.isWarm("aquarium"));
+        assertEquals(1, standby.getStatistics().get("hits").getAsLong());
+    }
+
+    @Test
+    public void loadsAtMostOneArenasChunksPerRun() {
+        when(bedwars.getSpawnLocations("rbwkatsu")).thenReturn(Collections.singletonList(new Location(world, 500, 64, 500)));
+        standby.onQueueStatus(queues(8, 8));
+        standby.refresh();
+        assertTrue(standby.isWarm("aquarium"));
+
+        // Warming katsu is this run's load; aquarium's unloaded chunk waits
+        clearInvocations(world);
+        standby.refresh();
+        assertTrue(standby.isWarm("katsu"));
+        verify(world).loadChunk(31, 31);
+        verify(world, never()).loadChunk(6, 6);
+
+        // With nothing to warm, one arena's unloaded chunks are loaded again
+        clearInvocations(world);
+        standby.refresh();
+        verify(world, times(1)).loadChunk(anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,167 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.RankedBedwars;
+import org.java_websocket.WebSocket;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.handshake.ServerHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConnectionSupervisorTest {
+
+    private static RankedBedwars plugin() {
+        RankedBedwars plugin = Mockito.mock(RankedBedwars.class);
+        Logger logger = Logger.getLogger("ConnectionSupervisorTest");
+        logger.setUseParentHandlers(false);
+        Mockito.when(plugin.getLogger()).thenReturn(logger);
+        Mockito.when(plugin.isEnabled()).thenReturn(true);
+        return plugin;
+    }
+
+    @Test
+    public void backoffStaysWithinBaseAndCap() {
+        ConnectionSupervisor.Backoff backoff = new ConnectionSupervisor.Backoff(1000, 60_000, new Random(42));
+        long previous = 1000;
+        for (int i = 0; i < 50; i++) {
+            long delay = backoff.next();
+            assertTrue(delay >= 1000, "delay below base: " + delay);
+            assertTrue(delay <= Math.min(60_000, previous * 3), "delay above previous * 3: " + delay);
+            previous = delay;
+        }
+        backoff.reset();
+        assertTrue(backoff.next() <= 3000);
+    }
+
+    @Test
+    public void failsOverQuicklyAndBacksOffOnlyAfterAFullRound() {
+        ConnectionSupervisor supervisor = new ConnectionSupervisor(plugin(), Arrays.asList("primary", "secondary", "tertiary"),
+                new ConnectionSupervisor.Backoff(1000, 60_000, new Random(7)), 5000, host -> null, message -> { });
+
+        assertEquals("primary", supervisor.currentHost());
+        assertTrue(supervisor.planRetry() < 1000);
+        assertEquals("secondary", supervisor.currentHost());
+        assertTrue(supervisor.planRetry() < 1000);
+        assertEquals("tertiary", supervisor.currentHost());
+        assertTrue(supervisor.planRetry() >= 1000);
+        assertEquals("primary", supervisor.currentHost());
+        assertEquals(3, supervisor.getFailedAttempts());
+    }
+
+    @Test
+    public void singleHostAlwaysBacksOff() {
+        ConnectionSupervisor supervisor = new ConnectionSupervisor(plugin(), Collections.singletonList("only"),
+                new ConnectionSupervisor.Backoff(1000, 60_000, new Random(7)), 5000, host -> null, message -> { });
+        for (int i = 0; i < 5; i++) {
+            assertTrue(supervisor.planRetry() >= 1000);
+            assertEquals("only", supervisor.currentHost());
+        }
+    }
+
+    @Test
+    public void droppedConnectionsBackOffOnTheSameHost() {
+        ConnectionSupervisor supervisor = new ConnectionSupervisor(plugin(), Arrays.asList("primary", "secondary"),
+                new ConnectionSupervisor.Backoff(1000, 60_000, new Random(7)), 5000, host -> null, message -> { });
+        for (int i = 1; i <= 5; i++) {
+            assertTrue(supervisor.planReconnect() >= 1000, "never straight away");
+            assertEquals("primary", supervisor.currentHost());
+            assertEquals(i, supervisor.getFailedAttempts());
+        }
+    }
+
+    @Test
+    public void connectsToSecondaryWhenPrimaryIsDown() throws Exception {
+        int deadPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            deadPort = socket.getLocalPort();
+        }
+        WebSocketServer secondary = new WebSocketServer(new InetSocketAddress("127.0.0.1", 0)) {
+            @Override
+            public void onOpen(WebSocket conn, ClientHandshake handshake) {
+            }
+
+            @Override
+            public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+            }
+
+            @Override
+            public void onMessage(WebSocket conn, String message) {
+            }
+
+            @Override
+            public void onError(WebSocket conn, Exception ex) {
+            }
+
+            @Override
+            public void onStart() {
+            }
+        };
+        secondary.setReuseAddr(true);
+        secondary.start();
+        CountDownLatch opened = new CountDownLatch(1);
+        ConnectionSupervisor[] holder = new ConnectionSupervisor[1];
+        try {
+            // Wait for the server to bind so getPort() reports the real port
+            for (int i = 0; i < 50 && secondary.getPort() == 0; i++) {
+                Thread.sleep(20);
+            }
+            String primaryHost = "ws://127.0.0.1:" + deadPort;
+            String secondaryHost = "ws://127.0.0.1:" + secondary.getPort();
+            ConnectionSupervisor supervisor = new ConnectionSupervisor(plugin(), Arrays.asList(primaryHost, secondaryHost),
+                    1000, 60_000, 2000, host -> new WebSocketClient(URI.create(WebSocketManager.buildWebSocketUri(host))) {
+                        @Override
+                        public void onOpen(ServerHandshake handshake) {
+                            holder[0].connected(this);
+                            opened.countDown();
+                        }
+
+                        @Override
+                        public void onMessage(String message) {
+                        }
+
+                        @Override
+                        public void onClose(int code, String reason, boolean remote) {
+                            holder[0].closed(this);
+                        }
+
+                        @Override
+                        public void onError(Exception ex) {
+                        }
+                    }, message -> { });
+            holder[0] = supervisor;
+            supervisor.start();
+
+            assertTrue(opened.await(5, TimeUnit.SECONDS), "did not fail over to the secondary host");
+            for (int i = 0; i < 50 && supervisor.getState() != ConnectionState.CONNECTED; i++) {
+                Thread.sleep(20);
+            }
+            assertEquals(ConnectionState.CONNECTED, supervisor.getState());
+            assertEquals(secondaryHost, supervisor.currentHost());
+            assertEquals(1, supervisor.getFailedAttempts(), "kept until the bot accepts the auth");
+            supervisor.authenticated();
+            for (int i = 0; i < 50 && supervisor.getFailedAttempts() != 0; i++) {
+                Thread.sleep(20);
+            }
+            assertEquals(0, supervisor.getFailedAttempts());
+        } finally {
+            if (holder[0] != null) {
+                holder[0].stop();
+            }
+            secondary.stop(1000);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.deyo.rbw.managers;
+
+import org.java_websocket.enums.Opcode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CriticalOutboxTest {
+
+    private static final Logger LOGGER = Logger.getLogger("RBW-Test");
+
+    @TempDir
+    File dataFolder;
+
+    @Test
+    public void undeliveredResultsSurviveARestart() {
+        File file = new File(dataFolder, "outbox.jsonl");
+        CriticalOutbox outbox = new CriticalOutbox(LOGGER, file);
+        String voiding = "{\"type\":\"voiding\",\"gameid\":\"7\",\"reason\":\"\u00a7cserver stopped\"}";
+        outbox.hold(new ResumableSession.Outbound(Opcode.TEXT, voiding, null, "voiding"));
+
+        byte[] cbor = {(byte) 0xbf, 0x64, 't', 'y', 'p', 'e', (byte) 0xff};
+        byte[] scoringJson = "{\"type\":\"scoring\",\"gameid\":8}".getBytes(StandardCharsets.UTF_8);
+        List<ResumableSession.Outbound> unacked = Arrays.asList(
+                new ResumableSession.Outbound(Opcode.TEXT, "{\"type\":\"presence_delta\",\"version\":3}", null, null),
+                new ResumableSession.Outbound(Opcode.BINARY, null, cbor, "scoring"),
+                new ResumableSession.Outbound(Opcode.TEXT, null, scoringJson, "scoring"),
+                new ResumableSession.Outbound(Opcode.TEXT, "{\"type\":\"game_recovered\",\"game_id\":\"9\"}", null, null));
+
+        assertEquals(4, outbox.spill(unacked), "the held voiding and the three unacked results");
+        assertEquals(0, outbox.getHeldCount());
+
+        CriticalOutbox restarted = new CriticalOutbox(LOGGER, file);
+        assertEquals(4, restarted.load());
+        List<ResumableSession.Outbound> resend = restarted.takeHeld();
+        assertEquals(voiding, resend.get(0).text);
+        assertEquals(Opcode.BINARY, resend.get(1).opcode);
+        assertArrayEquals(cbor, resend.get(1).body);
+        assertEquals("scoring", resend.get(1).messageType);
+        assertEquals("{\"type\":\"scoring\",\"gameid\":8}", resend.get(2).text);
+        assertEquals("game_recovered", resend.get(3).messageType);
+        assertTrue(file.exists(), "kept until the resend went out");
+
+        restarted.clearSpilled();
+        assertFalse(file.exists());
+        assertEquals(0, restarted.spill(Collections.emptyList()));
+        assertFalse(file.exists(), "nothing to spill writes no file");
+    }
+
+    @Test
+    public void typeIsReadFromCompactJson() {
+        assertEquals("scoring", CriticalOutbox.typeOf("{\"type\":\"scoring\",\"gameid\":1}"));
+        assertNull(CriticalOutbox.typeOf("{\"gameid\":1}"));
+        assertFalse(CriticalOutbox.isCritical(new ResumableSession.Outbound(Opcode.TEXT, "{\"type\":\"maps_info\"}", null, null)));
+        assertTrue(CriticalOutbox.isCritical(new ResumableSession.Outbound(Opcode.TEXT, "{\"type\":\"voiding\"}", null, null)));
+    }
+}
@@ -0,0 +1,207 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.models.Game;
+import com.deyo.rbw.models.TimelineCoalescer;
+import com.deyo.rbw.utils.InlineExecutors;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GameCheckpointsTest {
+
+    @TempDir
+    File dataFolder;
+
+    private MockedStatic<Bukkit> bukkit;
+    private RankedBedwars plugin;
+    private FileConfiguration config;
+
+    @BeforeEach
+    public void setUp() {
+        config = mock(FileConfiguration.class);
+        when(config.getBoolean("checkpoint.enabled", true)).thenReturn(true);
+        when(config.getString("checkpoint.recovery", "void")).thenReturn("report");
+        plugin = mock(RankedBedwars.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("RBW-Test"));
+        InlineExecutors.install(plugin);
+        when(plugin.getConfig()).thenReturn(config);
+        when(plugin.getDataFolder()).thenReturn(dataFolder);
+        bukkit = mockStatic(Bukkit.class);
+        bukkit.when(Bukkit::getScheduler).thenReturn(mock(BukkitScheduler.class));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bukkit.close();
+    }
+
+    private static Game game(String gameId) {
+        Game game = new Game(gameId, "katsu", true, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                new ArrayList<>(), System.currentTimeMillis(), 0, "19/10/2026");
+        game.getPlayerTeamName().put("alice", "Red");
+        game.getPlayerTeamName().put("bob", "Blue");
+        game.getPlayerKills().put("alice", 0);
+        game.getPlayerKills().put("bob", 0);
+        return game;
+    }
+
+    private static void event(Game game, String type, String player) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("type", type);
+        event.put("player", player);
+        event.put("timestamp", 0L);
+        game.getTimeline().add(event);
+    }
+
+    private JsonObject reportedMessage() {
+        WebSocketManager webSocket = mock(WebSocketManager.class);
+        when(webSocket.isConnected()).thenReturn(true);
+        when(webSocket.sendMessage(anyString())).thenReturn(true);
+        when(plugin.getWebSocketManager()).thenReturn(webSocket);
+        GameCheckpoints restarted = new GameCheckpoints(plugin);
+        restarted.recover();
+        assertEquals(1, restarted.getRecoveredCount());
+        restarted.reportRecovered();
+        ArgumentCaptor<String> sent = ArgumentCaptor.forClass(String.class);
+        verify(webSocket).sendMessage(sent.capture());
+        return JsonParser.parseString(sent.getValue()).getAsJsonObject();
+    }
+
+    @Test
+    public void unfinishedGameIsRecoveredFromItsCheckpoints() throws Exception {
+        GameCheckpoints checkpoints = new GameCheckpoints(plugin);
+        Game game = game("g1");
+        checkpoints.track(game);
+        event(game, "kill", "alice");
+        game.getPlayerKills().put("alice", 1);
+        checkpoints.checkpoint();
+        event(game, "final_kill", "alice");
+        game.getPlayerKills().put("alice", 2);
+        game.getPlayerFinalKills().put("alice", 1);
+        checkpoints.checkpoint();
+        // The server dies: no finish, and the last write is torn
+        checkpoints.shutdown(2000L);
+        File file = new File(dataFolder, "checkpoints/game_g1.jsonl");
+        Files.write(file.toPath(), "{\"type\":\"checkpoint\",\"pla".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        JsonObject message = reportedMessage();
+        assertEquals("game_recovered", message.get("type").getAsString());
+        assertEquals("g1", message.get("game_id").getAsString());
+        assertEquals("Red", message.getAsJsonObject("teams").get("alice").getAsString());
+        JsonObject alice = message.getAsJsonObject("players").getAsJsonObject("alice");
+        assertEquals(2, alice.get("kills").getAsInt());
+        assertEquals(1, alice.get("finalkills").getAsInt());
+        assertEquals(2, message.getAsJsonArray("timeline").size());
+        assertFalse(file.exists(), "checkpoint is deleted once reported");
+    }
+
+    @Test
+    public void finishedGamesLeaveNothingAndVoidModeSendsPartialStats() {
+        GameCheckpoints checkpoints = new GameCheckpoints(plugin);
+        Game finished = game("g1");
+        Game running = game("g2");
+        checkpoints.track(finished);
+        checkpoints.track(running);
+        checkpoints.checkpoint();
+        checkpoints.finish("g1");
+        checkpoints.shutdown(2000L);
+        assertFalse(new File(dataFolder, "checkpoints/game_g1.jsonl").exists());
+        assertTrue(new File(dataFolder, "checkpoints/game_g2.jsonl").exists());
+
+        when(config.getString("checkpoint.recovery", "void")).thenReturn("void");
+        JsonObject message = reportedMessage();
+        assertEquals("voiding", message.get("type").getAsString());
+        assertEquals("g2", message.get("gameid").getAsString());
+        assertEquals(0, message.getAsJsonObject("partial").getAsJsonObject("players")
+                .getAsJsonObject("bob").get("kills").getAsInt());
+    }
+
+    @Test
+    public void endedGameKeepsItsCheckpointUntilTheResultIsHandedOff() throws Exception {
+        GameCheckpoints checkpoints = new GameCheckpoints(plugin);
+        checkpoints.track(game("g3"));
+        checkpoints.end("g3");
+        checkpoints.checkpoint();
+        File file = new File(dataFolder, "checkpoints/game_g3.jsonl");
+        assertTrue(file.exists(), "kept while the scoring may still be lost");
+        assertEquals(2, Files.readAllLines(file.toPath()).size(), "a last checkpoint on the end, none after");
+
+        checkpoints.finish("g3");
+        checkpoints.shutdown(2000L);
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void checkpointsDoNotCutCoalescingWindows() throws Exception {
+        when(config.getLong("timeline.coalesce-window-ms", TimelineCoalescer.DEFAULT_WINDOW_MILLIS)).thenReturn(5000L);
+        GameCheckpoints checkpoints = new GameCheckpoints(plugin);
+        Game game = game("g4");
+        TimelineCoalescer coalescer = new TimelineCoalescer(5000L);
+        checkpoints.track(game);
+        coalescer.record(game, "block_place", "alice", null, 1, 0L);
+        event(game, "kill", "alice");
+        checkpoints.checkpoint();
+        assertEquals(0, game.getSealedTimeline(), "checkpoints leave the timeline open");
+        coalescer.record(game, "block_place", "alice", null, 1, 10L);
+        assertEquals(2, game.getTimeline().size());
+
+        checkpoints.shutdown(2000L);
+        JsonObject message = reportedMessage();
+        assertEquals(2, message.getAsJsonArray("timeline").size(), "held back events are written once, on shutdown");
+        JsonObject blocks = message.getAsJsonArray("timeline").get(0).getAsJsonObject();
+        assertEquals("block_place", blocks.get("type").getAsString());
+        assertEquals(2, blocks.get("amount").getAsInt());
+    }
+
+    @Test
+    public void recoveredGameIsKeptUntilTheReportIsHandedOff() {
+        GameCheckpoints checkpoints = new GameCheckpoints(plugin);
+        checkpoints.track(game("g5"));
+        checkpoints.shutdown(2000L);
+        File file = new File(dataFolder, "checkpoints/game_g5.jsonl");
+
+        WebSocketManager webSocket = mock(WebSocketManager.class);
+        when(webSocket.isConnected()).thenReturn(true);
+        when(webSocket.sendMessage(anyString())).thenReturn(false, true);
+        when(plugin.getWebSocketManager()).thenReturn(webSocket);
+        GameCheckpoints restarted = new GameCheckpoints(plugin);
+        restarted.recover();
+
+        restarted.reportRecovered();
+        assertEquals(1, restarted.getRecoveredCount(), "dropped while the connection closed");
+        assertTrue(file.exists());
+
+        restarted.reportRecovered();
+        assertEquals(0, restarted.getRecoveredCount());
+        assertFalse(file.exists());
+        verify(webSocket, times(2)).sendMessage(anyString());
+    }
+}
@@ -0,0 +1,130 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.models.Game;
+import com.deyo.rbw.utils.InlineExecutors;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+public class LiveGameFeedTest {
+
+    private MockedStatic<Bukkit> bukkit;
+    private LiveGameFeed feed;
+    private Game g1;
+    private Game g2;
+    private long start;
+
+    @BeforeEach
+    public void setUp() {
+        RankedBedwars plugin = mock(RankedBedwars.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("RBW-Test"));
+        InlineExecutors.install(plugin);
+        bukkit = mockStatic(Bukkit.class);
+        bukkit.when(Bukkit::getScheduler).thenReturn(mock(BukkitScheduler.class));
+
+        feed = new LiveGameFeed(plugin, 5000, 1000);
+        start = System.currentTimeMillis();
+        g1 = game("g1", "alice", "bob");
+        g2 = game("g2", "carol", "dave");
+        feed.track(g1);
+        feed.track(g2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bukkit.close();
+    }
+
+    private Game game(String gameId, String red, String blue) {
+        Game game = new Game(gameId, "katsu", true, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                new ArrayList<>(), start, 0, "18/10/2026");
+        game.getPlayerTeamName().put(red, "Red");
+        game.getPlayerTeamName().put(blue, "Blue");
+        game.getPlayerKills().put(red, 0);
+        game.getPlayerKills().put(blue, 0);
+        event(game, "game_start", null);
+        return game;
+    }
+
+    private static void event(Game game, String type, String player) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("type", type);
+        event.put("player", player);
+        event.put("amount", null);
+        event.put("timestamp", 0L);
+        game.getTimeline().add(event);
+    }
+
+    private static JsonObject only(JsonObject frame, String gameId) {
+        JsonArray games = frame.getAsJsonArray("games");
+        assertEquals(1, games.size());
+        JsonObject delta = games.get(0).getAsJsonObject();
+        assertEquals(gameId, delta.get("game_id").getAsString());
+        return delta;
+    }
+
+    @Test
+    public void sendsOnlyWhatChangedAndCoalescesGames() {
+        assertNull(feed.collect(start + 1000), "nothing is due before the interval");
+
+        JsonObject frame = feed.collect(start + 5100);
+        assertEquals("game_delta", frame.get("type").getAsString());
+        assertEquals(2, frame.getAsJsonArray("games").size());
+        JsonObject first = frame.getAsJsonArray("games").get(0).getAsJsonObject();
+        assertEquals(1, first.get("seq").getAsInt());
+        assertTrue(first.has("teams"));
+        assertEquals(GameDeltaStream.COUNTERS.length, first.getAsJsonObject("players").getAsJsonObject(
+                first.get("game_id").getAsString().equals("g1") ? "alice" : "carol").size());
+
+        g1.getPlayerKills().put("alice", 1);
+        event(g1, "kill", "alice");
+        assertNull(feed.collect(start + 6000), "rate-limited per game");
+
+        JsonObject delta = only(feed.collect(start + 10200), "g1");
+        assertEquals(2, delta.get("seq").getAsInt());
+        assertFalse(delta.has("teams"));
+        JsonObject players = delta.getAsJsonObject("players");
+        assertEquals(1, players.size());
+        assertEquals(1, players.getAsJsonObject("alice").size());
+        assertEquals(1, players.getAsJsonObject("alice").get("kills").getAsInt());
+        assertEquals(1, delta.getAsJsonArray("timeline").size());
+        assertEquals("kill", delta.getAsJsonArray("timeline").get(0).getAsJsonObject().get("type").getAsString());
+    }
+
+    @Test
+    public void significantEventsAreSentAfterTheMinimumInterval() {
+        feed.collect(start + 5100);
+
+        g2.getPlayerBedsDestroyed().put("dave", 1);
+        event(g2, "bed_break", "dave");
+        feed.significant("g2");
+        assertNull(feed.collect(start + 5600));
+        JsonObject delta = only(feed.collect(start + 6200), "g2");
+        assertEquals(1, delta.getAsJsonObject("players").getAsJsonObject("dave").get("beds").getAsInt());
+
+        feed.untrack("g1");
+        feed.untrack("g2");
+        g1.getPlayerKills().put("bob", 3);
+        assertNull(feed.collect(start + 60000));
+        assertEquals(0, feed.getTracked());
+    }
+}
@@ -0,0 +1,58 @@
+package com.deyo.rbw.managers;
+
+import com.google.gson.JsonArray;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PlayerDirectoryTest {
+
+    private static JsonArray names(String... names) {
+        JsonArray array = new JsonArray();
+        for (String name : names) {
+            array.add(name);
+        }
+        return array;
+    }
+
+    @Test
+    public void completesPrefixesFromNetworkAndLocalPlayers() {
+        PlayerDirectory directory = new PlayerDirectory();
+        directory.addLocal("Steve");
+        directory.applySnapshot(1, names("BankruptSky", "bane", "Alex", "steveo"));
+
+        assertEquals(Arrays.asList("bane", "BankruptSky"), directory.complete("BA", null, 50));
+        assertEquals(Arrays.asList("Steve", "steveo"), directory.complete("st", null, 50));
+        assertEquals(Collections.singletonList("steveo"), directory.complete("st", "STEVE", 50));
+        assertEquals(Collections.singletonList("bane"), directory.complete("b", null, 1));
+        assertTrue(directory.complete("zz", null, 50).isEmpty());
+        assertEquals(5, directory.complete("", null, 50).size());
+
+        assertEquals("BankruptSky", directory.find("bankruptsky"));
+        assertNull(directory.find("Herobrine"));
+    }
+
+    @Test
+    public void outOfOrderDeltasAreRejected() {
+        PlayerDirectory directory = new PlayerDirectory();
+        assertFalse(directory.applyDelta(1, names("Alex"), null), "no snapshot yet");
+        assertFalse(directory.hasNetwork());
+
+        directory.applySnapshot(4, names("Alex", "bane"));
+        assertTrue(directory.applyDelta(5, names("Carol"), names("bane")));
+        assertFalse(directory.applyDelta(7, names("Dave"), null));
+        List<String> all = directory.complete("", null, 50);
+        assertEquals(Arrays.asList("Alex", "Carol"), all);
+
+        directory.clearNetwork();
+        assertFalse(directory.hasNetwork());
+        assertEquals(0, directory.size());
+    }
+}
@@ -0,0 +1,110 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.utils.InlineExecutors;
+import com.deyo.rbw.utils.OnlinePlayerIndex;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+public class PresenceServiceTest {
+
+    private MockedStatic<Bukkit> bukkit;
+    private WebSocketManager webSocket;
+    private final List<JsonObject> sent = new ArrayList<>();
+    private final OnlinePlayerIndex index = new OnlinePlayerIndex();
+    private PresenceService presence;
+
+    @BeforeEach
+    public void setUp() {
+        bukkit = mockStatic(Bukkit.class);
+        bukkit.when(Bukkit::getScheduler).thenReturn(mock(BukkitScheduler.class));
+
+        webSocket = mock(WebSocketManager.class);
+        when(webSocket.isConnected()).thenReturn(true);
+        doAnswer(inv -> sent.add(JsonParser.parseString(inv.getArgument(0)).getAsJsonObject()))
+                .when(webSocket).sendMessage(anyString());
+        RankedBedwars plugin = mock(RankedBedwars.class);
+        when(plugin.getWebSocketManager()).thenReturn(webSocket);
+        when(plugin.getPlayerIndex()).thenReturn(index);
+        InlineExecutors.install(plugin);
+        presence = new PresenceService(plugin, 250L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bukkit.close();
+    }
+
+    private static Player player(String name) {
+        Player player = mock(Player.class);
+        when(player.getName()).thenReturn(name);
+        return player;
+    }
+
+    @Test
+    public void joinsAndQuitsAreBatchedIntoVersionedDeltas() {
+        Player alice = player("Alice");
+        Player bob = player("Bob");
+        index.add(alice);
+        presence.sendSnapshot();
+        JsonObject snapshot = sent.remove(0);
+        assertEquals("presence_snapshot", snapshot.get("type").getAsString());
+        assertEquals(1, snapshot.get("version").getAsLong());
+        assertEquals("Alice", snapshot.getAsJsonArray("players").get(0).getAsString());
+
+        for (int i = 0; i < 100; i++) {
+            presence.joined(player("p" + i));
+        }
+        presence.joined(bob);
+        presence.quit(alice);
+        presence.quit(player("p7"));
+        // Joined and quit within one interval: the bot never hears of it
+        presence.joined(player("carol"));
+        presence.quit(player("Carol"));
+        assertTrue(sent.isEmpty(), "nothing is sent before the flush");
+
+        presence.flush();
+        assertEquals(1, sent.size());
+        JsonObject delta = sent.remove(0);
+        assertEquals("presence_delta", delta.get("type").getAsString());
+        assertEquals(2, delta.get("version").getAsLong());
+        assertEquals(100, delta.getAsJsonArray("joined").size());
+        assertEquals("Alice", delta.getAsJsonArray("left").get(0).getAsString());
+        assertEquals(1, delta.getAsJsonArray("left").size());
+        assertEquals(100, delta.get("online").getAsInt());
+
+        presence.flush();
+        assertTrue(sent.isEmpty(), "no changes, no delta");
+    }
+
+    @Test
+    public void changesWaitForTheConnection() {
+        when(webSocket.isConnected()).thenReturn(false);
+        presence.joined(player("alice"));
+        presence.flush();
+        assertTrue(sent.isEmpty());
+
+        when(webSocket.isConnected()).thenReturn(true);
+        presence.flush();
+        assertEquals("alice", sent.get(0).getAsJsonArray("joined").get(0).getAsString());
+        assertEquals(1, sent.get(0).get("version").getAsLong());
+    }
+}
@@ -0,0 +1,157 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.utils.OnlinePlayerIndex;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+public class QueueStatusInboxTest {
+
+    private MockedStatic<Bukkit> bukkit;
+    private RankedBedwars plugin;
+    private final QueueStatusInbox inbox = new QueueStatusInbox();
+
+    @BeforeEach
+    public void setUp() {
+        bukkit = mockStatic(Bukkit.class);
+        BukkitScheduler scheduler = mock(BukkitScheduler.class);
+        bukkit.when(Bukkit::getScheduler).thenReturn(scheduler);
+        when(scheduler.runTaskTimer(any(), any(Runnable.class), anyLong(), anyLong())).thenReturn(mock(BukkitTask.class));
+        plugin = mock(RankedBedwars.class);
+        when(plugin.getPlayerIndex()).thenReturn(new OnlinePlayerIndex());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bukkit.close();
+    }
+
+    private static JsonObject json(String json) {
+        return JsonParser.parseString(json.replace('\'', '"')).getAsJsonObject();
+    }
+
+    private static String queue(int currentPlayers) {
+        return "{'minElo':0,'maxElo':1000,'currentPlayers':" + currentPlayers + ",'maxPlayers':8,'isRanked':true,'isPicking':false}";
+    }
+
+    private static Set<String> names(JsonObject queue, String key) {
+        Set<String> names = new HashSet<>();
+        if (queue.has(key)) {
+            for (JsonElement name : queue.getAsJsonArray(key)) {
+                names.add(name.getAsString());
+            }
+        }
+        return names;
+    }
+
+    @Test
+    public void burstOfDeltasIsAppliedOnceWithTheSameResult() {
+        StringBuilder status = new StringBuilder("{'version':1,'queues':{");
+        for (int q = 0; q < 50; q++) {
+            status.append(q == 0 ? "" : ",").append('\'').append(q).append("':").append(queue(0));
+        }
+        status.append("}}");
+        QueueView direct = new QueueView(plugin, 2000L, (player, message) -> { });
+        QueueView coalesced = new QueueView(plugin, 2000L, (player, message) -> { });
+        assertEquals(QueueStatusInbox.Offer.SCHEDULE, inbox.offer(json(status.toString()), true));
+        direct.apply(json(status.toString()), true);
+        QueueStatusInbox.Batch first = inbox.take();
+        assertTrue(coalesced.apply(first.message, first.full, first.since, 0L));
+
+        // 10k messages between two ticks, as from 50 busy arenas
+        Random random = new Random(41);
+        Map<String, Set<String>> players = new HashMap<>();
+        for (int version = 2; version < 10_002; version++) {
+            String queueId = Integer.toString(random.nextInt(50));
+            String player = "p" + random.nextInt(20);
+            Set<String> expected = players.computeIfAbsent(queueId, id -> new HashSet<>());
+            JsonObject update = new JsonObject();
+            JsonArray names = new JsonArray();
+            names.add(player);
+            if (random.nextBoolean()) {
+                update.add("joined", names);
+                expected.add(player);
+            } else {
+                update.add("left", names);
+                expected.remove(player);
+            }
+            update.addProperty("currentPlayers", random.nextInt(8));
+            JsonObject delta = new JsonObject();
+            delta.addProperty("version", version);
+            JsonObject queues = new JsonObject();
+            queues.add(queueId, update);
+            delta.add("queues", queues);
+
+            assertTrue(direct.apply(delta.deepCopy(), false));
+            QueueStatusInbox.Offer offer = inbox.offer(delta, false);
+            assertEquals(version == 2 ? QueueStatusInbox.Offer.SCHEDULE : QueueStatusInbox.Offer.NONE, offer);
+        }
+
+        QueueStatusInbox.Batch batch = inbox.take();
+        assertFalse(batch.full);
+        assertEquals(1, batch.since);
+        assertTrue(coalesced.apply(batch.message, false, batch.since, 0L));
+        assertEquals(direct.getQueues(), coalesced.getQueues());
+        JsonObject merged = batch.message.getAsJsonObject("queues");
+        players.forEach((queueId, expected) ->
+                assertEquals(expected, names(merged.getAsJsonObject(queueId), "joined"), "players of queue " + queueId));
+        assertNull(inbox.take());
+    }
+
+    @Test
+    public void deltasAreFoldedIntoAPendingQueuestatus() {
+        inbox.offer(json("{'version':1,'queues':{'1':" + queue(1).replace("{", "{'players':['alice'],")
+                + ",'2':" + queue(0) + "}}"), true);
+        inbox.offer(json("{'version':2,'queues':{'1':{'joined':['bob'],'currentPlayers':2}}}"), false);
+        inbox.offer(json("{'version':3,'removed':['2'],'queues':{'3':" + queue(0) + "}}"), false);
+
+        QueueStatusInbox.Batch batch = inbox.take();
+        assertTrue(batch.full);
+        assertEquals(3, batch.message.get("version").getAsLong());
+        JsonObject queues = batch.message.getAsJsonObject("queues");
+        assertEquals(Set.of("1", "3"), queues.keySet());
+        assertEquals(Set.of("alice", "bob"), names(queues.getAsJsonObject("1"), "players"));
+        assertEquals(2, queues.getAsJsonObject("1").get("currentPlayers").getAsInt());
+        assertFalse(batch.message.has("removed"));
+    }
+
+    @Test
+    public void gapAsksForOneQueuestatusUntilItArrives() {
+        assertEquals(QueueStatusInbox.Offer.SCHEDULE, inbox.offer(json("{'version':1,'queues':{}}"), true));
+        assertEquals(QueueStatusInbox.Offer.REQUEST, inbox.offer(json("{'version':3,'queues':{}}"), false));
+        assertEquals(QueueStatusInbox.Offer.NONE, inbox.offer(json("{'version':4,'queues':{}}"), false));
+        assertEquals(QueueStatusInbox.Offer.NONE, inbox.offer(json("{'version':5,'queues':{}}"), false));
+        assertFalse(inbox.gap(), "already asked");
+        assertEquals(1, inbox.take().message.get("version").getAsLong());
+
+        assertEquals(QueueStatusInbox.Offer.SCHEDULE, inbox.offer(json("{'version':10,'queues':{}}"), true));
+        assertEquals(QueueStatusInbox.Offer.NONE, inbox.offer(json("{'version':11,'queues':{}}"), false));
+        assertEquals(QueueStatusInbox.Offer.REQUEST, inbox.offer(json("{'version':13,'queues':{}}"), false));
+        assertEquals(11, inbox.take().message.get("version").getAsLong());
+    }
+}
@@ -0,0 +1,151 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.utils.OnlinePlayerIndex;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class QueueViewTest {
+
+    private MockedStatic<Bukkit> bukkit;
+    private final BukkitScheduler scheduler = mock(BukkitScheduler.class);
+    private final BukkitTask task = mock(BukkitTask.class);
+    private final List<String> sent = new ArrayList<>();
+    private QueueView view;
+
+    @BeforeEach
+    public void setUp() {
+        bukkit = mockStatic(Bukkit.class);
+        bukkit.when(Bukkit::getScheduler).thenReturn(scheduler);
+        when(scheduler.runTaskTimer(any(), any(Runnable.class), anyLong(), anyLong())).thenReturn(task);
+        OnlinePlayerIndex index = new OnlinePlayerIndex();
+        for (String name : new String[] {"alice", "bob", "carol"}) {
+            Player player = mock(Player.class);
+            when(player.getName()).thenReturn(name);
+            when(player.isOnline()).thenReturn(true);
+            index.add(player);
+        }
+        RankedBedwars plugin = mock(RankedBedwars.class);
+        when(plugin.getPlayerIndex()).thenReturn(index);
+        // Records "name:current/max" per action bar
+        view = new QueueView(plugin, 2000L,
+                (player, message) -> sent.add(player.getName() + ":" + message.replaceAll(".*\u00a7f(\\S+) .*", "$1")));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bukkit.close();
+    }
+
+    private static JsonObject json(String json) {
+        return JsonParser.parseString(json.replace('\'', '"')).getAsJsonObject();
+    }
+
+    private List<String> drain() {
+        List<String> drained = new ArrayList<>(sent);
+        sent.clear();
+        return drained;
+    }
+
+    @Test
+    public void onlyChangedQueuesAreSent() {
+        String status = "{'version':1,'queues':{'1':{'players':['alice','bob'],'minElo':0,'maxElo':1000,"
+                + "'currentPlayers':2,'maxPlayers':8,'isRanked':true,'isPicking':false}}}";
+        view.apply(json(status), true);
+        assertEquals(List.of("alice:2/8", "bob:2/8"), drain());
+
+        view.apply(json(status), true);
+        assertTrue(drain().isEmpty(), "an unchanged queuestatus sends nothing");
+
+        view.apply(json("{'version':2,'queues':{'1':{'joined':['carol'],'currentPlayers':3}}}"), false);
+        assertEquals(List.of("alice:3/8", "bob:3/8", "carol:3/8"), drain());
+
+        view.apply(json("{'version':3,'queues':{'1':{'left':['bob'],'currentPlayers':2}}}"), false);
+        assertEquals(List.of("alice:2/8", "carol:2/8"), drain());
+        assertEquals(2, view.getQueues().getAsJsonObject("1").get("currentPlayers").getAsInt());
+
+        view.apply(json("{'version':4,'removed':['1']}"), false);
+        assertEquals(0, view.getQueues().size());
+        view.refresh(System.currentTimeMillis() + 60_000L);
+        assertTrue(drain().isEmpty(), "players of a removed queue are not refreshed");
+    }
+
+    @Test
+    public void unchangedActionBarsAreRefreshedBeforeTheyFade() {
+        view.apply(json("{'version':7,'queues':{'1':{'players':['alice'],'minElo':0,'maxElo':1000,"
+                + "'currentPlayers':1,'maxPlayers':8,'isRanked':true,'isPicking':false},"
+                + "'2':{'players':['bob'],'minElo':0,'maxElo':1000,"
+                + "'currentPlayers':1,'maxPlayers':2,'isRanked':false,'isPicking':false}}}"), true, 0L);
+        drain();
+
+        view.refresh(500L);
+        assertTrue(drain().isEmpty());
+        view.apply(json("{'version':8,'queues':{'2':{'joined':['carol'],'currentPlayers':2}}}"), false, 500L);
+        assertEquals(List.of("bob:2/2", "carol:2/2"), drain());
+
+        // Only alice's action bar is old enough
+        view.refresh(2000L);
+        assertEquals(List.of("alice:1/8"), drain());
+
+        // A delta for a queue the view has never seen in full is ignored
+        view.apply(json("{'version':9,'queues':{'3':{'joined':['alice']}}}"), false, 2000L);
+        assertTrue(drain().isEmpty());
+    }
+
+    @Test
+    public void deltaThatDoesNotFollowIsRejected() {
+        String status = "{'version':5,'queues':{'1':{'players':['alice'],'minElo':0,'maxElo':1000,"
+                + "'currentPlayers':1,'maxPlayers':8,'isRanked':true,'isPicking':false}}}";
+        assertFalse(view.apply(json("{'version':1,'queues':{'1':{'joined':['bob']}}}"), false),
+                "no delta fits before the first queuestatus");
+        assertTrue(view.apply(json(status), true));
+        drain();
+
+        assertFalse(view.apply(json("{'version':7,'queues':{'1':{'joined':['bob'],'currentPlayers':2}}}"), false));
+        assertTrue(drain().isEmpty(), "a delta after a gap changes nothing");
+        assertEquals(1, view.getQueues().getAsJsonObject("1").get("currentPlayers").getAsInt());
+
+        assertTrue(view.apply(json("{'version':6,'queues':{'1':{'joined':['bob'],'currentPlayers':2}}}"), false));
+        assertEquals(List.of("alice:2/8", "bob:2/8"), drain());
+
+        view.clear();
+        assertFalse(view.apply(json("{'version':7,'queues':{}}"), false), "versions start over after a disconnect");
+    }
+
+    @Test
+    public void refreshTaskOnlyRunsWhileSomeoneIsShown() {
+        view.apply(json("{'version':1,'queues':{'1':{'players':['alice'],'minElo':0,'maxElo':1000,"
+                + "'currentPlayers':1,'maxPlayers':8,'isRanked':true,'isPicking':false}}}"), true, 0L);
+        verify(scheduler).runTaskTimer(any(), any(Runnable.class), anyLong(), anyLong());
+
+        view.apply(json("{'version':2,'queues':{'1':{'left':['alice'],'currentPlayers':0}}}"), false, 100L);
+        verify(task).cancel();
+
+        view.apply(json("{'version':3,'queues':{'1':{'joined':['bob'],'currentPlayers':1}}}"), false, 200L);
+        verify(scheduler, times(2)).runTaskTimer(any(), any(Runnable.class), anyLong(), anyLong());
+        view.shutdown();
+        verify(task, times(2)).cancel();
+    }
+}
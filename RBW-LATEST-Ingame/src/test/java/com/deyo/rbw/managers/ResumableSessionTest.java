@@ -0,0 +1,137 @@
+package com.deyo.rbw.managers;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.java_websocket.enums.Opcode;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResumableSessionTest {
+
+    private static ResumableSession readySession() {
+        ResumableSession session = new ResumableSession(100, 1_000_000);
+        session.setReady(true);
+        return session;
+    }
+
+    @Test
+    public void nothingIsReleasedBeforeAuth() {
+        ResumableSession session = new ResumableSession(100, 1_000_000);
+        session.record(Opcode.TEXT, "{\"type\":\"warp_success\"}", null, null);
+        assertNull(session.pollUnsent());
+        session.setReady(true);
+        assertEquals(1, session.pollUnsent().seq);
+    }
+
+    @Test
+    public void resumeReplaysEverythingAfterTheBotsAck() {
+        ResumableSession session = readySession();
+        for (int i = 0; i < 5; i++) {
+            session.record(Opcode.TEXT, "{\"type\":\"m" + i + "\"}", null, null);
+            session.pollUnsent();
+        }
+        session.acknowledge(2);
+        assertEquals(3, session.getBufferedCount());
+
+        // Connection drops, bot resumes having seen up to seq 3
+        session.setReady(false);
+        session.record(Opcode.TEXT, "{\"type\":\"during_gap\"}", null, null);
+        assertTrue(session.resume(3));
+        session.setReady(true);
+
+        assertEquals(4, session.pollUnsent().seq);
+        assertEquals(5, session.pollUnsent().seq);
+        ResumableSession.Outbound gap = session.pollUnsent();
+        assertEquals(6, gap.seq);
+        assertEquals("{\"type\":\"during_gap\"}", gap.text);
+        assertNull(session.pollUnsent());
+    }
+
+    @Test
+    public void restartKeepsOnlyMessagesThatNeverReachedTheWire() {
+        ResumableSession session = readySession();
+        session.record(Opcode.TEXT, "{\"type\":\"sent\"}", null, null);
+        session.record(Opcode.TEXT, "{\"type\":\"scoring\",\"gameid\":\"9\"}", null, null);
+        session.pollUnsent();
+        session.pollUnsent();
+        session.setReady(false);
+        session.record(Opcode.TEXT, "{\"type\":\"unsent\"}", null, null);
+
+        List<ResumableSession.Outbound> dropped = session.restart("new-session");
+        assertEquals(2, dropped.size());
+        assertEquals("{\"type\":\"sent\"}", dropped.get(0).text);
+        assertTrue(CriticalOutbox.isCritical(dropped.get(1)), "the caller sends the dropped scoring again");
+        session.setReady(true);
+        ResumableSession.Outbound carried = session.pollUnsent();
+        assertEquals(1, carried.seq);
+        assertEquals("{\"type\":\"unsent\"}", carried.text);
+        assertEquals("new-session", session.getSessionId());
+    }
+
+    @Test
+    public void resumeFailsOnceUnackedMessagesWereEvicted() {
+        ResumableSession session = new ResumableSession(2, 1_000_000);
+        session.setReady(true);
+        for (int i = 0; i < 4; i++) {
+            session.record(Opcode.TEXT, "{\"type\":\"m\"}", null, null);
+            session.pollUnsent();
+        }
+        assertEquals(2, session.trim());
+        assertFalse(session.resume(1));
+        assertTrue(session.resume(2));
+    }
+
+    @Test
+    public void replayedInboundMessagesAreSkipped() {
+        ResumableSession session = readySession();
+        assertTrue(session.accept(1));
+        assertTrue(session.accept(2));
+        assertFalse(session.accept(2));
+        assertTrue(session.needsAck());
+        assertEquals(2, session.takeAck());
+        assertFalse(session.needsAck());
+    }
+
+    @Test
+    public void envelopeAddsSeqAndAckToJsonAndCbor() {
+        JsonObject text = JsonParser.parseString(ResumableSession.envelope("{\"type\":\"pong\"}", 7, 3)).getAsJsonObject();
+        assertEquals(7, text.get("seq").getAsLong());
+        assertEquals(3, text.get("ack").getAsLong());
+        assertEquals("pong", text.get("type").getAsString());
+        assertEquals("{\"seq\":1,\"ack\":0}", ResumableSession.envelope("{}", 1, 0));
+
+        byte[] json = ResumableSession.envelope(Opcode.TEXT, "{\"a\":1}".getBytes(StandardCharsets.UTF_8), 2, 1);
+        assertEquals("{\"seq\":2,\"ack\":1,\"a\":1}", new String(json, StandardCharsets.UTF_8));
+
+        // CBOR {_ "a": 1} becomes {_ "seq": 2, "ack": 1, "a": 1}
+        byte[] cbor = ResumableSession.envelope(Opcode.BINARY, new byte[]{(byte) 0xBF, 0x61, 'a', 0x01, (byte) 0xFF}, 2, 1);
+        assertArrayEquals(new byte[]{(byte) 0xBF, 0x63, 's', 'e', 'q', 0x02, 0x63, 'a', 'c', 'k', 0x01, 0x61, 'a', 0x01, (byte) 0xFF}, cbor);
+    }
+
+    @Test
+    public void peekLongOnlyReadsTheEnvelopePrefix() {
+        assertEquals(42, ResumableSession.peekLong("{\"seq\":42,\"ack\":7,\"type\":\"ping\"}", "seq"));
+        assertEquals(7, ResumableSession.peekLong("{\"seq\":42,\"ack\":7,\"type\":\"ping\"}", "ack"));
+        assertEquals(42, ResumableSession.peekLong("{\"seq\":42,\"type\":\"ping\"}", "seq"));
+        assertEquals(-1, ResumableSession.peekLong("{\"seq\":42,\"type\":\"ping\"}", "ack"));
+        assertEquals(-1, ResumableSession.peekLong("{\"type\":\"ping\"}", "seq"));
+        // A nested or later field of the same name is not the envelope
+        assertEquals(-1, ResumableSession.peekLong("{\"type\":\"game\",\"data\":{\"seq\":3,\"ack\":2}}", "seq"));
+        assertEquals(-1, ResumableSession.peekLong("{\"type\":\"game\",\"seq\":3}", "seq"));
+        assertEquals(-1, ResumableSession.peekLong("{\"seq\":\"x\",\"ack\":2}", "ack"));
+    }
+
+    @Test
+    public void bufferSizeCountsUtf8Bytes() {
+        assertEquals(3, new ResumableSession.Outbound(Opcode.TEXT, "abc", null, null).size());
+        assertEquals(6, new ResumableSession.Outbound(Opcode.TEXT, "\u00a76a\u00a7", null, null).size(), "\u00a7 is two bytes");
+    }
+}
@@ -0,0 +1,74 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.models.Game;
+import com.deyo.rbw.utils.PooledUtf8Writer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ScoringEncoderTest {
+
+    private Game finishedGame() {
+        Game game = new Game("77", "Lighthouse", true,
+                new ArrayList<>(Arrays.asList("Red_1", "Red_2")), new ArrayList<>(Arrays.asList("Blue_1", "Blue_2")),
+                new ArrayList<>(Arrays.asList("Red_1")), new ArrayList<>(Arrays.asList("Blue_2")),
+                1000L, 600, "01/01/2026");
+        for (String player : Arrays.asList("Red_1", "Red_2", "Blue_1", "Blue_2")) {
+            game.getPlayerKills().put(player, player.length());
+            game.getPlayerDeaths().put(player, 2);
+            game.getPlayerTeamWon().put(player, player.startsWith("Red"));
+        }
+        game.getPlayerIronCollected().put("Red_1", 128);
+        for (int i = 0; i < 500; i++) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("type", i % 2 == 0 ? "kill" : "resource_pickup");
+            event.put("player", "Red_1");
+            event.put("target", i % 2 == 0 ? "Blue_1 \"quoted\" \u00e9\u4e2d\ud83d\ude00" : null);
+            event.put("amount", i % 2 == 0 ? null : 64);
+            event.put("team", null);
+            event.put("timestamp", (long) i * 50);
+            game.getTimeline().add(event);
+        }
+        return game;
+    }
+
+    @Test
+    public void streamedPayloadMatchesTreeSerialization() throws Exception {
+        Game game = finishedGame();
+        String expected = WebSocketManager.buildScoringJson(game).toString();
+
+        try (PooledUtf8Writer writer = PooledUtf8Writer.acquire()) {
+            ScoringEncoder.write(game, writer);
+            ByteBuffer buffer = writer.toByteBuffer();
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+
+            assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), bytes);
+            assertEquals(bytes.length, writer.size());
+        }
+    }
+
+    @Test
+    public void fragmentsNeverSplitMultiByteCharacters() {
+        byte[] bytes = "ab\u00e9\u4e2d\ud83d\ude00cd\u00e9\u00e9\u00e9".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        StringBuilder reassembled = new StringBuilder();
+        while (buffer.hasRemaining()) {
+            int start = buffer.position();
+            int end = WebSocketManager.fragmentEnd(buffer, 4);
+            assertTrue(end > start, "fragment must make progress");
+            reassembled.append(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+            buffer.position(end);
+        }
+        assertEquals(new String(bytes, StandardCharsets.UTF_8), reassembled.toString());
+    }
+}
@@ -0,0 +1,124 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.utils.InlineExecutors;
+import com.google.gson.JsonObject;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+public class WarpPipelineTest {
+
+    private MockedStatic<Bukkit> bukkit;
+    private WarpPipeline pipeline;
+    private World world;
+    private final Set<Long> loadedChunks = new HashSet<>();
+    private int chunksLoadedThisTick;
+    private int teleportsThisTick;
+    private final List<String> completed = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        RankedBedwars plugin = mock(RankedBedwars.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("RBW-Test"));
+        InlineExecutors.install(plugin);
+        bukkit = mockStatic(Bukkit.class);
+        bukkit.when(Bukkit::getScheduler).thenReturn(mock(BukkitScheduler.class));
+
+        world = mock(World.class);
+        when(world.isChunkLoaded(anyInt(), anyInt()))
+                .thenAnswer(inv -> loadedChunks.contains(key(inv.getArgument(0), inv.getArgument(1))));
+        doAnswer(inv -> {
+            loadedChunks.add(key(inv.getArgument(0), inv.getArgument(1)));
+            chunksLoadedThisTick++;
+            return null;
+        }).when(world).loadChunk(anyInt(), anyInt());
+
+        pipeline = new WarpPipeline(plugin, 2, 4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bukkit.close();
+    }
+
+    private static long key(int x, int z) {
+        return ((long) x << 32) | (z & 0xffffffffL);
+    }
+
+    private void submit(String gameId, int firstChunk) {
+        pipeline.received(gameId);
+        pipeline.validated(gameId);
+        List<Location> spawns = Arrays.asList(
+                new Location(world, firstChunk * 16, 64, 0),
+                new Location(world, firstChunk * 16 + 5, 64, 3),   // same chunk as the first
+                new Location(world, (firstChunk + 1) * 16, 64, 0),
+                new Location(world, (firstChunk + 2) * 16, 64, 0),
+                null);
+        List<Runnable> teleports = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            teleports.add(() -> teleportsThisTick++);
+        }
+        pipeline.submit(gameId, spawns, teleports, () -> completed.add(gameId));
+    }
+
+    @Test
+    public void spreadsChunkLoadsAndTeleportsAcrossTicks() {
+        submit("g1", 0);
+        submit("g2", 10);
+        // Already loaded chunks are free
+        loadedChunks.add(key(12, 0));
+
+        int ticks = 0;
+        while (pipeline.getPending() > 0) {
+            chunksLoadedThisTick = 0;
+            teleportsThisTick = 0;
+            pipeline.tick();
+            ticks++;
+            assertTrue(chunksLoadedThisTick <= 2, "too many chunk loads in one tick: " + chunksLoadedThisTick);
+            assertTrue(teleportsThisTick <= 4, "too many teleports in one tick: " + teleportsThisTick);
+            assertTrue(ticks < 20, "pipeline did not drain");
+        }
+
+        assertEquals(Arrays.asList("g1", "g2"), completed);
+        assertEquals(6, loadedChunks.size());
+        // 16 teleports at 4 per tick, the first ones after g1's chunks are loaded on tick 2
+        assertEquals(5, ticks);
+    }
+
+    @Test
+    public void reportsStageTimingsOnce() {
+        submit("g1", 0);
+        while (pipeline.getPending() > 0) {
+            pipeline.tick();
+        }
+        JsonObject timings = pipeline.takeTimings("g1");
+        assertNotNull(timings);
+        for (String stage : Arrays.asList("validate_ms", "queue_ms", "preload_ms", "teleport_ms", "total_ms")) {
+            assertTrue(timings.has(stage), "missing " + stage);
+        }
+        assertNull(pipeline.takeTimings("g1"));
+    }
+}
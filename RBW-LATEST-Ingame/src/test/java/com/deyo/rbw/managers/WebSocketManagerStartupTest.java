@@ -0,0 +1,73 @@
+package com.deyo.rbw.managers;
+
+import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.utils.InlineExecutors;
+import com.deyo.rbw.utils.StartupOrchestrator;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WebSocketManagerStartupTest {
+
+    private MockedStatic<Bukkit> bukkit;
+    private RankedBedwars plugin;
+
+    @BeforeEach
+    public void setUp() {
+        BukkitScheduler scheduler = mock(BukkitScheduler.class);
+        when(scheduler.runTask(any(Plugin.class), any(Runnable.class))).thenAnswer(inv -> {
+            inv.<Runnable>getArgument(1).run();
+            return null;
+        });
+        bukkit = mockStatic(Bukkit.class);
+        bukkit.when(Bukkit::getScheduler).thenReturn(scheduler);
+        plugin = mock(RankedBedwars.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("RBW-Test"));
+        InlineExecutors.install(plugin);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bukkit.close();
+    }
+
+    @Test
+    public void warpHeldDuringAFailedStartupIsAnswered() {
+        CompletableFuture<Void> arenas = new CompletableFuture<>();
+        StartupOrchestrator startup = new StartupOrchestrator(plugin)
+                .awaitStage("arenas", true, () -> arenas);
+        when(plugin.getStartup()).thenReturn(startup);
+        WebSocketManager manager = spy(new WebSocketManager(plugin));
+        startup.start().whenComplete((ignored, failed) -> manager.onStartupFinished(failed == null));
+
+        manager.handleWarpPlayersAsync(JsonParser.parseString("{\"type\":\"warp_players\",\"game_id\":\"5\","
+                + "\"map\":\"katsu\",\"is_ranked\":true,\"team1\":{},\"team2\":{}}").getAsJsonObject());
+        verify(manager, never()).sendMessage(anyString());
+
+        arenas.completeExceptionally(new IllegalStateException("no BedWars plugin"));
+        verify(manager).sendMessage(argThat(message -> {
+            JsonObject reply = JsonParser.parseString(message).getAsJsonObject();
+            return "warp_failed_arena_not_found".equals(reply.get("type").getAsString())
+                    && "5".equals(reply.get("game_id").getAsString());
+        }));
+    }
+}
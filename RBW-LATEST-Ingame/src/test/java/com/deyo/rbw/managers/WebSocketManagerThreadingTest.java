@@ -1,6 +1,7 @@
 package com.deyo.rbw.managers;
 
 import com.deyo.rbw.RankedBedwars;
+import com.deyo.rbw.utils.InlineExecutors;
 import com.google.gson.JsonObject;
 import org.bukkit.Bukkit;
 import org.bukkit.Server;
@@ -41,6 +42,7 @@ public class WebSocketManagerThreadingTest {
     public void setUp() {
         plugin = mock(RankedBedwars.class);
         when(plugin.getLogger()).thenReturn(Logger.getLogger("RBW-Test"));
+        InlineExecutors.install(plugin);
 
         Server server = mock(Server.class);
         when(plugin.getServer()).thenReturn(server);
@@ -0,0 +1,46 @@
+package com.deyo.rbw.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class CborWriterTest {
+
+    private static byte[] bytes(int... values) {
+        byte[] out = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            out[i] = (byte) values[i];
+        }
+        return out;
+    }
+
+    @Test
+    public void encodesJsonTreeAsCbor() {
+        JsonObject json = new JsonObject();
+        json.addProperty("a", 1);
+        json.addProperty("b", -500);
+        json.addProperty("c", true);
+        json.add("d", com.google.gson.JsonNull.INSTANCE);
+        JsonArray array = new JsonArray();
+        array.add("x");
+        array.add(1.5);
+        json.add("e", array);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new Gson().toJson(json, new CborWriter(out));
+
+        assertArrayEquals(bytes(
+                0xBF,
+                0x61, 'a', 0x01,
+                0x61, 'b', 0x39, 0x01, 0xF3,
+                0x61, 'c', 0xF5,
+                0x61, 'd', 0xF6,
+                0x61, 'e', 0x9F, 0x61, 'x', 0xFB, 0x3F, 0xF8, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0xFF,
+                0xFF), out.toByteArray());
+    }
+}
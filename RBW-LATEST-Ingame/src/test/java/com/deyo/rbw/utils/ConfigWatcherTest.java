@@ -0,0 +1,64 @@
+package com.deyo.rbw.utils;
+
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ConfigWatcherTest {
+
+    @TempDir
+    File folder;
+
+    private ConfigWatcher watcher;
+    private final BlockingQueue<String> applied = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    public void setUp() {
+        Plugin plugin = mock(Plugin.class);
+        when(plugin.getDataFolder()).thenReturn(folder);
+        when(plugin.isEnabled()).thenReturn(true);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("ConfigWatcherTest"));
+        // Handlers run on the watcher thread here instead of the main thread
+        watcher = new ConfigWatcher(plugin, 100L, Runnable::run)
+                .watch("config.yml", () -> applied.add("config.yml"))
+                .watch("permission.yml", () -> applied.add("permission.yml"));
+        watcher.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        watcher.stop();
+    }
+
+    private void write(String fileName, String content) throws IOException {
+        Files.write(new File(folder, fileName).toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void appliesEachSavedFileOnce() throws Exception {
+        write("config.yml", "debug: true\n");
+        write("config.yml", "debug: false\n");
+        write("notes.txt", "not watched");
+        assertEquals("config.yml", applied.poll(10, TimeUnit.SECONDS));
+        assertNull(applied.poll(500, TimeUnit.MILLISECONDS), "two quick saves are applied once");
+
+        write("permission.yml", "ban: [\"123\"]\n");
+        assertEquals("permission.yml", applied.poll(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,87 @@
+package com.deyo.rbw.utils;
+
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
+import org.java_websocket.framing.ContinuousFrame;
+import org.java_websocket.framing.DataFrame;
+import org.java_websocket.framing.TextFrame;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DeflateExtensionTest {
+
+    private static String repetitiveJson() {
+        StringBuilder json = new StringBuilder("{\"type\":\"maps_info\",\"all\":[");
+        for (int i = 0; i < 200; i++) {
+            json.append("{\"name\":\"Arena").append(i).append("\",\"maxplayers\":8,\"status\":\"reserved\"},");
+        }
+        return json.append("{}]}").toString();
+    }
+
+    /**
+     * Copies the frame as it would arrive on the wire: exact-size payload, same flags.
+     */
+    private static DataFrame wire(DataFrame sent, DataFrame received) {
+        ByteBuffer payload = sent.getPayloadData();
+        byte[] bytes = new byte[payload.remaining()];
+        payload.duplicate().get(bytes);
+        received.setPayload(ByteBuffer.wrap(bytes));
+        received.setFin(sent.isFin());
+        received.setRSV1(sent.isRSV1());
+        return received;
+    }
+
+    @Test
+    public void compressedMessageInflatesWithStockDecoder() throws Exception {
+        byte[] original = repetitiveJson().getBytes(StandardCharsets.UTF_8);
+        // Pooled buffers are larger than the payload; only the remaining bytes may be compressed
+        ByteBuffer pooled = ByteBuffer.allocate(original.length + 100);
+        pooled.put(original).flip();
+
+        TextFrame frame = new TextFrame();
+        frame.setPayload(pooled);
+        frame.setFin(true);
+        new DeflateExtension(1024, 6).encodeFrame(frame);
+
+        assertTrue(frame.isRSV1());
+        assertTrue(frame.getPayloadData().remaining() < original.length / 4);
+
+        DataFrame received = wire(frame, new TextFrame());
+        new PerMessageDeflateExtension().decodeFrame(received);
+        assertEquals(new String(original, StandardCharsets.UTF_8),
+                new String(received.getPayloadData().array(), 0, received.getPayloadData().remaining(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void thresholdIsAppliedPerMessageNotPerFragment() {
+        DeflateExtension extension = new DeflateExtension(1024, 6);
+        byte[] payload = repetitiveJson().getBytes(StandardCharsets.UTF_8);
+
+        TextFrame first = new TextFrame();
+        first.setPayload(ByteBuffer.wrap(payload, 0, 2048).slice());
+        first.setFin(false);
+        extension.encodeFrame(first);
+
+        // Last fragment is below the threshold but belongs to a compressed message
+        ContinuousFrame last = new ContinuousFrame();
+        last.setPayload(ByteBuffer.wrap(payload, 2048, 100).slice());
+        last.setFin(true);
+        int before = last.getPayloadData().remaining();
+        extension.encodeFrame(last);
+
+        assertTrue(first.isRSV1());
+        assertFalse(last.isRSV1());
+        assertTrue(last.getPayloadData().remaining() != before, "continuation of a compressed message must be compressed");
+
+        TextFrame small = new TextFrame();
+        small.setPayload(ByteBuffer.wrap("{\"type\":\"pong\"}".getBytes(StandardCharsets.UTF_8)));
+        small.setFin(true);
+        extension.encodeFrame(small);
+        assertFalse(small.isRSV1());
+    }
+}
@@ -0,0 +1,43 @@
+package com.deyo.rbw.utils;
+
+import com.deyo.rbw.RankedBedwars;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.logging.Logger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A {@link PluginExecutors} for unit tests: every lane runs its task on the
+ * submitting thread, and timers are never started.
+ */
+public final class InlineExecutors {
+
+    private InlineExecutors() {
+    }
+
+    /** Stubs plugin.getExecutors() with inline lanes. */
+    public static PluginExecutors install(RankedBedwars plugin) {
+        PluginExecutors executors = create();
+        when(plugin.getExecutors()).thenReturn(executors);
+        return executors;
+    }
+
+    public static PluginExecutors create() {
+        PluginExecutors executors = mock(PluginExecutors.class);
+        when(executors.lane(any())).thenReturn(Runnable::run);
+        doAnswer(inv -> {
+            inv.<Runnable>getArgument(1).run();
+            return null;
+        }).when(executors).execute(any(), any());
+        when(executors.serial(any())).thenAnswer(inv -> new SerialExecutor(Logger.getLogger("RBW-Test"), Runnable::run));
+        when(executors.schedule(any(), any(), anyLong())).thenAnswer(inv -> mock(ScheduledFuture.class));
+        when(executors.scheduleAtFixedRate(any(), any(), anyLong(), anyLong())).thenAnswer(inv -> mock(ScheduledFuture.class));
+        when(executors.scheduleAtFixedRate(any(), anyLong(), anyLong())).thenAnswer(inv -> mock(ScheduledFuture.class));
+        return executors;
+    }
+}
@@ -0,0 +1,61 @@
+package com.deyo.rbw.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IoExecutorTest {
+
+    private static final Logger LOGGER = Logger.getLogger("IoExecutorTest");
+
+    @Test
+    public void fullPlatformQueueRunsOnTheCaller() throws Exception {
+        IoExecutor io = new IoExecutor(LOGGER, IoExecutor.Mode.PLATFORM, 1, 1);
+        assertEquals("platform", io.getMode());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        io.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        started.await(5, TimeUnit.SECONDS);
+        io.execute(() -> { });
+        Thread caller = Thread.currentThread();
+        Thread[] ranOn = new Thread[1];
+        io.execute(() -> ranOn[0] = Thread.currentThread());
+        assertEquals(caller, ranOn[0], "queue of one is full, so the caller runs it");
+        assertEquals(1, io.getCallerRuns());
+        assertEquals(1, io.getQueued());
+
+        io.execute(() -> {
+            throw new IllegalStateException("boom");
+        });
+        release.countDown();
+        assertTrue(io.shutdown(5000L));
+        assertEquals(4, io.getSubmitted());
+        assertEquals(3, io.getCompleted());
+        assertEquals(1, io.getFailed());
+        assertEquals(0, io.getActive());
+    }
+
+    @Test
+    public void virtualModeFallsBackWhereThereAreNoVirtualThreads() throws Exception {
+        IoExecutor io = new IoExecutor(LOGGER, IoExecutor.Mode.VIRTUAL, 2, 16);
+        assertEquals(Runtime.version().feature() >= 21 ? "virtual" : "platform", io.getMode());
+        CountDownLatch done = new CountDownLatch(1);
+        io.execute(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(io.shutdown(5000L));
+        assertEquals(IoExecutor.Mode.AUTO, IoExecutor.parseMode("nonsense"));
+        assertEquals(IoExecutor.Mode.PLATFORM, IoExecutor.parseMode(" Platform "));
+    }
+}
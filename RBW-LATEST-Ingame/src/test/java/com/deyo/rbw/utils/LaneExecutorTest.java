@@ -0,0 +1,67 @@
+package com.deyo.rbw.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LaneExecutorTest {
+
+    private static final Logger LOGGER = Logger.getLogger("LaneExecutorTest");
+
+    @Test
+    public void fullQueueFollowsTheLaneRejectionPolicy() throws Exception {
+        LaneExecutor lane = new LaneExecutor(LOGGER, "test", 1, 1, LaneExecutor.Rejection.DISCARD_OLDEST);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        lane.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        List<String> ran = new ArrayList<>();
+        lane.execute(() -> ran.add("oldest"));
+        lane.execute(() -> ran.add("newest"));
+        assertEquals(1, lane.getQueued());
+        assertEquals(1, lane.getRejected());
+
+        release.countDown();
+        assertTrue(lane.shutdown(5000L));
+        assertEquals(List.of("newest"), ran, "the queued task made room for the new one");
+        assertEquals(2, lane.getCompleted());
+        assertEquals(LaneExecutor.Rejection.CALLER_RUNS, LaneExecutor.Rejection.parse("Caller-Runs", LaneExecutor.Rejection.DISCARD));
+        assertEquals(LaneExecutor.Rejection.DISCARD, LaneExecutor.Rejection.parse("nonsense", LaneExecutor.Rejection.DISCARD));
+    }
+
+    @Test
+    public void serialTasksRunInOrderOnAPool() throws Exception {
+        LaneExecutor lane = new LaneExecutor(LOGGER, "test", 4, 100, LaneExecutor.Rejection.CALLER_RUNS);
+        SerialExecutor serial = new SerialExecutor(LOGGER, lane);
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int value = i;
+            serial.execute(() -> order.add(value));
+        }
+        serial.execute(() -> {
+            throw new IllegalStateException("boom");
+        });
+        serial.execute(() -> order.add(200));
+        assertTrue(serial.awaitIdle(5000L));
+        assertEquals(201, order.size());
+        for (int i = 0; i <= 200; i++) {
+            assertEquals(i, order.get(i), "task " + i + " ran out of order");
+        }
+        assertEquals(0, serial.getQueued());
+        assertTrue(lane.shutdown(5000L));
+    }
+}
@@ -0,0 +1,38 @@
+package com.deyo.rbw.utils;
+
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NmsAdapterTest {
+
+    /** Paper adds getTPS to the server; the 1.8 API here does not have it. */
+    public abstract static class PaperServer implements Server {
+        public abstract double[] getTPS();
+    }
+
+    @Test
+    public void fallsBackToChatAndDefaultTpsWithoutNms() {
+        NmsAdapter adapter = new NmsAdapter(mock(Server.class));
+        assertEquals("chat", adapter.getActionBarMode());
+        assertEquals(20.0, adapter.getTps());
+
+        Player player = mock(Player.class);
+        adapter.sendActionBar(player, "&6In Queue");
+        verify(player).sendMessage("\u00a78[\u00a76Queue\u00a78] &6In Queue");
+    }
+
+    @Test
+    public void readsPaperTpsThroughTheResolvedHandle() {
+        PaperServer server = mock(PaperServer.class);
+        when(server.getTPS()).thenReturn(new double[] {19.5, 19.9, 20.0}, new double[] {18.0, 19.0, 20.0});
+        NmsAdapter adapter = new NmsAdapter(server);
+        assertEquals(19.5, adapter.getTps());
+        assertEquals(18.0, adapter.getTps());
+    }
+}
@@ -0,0 +1,77 @@
+package com.deyo.rbw.utils;
+
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OnlinePlayerIndexTest {
+
+    private static Player player(String name) {
+        Player player = mock(Player.class);
+        when(player.getName()).thenReturn(name);
+        return player;
+    }
+
+    @Test
+    public void looksUpNamesInAnyCaseAndKeepsSnapshotsStable() {
+        OnlinePlayerIndex index = new OnlinePlayerIndex();
+        Player steve = player("Steve");
+        index.add(steve);
+        index.add(player("Alex"));
+        Map<String, Player> before = index.snapshot();
+
+        assertSame(steve, index.get("sTEVE"));
+        assertTrue(index.isOnline("alex"));
+        assertFalse(index.isOnline("Herobrine"));
+        assertNull(index.get(null));
+
+        index.remove(steve);
+        assertNull(index.get("Steve"));
+        assertEquals(1, index.size());
+        assertEquals(2, before.size(), "a snapshot does not see later changes");
+    }
+
+    @Test
+    public void lateQuitOfAnOldLoginKeepsTheNewOne() {
+        OnlinePlayerIndex index = new OnlinePlayerIndex();
+        Player first = player("Steve");
+        Player second = player("Steve");
+        index.add(first);
+        index.add(second);
+        index.remove(first);
+        assertSame(second, index.get("steve"));
+    }
+
+    @Test
+    public void keepsTheAdminsApart() {
+        OnlinePlayerIndex index = new OnlinePlayerIndex();
+        Player admin = player("Admin");
+        when(admin.hasPermission(OnlinePlayerIndex.ADMIN_PERMISSION)).thenReturn(true);
+        Player op = player("Op");
+        when(op.isOp()).thenReturn(true);
+        Player steve = player("Steve");
+        index.add(admin);
+        index.add(op);
+        index.add(steve);
+        assertEquals(2, index.admins().size());
+
+        // Promoted without rejoining
+        when(steve.hasPermission(OnlinePlayerIndex.ADMIN_PERMISSION)).thenReturn(true);
+        assertEquals(2, index.admins().size());
+        index.refreshAdmins();
+        assertTrue(index.admins().contains(steve));
+
+        index.remove(admin);
+        assertFalse(index.admins().contains(admin));
+        assertEquals(2, index.admins().size());
+    }
+}
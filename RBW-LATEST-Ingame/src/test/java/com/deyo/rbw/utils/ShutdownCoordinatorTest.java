@@ -0,0 +1,58 @@
+package com.deyo.rbw.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShutdownCoordinatorTest {
+
+    private static final Logger LOGGER = Logger.getLogger("ShutdownCoordinatorTest");
+
+    @Test
+    public void stepsShareOneDeadlineAndAllRun() {
+        List<String> ran = new ArrayList<>();
+        List<Long> given = new ArrayList<>();
+        boolean finished = new ShutdownCoordinator(LOGGER, 200L)
+                .step("intake", () -> ran.add("intake"))
+                .step("slow", remaining -> {
+                    ran.add("slow");
+                    given.add(remaining);
+                    Thread.sleep(remaining + 20);
+                    return false;
+                })
+                .step("broken", remaining -> {
+                    ran.add("broken");
+                    throw new IllegalStateException("boom");
+                })
+                .step("close", remaining -> {
+                    ran.add("close");
+                    given.add(remaining);
+                    return true;
+                })
+                .run();
+
+        assertFalse(finished);
+        assertEquals(Arrays.asList("intake", "slow", "broken", "close"), ran, "every step runs, in order");
+        assertTrue(given.get(0) > 0 && given.get(0) <= 200, "first waiting step gets what is left: " + given);
+        assertEquals(0L, given.get(1), "steps after the deadline get no time to wait");
+    }
+
+    @Test
+    public void quickShutdownFinishesCleanly() {
+        assertTrue(new ShutdownCoordinator(LOGGER, 1000L)
+                .step("a", () -> { })
+                .step("b", remaining -> remaining > 0)
+                .run());
+        assertThrows(IllegalArgumentException.class, () -> new ShutdownCoordinator(LOGGER, 1000L)
+                .step("a", () -> { })
+                .step("a", () -> { }));
+    }
+}
@@ -0,0 +1,96 @@
+package com.deyo.rbw.utils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+public class StartupOrchestratorTest {
+
+    private MockedStatic<Bukkit> bukkit;
+    private Plugin plugin;
+
+    @BeforeEach
+    public void setUp() {
+        BukkitScheduler scheduler = mock(BukkitScheduler.class);
+        when(scheduler.runTask(any(Plugin.class), any(Runnable.class))).thenAnswer(inv -> {
+            inv.<Runnable>getArgument(1).run();
+            return null;
+        });
+        when(scheduler.runTaskAsynchronously(any(Plugin.class), any(Runnable.class))).thenAnswer(inv -> {
+            inv.<Runnable>getArgument(1).run();
+            return null;
+        });
+        bukkit = mockStatic(Bukkit.class);
+        bukkit.when(Bukkit::getScheduler).thenReturn(scheduler);
+        plugin = mock(Plugin.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("StartupOrchestratorTest"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bukkit.close();
+    }
+
+    @Test
+    public void completesOnlyAfterAwaitedStagesAndTheirDependencies() {
+        List<String> ran = new ArrayList<>();
+        CompletableFuture<Integer> arenas = new CompletableFuture<>();
+        StartupOrchestrator startup = new StartupOrchestrator(plugin)
+                .stage("websocket", false, () -> ran.add("websocket"))
+                .stage("map-manager", false, () -> ran.add("map-manager"))
+                .awaitStage("arenas", true, () -> {
+                    ran.add("arenas");
+                    return arenas;
+                }, "map-manager")
+                .stage("after-arenas", false, () -> ran.add("after-arenas"), "arenas", "websocket");
+
+        CompletableFuture<Void> done = startup.start();
+        assertEquals(Arrays.asList("websocket", "map-manager", "arenas"), ran);
+        assertFalse(startup.isComplete(), "arenas are not loaded yet");
+        assertEquals(-1, startup.getTotalMillis());
+
+        arenas.complete(3);
+        assertTrue(done.isDone());
+        assertTrue(startup.isComplete());
+        assertEquals("after-arenas", ran.get(3));
+        assertEquals(Arrays.asList("websocket", "map-manager", "arenas", "after-arenas"),
+                new ArrayList<>(startup.getStageMillis().keySet()));
+        assertTrue(startup.getTotalMillis() >= 0);
+    }
+
+    @Test
+    public void aFailedStageSkipsItsDependents() {
+        List<String> ran = new ArrayList<>();
+        StartupOrchestrator startup = new StartupOrchestrator(plugin)
+                .stage("map-manager", false, () -> {
+                    throw new IllegalStateException("no config");
+                })
+                .stage("websocket", false, () -> ran.add("websocket"))
+                .stage("arenas", true, () -> ran.add("arenas"), "map-manager");
+
+        startup.start();
+        assertEquals(Arrays.asList("websocket"), ran);
+        assertFalse(startup.isComplete());
+        assertThrows(IllegalArgumentException.class,
+                () -> new StartupOrchestrator(plugin).stage("arenas", true, () -> { }, "map-manager"));
+    }
+}